@@ -20,6 +20,7 @@ import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
 import org.eclipse.mylyn.docs.epub.core.EPUB;
 import org.eclipse.mylyn.docs.epub.core.OPSPublication;
+import org.eclipse.mylyn.docs.epub.core.PackingPolicy;
 import org.eclipse.mylyn.docs.epub.opf.Role;
 import org.eclipse.mylyn.internal.docs.epub.core.EclipseTocImporter;
 
@@ -43,6 +44,10 @@ public class EpubTask extends Task {
 
 	private File epubFile;
 
+	private boolean incremental;
+
+	private final PackingPolicy packingPolicy = new PackingPolicy();
+
 	private AntLogger logger;
 
 	public EpubTask() {
@@ -225,6 +230,8 @@ public class EpubTask extends Task {
 		}
 		try {
 			EPUB epub = new EPUB(logger);
+			epub.setIncremental(incremental);
+			epub.setPackingPolicy(packingPolicy);
 			epub.add(oebps);
 			if (workingFolder == null) {
 				epub.pack(epubFile);
@@ -248,6 +255,13 @@ public class EpubTask extends Task {
 		oebps.setIdentifierId(identifierId);
 	}
 
+	/**
+	 * @ant.not-required The compression level, from 0 to 9, of content that is not already compressed.
+	 */
+	public void setCompressionLevel(int level) {
+		packingPolicy.setDefaultLevel(level);
+	}
+
 	/**
 	 * @ant.not-required Automatically add referenced resources.
 	 */
@@ -255,6 +269,20 @@ public class EpubTask extends Task {
 		oebps.setIncludeReferencedResources(automatic);
 	}
 
+	/**
+	 * @ant.not-required Only repack content that has changed since the EPUB was last assembled.
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	/**
+	 * @ant.not-required The number of threads used to process the publication contents, the default is 1.
+	 */
+	public void setThreads(int threads) {
+		oebps.setThreads(threads);
+	}
+
 	public void setWorkingFolder(File workingFolder) {
 		this.workingFolder = workingFolder;
 	}
@@ -11,21 +11,26 @@
  *******************************************************************************/
 package org.eclipse.mylyn.docs.epub.core;
 
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
@@ -42,7 +47,10 @@ import org.eclipse.mylyn.docs.epub.ocf.RootFile;
 import org.eclipse.mylyn.docs.epub.ocf.RootFiles;
 import org.eclipse.mylyn.docs.epub.ocf.util.OCFResourceImpl;
 import org.eclipse.mylyn.internal.docs.epub.core.EPUBFileUtil;
+import org.eclipse.mylyn.internal.docs.epub.core.IncrementalArchive;
+import org.eclipse.mylyn.internal.docs.epub.core.SAXParserPool;
 import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.ext.DefaultHandler2;
 
@@ -63,12 +71,16 @@ import org.xml.sax.ext.DefaultHandler2;
  * This will create a new EPUB instance and an OPS (which is the typical content of an EPUB) with one chapter. The OPS
  * will have one chapter with contents from <b>chapter.xhtml</b> and the final result is an EPUB named <b>book.epub</b>.
  * </p>
+ * <p>
+ * An existing EPUB can be examined without extracting it by using {@link #read(File)}. The EPUB must then be closed
+ * when no longer in use.
+ * </p>
  *
  * @author Torkild U. Resheim
  * @see http://www.idpf.org/doc_library/epub/OPS_2.0.1_draft.htm
  * @see http://www.idpf.org/epub/301/spec/epub-publications.html
  */
-public class EPUB {
+public class EPUB implements Closeable {
 
 	/**
 	 * @since 3.0
@@ -118,6 +130,15 @@ public class EPUB {
 	/** The container holding all the publications */
 	private Container ocfContainer;
 
+	/** The archive publications are read from when using {@link #read(File)} */
+	private ZipFile archive;
+
+	/** Whether or not to reuse unchanged content of the previously assembled EPUB */
+	private boolean incremental;
+
+	/** The policy determining how content is compressed */
+	private PackingPolicy packingPolicy = new PackingPolicy();
+
 	/**
 	 * Creates a new <b>empty</b> instance of an EPUB. Use {@link #add(Publication)} and {@link #pack(File)} to add
 	 * publications and ready the EPUB for distribution.
@@ -242,6 +263,59 @@ public class EPUB {
 		return publications;
 	}
 
+	/**
+	 * Returns whether or not the EPUB is assembled incrementally.
+	 *
+	 * @return <code>true</code> if unchanged content of the previous EPUB is reused
+	 * @see #setIncremental(boolean)
+	 * @since 3.2
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * Specifies whether or not the EPUB is to be assembled incrementally by {@link #pack(File)}. When assembling
+	 * incrementally an existing EPUB file will be replaced rather than causing an error, and the archive entries of
+	 * content files that have not changed since the EPUB was last assembled are taken from it. In order to determine
+	 * which files have changed, a digest of each file is kept in a file next to the EPUB. The OPF, the table of
+	 * contents and other generated content are always written.
+	 *
+	 * @param incremental
+	 *            whether or not to reuse unchanged content of the previous EPUB
+	 * @since 3.2
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Returns the policy determining how content is compressed when the EPUB is assembled.
+	 *
+	 * @return the packing policy
+	 * @see #setPackingPolicy(PackingPolicy)
+	 * @since 3.2
+	 */
+	public PackingPolicy getPackingPolicy() {
+		return packingPolicy;
+	}
+
+	/**
+	 * Specifies the policy determining how content is compressed when the EPUB is assembled. By default content that
+	 * is already compressed, such as JPEG and PNG images, is stored while all other content is compressed.
+	 *
+	 * @param packingPolicy
+	 *            the packing policy
+	 * @see PackingPolicy
+	 * @since 3.2
+	 */
+	public void setPackingPolicy(PackingPolicy packingPolicy) {
+		if (packingPolicy == null) {
+			throw new IllegalArgumentException("A packing policy must be specified"); //$NON-NLS-1$
+		}
+		this.packingPolicy = packingPolicy;
+	}
+
 	/**
 	 * Use to check whether or not the specified file is in a supported format and can be opened as an EPUB. If it's not
 	 * an EPUB <code>false</code> will be returned. Note that this methods does not test the contents of the EPUB which
@@ -304,12 +378,10 @@ public class EPUB {
 	 *            the root file
 	 * @return the publication version
 	 */
-	private PublicationVersion readPublicationVersion(File rootFile) {
+	private PublicationVersion readPublicationVersion(InputSource rootFile) {
 		try {
-			SAXParserFactory factory = SAXParserFactory.newInstance();
 			VersionDetector vd = new VersionDetector();
-			SAXParser parser = factory.newSAXParser();
-			parser.parse(rootFile, vd);
+			SAXParserPool.parse(rootFile, vd);
 			if (vd.versionString == null) {
 				return PublicationVersion.UNKNOWN;
 			}
@@ -333,25 +405,127 @@ public class EPUB {
 	}
 
 	/**
-	 * Assembles the EPUB file using a temporary working folder. The folder will be deleted as soon as the assembly has
-	 * completed.
+	 * Assembles the EPUB file by writing the publications and their content straight into the archive. A temporary
+	 * working folder is used only for files generated during assembly, such as the table of contents, and will be
+	 * deleted as soon as the assembly has completed. Use {@link #pack(File, File)} to have the complete contents of
+	 * the EPUB written to a folder, for instance when debugging. When assembling incrementally, unchanged content is
+	 * taken from the existing EPUB file.
 	 *
 	 * @param epubFile
 	 *            the target EPUB file
 	 * @throws Exception
+	 * @see #setIncremental(boolean)
 	 */
 	public File pack(File epubFile) throws Exception {
 		File workingFolder = File.createTempFile("epub_", null); //$NON-NLS-1$
 		if (workingFolder.delete() && workingFolder.mkdirs()) {
-			pack(epubFile, workingFolder);
+			try {
+				if (incremental) {
+					packIncremental(epubFile, workingFolder);
+				} else {
+					// Digests of a previous incremental assembly do not describe the new EPUB
+					Files.deleteIfExists(IncrementalArchive.getDigestFile(epubFile).toPath());
+					packStreaming(epubFile, epubFile, workingFolder, null);
+				}
+			} finally {
+				deleteFolder(workingFolder);
+			}
 		}
-		deleteFolder(workingFolder);
 		return workingFolder;
 	}
 
 	/**
-	 * Assembles the EPUB file using the specified working folder. The contents of the working folder will <b>not</b> be
-	 * removed when the operation has completed. If the temporary data is not interesting, use {@link #pack(File)}
+	 * Assembles the EPUB file reusing unchanged content of the existing EPUB file, if any. Content that is not reused
+	 * is written to a staging archive in the working folder. The new EPUB is then assembled from the compressed entries
+	 * of the staging archive and the existing EPUB into a temporary file, which replaces the existing one.
+	 *
+	 * @param epubFile
+	 *            the target EPUB file
+	 * @param workingFolder
+	 *            the folder for files generated during assembly
+	 * @throws Exception
+	 */
+	private void packIncremental(File epubFile, File workingFolder) throws Exception {
+		File folder = epubFile.getAbsoluteFile().getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			throw new IOException("Could not create folder " + folder.getAbsolutePath()); //$NON-NLS-1$
+		}
+		File target = File.createTempFile("epub_", null, folder); //$NON-NLS-1$
+		target.delete();
+		File staging = new File(workingFolder, "staging.zip"); //$NON-NLS-1$
+		IncrementalArchive previous = new IncrementalArchive(epubFile);
+		try {
+			packStreaming(epubFile, staging, workingFolder, previous);
+			previous.finish(staging, target);
+		} catch (Exception e) {
+			target.delete();
+			throw e;
+		} finally {
+			previous.close();
+		}
+		Files.move(target.toPath(), epubFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		previous.save();
+		log(MessageFormat.format(Messages.getString("EPUB.4"), previous.getReusedCount()), Severity.VERBOSE); //$NON-NLS-1$
+	}
+
+	/**
+	 * Assembles the EPUB file without copying content into a working folder. If assembly fails the partially written
+	 * EPUB file is deleted.
+	 *
+	 * @param epubFile
+	 *            the target EPUB file
+	 * @param target
+	 *            the file to write the EPUB to, which is the staging archive when assembling incrementally
+	 * @param workingFolder
+	 *            the folder for files generated during assembly
+	 * @param previous
+	 *            the previously assembled EPUB or <code>null</code>
+	 * @throws Exception
+	 */
+	private void packStreaming(File epubFile, File target, File workingFolder, IncrementalArchive previous)
+			throws Exception {
+		if (ocfContainer.getRootfiles().getRootfiles().isEmpty()) {
+			throw new ValidationException("EPUB does not contain any publications"); //$NON-NLS-1$
+		}
+		if (target.exists()) {
+			throw new IOException("A file already exists at " + target.getAbsolutePath()); //$NON-NLS-1$
+		}
+		EList<RootFile> publications = ocfContainer.getRootfiles().getRootfiles();
+		log(MessageFormat.format(Messages.getString("EPUB.2"), epubFile.getAbsolutePath()), Severity.INFO); //$NON-NLS-1$
+		ZipOutputStream out = previous == null
+				? new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(target)))
+				: previous.createOutputStream(target);
+		boolean assembled = false;
+		try {
+			EPUBFileUtil.writeEPUBHeader(out);
+			writeOCF(out);
+			for (RootFile rootFile : publications) {
+				Object publication = rootFile.getPublication();
+				String entryName = rootFile.getFullPath().replace(File.separatorChar, '/');
+				if (publication instanceof Publication) {
+					File root = new File(workingFolder.getAbsolutePath() + File.separator + rootFile.getFullPath());
+					((Publication) publication).pack(root, out, entryName, packingPolicy, previous);
+				} else if (publication instanceof File) {
+					EPUBFileUtil.zip(out, entryName, (File) publication, packingPolicy.getLevel(MIMETYPE_OEBPS));
+				} else {
+					throw new IllegalArgumentException("Unknown publication type in root file"); //$NON-NLS-1$
+				}
+			}
+			assembled = true;
+		} finally {
+			out.close();
+			if (!assembled) {
+				target.delete();
+			}
+		}
+		log(MessageFormat.format(Messages.getString("EPUB.3"), //$NON-NLS-1$
+				publications.size()), Severity.INFO);
+	}
+
+	/**
+	 * Assembles the EPUB file using the specified working folder. All contents of the EPUB are first written to the
+	 * working folder, which is then compressed into the EPUB file. The contents of the working folder will <b>not</b>
+	 * be removed when the operation has completed. If the temporary data is not interesting, use {@link #pack(File)}
 	 * instead.
 	 *
 	 * @param epubFile
@@ -367,6 +541,7 @@ public class EPUB {
 		}
 		rootFolder.mkdirs();
 		if (rootFolder.isDirectory() || rootFolder.mkdirs()) {
+			Files.deleteIfExists(IncrementalArchive.getDigestFile(epubFile).toPath());
 			writeOCF(rootFolder);
 			EList<RootFile> publications = ocfContainer.getRootfiles().getRootfiles();
 			log(MessageFormat.format(Messages.getString("EPUB.2"), epubFile.getAbsolutePath()), Severity.INFO); //$NON-NLS-1$
@@ -383,7 +558,7 @@ public class EPUB {
 					}
 				}
 			}
-			EPUBFileUtil.zip(epubFile, rootFolder);
+			EPUBFileUtil.zip(epubFile, rootFolder, packingPolicy);
 			log(MessageFormat.format(Messages.getString("EPUB.3"), //$NON-NLS-1$
 					publications.size()), Severity.INFO);
 		} else {
@@ -415,6 +590,104 @@ public class EPUB {
 		ocfContainer = (Container) resource.getContents().get(0);
 	}
 
+	/**
+	 * Reads the <i>Open Container Format (OCF)</i> formatted list of contents directly from the EPUB archive.
+	 *
+	 * @param archive
+	 *            the EPUB archive
+	 * @throws IOException
+	 * @see {@link #read(File)}
+	 */
+	private void readOCF(ZipFile archive) throws IOException {
+		String entryName = "META-INF/container.xml"; //$NON-NLS-1$
+		ResourceSet resourceSet = new ResourceSetImpl();
+		Resource resource = resourceSet.createResource(EPUBFileUtil.getURI(archive, entryName));
+		InputStream in = EPUBFileUtil.getInputStream(archive, entryName);
+		try {
+			resource.load(in, null);
+		} finally {
+			in.close();
+		}
+		ocfContainer = (Container) resource.getContents().get(0);
+	}
+
+	/**
+	 * Populates the data model with the content of the given EPUB file without extracting it. The OCF container, the
+	 * root files and the tables of contents are read directly from the archive, while the content of items is only read
+	 * when requested through {@link Publication#getInputStream(org.eclipse.mylyn.docs.epub.opf.Item)}. This is much
+	 * cheaper than {@link #unpack(File)} when only the metadata or the table of contents is of interest.
+	 * <p>
+	 * The EPUB file is kept open until {@link #close()} is called. Publications that have been read this way cannot be
+	 * packed. As with unpacking, the contents of the data model starting with the OCF container will be replaced and
+	 * publications in unsupported versions will not be added to the data model.
+	 * </p>
+	 *
+	 * @param epubFile
+	 *            the EPUB file to read
+	 * @throws Exception
+	 * @see {@link #getOPSPublications()} to get a list of all contained OPS publications
+	 * @since 3.2
+	 */
+	public void read(File epubFile) throws Exception {
+		if (!isEPUB(epubFile)) {
+			throw new IllegalArgumentException(MessageFormat.format("{0} is not an EPUB file", epubFile)); //$NON-NLS-1$
+		}
+		close();
+		archive = new ZipFile(epubFile);
+		try {
+			readOCF(archive);
+			EList<RootFile> rootFiles = ocfContainer.getRootfiles().getRootfiles();
+			for (RootFile rootFile : rootFiles) {
+				if (rootFile.getMediaType().equals(MIMETYPE_OEBPS)) {
+					String fullPath = rootFile.getFullPath();
+					PublicationVersion version;
+					InputStream in = EPUBFileUtil.getInputStream(archive, fullPath);
+					try {
+						version = readPublicationVersion(new InputSource(in));
+					} finally {
+						in.close();
+					}
+					switch (version) {
+					case V2:
+						Publication ops2 = Publication.getVersion2Instance(logger);
+						ops2.read(archive, fullPath);
+						rootFile.setPublication(ops2);
+						break;
+					case V3:
+						Publication ops3 = Publication.getVersion3Instance();
+						ops3.read(archive, fullPath);
+						rootFile.setPublication(ops3);
+						break;
+					default:
+						log(MessageFormat.format("Unsupported OEBPS version in root file {0}", fullPath), //$NON-NLS-1$
+								Severity.WARNING);
+						break;
+					}
+				}
+			}
+		} catch (Exception e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes the EPUB file that has been opened by {@link #read(File)}. Content of the publications can no longer be
+	 * read after this. Does nothing if no EPUB file is open.
+	 *
+	 * @throws IOException
+	 * @since 3.2
+	 */
+	public void close() throws IOException {
+		if (archive != null) {
+			try {
+				archive.close();
+			} finally {
+				archive = null;
+			}
+		}
+	}
+
 	/**
 	 * Registers a new resource factory for OCF data structures. This is normally done through Eclipse extension points
 	 * but we also need to be able to create this factory without the Eclipse runtime.
@@ -509,7 +782,7 @@ public class EPUB {
 		for (RootFile rootFile : rootFiles) {
 			if (rootFile.getMediaType().equals(MIMETYPE_OEBPS)) {
 				File root = new File(rootFolder.getAbsolutePath() + File.separator + rootFile.getFullPath());
-				switch (readPublicationVersion(root)) {
+				switch (readPublicationVersion(new InputSource(root.toURI().toString()))) {
 				case V2:
 					Publication ops2 = Publication.getVersion2Instance(logger);
 					ops2.unpack(root);
@@ -550,4 +823,21 @@ public class EPUB {
 			resource.save(null);
 		}
 	}
+
+	/**
+	 * Writes the required <b>container.xml</b> into the META-INF folder of the EPUB archive. This is part of the
+	 * packing procedure.
+	 *
+	 * @param out
+	 *            the EPUB archive
+	 * @see #writeOCF(File)
+	 */
+	private void writeOCF(ZipOutputStream out) throws IOException {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		Resource resource = resourceSet.createResource(URI.createURI("META-INF/container.xml")); //$NON-NLS-1$
+		resource.getContents().add(ocfContainer);
+		out.putNextEntry(new ZipEntry("META-INF/container.xml")); //$NON-NLS-1$
+		resource.save(out, null);
+		out.closeEntry();
+	}
 }
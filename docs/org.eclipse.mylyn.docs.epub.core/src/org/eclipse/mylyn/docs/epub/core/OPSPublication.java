@@ -12,9 +12,8 @@
 package org.eclipse.mylyn.docs.epub.core;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -28,6 +27,7 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.util.FeatureMapUtil;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
 import org.eclipse.emf.ecore.xmi.XMLResource;
@@ -38,6 +38,7 @@ import org.eclipse.mylyn.docs.epub.ncx.Meta;
 import org.eclipse.mylyn.docs.epub.ncx.NCXFactory;
 import org.eclipse.mylyn.docs.epub.ncx.NCXPackage;
 import org.eclipse.mylyn.docs.epub.ncx.NavMap;
+import org.eclipse.mylyn.docs.epub.ncx.NavPoint;
 import org.eclipse.mylyn.docs.epub.ncx.Ncx;
 import org.eclipse.mylyn.docs.epub.ncx.Text;
 import org.eclipse.mylyn.docs.epub.ncx.util.NCXResourceFactoryImpl;
@@ -50,7 +51,9 @@ import org.eclipse.mylyn.docs.epub.opf.Metadata;
 import org.eclipse.mylyn.docs.epub.opf.OPFFactory;
 import org.eclipse.mylyn.docs.epub.opf.Spine;
 import org.eclipse.mylyn.internal.docs.epub.core.EPUBXMLHelperImp;
+import org.eclipse.mylyn.internal.docs.epub.core.CompositeXHTMLScanner;
 import org.eclipse.mylyn.internal.docs.epub.core.OPSValidator;
+import org.eclipse.mylyn.internal.docs.epub.core.OPSValidator.Mode;
 import org.eclipse.mylyn.internal.docs.epub.core.TOCGenerator;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -82,6 +85,9 @@ public class OPSPublication extends Publication {
 	/** The table of contents */
 	private Ncx ncxTOC;
 
+	/** Navigation points to use for items instead of the headers found in the content */
+	private final Map<Item, List<NavPoint>> navigationPoints = new HashMap<Item, List<NavPoint>>();
+
 	/**
 	 * Creates a new EPUB.
 	 *
@@ -144,29 +150,46 @@ public class OPSPublication extends Publication {
 		int playOrder = 0;
 		// Iterate over the spine
 		EList<Itemref> spineItems = getSpine().getSpineItems();
-		EList<Item> manifestItems = opfPackage.getManifest().getItems();
 		for (Itemref itemref : spineItems) {
-			Item referencedItem = null;
-			String id = itemref.getIdref();
 			// Find the manifest item that is referenced
-			for (Item item : manifestItems) {
-				if (item.getId().equals(id)) {
-					referencedItem = item;
-					break;
-				}
-			}
+			Item referencedItem = getItemById(itemref.getIdref());
 			if (referencedItem != null && !referencedItem.isNoToc()
 					&& referencedItem.getMedia_type().equals(MIMETYPE_XHTML)) {
-				File file = new File(referencedItem.getFile());
-				FileInputStream fis = new FileInputStream(file);
 				log(MessageFormat.format(Messages.getString("OPS2Publication.1"), referencedItem.getHref()), //$NON-NLS-1$
 						Severity.VERBOSE, indent);
-				playOrder = TOCGenerator.parse(new InputSource(fis), referencedItem.getHref(), ncxTOC, playOrder);
+				// Use the headers collected when the content was scanned if possible
+				List<NavPoint> navPoints = navigationPoints.get(referencedItem);
+				TOCGenerator tocGenerator = getContentScanner(referencedItem, TOCGenerator.class);
+				if (navPoints != null) {
+					playOrder = TOCGenerator.append(EcoreUtil.copyAll(navPoints), ncxTOC, playOrder);
+				} else if (tocGenerator != null) {
+					playOrder = tocGenerator.appendTo(ncxTOC, playOrder);
+				} else {
+					InputStream in = getInputStream(referencedItem);
+					try {
+						playOrder = TOCGenerator.parse(new InputSource(in), referencedItem.getHref(), ncxTOC,
+								playOrder);
+					} finally {
+						in.close();
+					}
+				}
 			}
 		}
 		indent--;
 	}
 
+	/**
+	 * Adds an {@link OPSValidator} and, when the table of contents is to be generated, a {@link TOCGenerator} so that
+	 * XHTML items are only parsed once when packing.
+	 */
+	@Override
+	void addContentScanners(Item item, CompositeXHTMLScanner scanner) {
+		scanner.add(new OPSValidator(item.getHref(), Mode.WARN));
+		if (opfPackage.isGenerateTableOfContents() && !item.isNoToc() && !navigationPoints.containsKey(item)) {
+			scanner.add(new TOCGenerator(item.getHref()));
+		}
+	}
+
 	@Override
 	public Object getTableOfContents() {
 		return ncxTOC;
@@ -196,6 +219,14 @@ public class OPSPublication extends Publication {
 		ncxTOC = (Ncx) resource.getContents().get(0);
 	}
 
+	@Override
+	protected void readTableOfContents(InputStream in, URI uri) throws IOException {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		Resource resource = resourceSet.createResource(uri);
+		resource.load(in, null);
+		ncxTOC = (Ncx) resource.getContents().get(0);
+	}
+
 	/**
 	 * Registers a new resource factory for NCX data structures. This is normally done through Eclipse extension points
 	 * but we also need to be able to create this factory without the Eclipse runtime.
@@ -260,6 +291,27 @@ public class OPSPublication extends Publication {
 		opfPackage.setGenerateCoverHTML(true);
 	}
 
+	/**
+	 * Specifies the navigation points to add to the generated table of contents for the given item, rather than those
+	 * found by parsing the headers of the item content. This is useful when the structure of the content is already
+	 * known, as the item does not have to be parsed for the purpose. An empty list will exclude the item from the table
+	 * of contents. Play order and identifiers of the navigation points are assigned when the table of contents is
+	 * generated.
+	 *
+	 * @param item
+	 *            the manifest item
+	 * @param navPoints
+	 *            the navigation points of the item, or <code>null</code> to parse the item content
+	 * @since 3.2
+	 */
+	public void setNavigationPoints(Item item, List<NavPoint> navPoints) {
+		if (navPoints == null) {
+			navigationPoints.remove(item);
+		} else {
+			navigationPoints.put(item, navPoints);
+		}
+	}
+
 	@Override
 	public void setTableOfContents(File ncxFile) {
 		// Add the file to the publication and make sure we use the table of
@@ -334,7 +386,7 @@ public class OPSPublication extends Publication {
 			// that is in the model because we're repacking an EPUB. We'll try
 			// to make it easier on the user by figuring out the path to the
 			// file and fail only if the file does not exist.
-			if (item.getFile() == null) {
+			if (item.getFile() == null && !isInMemory(item)) {
 				File rootFolder = getRootFolder();
 				String href = item.getHref();
 				File file = new File(rootFolder, href);
@@ -362,9 +414,17 @@ public class OPSPublication extends Publication {
 			}
 			// Validate the XHTML items to see if they contain illegal attributes and elements
 			if (item.getMedia_type().equals(MIMETYPE_XHTML)) {
-				File file = new File(item.getFile());
-				FileReader fr = new FileReader(file);
-				messages.addAll(OPSValidator.validate(new InputSource(fr), item.getHref()));
+				OPSValidator validator = getContentScanner(item, OPSValidator.class);
+				if (validator != null) {
+					messages.addAll(validator.getMessages());
+				} else {
+					InputStream in = getInputStream(item);
+					try {
+						messages.addAll(OPSValidator.validate(new InputSource(in), item.getHref()));
+					} finally {
+						in.close();
+					}
+				}
 			}
 		}
 		return messages;
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.docs.epub.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * This type determines how the content of an EPUB is compressed when assembled. The compression level is specified per
+ * media type, using the levels of {@link Deflater}. Content with a level of {@link Deflater#NO_COMPRESSION} is stored
+ * without compression. By default content of media types that are already compressed, such as JPEG and PNG images,
+ * MP4 video and WOFF fonts, is stored, as compressing it again costs time while gaining next to nothing. All other
+ * content is compressed using the default level.
+ *
+ * @author agent
+ * @see EPUB#setPackingPolicy(PackingPolicy)
+ * @since 3.2
+ */
+public class PackingPolicy {
+
+	/** Media types of content that is compressed by nature */
+	@SuppressWarnings("nls")
+	private static final String[] COMPRESSED_MEDIA_TYPES = new String[] { "image/jpeg", "image/png", "image/gif",
+			"audio/mpeg", "audio/mp4", "video/mp4", "video/webm", "font/woff", "font/woff2", "application/font-woff",
+			"application/x-font-woff", "application/zip", "application/epub+zip" };
+
+	private final Map<String, Integer> levels = new HashMap<String, Integer>();
+
+	private int defaultLevel = Deflater.DEFAULT_COMPRESSION;
+
+	/**
+	 * Creates a new policy storing content of compressed media types.
+	 */
+	public PackingPolicy() {
+		for (String mediaType : COMPRESSED_MEDIA_TYPES) {
+			levels.put(mediaType, Deflater.NO_COMPRESSION);
+		}
+	}
+
+	/**
+	 * Returns the compression level used for content of the given media type.
+	 *
+	 * @param mediaType
+	 *            the media type or <code>null</code>
+	 * @return the compression level
+	 */
+	public int getLevel(String mediaType) {
+		Integer level = mediaType == null ? null : levels.get(mediaType);
+		return level == null ? defaultLevel : level;
+	}
+
+	/**
+	 * Specifies the compression level used for content of the given media type. A level of
+	 * {@link Deflater#NO_COMPRESSION} will store the content without compression.
+	 *
+	 * @param mediaType
+	 *            the media type
+	 * @param level
+	 *            the compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION} or
+	 *            {@link Deflater#DEFAULT_COMPRESSION}
+	 */
+	public void setLevel(String mediaType, int level) {
+		checkLevel(level);
+		levels.put(mediaType, level);
+	}
+
+	/**
+	 * Specifies the compression level used for content of media types that have not been given a level.
+	 *
+	 * @param level
+	 *            the compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION} or
+	 *            {@link Deflater#DEFAULT_COMPRESSION}
+	 */
+	public void setDefaultLevel(int level) {
+		checkLevel(level);
+		defaultLevel = level;
+	}
+
+	private static void checkLevel(int level) {
+		if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+				&& level != Deflater.DEFAULT_COMPRESSION) {
+			throw new IllegalArgumentException("Illegal compression level " + level); //$NON-NLS-1$
+		}
+	}
+}
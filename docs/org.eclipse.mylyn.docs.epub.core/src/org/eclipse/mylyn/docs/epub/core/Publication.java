@@ -11,19 +11,38 @@
  *******************************************************************************/
 package org.eclipse.mylyn.docs.epub.core;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -70,10 +89,15 @@ import org.eclipse.mylyn.docs.epub.opf.Spine;
 import org.eclipse.mylyn.docs.epub.opf.Type;
 import org.eclipse.mylyn.docs.epub.opf.util.OPFResourceImpl;
 import org.eclipse.mylyn.docs.epub.opf.util.OPFValidator;
+import org.eclipse.mylyn.internal.docs.epub.core.CompositeXHTMLScanner;
 import org.eclipse.mylyn.internal.docs.epub.core.EPUBFileUtil;
 import org.eclipse.mylyn.internal.docs.epub.core.EPUBXMLHelperImp;
+import org.eclipse.mylyn.internal.docs.epub.core.IncrementalArchive;
+import org.eclipse.mylyn.internal.docs.epub.core.ManifestIndex;
 import org.eclipse.mylyn.internal.docs.epub.core.ReferenceScanner;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * This type represents an <i>EPUB Publication</i> which holds publication metadata along with references to content. In
@@ -162,6 +186,21 @@ public abstract class Publication {
 	/** The root folder TODO: Move to opfPackage */
 	private File rootFolder;
 
+	/** Content of items that is kept in memory rather than in a file */
+	private final Map<Item, byte[]> contents = new HashMap<Item, byte[]>();
+
+	/** The EPUB archive the publication has been read from without unpacking it */
+	private ZipFile archive;
+
+	/** The path of the folder holding the root file within the archive, including a trailing separator */
+	private String archiveFolder;
+
+	/** Scanners that have examined the XHTML items of the publication during the current assembly */
+	private final Map<Item, CompositeXHTMLScanner> contentScanners = new HashMap<Item, CompositeXHTMLScanner>();
+
+	/** The number of threads used to process the items of the publication when assembling it */
+	private int threads = 1;
+
 	protected Publication() {
 		opfPackage = OPFFactory.eINSTANCE.createPackage();
 		registerOPFResourceFactory();
@@ -574,23 +613,71 @@ public abstract class Publication {
 						+ ". Please specify the correct value"); //$NON-NLS-1$
 			}
 		}
+		item.setFile(file.getAbsolutePath());
+		String href = dest == null ? file.getName() : dest + '/' + file.getName();
+		return addItem(item, id, href, type, spine, linear, noToc);
+	}
+
+	/**
+	 * Adds a new item with the given content to the manifest. The content is kept in memory and written directly into
+	 * the publication when it is assembled, so the item does not need a file. If an identifier is not specified it
+	 * will automatically be assigned.
+	 * <p>
+	 * Resources referenced from XHTML content are only included if the source path of the item has been set, since
+	 * relative references are resolved against it.
+	 * </p>
+	 *
+	 * @param id
+	 *            identifier or <code>null</code>
+	 * @param lang
+	 *            the language of the item or <code>null</code>
+	 * @param href
+	 *            the path of the item relative to the root file
+	 * @param content
+	 *            the content of the item
+	 * @param type
+	 *            MIME file type
+	 * @param spine
+	 *            whether or not to add the item to the spine
+	 * @param linear
+	 *            whether or not the item is part of the reading order
+	 * @param noToc
+	 *            whether or not to include in TOC when automatically generated
+	 * @return the new item
+	 * @see Item#setSourcePath(String)
+	 * @since 3.2
+	 */
+	public Item addItem(String id, Locale lang, String href, byte[] content, String type, boolean spine,
+			boolean linear, boolean noToc) {
+		if (href == null) {
+			throw new IllegalArgumentException("\"href\" must be specified"); //$NON-NLS-1$
+		}
+		if (content == null) {
+			throw new IllegalArgumentException("\"content\" must be specified"); //$NON-NLS-1$
+		}
+		if (type == null) {
+			throw new IllegalArgumentException("\"type\" must be specified"); //$NON-NLS-1$
+		}
+		Item item = OPFFactory.eINSTANCE.createItem();
+		contents.put(item, content);
+		return addItem(item, id, href, type, spine, linear, noToc);
+	}
+
+	private Item addItem(Item item, String id, String href, String type, boolean spine, boolean linear,
+			boolean noToc) {
 		// Assign the required identifier if none has been specified
 		if (id == null) {
 			String prefix = EMPTY_STRING;
 			if (!type.equals(MIMETYPE_XHTML)) {
 				prefix = (type.indexOf('/')) == -1 ? type : type.substring(0, type.indexOf('/')) + '-';
 			}
-			id = prefix + file.getName().substring(0, file.getName().lastIndexOf('.'));
+			String name = href.substring(href.lastIndexOf('/') + 1);
+			id = prefix + (name.lastIndexOf('.') == -1 ? name : name.substring(0, name.lastIndexOf('.')));
 		}
 		item.setId(id);
-		if (dest == null) {
-			item.setHref(file.getName());
-		} else {
-			item.setHref(dest + '/' + file.getName());
-		}
+		item.setHref(href);
 		item.setNoToc(noToc);
 		item.setMedia_type(type);
-		item.setFile(file.getAbsolutePath());
 		log(MessageFormat.format(Messages.getString("OPSPublication.8"), item.getHref(), item.getMedia_type()), //$NON-NLS-1$
 				Severity.VERBOSE, indent);
 		opfPackage.getManifest().getItems().add(item);
@@ -935,13 +1022,7 @@ public abstract class Publication {
 	 * @return the item or <code>null</code>.
 	 */
 	public Item getItemById(String id) {
-		EList<Item> items = opfPackage.getManifest().getItems();
-		for (Item item : items) {
-			if (item.getId().equals(id)) {
-				return item;
-			}
-		}
-		return null;
+		return ManifestIndex.getIndex(opfPackage.getManifest()).getItemById(id);
 	}
 
 	/**
@@ -954,16 +1035,10 @@ public abstract class Publication {
 	 * @since 3.1
 	 */
 	public Item removeItemById(String id) {
-		EList<Item> items = opfPackage.getManifest().getItems();
-		Item found = null;
-		for (Item item : items) {
-			if (item.getId().equals(id)) {
-				found = item;
-				break;
-			}
-		}
+		Item found = getItemById(id);
 		if (found != null) {
 			opfPackage.getManifest().getItems().remove(found);
+			contents.remove(found);
 		}
 		return found;
 	}
@@ -976,14 +1051,7 @@ public abstract class Publication {
 	 * @return a list of all items
 	 */
 	public List<Item> getItemsByMIMEType(String mimetype) {
-		ArrayList<Item> stylesheets = new ArrayList<Item>();
-		EList<Item> items = opfPackage.getManifest().getItems();
-		for (Item item : items) {
-			if (item.getMedia_type().equals(mimetype)) {
-				stylesheets.add(item);
-			}
-		}
-		return stylesheets;
+		return new ArrayList<Item>(ManifestIndex.getIndex(opfPackage.getManifest()).getItemsByMediaType(mimetype));
 	}
 
 	/**
@@ -1015,6 +1083,43 @@ public abstract class Publication {
 		return rootFolder;
 	}
 
+	/**
+	 * Returns whether or not the content of the given item is kept in memory rather than in a file.
+	 *
+	 * @param item
+	 *            the manifest item
+	 * @return <code>true</code> if the item has no file
+	 * @see #addItem(String, Locale, String, byte[], String, boolean, boolean, boolean)
+	 */
+	boolean isInMemory(Item item) {
+		return contents.containsKey(item);
+	}
+
+	/**
+	 * Opens the content of the given manifest item for reading. If the publication has been read directly from an
+	 * EPUB archive, the content is read from the archive entry of the item and nothing is extracted.
+	 *
+	 * @param item
+	 *            the manifest item
+	 * @return an input stream for the content of the item, which must be closed by the caller
+	 * @throws IOException
+	 * @see EPUB#read(File)
+	 * @since 3.2
+	 */
+	public InputStream getInputStream(Item item) throws IOException {
+		byte[] content = contents.get(item);
+		if (content != null) {
+			return new ByteArrayInputStream(content);
+		}
+		if (archive != null) {
+			return EPUBFileUtil.getInputStream(archive, archiveFolder + item.getHref());
+		}
+		if (item.getFile() != null) {
+			return new FileInputStream(item.getFile());
+		}
+		return new FileInputStream(new File(rootFolder, item.getHref()));
+	}
+
 	/**
 	 * Returns the publication spine.
 	 *
@@ -1048,6 +1153,150 @@ public abstract class Publication {
 	 */
 	protected abstract String getVersion();
 
+	/**
+	 * Adds scanners that should examine the content of the given XHTML item while the publication is assembled. All
+	 * scanners of an item are fed from a single parse of its content, so implementations should add a scanner here
+	 * rather than parsing the item again.
+	 *
+	 * @param item
+	 *            the XHTML item
+	 * @param scanner
+	 *            the scanner to add to
+	 * @see #getContentScanner(Item, Class)
+	 */
+	void addContentScanners(Item item, CompositeXHTMLScanner scanner) {
+		// No additional scanners by default
+	}
+
+	/**
+	 * Returns the scanner of the given type that has examined the content of the item during the current assembly.
+	 *
+	 * @param item
+	 *            the XHTML item
+	 * @param type
+	 *            the scanner type
+	 * @return the scanner or <code>null</code> if the item has not been scanned
+	 */
+	<T extends DefaultHandler> T getContentScanner(Item item, Class<T> type) {
+		CompositeXHTMLScanner scanner = contentScanners.get(item);
+		return scanner == null ? null : scanner.getScanner(type);
+	}
+
+	/**
+	 * Parses every XHTML item in the manifest once, passing the content on to all the scanners that need to examine it
+	 * while the publication is assembled.
+	 *
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 * @throws IOException
+	 * @see #addContentScanners(Item, CompositeXHTMLScanner)
+	 */
+	private void scanContents() throws ParserConfigurationException, SAXException, IOException {
+		contentScanners.clear();
+		boolean includeReferences = opfPackage.isIncludeReferencedResources();
+		List<Item> items = new ArrayList<Item>();
+		List<Callable<CompositeXHTMLScanner>> tasks = new ArrayList<Callable<CompositeXHTMLScanner>>();
+		for (final Item item : opfPackage.getManifest().getItems()) {
+			// Items of an unpacked publication may not have a file until validated
+			if (item.getMedia_type().equals(MIMETYPE_XHTML) && (item.getFile() != null || isInMemory(item))) {
+				final CompositeXHTMLScanner scanner = new CompositeXHTMLScanner(item.getHref());
+				if (includeReferences && !item.isGenerated() && hasSourcePath(item)) {
+					scanner.add(new ReferenceScanner(item));
+				}
+				addContentScanners(item, scanner);
+				if (!scanner.isEmpty()) {
+					items.add(item);
+					tasks.add(new Callable<CompositeXHTMLScanner>() {
+						public CompositeXHTMLScanner call() throws Exception {
+							InputStream in = getInputStream(item);
+							try {
+								scanner.parse(new InputSource(in));
+							} finally {
+								in.close();
+							}
+							return scanner;
+						}
+					});
+				}
+			}
+		}
+		List<CompositeXHTMLScanner> scanners = execute(tasks);
+		for (int i = 0; i < items.size(); i++) {
+			contentScanners.put(items.get(i), scanners.get(i));
+		}
+	}
+
+	/**
+	 * Returns whether or not relative references in the content of the item can be resolved.
+	 *
+	 * @param item
+	 *            the manifest item
+	 * @return <code>true</code> if the item has a source path or a file
+	 */
+	private boolean hasSourcePath(Item item) {
+		return item.getSourcePath() != null || item.getFile() != null;
+	}
+
+	/**
+	 * Performs the given tasks and returns their results in the same order as the tasks. The tasks are performed
+	 * concurrently when more than one thread has been specified, so they must be independent of each other.
+	 *
+	 * @param tasks
+	 *            the tasks to perform
+	 * @return the results of the tasks
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 * @throws IOException
+	 * @see #setThreads(int)
+	 */
+	private <T> List<T> execute(List<Callable<T>> tasks)
+			throws ParserConfigurationException, SAXException, IOException {
+		List<T> results = new ArrayList<T>(tasks.size());
+		if (threads <= 1 || tasks.size() <= 1) {
+			for (Callable<T> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (Exception e) {
+					rethrow(e);
+				}
+			}
+			return results;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+		try {
+			for (Future<T> future : executor.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		} catch (ExecutionException e) {
+			rethrow(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	private static void rethrow(Throwable t) throws ParserConfigurationException, SAXException, IOException {
+		if (t instanceof ParserConfigurationException) {
+			throw (ParserConfigurationException) t;
+		}
+		if (t instanceof SAXException) {
+			throw (SAXException) t;
+		}
+		if (t instanceof IOException) {
+			throw (IOException) t;
+		}
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		throw new RuntimeException(t);
+	}
+
 	/**
 	 * Iterates over all XHTML (non-generated) files in the manifest attempting to determine referenced resources such
 	 * as image files and adds these to the manifest. This method is not recursive, so items added through this
@@ -1060,29 +1309,30 @@ public abstract class Publication {
 	private void includeReferencedResources() throws ParserConfigurationException, SAXException, IOException {
 		log(Messages.getString("OPSPublication.23"), Severity.INFO, indent++); //$NON-NLS-1$
 		EList<Item> manifestItems = opfPackage.getManifest().getItems();
-		// Compose a list of file references
-		HashMap<File, List<File>> references = new HashMap<File, List<File>>();
+		// Compose a list of file references, in manifest order
+		Map<File, List<File>> references = new LinkedHashMap<File, List<File>>();
 		for (Item item : manifestItems) {
 			// Only parse XHTML-files and files that are not generated
-			if (item.getMedia_type().equals(MIMETYPE_XHTML) && !item.isGenerated()) {
+			if (item.getMedia_type().equals(MIMETYPE_XHTML) && !item.isGenerated() && hasSourcePath(item)) {
 				File source = null;
 				if (item.getSourcePath() != null) {
 					source = new File(item.getSourcePath());
 					log(MessageFormat.format(Messages.getString("OPSPublication.24"), source), Severity.VERBOSE, //$NON-NLS-1$
 							indent);
-					references.put(source, ReferenceScanner.parse(item));
 				} else {
 					source = new File(item.getFile());
 					log(MessageFormat.format(Messages.getString("OPSPublication.25"), source), Severity.VERBOSE, //$NON-NLS-1$
 							indent);
 				}
-				references.put(source, ReferenceScanner.parse(item));
+				ReferenceScanner scanner = getContentScanner(item, ReferenceScanner.class);
+				references.put(source, scanner != null ? scanner.getFiles() : ReferenceScanner.parse(item));
 			} else {
 				log(MessageFormat.format(Messages.getString("OPSPublication.26"), item.getFile()), Severity.DEBUG, //$NON-NLS-1$
 						indent);
 			}
 		}
 		indent--;
+		Map<File, String> types = detectMimeTypes(references.values());
 		// Add all referenced items to the manifest
 		for (File root : references.keySet()) {
 			List<File> files = references.get(root);
@@ -1095,16 +1345,10 @@ public abstract class Publication {
 					relativePath = new File(EMPTY_STRING);
 				}
 				// Add those files that does not already exist in the manifest
-				boolean add = true;
-				EList<Item> items = getPackage().getManifest().getItems();
-				for (Item item : items) {
-					if (item.getFile().equals(file.getAbsolutePath())) {
-						add = false;
-					}
-				}
-				if (add) {
+				if (ManifestIndex.getIndex(getPackage().getManifest()).getItemByFile(file.getAbsolutePath()) == null) {
 					try {
-						addItem(null, null, file, relativePath.getParent(), null, false, false, false);
+						addItem(null, null, file, relativePath.getParent(), types.get(file.getAbsoluteFile()), false,
+								false, false);
 					} catch (Exception e) {
 						throw new RuntimeException(
 								String.format("Could not add file referenced from \"%1$s\", %2$s", root, //$NON-NLS-1$
@@ -1117,6 +1361,46 @@ public abstract class Publication {
 		indent--;
 	}
 
+	/**
+	 * Determines the MIME types of the given files that are not already part of the manifest. Files that do not exist
+	 * are left out, so that adding them fails as usual.
+	 *
+	 * @param files
+	 *            lists of files
+	 * @return the MIME type of each absolute file
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 * @throws IOException
+	 */
+	private Map<File, String> detectMimeTypes(Collection<List<File>> files)
+			throws ParserConfigurationException, SAXException, IOException {
+		ManifestIndex index = ManifestIndex.getIndex(opfPackage.getManifest());
+		Set<File> unique = new LinkedHashSet<File>();
+		for (List<File> list : files) {
+			for (File file : list) {
+				File absoluteFile = file.getAbsoluteFile();
+				if (absoluteFile.isFile() && index.getItemByFile(absoluteFile.getPath()) == null) {
+					unique.add(absoluteFile);
+				}
+			}
+		}
+		List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+		for (final File file : unique) {
+			tasks.add(new Callable<String>() {
+				public String call() throws Exception {
+					return EPUBFileUtil.getMimeType(file);
+				}
+			});
+		}
+		List<String> results = execute(tasks);
+		Map<File, String> types = new HashMap<File, String>();
+		int i = 0;
+		for (File file : unique) {
+			types.put(file, results.get(i++));
+		}
+		return types;
+	}
+
 	/**
 	 * Logs a message using the specified logger. If no logger has been assigned, the message is ignored.
 	 *
@@ -1156,9 +1440,61 @@ public abstract class Publication {
 	 *             when the SAX parser cannot configured
 	 */
 	void pack(File rootFile) throws IOException, ValidationException, ParserConfigurationException, SAXException {
+		pack(rootFile, null, null);
+	}
+
+	/**
+	 * Assembles the OPS publication directly into the given EPUB archive. The OPF and all manifest items are written
+	 * as archive entries relative to <i>rootFilePath</i>, so content files are read once and never copied to a working
+	 * folder. Only items generated while packing, such as the cover page and the table of contents, are written to the
+	 * folder of <i>rootFile</i>. When <i>out</i> is <code>null</code> the publication is assembled in the folder of
+	 * the root file as with {@link #pack(File)}.
+	 *
+	 * @param rootFile
+	 *            the root file, its folder is used for generated items
+	 * @param out
+	 *            the EPUB archive or <code>null</code>
+	 * @param rootFilePath
+	 *            the path of the root file within the archive
+	 * @throws ValidationException
+	 *             when the EPUB contains errors
+	 * @throws SAXException
+	 *             when content cannot be read
+	 * @throws ParserConfigurationException
+	 *             when the SAX parser cannot configured
+	 */
+	void pack(File rootFile, ZipOutputStream out, String rootFilePath)
+			throws IOException, ValidationException, ParserConfigurationException, SAXException {
+		pack(rootFile, out, rootFilePath, new PackingPolicy(), null);
+	}
+
+	/**
+	 * Assembles the OPS publication directly into the given EPUB archive, taking the entries of content files that
+	 * have not changed from the previously assembled EPUB when possible.
+	 *
+	 * @param rootFile
+	 *            the root file, its folder is used for generated items
+	 * @param out
+	 *            the EPUB archive or <code>null</code>
+	 * @param rootFilePath
+	 *            the path of the root file within the archive
+	 * @param policy
+	 *            the policy determining how content is compressed
+	 * @param incremental
+	 *            the previously assembled EPUB or <code>null</code>
+	 * @see #pack(File, ZipOutputStream, String)
+	 */
+	void pack(File rootFile, ZipOutputStream out, String rootFilePath, PackingPolicy policy,
+			IncrementalArchive incremental)
+			throws IOException, ValidationException, ParserConfigurationException, SAXException {
+		if (archive != null) {
+			throw new IllegalStateException("A publication read from an archive must be unpacked to be packed"); //$NON-NLS-1$
+		}
 		if (opfPackage.getSpine().getSpineItems().isEmpty()) {
 			throw new ValidationException("Spine does not contain any items"); //$NON-NLS-1$
 		}
+		// Parse the content once for all the steps below that examine it
+		scanContents();
 		// Include items that have been referenced
 		if (opfPackage.isIncludeReferencedResources()) {
 			includeReferencedResources();
@@ -1168,8 +1504,12 @@ public abstract class Publication {
 		// Note that order is important here. Some of the steps for assembling
 		// the EPUB may insert data into the publication structure. Hence the OPF must
 		// be written last.
-		this.rootFolder = rootFile.getAbsoluteFile().getParentFile();
-		if (rootFolder.isDirectory() || rootFolder.mkdirs()) {
+		File outputFolder = rootFile.getAbsoluteFile().getParentFile();
+		// An unpacked publication is repacked from the folder it was unpacked to
+		if (out == null || rootFolder == null) {
+			this.rootFolder = outputFolder;
+		}
+		if (outputFolder.isDirectory() || outputFolder.mkdirs()) {
 			// Validate contents.
 			messages = validateContents();
 			log(Messages.getString("OPSPublication.5"), Severity.INFO, indent); //$NON-NLS-1$
@@ -1195,13 +1535,21 @@ public abstract class Publication {
 			}
 			// Validation OK -- Write content.
 			if (opfPackage.isGenerateCoverHTML()) {
-				writeCoverHTML(rootFolder);
+				writeCoverHTML(outputFolder);
+			}
+			if (out == null) {
+				writeContent(outputFolder);
+				writeTableOfContents(outputFolder);
+				writeOPF(rootFile);
+			} else {
+				writeTableOfContents(outputFolder);
+				String folderPath = rootFilePath.substring(0, rootFilePath.lastIndexOf('/') + 1);
+				writeContent(out, folderPath, policy, incremental);
+				writeOPF(rootFile, out, rootFilePath);
 			}
-			writeContent(rootFolder);
-			writeTableOfContents(rootFolder);
-			writeOPF(rootFile);
+			contentScanners.clear();
 		} else {
-			throw new IOException("Could not create OEBPS folder in " + rootFolder.getAbsolutePath()); //$NON-NLS-1$
+			throw new IOException("Could not create OEBPS folder in " + outputFolder.getAbsolutePath()); //$NON-NLS-1$
 		}
 	}
 
@@ -1229,6 +1577,29 @@ public abstract class Publication {
 	 */
 	protected abstract void readTableOfContents(File tocFile) throws IOException;
 
+	/**
+	 * Reads the table of contents for the particular OEPBS implementation from a stream. The default implementation
+	 * copies the stream to a temporary file and calls {@link #readTableOfContents(File)}, override to read the stream
+	 * directly.
+	 *
+	 * @param in
+	 *            the table of contents
+	 * @param uri
+	 *            the URI identifying the table of contents
+	 * @throws IOException
+	 * @since 3.2
+	 */
+	protected void readTableOfContents(InputStream in, URI uri) throws IOException {
+		String suffix = uri.fileExtension() == null ? null : '.' + uri.fileExtension();
+		File tocFile = File.createTempFile("toc", suffix); //$NON-NLS-1$
+		try {
+			Files.copy(in, tocFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			readTableOfContents(tocFile);
+		} finally {
+			tocFile.delete();
+		}
+	}
+
 	/**
 	 * Registers a new resource factory for OPF data structures. This is normally done through Eclipse extension points
 	 * but we also need to be able to create this factory without the Eclipse runtime.
@@ -1356,6 +1727,34 @@ public abstract class Publication {
 		opfPackage.setIncludeReferencedResources(include);
 	}
 
+	/**
+	 * Specifies the number of threads used to process the items of the publication when it is assembled. Parsing and
+	 * validating contents, determining the type of referenced resources and copying files are then performed
+	 * concurrently for several items, while the order of the manifest and table of contents is kept. The default is
+	 * <code>1</code>, which processes one item at the time.
+	 *
+	 * @param threads
+	 *            the number of threads
+	 * @since 3.2
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("\"threads\" must be at least 1"); //$NON-NLS-1$
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns the number of threads used to process the items of the publication when it is assembled.
+	 *
+	 * @return the number of threads
+	 * @see #setThreads(int)
+	 * @since 3.2
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
 	/**
 	 * Specifies a target of contents file for the publication. This is an alternative to
 	 * {@link #setGenerateToc(boolean)}.
@@ -1381,6 +1780,40 @@ public abstract class Publication {
 		readTableOfContents(tocFile);
 	}
 
+	/**
+	 * Populates the data model with the content of an EPUB archive without unpacking it. The OPF and the table of
+	 * contents are read directly from the archive, and the archive is used to read the content of items.
+	 *
+	 * @param archive
+	 *            the EPUB archive, which must be kept open while the publication is in use
+	 * @param opfPath
+	 *            the path of the (OPS) root file within the archive
+	 * @throws IOException
+	 * @see #getInputStream(Item)
+	 */
+	void read(ZipFile archive, String opfPath) throws IOException {
+		this.archive = archive;
+		archiveFolder = opfPath.substring(0, opfPath.lastIndexOf('/') + 1);
+		ResourceSet resourceSet = new ResourceSetImpl();
+		Resource resource = resourceSet.createResource(EPUBFileUtil.getURI(archive, opfPath));
+		InputStream in = EPUBFileUtil.getInputStream(archive, opfPath);
+		try {
+			resource.load(in, null);
+		} finally {
+			in.close();
+		}
+		opfPackage = (Package) resource.getContents().get(0);
+		String tocId = opfPackage.getSpine().getToc();
+		Item tocItem = getItemById(tocId);
+		String tocPath = archiveFolder + tocItem.getHref();
+		in = EPUBFileUtil.getInputStream(archive, tocPath);
+		try {
+			readTableOfContents(in, EPUBFileUtil.getURI(archive, tocPath));
+		} finally {
+			in.close();
+		}
+	}
+
 	/**
 	 * Implement to validate contents.
 	 *
@@ -1414,17 +1847,81 @@ public abstract class Publication {
 	 *            the folder to copy into.
 	 * @throws IOException
 	 */
-	private void writeContent(File rootFolder) throws IOException {
+	private void writeContent(File rootFolder) throws IOException, ParserConfigurationException, SAXException {
 		log(Messages.getString("OPSPublication.22"), Severity.INFO, indent); //$NON-NLS-1$
+		List<Item> items = new ArrayList<Item>();
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		Set<File> destinations = new HashSet<File>();
+		for (Item item : opfPackage.getManifest().getItems()) {
+			if (!item.isGenerated()) {
+				final File destination = new File(rootFolder.getAbsolutePath() + File.separator + item.getHref());
+				final byte[] content = contents.get(item);
+				items.add(item);
+				// Items sharing a destination are not copied concurrently
+				if (!destinations.add(destination)) {
+					tasks.add(new Callable<Boolean>() {
+						public Boolean call() throws Exception {
+							return Boolean.FALSE;
+						}
+					});
+				} else if (content != null) {
+					tasks.add(new Callable<Boolean>() {
+						public Boolean call() throws Exception {
+							return EPUBFileUtil.write(content, destination);
+						}
+					});
+				} else {
+					final File source = new File(item.getFile());
+					tasks.add(new Callable<Boolean>() {
+						public Boolean call() throws Exception {
+							return EPUBFileUtil.copy(source, destination);
+						}
+					});
+				}
+			}
+		}
+		List<Boolean> copied = execute(tasks);
+		for (int i = 0; i < items.size(); i++) {
+			if (!copied.get(i)) {
+				log(MessageFormat.format(Messages.getString("Publication.0"), //$NON-NLS-1$
+						items.get(i).getHref()), Severity.WARNING, indent + 1);
+			}
+		}
+	}
+
+	/**
+	 * Writes all items part of the publication, including generated items, into the EPUB archive.
+	 *
+	 * @param out
+	 *            the EPUB archive
+	 * @param folderPath
+	 *            the path of the OEBPS folder within the archive, including a trailing separator
+	 * @param policy
+	 *            the policy determining how content is compressed
+	 * @param incremental
+	 *            the previously assembled EPUB or <code>null</code>
+	 * @throws IOException
+	 */
+	private void writeContent(ZipOutputStream out, String folderPath, PackingPolicy policy,
+			IncrementalArchive incremental) throws IOException {
+		log(Messages.getString("OPSPublication.22"), Severity.INFO, indent); //$NON-NLS-1$
+		Set<String> entryNames = new HashSet<String>();
 		EList<Item> items = opfPackage.getManifest().getItems();
 		for (Item item : items) {
-			if (!item.isGenerated()) {
-				File source = new File(item.getFile());
-				File destination = new File(rootFolder.getAbsolutePath() + File.separator + item.getHref());
-				if (!EPUBFileUtil.copy(source, destination)) {
-					log(MessageFormat.format(Messages.getString("Publication.0"), //$NON-NLS-1$
-							item.getHref()), Severity.WARNING, indent + 1);
+			String entryName = folderPath + item.getHref();
+			int level = policy.getLevel(item.getMedia_type());
+			if (!entryNames.add(entryName)) {
+				log(MessageFormat.format(Messages.getString("Publication.0"), //$NON-NLS-1$
+						item.getHref()), Severity.WARNING, indent + 1);
+			} else if (contents.containsKey(item)) {
+				EPUBFileUtil.zip(out, entryName, contents.get(item), level);
+			} else if (incremental != null && !item.isGenerated()) {
+				if (incremental.zip(out, entryName, new File(item.getFile()), level)) {
+					log(MessageFormat.format(Messages.getString("Publication.1"), //$NON-NLS-1$
+							item.getHref()), Severity.VERBOSE, indent + 1);
 				}
+			} else {
+				EPUBFileUtil.zip(out, entryName, new File(item.getFile()), level);
 			}
 		}
 	}
@@ -1504,12 +2001,34 @@ public abstract class Publication {
 	 * @throws IOException
 	 */
 	private void writeOPF(File opfFile) throws IOException {
+		createOPFResource(opfFile).save(null);
+	}
+
+	/**
+	 * Writes the <b>content.opf</b> file into the EPUB archive.
+	 *
+	 * @param opfFile
+	 *            the location of the OPF file, used to resolve references
+	 * @param out
+	 *            the EPUB archive
+	 * @param entryName
+	 *            the path of the OPF file within the archive
+	 * @throws IOException
+	 */
+	private void writeOPF(File opfFile, ZipOutputStream out, String entryName) throws IOException {
+		Resource resource = createOPFResource(opfFile);
+		out.putNextEntry(new ZipEntry(entryName));
+		resource.save(out, null);
+		out.closeEntry();
+	}
+
+	private Resource createOPFResource(File opfFile) {
 		ResourceSet resourceSet = new ResourceSetImpl();
 		// Register the packages to make it available during loading.
 		URI fileURI = URI.createFileURI(opfFile.getAbsolutePath());
 		Resource resource = resourceSet.createResource(fileURI);
 		resource.getContents().add(opfPackage);
-		resource.save(null);
+		return resource;
 	}
 
 	/**
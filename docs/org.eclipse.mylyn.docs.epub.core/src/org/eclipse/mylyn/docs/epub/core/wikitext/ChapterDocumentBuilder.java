@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.docs.epub.core.wikitext;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.mylyn.wikitext.parser.Attributes;
+import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.LinkAttributes;
+import org.eclipse.mylyn.wikitext.parser.Locator;
+import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
+import org.eclipse.mylyn.wikitext.splitter.SplitOutlineItem;
+
+/**
+ * This type is a document builder that writes one XHTML document per split target of an outline, keeping the
+ * documents in memory. Each document is configured like the given builder. References to headings in other documents
+ * are adjusted so that they point to the correct document. Unlike the splitting builder of WikiText no navigation is
+ * added, as the reading system takes care of this.
+ *
+ * @author agent
+ */
+class ChapterDocumentBuilder extends DocumentBuilder {
+
+	private final HtmlDocumentBuilder configuration;
+
+	private final SplitOutlineItem outline;
+
+	private final Map<String, StringWriter> chapters = new LinkedHashMap<String, StringWriter>();
+
+	private HtmlDocumentBuilder out;
+
+	private String currentTarget;
+
+	/**
+	 * Creates a new builder for the given outline.
+	 *
+	 * @param configuration
+	 *            the builder to copy the configuration of each document from, which is not written to
+	 * @param outline
+	 *            the outline with split targets assigned
+	 */
+	ChapterDocumentBuilder(HtmlDocumentBuilder configuration, SplitOutlineItem outline) {
+		this.configuration = configuration;
+		this.outline = outline;
+	}
+
+	/**
+	 * Returns the documents that have been written, keyed by split target in reading order.
+	 *
+	 * @return the XHTML documents
+	 */
+	Map<String, String> getChapters() {
+		Map<String, String> result = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, StringWriter> chapter : chapters.entrySet()) {
+			result.put(chapter.getKey(), chapter.getValue().toString());
+		}
+		return result;
+	}
+
+	private void beginChapter(String target, String label) {
+		StringWriter writer = new StringWriter();
+		HtmlDocumentBuilder builder = new HtmlDocumentBuilder(writer, true);
+		configuration.copyConfiguration(builder);
+		if (label != null) {
+			String title = configuration.getTitle();
+			builder.setTitle(title == null ? label : title + " - " + label); //$NON-NLS-1$
+		}
+		chapters.put(target, writer);
+		currentTarget = target;
+		out = builder;
+		out.beginDocument();
+	}
+
+	@Override
+	public void beginDocument() {
+		beginChapter(outline.getSplitTarget(), null);
+	}
+
+	@Override
+	public void endDocument() {
+		out.endDocument();
+		out = null;
+	}
+
+	@Override
+	public void beginHeading(int level, Attributes attributes) {
+		SplitOutlineItem item = outline.getOutlineItemById(attributes.getId());
+		if (item != null && !currentTarget.equals(item.getSplitTarget())) {
+			out.endDocument();
+			beginChapter(item.getSplitTarget(), item.getLabel());
+		}
+		out.beginHeading(level, attributes);
+	}
+
+	@Override
+	public void endHeading() {
+		out.endHeading();
+	}
+
+	@Override
+	public void beginBlock(BlockType type, Attributes attributes) {
+		out.beginBlock(type, attributes);
+	}
+
+	@Override
+	public void endBlock() {
+		out.endBlock();
+	}
+
+	@Override
+	public void beginSpan(SpanType type, Attributes attributes) {
+		if (type == SpanType.LINK && attributes instanceof LinkAttributes) {
+			LinkAttributes linkAttributes = (LinkAttributes) attributes;
+			linkAttributes.setHref(adjustHref(linkAttributes.getHref()));
+		}
+		out.beginSpan(type, attributes);
+	}
+
+	@Override
+	public void endSpan() {
+		out.endSpan();
+	}
+
+	@Override
+	public void characters(String text) {
+		out.characters(text);
+	}
+
+	@Override
+	public void charactersUnescaped(String literal) {
+		out.charactersUnescaped(literal);
+	}
+
+	@Override
+	public void entityReference(String entity) {
+		out.entityReference(entity);
+	}
+
+	@Override
+	public void image(Attributes attributes, String url) {
+		out.image(attributes, url);
+	}
+
+	@Override
+	public void link(Attributes attributes, String hrefOrHashName, String text) {
+		out.link(attributes, adjustHref(hrefOrHashName), text);
+	}
+
+	@Override
+	public void imageLink(Attributes linkAttributes, Attributes imageAttributes, String href, String imageUrl) {
+		out.imageLink(linkAttributes, imageAttributes, adjustHref(href), imageUrl);
+	}
+
+	@Override
+	public void acronym(String text, String definition) {
+		out.acronym(text, definition);
+	}
+
+	@Override
+	public void lineBreak() {
+		out.lineBreak();
+	}
+
+	@Override
+	public void horizontalRule() {
+		out.horizontalRule();
+	}
+
+	@Override
+	public void flush() {
+		if (out != null) {
+			out.flush();
+		}
+	}
+
+	@Override
+	public Locator getLocator() {
+		return out.getLocator();
+	}
+
+	@Override
+	public void setLocator(Locator locator) {
+		if (out != null) {
+			out.setLocator(locator);
+		}
+	}
+
+	/**
+	 * Prefixes references to headings with the document containing the heading, if it is not the current document.
+	 */
+	private String adjustHref(String href) {
+		if (href != null && href.startsWith("#")) { //$NON-NLS-1$
+			SplitOutlineItem target = outline.getOutlineItemById(href.substring(1));
+			if (target != null && !currentTarget.equals(target.getSplitTarget())) {
+				return target.getSplitTarget().replace(" ", "%20") + href; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return href;
+	}
+}
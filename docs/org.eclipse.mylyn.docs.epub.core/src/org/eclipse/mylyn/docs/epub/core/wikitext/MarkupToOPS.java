@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Torkild U. Resheim.
+ * Copyright (c) 2011, 2026 Torkild U. Resheim.
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License v1.0 which
@@ -11,20 +11,40 @@
  *******************************************************************************/
 package org.eclipse.mylyn.docs.epub.core.wikitext;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.eclipse.mylyn.docs.epub.core.OPSPublication;
 import org.eclipse.mylyn.docs.epub.core.Publication;
+import org.eclipse.mylyn.docs.epub.ncx.Content;
+import org.eclipse.mylyn.docs.epub.ncx.NCXFactory;
+import org.eclipse.mylyn.docs.epub.ncx.NavLabel;
+import org.eclipse.mylyn.docs.epub.ncx.NavPoint;
+import org.eclipse.mylyn.docs.epub.ncx.Text;
 import org.eclipse.mylyn.docs.epub.opf.Item;
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.EventDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder.Stylesheet;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
+import org.eclipse.mylyn.wikitext.parser.outline.OutlineItem;
+import org.eclipse.mylyn.wikitext.splitter.DefaultSplittingStrategy;
+import org.eclipse.mylyn.wikitext.splitter.SplitOutlineItem;
+import org.eclipse.mylyn.wikitext.splitter.SplittingOutlineParser;
+import org.eclipse.mylyn.wikitext.splitter.SplittingStrategy;
 import org.eclipse.mylyn.wikitext.util.XmlStreamWriter;
 
 /**
@@ -37,8 +57,13 @@ import org.eclipse.mylyn.wikitext.util.XmlStreamWriter;
  */
 public class MarkupToOPS {
 
+	/** Prefix of the identifiers assigned to chapter items */
+	private static final String CHAPTER_ID_PREFIX = "chapter"; //$NON-NLS-1$
+
 	private MarkupLanguage markupLanguage;
 
+	private SplittingStrategy splittingStrategy;
+
 	/**
 	 * Parses the markup file and populates the publication with the result.
 	 *
@@ -57,31 +82,26 @@ public class MarkupToOPS {
 		File workingFolder = File.createTempFile("wikitext_", null); //$NON-NLS-1$
 		if (workingFolder.delete() && workingFolder.mkdirs()) {
 			File htmlFile = new File(workingFolder.getAbsolutePath() + File.separator + "markup.html"); //$NON-NLS-1$
-			FileWriter out = new FileWriter(htmlFile);
-			HtmlDocumentBuilder builder = new HtmlDocumentBuilder(out) {
-				@Override
-				protected XmlStreamWriter createXmlStreamWriter(Writer out) {
-					return super.createFormattingXmlStreamWriter(out);
-				}
-			};
-
-			List<Item> stylesheets = ops.getItemsByMIMEType(Publication.MIMETYPE_CSS);
-			for (Item item : stylesheets) {
-				File file = new File(item.getFile());
-				Stylesheet css = new Stylesheet(file);
-				builder.addCssStylesheet(css);
-			}
-			// Make sure we get the correct XHTML header
-			builder.setEmitDtd(true);
-			builder.setHtmlDtd(
-					"<!DOCTYPE html PUBLIC \"-//W3C//DTD XHTML 1.1//EN\" \"http://www.w3.org/TR/xhtml11/DTD/xhtml11.dtd\">"); //$NON-NLS-1$
-			builder.setXhtmlStrict(true);
+			Writer out = new BufferedWriter(new FileWriter(htmlFile));
+			Reader in = new BufferedReader(new FileReader(markupFile));
+			try {
+				HtmlDocumentBuilder builder = new HtmlDocumentBuilder(out) {
+					@Override
+					protected XmlStreamWriter createXmlStreamWriter(Writer out) {
+						return super.createFormattingXmlStreamWriter(out);
+					}
+				};
+				configure(ops, builder);
 
-			MarkupParser markupParser = new MarkupParser();
+				MarkupParser markupParser = new MarkupParser();
 
-			markupParser.setBuilder(builder);
-			markupParser.setMarkupLanguage(markupLanguage);
-			markupParser.parse(new FileReader(markupFile));
+				markupParser.setBuilder(builder);
+				markupParser.setMarkupLanguage(markupLanguage);
+				markupParser.parse(in);
+			} finally {
+				in.close();
+				out.close();
+			}
 			ops.setGenerateToc(true);
 			ops.setIncludeReferencedResources(true);
 			Item item = ops.addItem(htmlFile);
@@ -90,6 +110,158 @@ public class MarkupToOPS {
 		return workingFolder;
 	}
 
+	/**
+	 * Parses the markup file and populates the publication with the result, adding one XHTML item per chapter as
+	 * determined by the splitting strategy. The markup is parsed only once and the chapters are kept in memory, so no
+	 * temporary files are created. When the publication is an {@link OPSPublication} the table of contents is built
+	 * from the outline of the markup rather than by parsing the chapters.
+	 *
+	 * @param ops
+	 *            the publication the content will be added to
+	 * @param markupFile
+	 *            the WikiText markup file
+	 * @return the chapter items in reading order
+	 * @throws IOException
+	 * @see #setSplittingStrategy(SplittingStrategy)
+	 * @since 3.2
+	 */
+	public List<Item> parseChapters(Publication ops, File markupFile) throws IOException, FileNotFoundException {
+		StringBuilder markup = new StringBuilder((int) markupFile.length());
+		Reader in = new BufferedReader(new FileReader(markupFile));
+		try {
+			char[] buffer = new char[8192];
+			int count;
+			while ((count = in.read(buffer)) != -1) {
+				markup.append(buffer, 0, count);
+			}
+		} finally {
+			in.close();
+		}
+		return parseChapters(ops, markup.toString(), markupFile.getAbsolutePath());
+	}
+
+	/**
+	 * Parses the markup and populates the publication with the result, adding one XHTML item per chapter as determined
+	 * by the splitting strategy.
+	 *
+	 * @param ops
+	 *            the publication the content will be added to
+	 * @param markup
+	 *            the WikiText markup
+	 * @param sourcePath
+	 *            the path of the markup file, used to resolve referenced resources, or <code>null</code>
+	 * @return the chapter items in reading order
+	 * @throws IOException
+	 * @see #parseChapters(Publication, File)
+	 * @since 3.2
+	 */
+	public List<Item> parseChapters(Publication ops, String markup, String sourcePath) throws IOException {
+		if (markupLanguage == null) {
+			throw new IllegalStateException("must set markupLanguage"); //$NON-NLS-1$
+		}
+		SplittingOutlineParser outlineParser = new SplittingOutlineParser();
+		outlineParser.setMarkupLanguage(markupLanguage.clone());
+		outlineParser.setSplittingStrategy(
+				splittingStrategy == null ? new DefaultSplittingStrategy() : splittingStrategy);
+
+		// Parse once, replaying the document once the outline is known
+		EventDocumentBuilder eventBuilder = new EventDocumentBuilder();
+		SplitOutlineItem outline = outlineParser.parse(markup, eventBuilder);
+		outline.setSplitTarget(getRootName(sourcePath));
+		HtmlDocumentBuilder configuration = new HtmlDocumentBuilder(new StringWriter(), true);
+		configure(ops, configuration);
+		ChapterDocumentBuilder builder = new ChapterDocumentBuilder(configuration, outline);
+		eventBuilder.getDocumentBuilderEvents().applyTo(builder);
+
+		List<Item> items = new ArrayList<Item>();
+		int count = 0;
+		for (Map.Entry<String, String> chapter : builder.getChapters().entrySet()) {
+			String id;
+			do {
+				id = CHAPTER_ID_PREFIX + (++count);
+			} while (ops.getItemById(id) != null);
+			Item item = ops.addItem(id, null, chapter.getKey(), chapter.getValue().getBytes("UTF-8"), //$NON-NLS-1$
+					Publication.MIMETYPE_XHTML, true, true, false);
+			item.setSourcePath(sourcePath);
+			items.add(item);
+		}
+		if (ops instanceof OPSPublication && !items.isEmpty()) {
+			// The navigation points refer to the chapters, so they are all listed with the first one
+			OPSPublication publication = (OPSPublication) ops;
+			publication.setNavigationPoints(items.get(0), createNavPoints(outline));
+			for (Item item : items.subList(1, items.size())) {
+				publication.setNavigationPoints(item, Collections.<NavPoint> emptyList());
+			}
+		}
+		ops.setGenerateToc(true);
+		ops.setIncludeReferencedResources(true);
+		return items;
+	}
+
+	/**
+	 * Adds the stylesheets of the publication to the builder and configures it to produce XHTML 1.1.
+	 */
+	private void configure(Publication ops, HtmlDocumentBuilder builder) {
+		List<Item> stylesheets = ops.getItemsByMIMEType(Publication.MIMETYPE_CSS);
+		for (Item item : stylesheets) {
+			// Stylesheets kept in memory cannot be referenced
+			if (item.getFile() != null) {
+				File file = new File(item.getFile());
+				Stylesheet css = new Stylesheet(file);
+				builder.addCssStylesheet(css);
+			}
+		}
+		// Make sure we get the correct XHTML header
+		builder.setEmitDtd(true);
+		builder.setHtmlDtd(
+				"<!DOCTYPE html PUBLIC \"-//W3C//DTD XHTML 1.1//EN\" \"http://www.w3.org/TR/xhtml11/DTD/xhtml11.dtd\">"); //$NON-NLS-1$
+		builder.setXhtmlStrict(true);
+	}
+
+	private static String getRootName(String sourcePath) {
+		if (sourcePath == null) {
+			return "index.html"; //$NON-NLS-1$
+		}
+		String name = new File(sourcePath).getName();
+		int extension = name.lastIndexOf('.');
+		return (extension == -1 ? name : name.substring(0, extension)) + ".html"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Creates navigation points for the headings of the outline, pointing into the chapters they have been written to.
+	 */
+	private static List<NavPoint> createNavPoints(OutlineItem parent) {
+		List<NavPoint> navPoints = new ArrayList<NavPoint>();
+		for (OutlineItem child : parent.getChildren()) {
+			SplitOutlineItem item = (SplitOutlineItem) child;
+			NavPoint np = NCXFactory.eINSTANCE.createNavPoint();
+			NavLabel nl = NCXFactory.eINSTANCE.createNavLabel();
+			Text text = NCXFactory.eINSTANCE.createText();
+			FeatureMapUtil.addText(text.getMixed(), item.getLabel() == null ? "" : item.getLabel()); //$NON-NLS-1$
+			nl.setText(text);
+			np.getNavLabels().add(nl);
+			Content c = NCXFactory.eINSTANCE.createContent();
+			String target = item.getSplitTarget().replace(" ", "%20"); //$NON-NLS-1$ //$NON-NLS-2$
+			c.setSrc(item.getId() == null ? target : target + '#' + item.getId());
+			np.setContent(c);
+			np.getNavPoints().addAll(createNavPoints(item));
+			navPoints.add(np);
+		}
+		return navPoints;
+	}
+
+	/**
+	 * Sets the strategy used by {@link #parseChapters(Publication, File)} to determine where the markup is split into
+	 * chapters. The default is to split at each level one heading except the first.
+	 *
+	 * @param splittingStrategy
+	 *            the splitting strategy
+	 * @since 3.2
+	 */
+	public void setSplittingStrategy(SplittingStrategy splittingStrategy) {
+		this.splittingStrategy = splittingStrategy;
+	}
+
 	/**
 	 * Sets the markup language to use when generating HTML from markup.
 	 *
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.internal.docs.epub.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.DefaultHandler2;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * This type is a SAX handler that passes the events of a single parse on to any number of scanners, so that an XHTML
+ * content file only has to be read and tokenized once regardless of how many scanners need to examine it.
+ *
+ * @author agent
+ */
+public class CompositeXHTMLScanner extends DefaultHandler2 {
+
+	private final String href;
+
+	private final List<DefaultHandler> scanners;
+
+	/**
+	 * Creates a new composite scanner.
+	 *
+	 * @param href
+	 *            the reference to the XHTML file, used when reporting problems
+	 */
+	public CompositeXHTMLScanner(String href) {
+		super();
+		this.href = href;
+		scanners = new ArrayList<DefaultHandler>();
+	}
+
+	/**
+	 * Adds a scanner that will receive the events of the parse.
+	 *
+	 * @param scanner
+	 *            the scanner to add
+	 */
+	public void add(DefaultHandler scanner) {
+		scanners.add(scanner);
+	}
+
+	/**
+	 * Returns the first scanner of the given type.
+	 *
+	 * @param type
+	 *            the scanner type
+	 * @return the scanner or <code>null</code>
+	 */
+	public <T extends DefaultHandler> T getScanner(Class<T> type) {
+		for (DefaultHandler scanner : scanners) {
+			if (type.isInstance(scanner)) {
+				return type.cast(scanner);
+			}
+		}
+		return null;
+	}
+
+	public boolean isEmpty() {
+		return scanners.isEmpty();
+	}
+
+	/**
+	 * Parses the given XHTML file, passing all events on to the scanners that have been added.
+	 *
+	 * @param file
+	 *            the XHTML file to parse
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 * @throws IOException
+	 */
+	public void parse(File file) throws ParserConfigurationException, SAXException, IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			parse(new InputSource(in));
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Parses the given XHTML content, passing all events on to the scanners that have been added.
+	 *
+	 * @param source
+	 *            the XHTML content to parse
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 * @throws IOException
+	 */
+	public void parse(InputSource source) throws ParserConfigurationException, SAXException, IOException {
+		try {
+			SAXParserPool.parse(source, this);
+		} catch (SAXException e) {
+			System.err.println("Could not parse " + href); //$NON-NLS-1$
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void setDocumentLocator(Locator locator) {
+		for (DefaultHandler scanner : scanners) {
+			scanner.setDocumentLocator(locator);
+		}
+	}
+
+	@Override
+	public void startDocument() throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.startDocument();
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.endDocument();
+		}
+	}
+
+	@Override
+	public void startPrefixMapping(String prefix, String uri) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.startPrefixMapping(prefix, uri);
+		}
+	}
+
+	@Override
+	public void endPrefixMapping(String prefix) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.endPrefixMapping(prefix);
+		}
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.startElement(uri, localName, qName, attributes);
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.endElement(uri, localName, qName);
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.characters(ch, start, length);
+		}
+	}
+
+	@Override
+	public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.ignorableWhitespace(ch, start, length);
+		}
+	}
+
+	@Override
+	public void processingInstruction(String target, String data) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.processingInstruction(target, data);
+		}
+	}
+
+	@Override
+	public void skippedEntity(String name) throws SAXException {
+		for (DefaultHandler scanner : scanners) {
+			scanner.skippedEntity(name);
+		}
+	}
+}
@@ -16,10 +16,25 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -28,8 +43,10 @@ import org.apache.tika.exception.TikaException;
 import org.apache.tika.io.TikaInputStream;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.metadata.TikaMetadataKeys;
-import org.apache.tika.mime.MediaType;
+import org.eclipse.emf.common.util.URI;
 import org.eclipse.mylyn.docs.epub.core.EPUB;
+import org.eclipse.mylyn.docs.epub.core.PackingPolicy;
+import org.eclipse.mylyn.docs.epub.core.Publication;
 
 /**
  * Various EPUB file related utilities.
@@ -38,10 +55,72 @@ import org.eclipse.mylyn.docs.epub.core.EPUB;
  */
 public class EPUBFileUtil {
 
-	static final int BUFFERSIZE = 2048;
+	static final int BUFFERSIZE = 65536;
 
 	private static TikaConfig tika;
 
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+
+	private static final byte[] JPEG_SIGNATURE = { (byte) 0xff, (byte) 0xd8, (byte) 0xff };
+
+	private static final byte[] GIF87_SIGNATURE = { 'G', 'I', 'F', '8', '7', 'a' };
+
+	private static final byte[] GIF89_SIGNATURE = { 'G', 'I', 'F', '8', '9', 'a' };
+
+	private static final byte[] ZIP_SIGNATURE = { 'P', 'K', 3, 4 };
+
+	private static final byte[] MP3_SIGNATURE = { 'I', 'D', '3' };
+
+	/** The type of box that starts an MP4 file, starting at offset 4 of the file */
+	private static final byte[] MP4_SIGNATURE = { 'f', 't', 'y', 'p' };
+
+	/** The major brand of MP4 audio files, starting at offset 8 of the file */
+	private static final byte[] M4A_SIGNATURE = { 'M', '4', 'A' };
+
+	private static final byte[] WOFF_SIGNATURE = { 'w', 'O', 'F', 'F' };
+
+	private static final byte[] OTF_SIGNATURE = { 'O', 'T', 'T', 'O' };
+
+	private static final byte[] TTF_SIGNATURE = { 0, 1, 0, 0 };
+
+	/** The name and content of the first entry of an EPUB, starting at offset 30 of the file */
+	private static final byte[] EPUB_SIGNATURE = "mimetypeapplication/epub+zip" //$NON-NLS-1$
+			.getBytes(Charset.forName("US-ASCII")); //$NON-NLS-1$
+
+	/** The number of bytes examined to recognize well-known file types */
+	private static final int HEADER_LENGTH = 30 + EPUB_SIGNATURE.length;
+
+	/** Extensions of files that are common in an EPUB, each followed by the MIME-type of such files */
+	@SuppressWarnings("nls")
+	private static final String[] EXTENSION_TYPES = new String[] { "xhtml", Publication.MIMETYPE_XHTML, "xht",
+			Publication.MIMETYPE_XHTML, "css", Publication.MIMETYPE_CSS, "svg", "image/svg+xml", "jpg", "image/jpeg",
+			"jpeg", "image/jpeg", "png", "image/png", "gif", "image/gif", "mp3", "audio/mpeg", "m4a", "audio/mp4",
+			"mp4", "video/mp4", "woff", "application/x-font-woff", "otf", "application/x-font-otf", "ttf",
+			"application/x-font-ttf" };
+
+	/** MIME-types keyed by file extension, used when choosing a compression level */
+	private static final Map<String, String> extensionTypes = new HashMap<String, String>();
+
+	static {
+		for (int i = 0; i < EXTENSION_TYPES.length; i += 2) {
+			extensionTypes.put(EXTENSION_TYPES[i], EXTENSION_TYPES[i + 1]);
+		}
+	}
+
+	/** The maximum number of MIME-types kept for files detected by Tika */
+	private static final int MIMETYPE_CACHE_SIZE = 1024;
+
+	/** MIME-types detected by Tika, keyed by file path, size and modification time */
+	private static final Map<String, String> mimeTypes = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > MIMETYPE_CACHE_SIZE;
+		}
+	};
+
 	/**
 	 * Copies the contents of <i>source</i> to the new <i>destination</i> file. If the destination file already exists,
 	 * it will not be overwritten.
@@ -63,12 +142,7 @@ public class EPUBFileUtil {
 		try {
 			from = new FileInputStream(source);
 			to = new FileOutputStream(destination);
-			byte[] buffer = new byte[4096];
-			int bytesRead;
-
-			while ((bytesRead = from.read(buffer)) != -1) {
-				to.write(buffer, 0, bytesRead);
-			}
+			transfer(from.getChannel(), to.getChannel());
 		} finally {
 			if (from != null) {
 				try {
@@ -88,7 +162,67 @@ public class EPUBFileUtil {
 	}
 
 	/**
-	 * Attempts to figure out the MIME-type for the file.
+	 * Transfers the entire contents of the <i>source</i> channel to the <i>target</i>, leaving it to the platform to
+	 * avoid intermediate buffers where possible.
+	 *
+	 * @param source
+	 *            the channel to read from
+	 * @param target
+	 *            the channel to write to
+	 * @throws IOException
+	 */
+	private static void transfer(FileChannel source, WritableByteChannel target) throws IOException {
+		long size = source.size();
+		long position = 0;
+		while (position < size) {
+			position += source.transferTo(position, size - position, target);
+		}
+	}
+
+	/**
+	 * Writes the given content to the new <i>destination</i> file. If the destination file already exists, it will not
+	 * be overwritten.
+	 *
+	 * @param content
+	 *            the content to write
+	 * @param destination
+	 *            the destination file
+	 * @return <code>true</code> if the file was written
+	 * @throws IOException
+	 */
+	public static boolean write(byte[] content, File destination) throws IOException {
+		if (destination.exists()) {
+			return false;
+		}
+		destination.getParentFile().mkdirs();
+		FileOutputStream to = new FileOutputStream(destination);
+		try {
+			to.write(content);
+		} finally {
+			to.close();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the Tika configuration, creating it on first use. The configuration may be shared by several threads
+	 * assembling a publication.
+	 *
+	 * @return the Tika configuration
+	 * @throws TikaException
+	 * @throws IOException
+	 */
+	private static synchronized TikaConfig getTikaConfig() throws TikaException, IOException {
+		if (tika == null) {
+			tika = new TikaConfig();
+		}
+		return tika;
+	}
+
+	/**
+	 * Attempts to figure out the MIME-type for the file. Images in the core media types of EPUB are recognized by
+	 * their signature, and XHTML, CSS and SVG files by their extension, as are audio and font files. Other files are
+	 * examined by Tika, and the result is kept in memory for as long as the file is not modified.
 	 *
 	 * @param file
 	 *            the file to determine MIME-type for
@@ -96,13 +230,28 @@ public class EPUBFileUtil {
 	 */
 	public static String getMimeType(File file) {
 		try {
-			if (tika == null) {
-				tika = new TikaConfig();
+			String type = getWellKnownMimeType(file);
+			if (type != null) {
+				return type;
+			}
+			String key = file.getAbsolutePath() + '/' + file.length() + '/' + file.lastModified();
+			synchronized (mimeTypes) {
+				type = mimeTypes.get(key);
+			}
+			if (type == null) {
+				Metadata metadata = new Metadata();
+				metadata.set(TikaMetadataKeys.RESOURCE_NAME_KEY, file.getName());
+				TikaInputStream in = TikaInputStream.get(file);
+				try {
+					type = getTikaConfig().getDetector().detect(in, metadata).toString();
+				} finally {
+					in.close();
+				}
+				synchronized (mimeTypes) {
+					mimeTypes.put(key, type);
+				}
 			}
-			Metadata metadata = new Metadata();
-			metadata.set(TikaMetadataKeys.RESOURCE_NAME_KEY, file.getName());
-			MediaType detect = tika.getDetector().detect(TikaInputStream.get(file), metadata);
-			return detect.toString();
+			return type;
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} catch (TikaException e) {
@@ -110,6 +259,130 @@ public class EPUBFileUtil {
 		}
 	}
 
+	/**
+	 * Determines the MIME-type of files that can be recognized without a detailed examination of the content. An
+	 * extension is only trusted when the content does not start with the signature of an image.
+	 *
+	 * @param file
+	 *            the file to determine MIME-type for
+	 * @return the MIME-type or <code>null</code>
+	 * @throws IOException
+	 */
+	private static String getWellKnownMimeType(File file) throws IOException {
+		byte[] header = new byte[HEADER_LENGTH];
+		int length = 0;
+		FileInputStream in = new FileInputStream(file);
+		try {
+			int read;
+			while (length < header.length && (read = in.read(header, length, header.length - length)) != -1) {
+				length += read;
+			}
+		} finally {
+			in.close();
+		}
+		if (startsWith(header, length, PNG_SIGNATURE, 0)) {
+			return "image/png"; //$NON-NLS-1$
+		}
+		if (startsWith(header, length, JPEG_SIGNATURE, 0)) {
+			return "image/jpeg"; //$NON-NLS-1$
+		}
+		if (startsWith(header, length, GIF87_SIGNATURE, 0) || startsWith(header, length, GIF89_SIGNATURE, 0)) {
+			return "image/gif"; //$NON-NLS-1$
+		}
+		// The first entry of an EPUB is the uncompressed "mimetype" file
+		if (startsWith(header, length, ZIP_SIGNATURE, 0) && startsWith(header, length, EPUB_SIGNATURE, 30)) {
+			return EPUB.MIMETYPE_EPUB;
+		}
+		if (startsWith(header, length, MP3_SIGNATURE, 0)) {
+			return "audio/mpeg"; //$NON-NLS-1$
+		}
+		if (startsWith(header, length, MP4_SIGNATURE, 4)) {
+			return startsWith(header, length, M4A_SIGNATURE, 8) ? "audio/mp4" : "video/mp4"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (startsWith(header, length, WOFF_SIGNATURE, 0)) {
+			return "application/x-font-woff"; //$NON-NLS-1$
+		}
+		if (startsWith(header, length, OTF_SIGNATURE, 0)) {
+			return "application/x-font-otf"; //$NON-NLS-1$
+		}
+		String name = file.getName().toLowerCase();
+		if (name.endsWith(".ttf") && startsWith(header, length, TTF_SIGNATURE, 0)) { //$NON-NLS-1$
+			return "application/x-font-ttf"; //$NON-NLS-1$
+		}
+		if (name.endsWith(".xhtml") || name.endsWith(".xht")) { //$NON-NLS-1$ //$NON-NLS-2$
+			return Publication.MIMETYPE_XHTML;
+		}
+		if (name.endsWith(".css")) { //$NON-NLS-1$
+			return Publication.MIMETYPE_CSS;
+		}
+		if (name.endsWith(".svg")) { //$NON-NLS-1$
+			return "image/svg+xml"; //$NON-NLS-1$
+		}
+		// MP3 files without an ID3 tag start with the header of the first frame
+		if (name.endsWith(".mp3")) { //$NON-NLS-1$
+			return "audio/mpeg"; //$NON-NLS-1$
+		}
+		return null;
+	}
+
+	/**
+	 * Determines the MIME-type of a file from its extension alone, without reading the file.
+	 *
+	 * @param file
+	 *            the file to determine MIME-type for
+	 * @return the MIME-type or <code>null</code> if the extension is not known
+	 */
+	private static String getMimeTypeByExtension(File file) {
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		return dot == -1 ? null : extensionTypes.get(name.substring(dot + 1).toLowerCase());
+	}
+
+	private static boolean startsWith(byte[] header, int length, byte[] signature, int offset) {
+		if (length < offset + signature.length) {
+			return false;
+		}
+		for (int i = 0; i < signature.length; i++) {
+			if (header[offset + i] != signature[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes a digest of the content of the given file.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the digest as a hexadecimal string
+	 * @throws IOException
+	 */
+	static String getDigest(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		FileInputStream in = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[BUFFERSIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		} finally {
+			in.close();
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(b & 0xf, 16));
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Creates a path segment list.
 	 *
@@ -218,6 +491,41 @@ public class EPUBFileUtil {
 		destination.setLastModified(epubfile.lastModified());
 	}
 
+	/**
+	 * Opens the entry with the given name in the archive for reading.
+	 *
+	 * @param archive
+	 *            the EPUB archive
+	 * @param entryName
+	 *            the name of the entry
+	 * @return an input stream for the entry
+	 * @throws FileNotFoundException
+	 *             if the archive has no such entry
+	 * @throws IOException
+	 */
+	public static InputStream getInputStream(ZipFile archive, String entryName) throws IOException {
+		ZipEntry entry = archive.getEntry(entryName);
+		if (entry == null) {
+			throw new FileNotFoundException(entryName + " not found in " + archive.getName()); //$NON-NLS-1$
+		}
+		return archive.getInputStream(entry);
+	}
+
+	/**
+	 * Returns an URI identifying the entry with the given name in the archive. The URI uses the archive scheme of EMF,
+	 * so the file extension of the entry determines the resource factory used when loading the entry.
+	 *
+	 * @param archive
+	 *            the EPUB archive
+	 * @param entryName
+	 *            the name of the entry
+	 * @return the URI of the entry
+	 */
+	public static URI getURI(ZipFile archive, String entryName) {
+		URI archiveURI = URI.createFileURI(new File(archive.getName()).getAbsolutePath());
+		return URI.createURI("archive:" + archiveURI + "!/" + entryName); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	/**
 	 * A correctly formatted EPUB file must contain an uncompressed entry named <b>mimetype</b> that is placed at the
 	 * beginning. The contents of this file must be the ASCII-encoded string <b>application/epub+zip</b>. This method
@@ -255,15 +563,166 @@ public class EPUBFileUtil {
 	 * @throws IOException
 	 */
 	public static void zip(File destination, File folder) throws ZipException, IOException {
+		zip(destination, folder, new PackingPolicy());
+	}
+
+	/**
+	 * Recursively compresses contents of the given folder into a zip-file, compressing each file as determined by the
+	 * given policy for its media type. If a file already exists in the given location an exception will be thrown.
+	 *
+	 * @param destination
+	 *            the destination file
+	 * @param folder
+	 *            the source folder
+	 * @param policy
+	 *            the policy determining how content is compressed
+	 * @throws ZipException
+	 * @throws IOException
+	 */
+	public static void zip(File destination, File folder, PackingPolicy policy) throws ZipException, IOException {
 		if (destination.exists()) {
 			throw new IOException("A file already exists at " + destination.getAbsolutePath()); //$NON-NLS-1$
 		}
 		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(destination));
 		writeEPUBHeader(out);
-		zip(folder, folder, out);
+		zip(folder, folder, out, policy);
 		out.close();
 	}
 
+	/**
+	 * Adds the contents of the given file to the zip output stream as a new entry. The entry will retain the
+	 * modification date of the file.
+	 *
+	 * @param out
+	 *            the zip output stream
+	 * @param entryName
+	 *            the name of the entry using '/' as directory separator
+	 * @param file
+	 *            the file to add
+	 * @throws IOException
+	 */
+	public static void zip(ZipOutputStream out, String entryName, File file) throws IOException {
+		zip(out, entryName, file, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Adds the contents of the given file to the zip output stream as a new entry, compressed using the given level.
+	 * If the level is {@link Deflater#NO_COMPRESSION} the entry is stored. The file is then mapped into memory so that
+	 * the CRC and the entry are computed from the same buffer, reading the file only once. The entry will retain the
+	 * modification date of the file.
+	 *
+	 * @param out
+	 *            the zip output stream
+	 * @param entryName
+	 *            the name of the entry using '/' as directory separator
+	 * @param file
+	 *            the file to add
+	 * @param level
+	 *            the compression level
+	 * @throws IOException
+	 */
+	public static void zip(ZipOutputStream out, String entryName, File file, int level) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			ZipEntry zipEntry = new ZipEntry(entryName);
+			zipEntry.setTime(file.lastModified());
+			// The channel must not be closed as that would close the zip output stream
+			WritableByteChannel target = Channels.newChannel(out);
+			long size = channel.size();
+			if (level == Deflater.NO_COMPRESSION && size <= Integer.MAX_VALUE) {
+				MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+				CRC32 crc = new CRC32();
+				crc.update(buffer.duplicate());
+				setStored(zipEntry, size, crc.getValue());
+				out.putNextEntry(zipEntry);
+				while (buffer.hasRemaining()) {
+					target.write(buffer);
+				}
+			} else if (level == Deflater.NO_COMPRESSION) {
+				setStored(zipEntry, size, getCrc(channel));
+				out.putNextEntry(zipEntry);
+				transfer(channel, target);
+			} else {
+				out.setLevel(level);
+				out.putNextEntry(zipEntry);
+				transfer(channel, target);
+			}
+			out.closeEntry();
+			out.setLevel(Deflater.DEFAULT_COMPRESSION);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Adds the given content to the zip output stream as a new entry.
+	 *
+	 * @param out
+	 *            the zip output stream
+	 * @param entryName
+	 *            the name of the entry using '/' as directory separator
+	 * @param content
+	 *            the content to add
+	 * @throws IOException
+	 */
+	public static void zip(ZipOutputStream out, String entryName, byte[] content) throws IOException {
+		zip(out, entryName, content, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Adds the given content to the zip output stream as a new entry, compressed using the given level. If the level
+	 * is {@link Deflater#NO_COMPRESSION} the entry is stored.
+	 *
+	 * @param out
+	 *            the zip output stream
+	 * @param entryName
+	 *            the name of the entry using '/' as directory separator
+	 * @param content
+	 *            the content to add
+	 * @param level
+	 *            the compression level
+	 * @throws IOException
+	 */
+	public static void zip(ZipOutputStream out, String entryName, byte[] content, int level) throws IOException {
+		ZipEntry zipEntry = new ZipEntry(entryName);
+		if (level == Deflater.NO_COMPRESSION) {
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			setStored(zipEntry, content.length, crc.getValue());
+		} else {
+			out.setLevel(level);
+		}
+		out.putNextEntry(zipEntry);
+		out.write(content);
+		out.closeEntry();
+		out.setLevel(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	private static void setStored(ZipEntry zipEntry, long size, long crc) {
+		zipEntry.setMethod(ZipEntry.STORED);
+		zipEntry.setSize(size);
+		zipEntry.setCompressedSize(size);
+		zipEntry.setCrc(crc);
+	}
+
+	/**
+	 * Computes the CRC of the entire contents of the given channel, leaving its position unchanged.
+	 */
+	private static long getCrc(FileChannel channel) throws IOException {
+		CRC32 crc = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFERSIZE);
+		long position = 0;
+		int read;
+		while ((read = channel.read(buffer, position)) != -1) {
+			buffer.flip();
+			crc.update(buffer);
+			buffer.clear();
+			position += read;
+		}
+		return crc.getValue();
+	}
+
 	/**
 	 * Adds a folder recursively to the output stream.
 	 *
@@ -271,9 +730,11 @@ public class EPUBFileUtil {
 	 *            the root folder
 	 * @param out
 	 *            the output stream
+	 * @param policy
+	 *            the policy determining how content is compressed
 	 * @throws IOException
 	 */
-	private static void zip(File root, File folder, ZipOutputStream out) throws IOException {
+	private static void zip(File root, File folder, ZipOutputStream out, PackingPolicy policy) throws IOException {
 		// Files first in order to make sure "metadata" is placed first in the
 		// zip file. We need that in order to support EPUB properly. Also do
 		// not add a mimetype file – it has already been added to the stream.
@@ -282,19 +743,13 @@ public class EPUBFileUtil {
 				return !pathname.isDirectory() && !pathname.getName().equals("mimetype"); //$NON-NLS-1$
 			}
 		});
-		byte[] tmpBuf = new byte[BUFFERSIZE];
-
 		for (File file : files) {
-			FileInputStream in = new FileInputStream(file.getAbsolutePath());
-			ZipEntry zipEntry = new ZipEntry(getRelativePath(root, file));
-			zipEntry.setTime(file.lastModified());
-			out.putNextEntry(zipEntry);
-			int len;
-			while ((len = in.read(tmpBuf)) > 0) {
-				out.write(tmpBuf, 0, len);
+			// The extension is sufficient to choose a level, so the content is only examined for unknown extensions
+			String mimeType = getMimeTypeByExtension(file);
+			if (mimeType == null) {
+				mimeType = getMimeType(file);
 			}
-			out.closeEntry();
-			in.close();
+			zip(out, getRelativePath(root, file), file, policy.getLevel(mimeType));
 		}
 		File[] dirs = folder.listFiles(new java.io.FileFilter() {
 			public boolean accept(File pathname) {
@@ -305,7 +760,7 @@ public class EPUBFileUtil {
 			ZipEntry f = new ZipEntry(getRelativePath(root, dir));
 			f.setTime(dir.lastModified());
 			out.putNextEntry(f);
-			zip(root, dir, out);
+			zip(root, dir, out, policy);
 		}
 	}
 
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.internal.docs.epub.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * This type keeps track of the content files written to an EPUB, so that entries of files that have not changed since
+ * the EPUB was last assembled can be taken from the previous EPUB. A digest of each file is kept in a file next to the
+ * EPUB. A file is considered unchanged when its size and modification time are the same as when the digest was
+ * recorded, in which case the digest is not computed again, or when it has the recorded digest. An entry is only
+ * taken from the previous EPUB when it was compressed using the same level, and when its CRC-32 and sizes are those
+ * recorded along with the digest, so that digests that do not belong to the previous EPUB are never trusted.
+ * <p>
+ * Entries are first written to a staging archive using the stream of {@link #createOutputStream(File)}, except for
+ * entries that are taken from the previous EPUB. The EPUB is then assembled by {@link #finish(File, File)}, copying the
+ * compressed data of the entries of both archives as is. Entries are thus never decompressed or compressed again.
+ * </p>
+ *
+ * @author agent
+ */
+public class IncrementalArchive implements Closeable {
+
+	/** Suffix of the file holding the digests, appended to the name of the EPUB */
+	private static final String DIGESTS_SUFFIX = ".digests"; //$NON-NLS-1$
+
+	/**
+	 * Number of fields of a record: the size, modification time, compression level and digest of the file, followed
+	 * by the CRC-32, compressed size and size of its entry
+	 */
+	private static final int RECORD_FIELDS = 7;
+
+	private final File epubFile;
+
+	/** The previously assembled EPUB or <code>null</code> */
+	private final FileChannel previousChannel;
+
+	/** The central directory of the previously assembled EPUB or <code>null</code> */
+	private final ZipDirectory previous;
+
+	/** Digests recorded when the previous EPUB was assembled */
+	private final Properties recorded = new Properties();
+
+	/** Digests of the files written to the new EPUB */
+	private final Properties digests = new Properties();
+
+	/** Names of all entries of the new EPUB in the order they were written */
+	private final List<String> entryNames = new ArrayList<String>();
+
+	/** Entries of the previous EPUB to be included in the new EPUB */
+	private final Map<String, ZipDirectory.Entry> reusedEntries = new HashMap<String, ZipDirectory.Entry>();
+
+	/**
+	 * Opens the previously assembled EPUB, if any, along with the recorded digests. If the previous EPUB cannot be
+	 * read, all content is written anew.
+	 *
+	 * @param epubFile
+	 *            the EPUB file that is to be assembled
+	 * @throws IOException
+	 */
+	public IncrementalArchive(File epubFile) throws IOException {
+		this.epubFile = epubFile;
+		File digestFile = getDigestFile(epubFile);
+		FileChannel channel = null;
+		ZipDirectory directory = null;
+		if (epubFile.isFile() && digestFile.isFile()) {
+			InputStream in = new BufferedInputStream(new FileInputStream(digestFile));
+			try {
+				recorded.load(in);
+			} finally {
+				in.close();
+			}
+			channel = new FileInputStream(epubFile).getChannel();
+			try {
+				directory = new ZipDirectory(channel);
+			} catch (ZipException e) {
+				channel.close();
+				channel = null;
+			}
+		}
+		previousChannel = channel;
+		previous = directory;
+	}
+
+	/**
+	 * Returns the file the digests of the given EPUB are kept in.
+	 *
+	 * @param epubFile
+	 *            the EPUB file
+	 * @return the digest file
+	 */
+	public static File getDigestFile(File epubFile) {
+		return new File(epubFile.getPath() + DIGESTS_SUFFIX);
+	}
+
+	/**
+	 * Creates the stream for writing the staging archive, which records the order of the entries.
+	 *
+	 * @param staging
+	 *            the staging archive
+	 * @return the zip output stream
+	 * @throws IOException
+	 */
+	public ZipOutputStream createOutputStream(File staging) throws IOException {
+		return new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(staging))) {
+
+			@Override
+			public void putNextEntry(ZipEntry e) throws IOException {
+				super.putNextEntry(e);
+				entryNames.add(e.getName());
+			}
+		};
+	}
+
+	/**
+	 * Adds the contents of the given file as a new entry. If the file has not changed since the previous EPUB was
+	 * assembled, the entry of the previous EPUB is used, otherwise the file is added to the zip output stream.
+	 *
+	 * @param out
+	 *            the zip output stream, as created by {@link #createOutputStream(File)}
+	 * @param entryName
+	 *            the name of the entry using '/' as directory separator
+	 * @param file
+	 *            the file to add
+	 * @param level
+	 *            the compression level, where {@link Deflater#NO_COMPRESSION} will store the entry
+	 * @return <code>true</code> if the entry of the previous EPUB was used
+	 * @throws IOException
+	 */
+	public boolean zip(ZipOutputStream out, String entryName, File file, int level) throws IOException {
+		String stamp = Long.toString(file.length()) + ' ' + Long.toString(file.lastModified()) + ' '
+				+ Integer.toString(level);
+		String[] record = getRecord(entryName);
+		String digest;
+		if (record != null && stamp.equals(record[0] + ' ' + record[1] + ' ' + record[2])) {
+			digest = record[3];
+		} else {
+			digest = EPUBFileUtil.getDigest(file);
+		}
+		// The entry fields are added once the entry has been written
+		digests.setProperty(entryName, stamp + ' ' + digest);
+		ZipDirectory.Entry entry = previous == null ? null : previous.getEntry(entryName);
+		if (entry != null && record != null && record[2].equals(Integer.toString(level)) && record[3].equals(digest)
+				&& entry.size == file.length() && isRecorded(record, entry)) {
+			entryNames.add(entryName);
+			reusedEntries.put(entryName, entry);
+			return true;
+		}
+		EPUBFileUtil.zip(out, entryName, file, level);
+		return false;
+	}
+
+	/**
+	 * Returns the fields of the record of the given entry of the previous EPUB.
+	 *
+	 * @return the fields, or <code>null</code> if no complete record was kept
+	 */
+	private String[] getRecord(String entryName) {
+		String record = recorded.getProperty(entryName);
+		if (record == null) {
+			return null;
+		}
+		String[] fields = record.split(" "); //$NON-NLS-1$
+		return fields.length == RECORD_FIELDS ? fields : null;
+	}
+
+	/**
+	 * Tests whether the CRC-32 and sizes of the given entry of the previous EPUB are those of the record.
+	 */
+	private static boolean isRecorded(String[] record, ZipDirectory.Entry entry) {
+		return record[4].equals(Long.toString(entry.crc)) && record[5].equals(Long.toString(entry.compressedSize))
+				&& record[6].equals(Long.toString(entry.size));
+	}
+
+	/**
+	 * Assembles the EPUB from the entries of the staging archive and the entries taken from the previous EPUB, in the
+	 * order they were added.
+	 *
+	 * @param staging
+	 *            the staging archive, which must have been closed
+	 * @param target
+	 *            the file to write the EPUB to
+	 * @throws IOException
+	 */
+	public void finish(File staging, File target) throws IOException {
+		FileChannel stagingChannel = new FileInputStream(staging).getChannel();
+		try {
+			ZipDirectory written = new ZipDirectory(stagingChannel);
+			RawZipWriter out = new RawZipWriter(new FileOutputStream(target).getChannel());
+			try {
+				for (String entryName : entryNames) {
+					ZipDirectory.Entry entry = reusedEntries.get(entryName);
+					if (entry != null) {
+						out.copy(previous, entry);
+					} else {
+						entry = written.getEntry(entryName);
+						if (entry == null) {
+							throw new ZipException("Missing entry " + entryName); //$NON-NLS-1$
+						}
+						out.copy(written, entry);
+					}
+					String digest = digests.getProperty(entryName);
+					if (digest != null) {
+						digests.setProperty(entryName, digest + ' ' + Long.toString(entry.crc) + ' '
+								+ Long.toString(entry.compressedSize) + ' ' + Long.toString(entry.size));
+					}
+				}
+			} finally {
+				out.close();
+			}
+		} finally {
+			stagingChannel.close();
+		}
+	}
+
+	/**
+	 * Returns the number of entries that have been taken from the previous EPUB.
+	 *
+	 * @return the number of entries reused
+	 */
+	public int getReusedCount() {
+		return reusedEntries.size();
+	}
+
+	/**
+	 * Saves the digests of the files that have been written, replacing those of the previous EPUB. This must be done
+	 * once the new EPUB has replaced the previous one.
+	 *
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(getDigestFile(epubFile)));
+		try {
+			digests.store(out, null);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Closes the previous EPUB.
+	 */
+	public void close() throws IOException {
+		if (previousChannel != null) {
+			previousChannel.close();
+		}
+	}
+}
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.internal.docs.epub.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.mylyn.docs.epub.opf.Item;
+import org.eclipse.mylyn.docs.epub.opf.Manifest;
+import org.eclipse.mylyn.docs.epub.opf.OPFPackage;
+
+/**
+ * This type maintains indexes of the items in a publication manifest by identifier, file and media type, so that items
+ * can be looked up without iterating over the entire manifest. The indexes are kept in sync with the manifest by
+ * listening to changes of the manifest and the items it contains. Changes that cannot be applied to the indexes
+ * directly, such as items being moved, cause the indexes to be rebuilt when next used.
+ *
+ * @author agent
+ */
+public class ManifestIndex extends EContentAdapter {
+
+	/**
+	 * Returns the index of the given manifest, creating it if it does not exist yet.
+	 *
+	 * @param manifest
+	 *            the publication manifest
+	 * @return the index
+	 */
+	public static ManifestIndex getIndex(Manifest manifest) {
+		for (Adapter adapter : manifest.eAdapters()) {
+			if (adapter instanceof ManifestIndex) {
+				return (ManifestIndex) adapter;
+			}
+		}
+		ManifestIndex index = new ManifestIndex(manifest);
+		manifest.eAdapters().add(index);
+		return index;
+	}
+
+	private final Manifest manifest;
+
+	private final Map<String, List<Item>> itemsById = new HashMap<String, List<Item>>();
+
+	private final Map<String, List<Item>> itemsByFile = new HashMap<String, List<Item>>();
+
+	private final Map<String, List<Item>> itemsByMediaType = new HashMap<String, List<Item>>();
+
+	/** Whether or not the indexes reflect the current contents of the manifest */
+	private boolean valid;
+
+	private ManifestIndex(Manifest manifest) {
+		this.manifest = manifest;
+	}
+
+	/**
+	 * Returns the first item in the manifest with the given identifier.
+	 *
+	 * @param id
+	 *            the identifier
+	 * @return the item or <code>null</code>
+	 */
+	public Item getItemById(String id) {
+		return getFirst(itemsById, id);
+	}
+
+	/**
+	 * Returns the first item in the manifest with the given file.
+	 *
+	 * @param file
+	 *            the absolute path of the file
+	 * @return the item or <code>null</code>
+	 */
+	public Item getItemByFile(String file) {
+		return getFirst(itemsByFile, file);
+	}
+
+	/**
+	 * Returns all items in the manifest with the given media type, in manifest order.
+	 *
+	 * @param mediaType
+	 *            the media type
+	 * @return an unmodifiable list of items
+	 */
+	public List<Item> getItemsByMediaType(String mediaType) {
+		validate();
+		List<Item> items = itemsByMediaType.get(mediaType);
+		if (items == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(items);
+	}
+
+	private Item getFirst(Map<String, List<Item>> index, String key) {
+		validate();
+		List<Item> items = index.get(key);
+		if (items == null) {
+			return null;
+		}
+		if (items.size() == 1) {
+			return items.get(0);
+		}
+		// Keys are expected to be unique, so this is the exceptional case
+		EList<Item> manifestItems = manifest.getItems();
+		Item first = null;
+		int firstIndex = Integer.MAX_VALUE;
+		for (Item item : items) {
+			int itemIndex = manifestItems.indexOf(item);
+			if (itemIndex < firstIndex) {
+				first = item;
+				firstIndex = itemIndex;
+			}
+		}
+		return first;
+	}
+
+	private void validate() {
+		if (!valid) {
+			itemsById.clear();
+			itemsByFile.clear();
+			itemsByMediaType.clear();
+			for (Item item : manifest.getItems()) {
+				add(item);
+			}
+			valid = true;
+		}
+	}
+
+	private void add(Item item) {
+		put(itemsById, item.getId(), item);
+		put(itemsByFile, item.getFile(), item);
+		put(itemsByMediaType, item.getMedia_type(), item);
+	}
+
+	private void remove(Item item) {
+		remove(itemsById, item.getId(), item);
+		remove(itemsByFile, item.getFile(), item);
+		remove(itemsByMediaType, item.getMedia_type(), item);
+	}
+
+	private static void put(Map<String, List<Item>> index, String key, Item item) {
+		List<Item> items = index.get(key);
+		if (items == null) {
+			items = new ArrayList<Item>(1);
+			index.put(key, items);
+		}
+		items.add(item);
+	}
+
+	private static void remove(Map<String, List<Item>> index, String key, Item item) {
+		List<Item> items = index.get(key);
+		if (items != null) {
+			items.remove(item);
+			if (items.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+		if (!valid || notification.isTouch()) {
+			return;
+		}
+		Object feature = notification.getFeature();
+		if (feature == OPFPackage.Literals.MANIFEST__ITEMS) {
+			int eventType = notification.getEventType();
+			if (eventType == Notification.ADD && notification.getPosition() == manifest.getItems().size() - 1) {
+				add((Item) notification.getNewValue());
+			} else if (eventType == Notification.REMOVE) {
+				remove((Item) notification.getOldValue());
+			} else {
+				// Moved, inserted or replaced items affect the order of items
+				valid = false;
+			}
+		} else if (feature == OPFPackage.Literals.ITEM__ID) {
+			Item item = (Item) notification.getNotifier();
+			remove(itemsById, notification.getOldStringValue(), item);
+			put(itemsById, item.getId(), item);
+		} else if (feature == OPFPackage.Literals.ITEM__FILE) {
+			Item item = (Item) notification.getNotifier();
+			remove(itemsByFile, notification.getOldStringValue(), item);
+			put(itemsByFile, item.getFile(), item);
+		} else if (feature == OPFPackage.Literals.ITEM__MEDIA_TYPE) {
+			valid = false;
+		}
+	}
+}
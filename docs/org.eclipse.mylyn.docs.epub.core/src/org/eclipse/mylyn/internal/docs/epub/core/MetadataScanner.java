@@ -13,8 +13,6 @@ package org.eclipse.mylyn.internal.docs.epub.core;
 import java.io.IOException;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.eclipse.mylyn.docs.epub.opf.Metadata;
 import org.xml.sax.Attributes;
@@ -50,13 +48,9 @@ public final class MetadataScanner extends AbstractXHTMLScanner {
 
 	public static void parse(InputSource file, Metadata metadata) throws ParserConfigurationException, SAXException,
 			IOException {
-		SAXParserFactory factory = SAXParserFactory.newInstance();
-		factory.setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
-		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false); //$NON-NLS-1$
-		SAXParser parser = factory.newSAXParser();
 		MetadataScanner tocGenerator = new MetadataScanner(metadata);
 		try {
-			parser.parse(file, tocGenerator);
+			SAXParserPool.parse(file, tocGenerator);
 		} catch (SAXException e) {
 			e.printStackTrace();
 		}
@@ -16,8 +16,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.eclipse.mylyn.docs.epub.core.ValidationMessage;
 import org.eclipse.mylyn.docs.epub.core.ValidationMessage.Severity;
@@ -45,13 +43,9 @@ public class OPSValidator extends DefaultHandler {
 
 	public static String clean(InputSource file, String href) throws ParserConfigurationException, SAXException,
 			IOException {
-		SAXParserFactory factory = SAXParserFactory.newInstance();
-		factory.setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
-		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false); //$NON-NLS-1$
-		SAXParser parser = factory.newSAXParser();
 		OPSValidator tocGenerator = new OPSValidator(href, Mode.REMOVE);
 		try {
-			parser.parse(file, tocGenerator);
+			SAXParserPool.parse(file, tocGenerator);
 			return tocGenerator.getContents().toString();
 		} catch (SAXException e) {
 			System.err.println("Could not parse " + href); //$NON-NLS-1$
@@ -62,13 +56,9 @@ public class OPSValidator extends DefaultHandler {
 
 	public static List<ValidationMessage> validate(InputSource file, String href) throws ParserConfigurationException,
 			SAXException, IOException {
-		SAXParserFactory factory = SAXParserFactory.newInstance();
-		factory.setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
-		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false); //$NON-NLS-1$
-		SAXParser parser = factory.newSAXParser();
 		OPSValidator tocGenerator = new OPSValidator(href, Mode.WARN);
 		try {
-			parser.parse(file, tocGenerator);
+			SAXParserPool.parse(file, tocGenerator);
 			return tocGenerator.getMessages();
 		} catch (SAXException e) {
 			System.err.println("Could not parse " + href); //$NON-NLS-1$
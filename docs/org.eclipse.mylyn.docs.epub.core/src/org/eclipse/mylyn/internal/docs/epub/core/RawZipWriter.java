@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.internal.docs.epub.core;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipException;
+
+/**
+ * Writes a zip file made up of entries copied from other zip files. The compressed data of each entry is copied as is,
+ * so that entries are neither decompressed nor compressed again. Entries are written with the sizes and CRC in the
+ * local header, and without extra fields.
+ *
+ * @author agent
+ */
+class RawZipWriter implements Closeable {
+
+	/** General purpose flag indicating that the sizes and CRC follow the data rather than being in the local header */
+	private static final int DATA_DESCRIPTOR_FLAG = 8;
+
+	private static final int VERSION_MADE_BY = 20;
+
+	private final FileChannel out;
+
+	private final List<ZipDirectory.Entry> written = new ArrayList<ZipDirectory.Entry>();
+
+	private final Set<String> names = new HashSet<String>();
+
+	/**
+	 * Creates a new writer.
+	 *
+	 * @param out
+	 *            the channel of the zip file to write, which is closed along with the writer
+	 */
+	RawZipWriter(FileChannel out) {
+		this.out = out;
+	}
+
+	/**
+	 * Copies the given entry to the end of the zip file.
+	 *
+	 * @param directory
+	 *            the zip file containing the entry
+	 * @param entry
+	 *            the entry to copy
+	 * @throws IOException
+	 */
+	void copy(ZipDirectory directory, ZipDirectory.Entry entry) throws IOException {
+		if (!names.add(entry.name)) {
+			throw new ZipException("Duplicate entry " + entry.name); //$NON-NLS-1$
+		}
+		long offset = out.position();
+		if (offset >= ZipDirectory.ZIP64_MAGIC) {
+			throw new ZipException("ZIP64 archives are not supported"); //$NON-NLS-1$
+		}
+		// The sizes are in the local header, so a data descriptor following the data is not copied
+		int flags = entry.flags & ~DATA_DESCRIPTOR_FLAG;
+		ByteBuffer header = ByteBuffer.allocate(ZipDirectory.LOCAL_HEADER_LENGTH + entry.rawName.length)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(ZipDirectory.LOCAL_HEADER_SIGNATURE);
+		header.putShort((short) entry.versionNeeded);
+		header.putShort((short) flags);
+		header.putShort((short) entry.method);
+		header.putInt(entry.dosTime);
+		header.putInt((int) entry.crc);
+		header.putInt((int) entry.compressedSize);
+		header.putInt((int) entry.size);
+		header.putShort((short) entry.rawName.length);
+		header.putShort((short) 0);
+		header.put(entry.rawName);
+		write(header);
+		FileChannel source = directory.getChannel();
+		long position = directory.getDataOffset(entry);
+		long end = position + entry.compressedSize;
+		while (position < end) {
+			long transferred = source.transferTo(position, end - position, out);
+			if (transferred <= 0) {
+				throw new EOFException("Truncated data of " + entry.name); //$NON-NLS-1$
+			}
+			position += transferred;
+		}
+		written.add(entry.moveTo(offset, flags));
+	}
+
+	/**
+	 * Writes the central directory and closes the zip file.
+	 */
+	public void close() throws IOException {
+		try {
+			long directoryOffset = out.position();
+			for (ZipDirectory.Entry entry : written) {
+				ByteBuffer header = ByteBuffer.allocate(ZipDirectory.CENTRAL_HEADER_LENGTH + entry.rawName.length)
+						.order(ByteOrder.LITTLE_ENDIAN);
+				header.putInt(ZipDirectory.CENTRAL_HEADER_SIGNATURE);
+				header.putShort((short) VERSION_MADE_BY);
+				header.putShort((short) entry.versionNeeded);
+				header.putShort((short) entry.flags);
+				header.putShort((short) entry.method);
+				header.putInt(entry.dosTime);
+				header.putInt((int) entry.crc);
+				header.putInt((int) entry.compressedSize);
+				header.putInt((int) entry.size);
+				header.putShort((short) entry.rawName.length);
+				header.putShort((short) 0); // extra field length
+				header.putShort((short) 0); // comment length
+				header.putShort((short) 0); // disk number
+				header.putShort((short) 0); // internal attributes
+				header.putInt(0); // external attributes
+				header.putInt((int) entry.offset);
+				header.put(entry.rawName);
+				write(header);
+			}
+			long directorySize = out.position() - directoryOffset;
+			if (written.size() >= 0xffff || out.position() >= ZipDirectory.ZIP64_MAGIC) {
+				throw new ZipException("ZIP64 archives are not supported"); //$NON-NLS-1$
+			}
+			ByteBuffer end = ByteBuffer.allocate(ZipDirectory.END_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+			end.putInt(ZipDirectory.END_HEADER_SIGNATURE);
+			end.putShort((short) 0); // disk number
+			end.putShort((short) 0); // disk with the central directory
+			end.putShort((short) written.size());
+			end.putShort((short) written.size());
+			end.putInt((int) directorySize);
+			end.putInt((int) directoryOffset);
+			end.putShort((short) 0); // comment length
+			write(end);
+		} finally {
+			out.close();
+		}
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+}
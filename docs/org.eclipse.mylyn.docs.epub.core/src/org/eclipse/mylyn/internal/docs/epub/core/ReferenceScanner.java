@@ -18,8 +18,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.eclipse.mylyn.docs.epub.opf.Item;
 import org.xml.sax.Attributes;
@@ -37,14 +35,10 @@ public class ReferenceScanner extends AbstractXHTMLScanner {
 	public static List<File> parse(Item item) throws ParserConfigurationException, SAXException, IOException {
 		FileReader fr = new FileReader(item.getFile());
 		InputSource file = new InputSource(fr);
-		SAXParserFactory factory = SAXParserFactory.newInstance();
-		factory.setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
-		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false); //$NON-NLS-1$
-		SAXParser parser = factory.newSAXParser();
 		String href = item.getHref();
 		ReferenceScanner scanner = new ReferenceScanner(item);
 		try {
-			parser.parse(file, scanner);
+			SAXParserPool.parse(file, scanner);
 			return scanner.files;
 		} catch (SAXException e) {
 			System.err.println("Could not parse " + href); //$NON-NLS-1$
@@ -63,6 +57,15 @@ public class ReferenceScanner extends AbstractXHTMLScanner {
 		currentItem = item;
 	}
 
+	/**
+	 * Returns the files referenced from the scanned XHTML file.
+	 *
+	 * @return the referenced files
+	 */
+	public List<File> getFiles() {
+		return files;
+	}
+
 	/**
 	 * Case-insensitive method for obtaining an attribute.
 	 * 
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.internal.docs.epub.core;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * This type provides the SAX parsers used for scanning and validating EPUB content. The parsers are non-validating and
+ * will not load external DTDs. Looking up the parser factory and creating a parser is costly compared to parsing a
+ * typical content file, so the factory is shared and each thread keeps its parser for reuse. A parser is reset after
+ * each use. Should a parser be requested by a thread while its own parser is in use, a new parser is created.
+ *
+ * @author agent
+ */
+public final class SAXParserPool {
+
+	private static final SAXParserFactory factory = createFactory();
+
+	private static final ThreadLocal<SAXParser> parsers = new ThreadLocal<SAXParser>();
+
+	private static final AtomicInteger creations = new AtomicInteger();
+
+	private SAXParserPool() {
+	}
+
+	private static SAXParserFactory createFactory() {
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		try {
+			factory.setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
+			factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false); //$NON-NLS-1$
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IllegalStateException(e);
+		}
+		return factory;
+	}
+
+	/**
+	 * Parses the given content using a pooled parser, passing all events to the given handler.
+	 *
+	 * @param source
+	 *            the content to parse
+	 * @param handler
+	 *            the handler receiving the events
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 * @throws IOException
+	 */
+	public static void parse(InputSource source, DefaultHandler handler)
+			throws ParserConfigurationException, SAXException, IOException {
+		SAXParser parser = acquire();
+		try {
+			parser.parse(source, handler);
+		} finally {
+			release(parser);
+		}
+	}
+
+	/**
+	 * Returns the number of parsers that have been created by the pool.
+	 *
+	 * @return the number of parsers created
+	 */
+	public static int getCreationCount() {
+		return creations.get();
+	}
+
+	private static SAXParser acquire() throws ParserConfigurationException, SAXException {
+		SAXParser parser = parsers.get();
+		if (parser != null) {
+			// Nested parses on the same thread will use a parser of their own
+			parsers.set(null);
+			return parser;
+		}
+		synchronized (factory) {
+			parser = factory.newSAXParser();
+		}
+		creations.incrementAndGet();
+		return parser;
+	}
+
+	private static void release(SAXParser parser) {
+		parser.reset();
+		parsers.set(parser);
+	}
+}
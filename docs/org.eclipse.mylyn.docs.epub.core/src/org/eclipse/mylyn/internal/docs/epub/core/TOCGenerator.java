@@ -12,10 +12,11 @@
 package org.eclipse.mylyn.internal.docs.epub.core;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.eclipse.emf.ecore.util.FeatureMapUtil;
 import org.eclipse.mylyn.docs.epub.ncx.Content;
@@ -48,6 +49,17 @@ public class TOCGenerator extends AbstractXHTMLScanner {
 		return playOrder;
 	}
 
+	/**
+	 * Creates a generator collecting the headers of one XHTML file into a table of contents of its own. Use
+	 * {@link #appendTo(Ncx, int)} to merge the result into the publication table of contents.
+	 *
+	 * @param href
+	 *            the reference to the XHTML file
+	 */
+	public TOCGenerator(String href) {
+		this(href, createNcx(), 0);
+	}
+
 	public TOCGenerator(String href, Ncx ncx, int playOrder) {
 		super();
 		buffer = new StringBuilder();
@@ -84,6 +96,56 @@ public class TOCGenerator extends AbstractXHTMLScanner {
 		}
 	}
 
+	private static Ncx createNcx() {
+		Ncx ncx = NCXFactory.eINSTANCE.createNcx();
+		ncx.setNavMap(NCXFactory.eINSTANCE.createNavMap());
+		return ncx;
+	}
+
+	/**
+	 * Moves the navigation points collected by this generator to the given table of contents, numbering them in
+	 * document order starting after the given play order.
+	 *
+	 * @param target
+	 *            the table of contents to add headers to
+	 * @param playOrder
+	 *            the play order of the last navigation point in the target
+	 * @return the play order of the last navigation point added
+	 */
+	public int appendTo(Ncx target, int playOrder) {
+		this.playOrder = append(new ArrayList<NavPoint>(ncx.getNavMap().getNavPoints()), target, playOrder);
+		return this.playOrder;
+	}
+
+	/**
+	 * Moves the given navigation points to the given table of contents, numbering them in document order starting after
+	 * the given play order.
+	 *
+	 * @param navPoints
+	 *            the navigation points to add
+	 * @param target
+	 *            the table of contents to add the navigation points to
+	 * @param playOrder
+	 *            the play order of the last navigation point in the target
+	 * @return the play order of the last navigation point added
+	 */
+	public static int append(Collection<NavPoint> navPoints, Ncx target, int playOrder) {
+		for (NavPoint np : navPoints) {
+			playOrder = renumber(np, playOrder);
+		}
+		target.getNavMap().getNavPoints().addAll(navPoints);
+		return playOrder;
+	}
+
+	private static int renumber(NavPoint np, int playOrder) {
+		np.setPlayOrder(++playOrder);
+		np.setId("navpoint" + playOrder); //$NON-NLS-1$
+		for (NavPoint child : np.getNavPoints()) {
+			playOrder = renumber(child, playOrder);
+		}
+		return playOrder;
+	}
+
 	private NavPoint createNavPoint(String title) {
 		NavPoint np = NCXFactory.eINSTANCE.createNavPoint();
 		NavLabel nl = NCXFactory.eINSTANCE.createNavLabel();
@@ -129,13 +191,9 @@ public class TOCGenerator extends AbstractXHTMLScanner {
 	 */
 	public static int parse(InputSource file, String href, Ncx ncx, int playOrder) throws ParserConfigurationException,
 			SAXException, IOException {
-		SAXParserFactory factory = SAXParserFactory.newInstance();
-		factory.setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
-		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false); //$NON-NLS-1$
-		SAXParser parser = factory.newSAXParser();
 		TOCGenerator tocGenerator = new TOCGenerator(href, ncx, playOrder);
 		try {
-			parser.parse(file, tocGenerator);
+			SAXParserPool.parse(file, tocGenerator);
 		} catch (SAXException e) {
 			System.err.println("Could not parse " + href); //$NON-NLS-1$
 			e.printStackTrace();
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.internal.docs.epub.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipException;
+
+/**
+ * The entries of a zip file as listed in its central directory. The location of the compressed data of each entry is
+ * known, so that the entry can be copied to another zip file using {@link RawZipWriter} without being decompressed.
+ * ZIP64 archives are not supported.
+ *
+ * @author agent
+ */
+class ZipDirectory {
+
+	static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+	static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+	static final int END_HEADER_SIGNATURE = 0x06054b50;
+
+	static final int LOCAL_HEADER_LENGTH = 30;
+
+	static final int CENTRAL_HEADER_LENGTH = 46;
+
+	static final int END_HEADER_LENGTH = 22;
+
+	/** The largest value of a 32-bit field, which indicates that the actual value is in a ZIP64 extra field */
+	static final long ZIP64_MAGIC = 0xffffffffL;
+
+	static final Charset UTF_8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+	/**
+	 * An entry of the zip file.
+	 */
+	static class Entry {
+
+		final String name;
+
+		final byte[] rawName;
+
+		final int versionNeeded;
+
+		final int flags;
+
+		final int method;
+
+		/** The MS-DOS time and date, as they appear in the headers */
+		final int dosTime;
+
+		final long crc;
+
+		final long compressedSize;
+
+		final long size;
+
+		/** The offset of the local header of the entry */
+		final long offset;
+
+		Entry(byte[] rawName, int versionNeeded, int flags, int method, int dosTime, long crc, long compressedSize,
+				long size, long offset) {
+			this.name = new String(rawName, UTF_8);
+			this.rawName = rawName;
+			this.versionNeeded = versionNeeded;
+			this.flags = flags;
+			this.method = method;
+			this.dosTime = dosTime;
+			this.crc = crc;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.offset = offset;
+		}
+
+		/**
+		 * Returns a copy of this entry with its local header at the given offset.
+		 */
+		Entry moveTo(long newOffset, int newFlags) {
+			return new Entry(rawName, versionNeeded, newFlags, method, dosTime, crc, compressedSize, size, newOffset);
+		}
+	}
+
+	private final FileChannel channel;
+
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+	/**
+	 * Reads the central directory of the zip file open in the given channel.
+	 *
+	 * @param channel
+	 *            the zip file, which is not closed
+	 * @throws ZipException
+	 *             if the file is not a zip file or uses ZIP64 extensions
+	 * @throws IOException
+	 */
+	ZipDirectory(FileChannel channel) throws IOException {
+		this.channel = channel;
+		ByteBuffer end = findEndHeader();
+		int count = end.getShort(10) & 0xffff;
+		long directorySize = end.getInt(12) & ZIP64_MAGIC;
+		long directoryOffset = end.getInt(16) & ZIP64_MAGIC;
+		if (count == 0xffff || directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC) {
+			throw new ZipException("ZIP64 archives are not supported"); //$NON-NLS-1$
+		}
+		ByteBuffer directory = read(directoryOffset, (int) directorySize);
+		for (int i = 0; i < count; i++) {
+			if (directory.remaining() < CENTRAL_HEADER_LENGTH || directory.getInt() != CENTRAL_HEADER_SIGNATURE) {
+				throw new ZipException("Invalid central directory"); //$NON-NLS-1$
+			}
+			directory.getShort(); // version made by
+			int versionNeeded = directory.getShort() & 0xffff;
+			int flags = directory.getShort() & 0xffff;
+			int method = directory.getShort() & 0xffff;
+			int dosTime = directory.getInt();
+			long crc = directory.getInt() & ZIP64_MAGIC;
+			long compressedSize = directory.getInt() & ZIP64_MAGIC;
+			long size = directory.getInt() & ZIP64_MAGIC;
+			int nameLength = directory.getShort() & 0xffff;
+			int extraLength = directory.getShort() & 0xffff;
+			int commentLength = directory.getShort() & 0xffff;
+			directory.position(directory.position() + 8); // disk, internal and external attributes
+			long offset = directory.getInt() & ZIP64_MAGIC;
+			if (compressedSize == ZIP64_MAGIC || size == ZIP64_MAGIC || offset == ZIP64_MAGIC) {
+				throw new ZipException("ZIP64 archives are not supported"); //$NON-NLS-1$
+			}
+			byte[] rawName = new byte[nameLength];
+			directory.get(rawName);
+			directory.position(directory.position() + extraLength + commentLength);
+			Entry entry = new Entry(rawName, versionNeeded, flags, method, dosTime, crc, compressedSize, size, offset);
+			entries.put(entry.name, entry);
+		}
+	}
+
+	private ByteBuffer findEndHeader() throws IOException {
+		long size = channel.size();
+		// The end header is followed by a comment of at most 65535 bytes
+		int length = (int) Math.min(size, END_HEADER_LENGTH + 0xffff);
+		ByteBuffer tail = read(size - length, length);
+		for (int i = length - END_HEADER_LENGTH; i >= 0; i--) {
+			if (tail.getInt(i) == END_HEADER_SIGNATURE
+					&& i + END_HEADER_LENGTH + (tail.getShort(i + 20) & 0xffff) == length) {
+				tail.position(i);
+				return tail.slice().order(ByteOrder.LITTLE_ENDIAN);
+			}
+		}
+		throw new ZipException("Not a zip file"); //$NON-NLS-1$
+	}
+
+	private ByteBuffer read(long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) == -1) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Returns the entry with the given name.
+	 *
+	 * @param name
+	 *            the name of the entry
+	 * @return the entry or <code>null</code>
+	 */
+	Entry getEntry(String name) {
+		return entries.get(name);
+	}
+
+	/**
+	 * Returns the entries in the order they are listed in the central directory.
+	 */
+	Collection<Entry> getEntries() {
+		return entries.values();
+	}
+
+	/**
+	 * Returns the channel of the zip file.
+	 */
+	FileChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Returns the offset of the compressed data of the given entry, which follows its local header.
+	 *
+	 * @param entry
+	 *            an entry of this zip file
+	 * @return the offset of the data
+	 * @throws IOException
+	 */
+	long getDataOffset(Entry entry) throws IOException {
+		ByteBuffer header = read(entry.offset, LOCAL_HEADER_LENGTH);
+		if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+			throw new ZipException("Invalid local header of " + entry.name); //$NON-NLS-1$
+		}
+		return entry.offset + LOCAL_HEADER_LENGTH + (header.getShort(26) & 0xffff) + (header.getShort(28) & 0xffff);
+	}
+}
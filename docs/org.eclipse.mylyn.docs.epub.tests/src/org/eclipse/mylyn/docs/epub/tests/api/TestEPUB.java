@@ -13,16 +13,27 @@ package org.eclipse.mylyn.docs.epub.tests.api;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.mylyn.docs.epub.core.EPUB;
+import org.eclipse.mylyn.docs.epub.core.ILogger;
 import org.eclipse.mylyn.docs.epub.core.OPSPublication;
+import org.eclipse.mylyn.docs.epub.core.PackingPolicy;
 import org.eclipse.mylyn.docs.epub.core.Publication;
 import org.eclipse.mylyn.docs.epub.ocf.Container;
 import org.eclipse.mylyn.docs.epub.ocf.RootFile;
 import org.eclipse.mylyn.docs.epub.ocf.RootFiles;
+import org.eclipse.mylyn.docs.epub.opf.Item;
 import org.junit.Test;
 
 /**
@@ -171,6 +182,37 @@ public class TestEPUB extends AbstractTest {
 		assertEquals(false, tempFolder.exists());
 	}
 
+	/**
+	 * Test method for {@link org.eclipse.mylyn.docs.epub.core.EPUB#pack(java.io.File)}.
+	 * <ul>
+	 * <li>EPUB written directly to the archive shall contain all EPUB artifacts.</li>
+	 * <li>Items generated while packing shall be included.</li>
+	 * </ul>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testPackFileContents() throws Exception {
+		EPUB epub = new EPUB();
+		Publication oebps = new OPSPublication();
+		oebps.addItem(new File("testdata/plain-page.xhtml"));
+		epub.add(oebps);
+		epub.pack(epubFile);
+		assertEquals(true, epub.isEPUB(epubFile));
+
+		deleteFolder(epubFolder);
+		EPUB epub2 = new EPUB();
+		epub2.unpack(epubFile, epubFolder);
+		assertEquals(1, epub2.getOPSPublications().size());
+		File containerFile = new File(
+				epubFolder.getAbsolutePath() + File.separator + "META-INF" + File.separator + "container.xml");
+		assertEquals(true, containerFile.exists());
+		File oebpsFolder = new File(epubFolder.getAbsolutePath() + File.separator + "OEBPS");
+		assertEquals(true, new File(oebpsFolder, "content.opf").exists());
+		assertEquals(true, new File(oebpsFolder, "toc.ncx").exists());
+		assertEquals(true, new File(oebpsFolder, "plain-page.xhtml").exists());
+	}
+
 	/**
 	 * Test method for {@link org.eclipse.mylyn.docs.epub.core.EPUB#pack(java.io.File, java.io.File)} .
 	 * <ul>
@@ -291,6 +333,161 @@ public class TestEPUB extends AbstractTest {
 		assertEquals(true, oebpsFolder.isDirectory());
 	}
 
+	/**
+	 * Test method for {@link org.eclipse.mylyn.docs.epub.core.EPUB#read(java.io.File)} .
+	 * <ul>
+	 * <li>Publications shall be read without extracting the EPUB.</li>
+	 * <li>Content shall be readable from the EPUB until it is closed.</li>
+	 * </ul>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRead() throws Exception {
+		EPUB epub = new EPUB();
+		Publication oebps = new OPSPublication();
+		oebps.addItem(new File("testdata/plain-page.xhtml"));
+		epub.add(oebps);
+		epub.pack(epubFile);
+
+		EPUB epub2 = new EPUB();
+		epub2.read(epubFile);
+		try {
+			assertEquals(1, epub2.getOPSPublications().size());
+			Publication publication = epub2.getOPSPublications().get(0);
+			assertNull(publication.getRootFolder());
+			assertNotNull(publication.getTableOfContents());
+			Item item = publication.getItemsByMIMEType("application/xhtml+xml").get(0);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(publication.getInputStream(item), "UTF-8"));
+			BufferedReader expected = new BufferedReader(new FileReader("testdata/plain-page.xhtml"));
+			try {
+				String line;
+				while ((line = expected.readLine()) != null) {
+					assertEquals(line, reader.readLine());
+				}
+				assertNull(reader.readLine());
+			} finally {
+				reader.close();
+				expected.close();
+			}
+		} finally {
+			epub2.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link org.eclipse.mylyn.docs.epub.core.EPUB#setIncremental(boolean)}.
+	 * <ul>
+	 * <li>An existing EPUB shall be replaced when assembling incrementally.</li>
+	 * <li>Unchanged content shall be taken from the previous EPUB.</li>
+	 * <li>Digests shall be discarded when the EPUB is assembled anew.</li>
+	 * </ul>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testPackIncremental() throws Exception {
+		File digests = new File(epubFile.getPath() + ".digests");
+		digests.delete();
+		final List<String> messages = new ArrayList<String>();
+		ILogger recorder = new ILogger() {
+			public void log(String message) {
+				messages.add(message);
+			}
+
+			public void log(String message, Severity severity) {
+				messages.add(message);
+			}
+		};
+		for (int i = 0; i < 2; i++) {
+			EPUB epub = new EPUB();
+			epub.setIncremental(true);
+			Publication oebps = new OPSPublication(recorder);
+			oebps.addItem(new File("testdata/plain-page.xhtml"));
+			epub.add(oebps);
+			epub.pack(epubFile);
+		}
+		assertTrue(digests.exists());
+		assertTrue(messages.contains("Reusing unchanged item \"plain-page.xhtml\" from the previous EPUB"));
+		ZipInputStream in = new ZipInputStream(new FileInputStream(epubFile));
+		try {
+			ZipEntry first = in.getNextEntry();
+			assertEquals("mimetype", first.getName());
+			assertEquals(ZipEntry.STORED, first.getMethod());
+		} finally {
+			in.close();
+		}
+		EPUB epub = new EPUB();
+		epub.read(epubFile);
+		try {
+			assertEquals(1, epub.getOPSPublications().size());
+			assertNotNull(epub.getOPSPublications().get(0).getItemById("plain-page"));
+		} finally {
+			epub.close();
+		}
+		// Content is not reused when it is to be compressed differently
+		messages.clear();
+		PackingPolicy policy = new PackingPolicy();
+		policy.setLevel("application/xhtml+xml", Deflater.NO_COMPRESSION);
+		epub = new EPUB();
+		epub.setIncremental(true);
+		epub.setPackingPolicy(policy);
+		Publication oebps = new OPSPublication(recorder);
+		oebps.addItem(new File("testdata/plain-page.xhtml"));
+		epub.add(oebps);
+		epub.pack(epubFile);
+		assertFalse(messages.contains("Reusing unchanged item \"plain-page.xhtml\" from the previous EPUB"));
+		ZipFile zipFile = new ZipFile(epubFile);
+		try {
+			assertEquals(ZipEntry.STORED, zipFile.getEntry("OEBPS/plain-page.xhtml").getMethod());
+		} finally {
+			zipFile.close();
+		}
+		// The digests do not describe an EPUB that is assembled anew
+		assertTrue(digests.exists());
+		epubFile.delete();
+		epub = new EPUB();
+		oebps = new OPSPublication(recorder);
+		oebps.addItem(new File("testdata/plain-page.xhtml"));
+		epub.add(oebps);
+		epub.pack(epubFile);
+		assertFalse(digests.exists());
+	}
+
+	/**
+	 * Test method for {@link org.eclipse.mylyn.docs.epub.core.EPUB#setPackingPolicy(PackingPolicy)}.
+	 * <ul>
+	 * <li>Content that is already compressed shall be stored by default.</li>
+	 * <li>Other content shall be compressed unless the policy specifies otherwise.</li>
+	 * </ul>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testPackingPolicy() throws Exception {
+		PackingPolicy policy = new PackingPolicy();
+		policy.setLevel("image/gif", Deflater.BEST_COMPRESSION);
+		EPUB epub = new EPUB();
+		epub.setPackingPolicy(policy);
+		Publication oebps = new OPSPublication();
+		oebps.addItem(new File("testdata/plain-page.xhtml"));
+		oebps.addItem(new File("testdata/content-detection/image.png"));
+		oebps.addItem(new File("testdata/content-detection/picture.jpeg"));
+		oebps.addItem(new File("testdata/content-detection/image.gif"));
+		epub.add(oebps);
+		epub.pack(epubFile);
+		ZipFile zipFile = new ZipFile(epubFile);
+		try {
+			assertEquals(ZipEntry.STORED, zipFile.getEntry("mimetype").getMethod());
+			assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("OEBPS/plain-page.xhtml").getMethod());
+			assertEquals(ZipEntry.STORED, zipFile.getEntry("OEBPS/image.png").getMethod());
+			assertEquals(ZipEntry.STORED, zipFile.getEntry("OEBPS/picture.jpeg").getMethod());
+			assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("OEBPS/image.gif").getMethod());
+		} finally {
+			zipFile.close();
+		}
+	}
+
 	private class EPUB_OCF_Test extends EPUB {
 		public void testReadOCF(File workingFolder) throws IOException {
 			readOCF(workingFolder);
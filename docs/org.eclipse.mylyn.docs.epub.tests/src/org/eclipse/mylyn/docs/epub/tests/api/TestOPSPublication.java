@@ -13,7 +13,11 @@ package org.eclipse.mylyn.docs.epub.tests.api;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.zip.ZipFile;
 
+import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.util.FeatureMap;
 import org.eclipse.emf.ecore.util.FeatureMapUtil.FeatureEList;
@@ -23,10 +27,12 @@ import org.eclipse.mylyn.docs.epub.core.OPSPublication;
 import org.eclipse.mylyn.docs.epub.core.Publication;
 import org.eclipse.mylyn.docs.epub.core.ValidationMessage;
 import org.eclipse.mylyn.docs.epub.core.ValidationMessage.Severity;
+import org.eclipse.mylyn.docs.epub.core.wikitext.MarkupToOPS;
 import org.eclipse.mylyn.docs.epub.ncx.Meta;
 import org.eclipse.mylyn.docs.epub.ncx.NavPoint;
 import org.eclipse.mylyn.docs.epub.ncx.Ncx;
 import org.eclipse.mylyn.docs.epub.opf.Item;
+import org.eclipse.mylyn.wikitext.textile.TextileLanguage;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -140,6 +146,101 @@ public class TestOPSPublication extends AbstractTest {
 		epubFile.delete();
 	}
 
+	/**
+	 * Test method for {@link org.eclipse.mylyn.docs.epub.core.Publication#setThreads(int)} .
+	 * <ul>
+	 * <li>Items processed concurrently shall result in the same manifest and table of contents order as when
+	 * processed sequentially.</li>
+	 * </ul>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSetThreads() throws Exception {
+		epub.add(oebps);
+		oebps.setThreads(4);
+		oebps.setIncludeReferencedResources(true);
+		oebps.addItem("page-1", null, new File("testdata/plain-page.xhtml"), null, null, true, true, false);
+		oebps.addItem("page-2", null, new File("testdata/plain-page_link.xhtml"), null, null, true, true, false);
+		epub.pack(epubFile);
+		// Referenced items are added in the order they are referenced
+		String[] ids = { "page-1", "page-2", "image-drawing", "image-subfolder-drawing", "plain-page_no-header" };
+		EList<Item> items = oebps.getPackage().getManifest().getItems();
+		for (int i = 1; i < ids.length; i++) {
+			assertTrue(items.indexOf(oebps.getItemById(ids[i - 1])) < items.indexOf(oebps.getItemById(ids[i])));
+		}
+		Ncx ncx = (Ncx) oebps.getTableOfContents();
+		EList<NavPoint> navPoints = ncx.getNavMap().getNavPoints();
+		assertEquals(4, navPoints.size());
+		assertEquals("First item", getText(navPoints.get(0)));
+		assertTrue(navPoints.get(0).getContent().getSrc().startsWith("plain-page.xhtml"));
+		assertTrue(navPoints.get(2).getContent().getSrc().startsWith("plain-page_link.xhtml"));
+		for (int i = 1; i < navPoints.size(); i++) {
+			assertTrue(navPoints.get(i - 1).getPlayOrder() < navPoints.get(i).getPlayOrder());
+		}
+		epubFile.delete();
+	}
+
+	/**
+	 * Test method for
+	 * {@link org.eclipse.mylyn.docs.epub.core.Publication#addItem(String, java.util.Locale, String, byte[], String, boolean, boolean, boolean)}
+	 * .
+	 * <ul>
+	 * <li>Content kept in memory shall be written to the archive and be part of the table of contents.</li>
+	 * <li>Navigation points specified for an item shall be used instead of the headers of the item.</li>
+	 * </ul>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAddItemContent() throws Exception {
+		epub.add(oebps);
+		byte[] content = Files.readAllBytes(new File("testdata/plain-page.xhtml").toPath());
+		oebps.addItem("chapter-1", null, "chapter-1.xhtml", content, Publication.MIMETYPE_XHTML, true, true, false);
+		Item item = oebps.addItem("chapter-2", null, "chapter-2.xhtml", content, Publication.MIMETYPE_XHTML, true,
+				true, false);
+		oebps.setNavigationPoints(item, Collections.<NavPoint> emptyList());
+		epub.pack(epubFile);
+		Ncx ncx = (Ncx) oebps.getTableOfContents();
+		EList<NavPoint> navPoints = ncx.getNavMap().getNavPoints();
+		assertEquals(2, navPoints.size());
+		assertTrue(navPoints.get(0).getContent().getSrc().startsWith("chapter-1.xhtml"));
+		assertTrue(navPoints.get(1).getContent().getSrc().startsWith("chapter-1.xhtml"));
+		ZipFile zip = new ZipFile(epubFile);
+		try {
+			assertNotNull(zip.getEntry("OEBPS/chapter-1.xhtml"));
+			assertNotNull(zip.getEntry("OEBPS/chapter-2.xhtml"));
+		} finally {
+			zip.close();
+		}
+		epubFile.delete();
+	}
+
+	/**
+	 * Test method for
+	 * {@link org.eclipse.mylyn.docs.epub.core.wikitext.MarkupToOPS#parseChapters(Publication, String, String)} .
+	 * <ul>
+	 * <li>Navigation labels shall read as the markup of the headings, including entities, dashes and quotes.</li>
+	 * </ul>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testParseChaptersLabels() throws Exception {
+		epub.add(oebps);
+		MarkupToOPS markupToOPS = new MarkupToOPS();
+		markupToOPS.setMarkupLanguage(new TextileLanguage());
+		markupToOPS.parseChapters(oebps, "h1. Don't -- stop (c) 2014\n\ntext\n\nh1. \"Quoted\" & more\n\ntext",
+				"chapters.textile");
+		epub.pack(epubFile);
+		Ncx ncx = (Ncx) oebps.getTableOfContents();
+		EList<NavPoint> navPoints = ncx.getNavMap().getNavPoints();
+		assertEquals(2, navPoints.size());
+		assertEquals("Don't -- stop (c) 2014", getText(navPoints.get(0)));
+		assertEquals("\"Quoted\" & more", getText(navPoints.get(1)));
+		epubFile.delete();
+	}
+
 	/**
 	 * Test method for {@link org.eclipse.mylyn.docs.epub.core.OPSPublication#generateTableOfContents()} .
 	 * <ul>
@@ -469,7 +469,22 @@ public class TestPublication extends AbstractTest {
 	 */
 	@Test
 	public final void testGetItemById() {
-		// TODO
+		Item i_in_1 = oebps.addItem("i1", null, new File("testdata/plain-page.xhtml"), null, null, false, false, false);
+		Item i_in_2 = oebps.addItem("i2", null, new File("testdata/images/subfolder-drawing.svg"), null, null, false,
+				false, false);
+		assertEquals(i_in_1, oebps.getItemById("i1"));
+		assertEquals(i_in_2, oebps.getItemById("i2"));
+		assertNull(oebps.getItemById("i3"));
+		// The lookup must follow changes to the manifest
+		i_in_2.setId("i3");
+		assertNull(oebps.getItemById("i2"));
+		assertEquals(i_in_2, oebps.getItemById("i3"));
+		oebps.getPackage().getManifest().getItems().move(0, i_in_2);
+		assertEquals(i_in_1, oebps.getItemById("i1"));
+		assertEquals(i_in_2, oebps.getItemById("i3"));
+		assertEquals(i_in_2, oebps.removeItemById("i3"));
+		assertNull(oebps.getItemById("i3"));
+		assertEquals(0, oebps.getItemsByMIMEType("image/svg+xml").size());
 	}
 
 	/**
@@ -12,6 +12,7 @@
 package org.eclipse.mylyn.docs.epub.tests.core;
 
 import java.io.File;
+import java.io.IOException;
 
 import junit.framework.TestCase;
 
@@ -91,4 +92,65 @@ public class TestEPUBFileUtil extends TestCase {
 		File file = new File("testdata/content-detection/basic_2.epub");
 		assertEquals("application/epub+zip", EPUBFileUtil.getMimeType(file));
 	}
+
+	@Test
+	public void testGetMimeTypeSignature() throws Exception {
+		// The signature of an image is trusted over the file extension
+		File file = File.createTempFile("picture", ".xhtml");
+		file.delete();
+		file.deleteOnExit();
+		EPUBFileUtil.copy(new File("testdata/content-detection/picture.xxx"), file);
+		assertEquals("image/jpeg", EPUBFileUtil.getMimeType(file));
+	}
+
+	@Test
+	public void testGetMimeTypeRepeated() {
+		// Repeated detection of the same content must give the same result
+		File file = new File("testdata/content-detection/content.xxx");
+		assertEquals("application/xhtml+xml", EPUBFileUtil.getMimeType(file));
+		assertEquals("application/xhtml+xml", EPUBFileUtil.getMimeType(file));
+		File file2 = new File("testdata/content-detection/xml.xml");
+		assertEquals("application/xml", EPUBFileUtil.getMimeType(file2));
+		assertEquals("application/xml", EPUBFileUtil.getMimeType(file2));
+	}
+
+	@Test
+	public void testGetMimeTypeAudio() throws Exception {
+		assertEquals("audio/mpeg", EPUBFileUtil.getMimeType(createFile(".xxx", 'I', 'D', '3', 3, 0)));
+		assertEquals("audio/mpeg", EPUBFileUtil.getMimeType(createFile(".mp3", 0xff, 0xfb, 0x90, 0x44)));
+		assertEquals("audio/mp4",
+				EPUBFileUtil.getMimeType(createFile(".xxx", 0, 0, 0, 0x20, 'f', 't', 'y', 'p', 'M', '4', 'A', ' ')));
+		assertEquals("video/mp4",
+				EPUBFileUtil.getMimeType(createFile(".xxx", 0, 0, 0, 0x20, 'f', 't', 'y', 'p', 'i', 's', 'o', 'm')));
+	}
+
+	@Test
+	public void testGetMimeTypeFont() throws Exception {
+		assertEquals("application/x-font-woff", EPUBFileUtil.getMimeType(createFile(".xxx", 'w', 'O', 'F', 'F', 0)));
+		assertEquals("application/x-font-otf", EPUBFileUtil.getMimeType(createFile(".xxx", 'O', 'T', 'T', 'O', 0)));
+		assertEquals("application/x-font-ttf", EPUBFileUtil.getMimeType(createFile(".ttf", 0, 1, 0, 0, 0)));
+	}
+
+	@Test
+	public void testGetMimeTypeModified() throws Exception {
+		// A modified file must be examined again
+		File file = createFile(".xxx", 'a', 'b', 'c');
+		String type = EPUBFileUtil.getMimeType(file);
+		assertEquals(type, EPUBFileUtil.getMimeType(file));
+		file.delete();
+		EPUBFileUtil.copy(new File("testdata/content-detection/xml.xml"), file);
+		assertEquals("application/xml", EPUBFileUtil.getMimeType(file));
+	}
+
+	private File createFile(String suffix, int... content) throws IOException {
+		File file = File.createTempFile("content", suffix);
+		file.deleteOnExit();
+		byte[] bytes = new byte[content.length];
+		for (int i = 0; i < content.length; i++) {
+			bytes[i] = (byte) content[i];
+		}
+		file.delete();
+		EPUBFileUtil.write(bytes, file);
+		return file;
+	}
 }
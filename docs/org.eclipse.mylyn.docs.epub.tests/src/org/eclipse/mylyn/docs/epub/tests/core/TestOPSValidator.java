@@ -19,6 +19,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import junit.framework.TestCase;
 
 import org.eclipse.mylyn.internal.docs.epub.core.OPSValidator;
+import org.eclipse.mylyn.internal.docs.epub.core.SAXParserPool;
 import org.junit.Test;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -62,6 +63,18 @@ public class TestOPSValidator extends TestCase {
 		}
 	}
 
+	@Test
+	public void testParserReuse() throws ParserConfigurationException, SAXException, IOException {
+		String in = "<html><body><div>content</div></body></html>";
+		OPSValidator.clean(new InputSource(new StringReader(in)), "test.html");
+		int creations = SAXParserPool.getCreationCount();
+		for (int i = 0; i < 10; i++) {
+			OPSValidator.validate(new InputSource(new StringReader(in)), "test.html");
+			OPSValidator.clean(new InputSource(new StringReader(in)), "test.html");
+		}
+		assertEquals(creations, SAXParserPool.getCreationCount());
+	}
+
 	@Test
 	public void testIllegalElements() throws ParserConfigurationException, SAXException, IOException {
 		for (String element : illegalElements) {
@@ -23,6 +23,7 @@ import org.eclipse.mylyn.docs.epub.ncx.NCXFactory;
 import org.eclipse.mylyn.docs.epub.ncx.NavMap;
 import org.eclipse.mylyn.docs.epub.ncx.NavPoint;
 import org.eclipse.mylyn.docs.epub.ncx.Ncx;
+import org.eclipse.mylyn.internal.docs.epub.core.CompositeXHTMLScanner;
 import org.eclipse.mylyn.internal.docs.epub.core.TOCGenerator;
 import org.junit.Test;
 import org.xml.sax.InputSource;
@@ -89,6 +90,39 @@ public class TestTOCGenerator extends TestCase {
 		assertEquals(1, points.get(0).getNavPoints().size());
 	}
 
+	/**
+	 * Headers collected separately for each file shall be numbered in the order the files are appended.
+	 *
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 * @throws IOException
+	 */
+	@Test
+	public void testAppendTo() throws ParserConfigurationException, SAXException, IOException {
+		TOCGenerator first = scan("first.html", "<body><h1 id='a'>a</h1><h2 id='b'>b</h2><h1 id='c'>c</h1></body>");
+		TOCGenerator second = scan("second.html", "<body><h1 id='d'>d</h1></body>");
+		Ncx ncx = createNcx();
+		assertEquals(3, first.appendTo(ncx, 0));
+		assertEquals(4, second.appendTo(ncx, 3));
+		EList<NavPoint> points = ncx.getNavMap().getNavPoints();
+		assertEquals(3, points.size());
+		assertEquals(1, points.get(0).getPlayOrder());
+		assertEquals(2, points.get(0).getNavPoints().get(0).getPlayOrder());
+		assertEquals("navpoint2", points.get(0).getNavPoints().get(0).getId());
+		assertEquals(3, points.get(1).getPlayOrder());
+		assertEquals(4, points.get(2).getPlayOrder());
+		assertEquals("second.html#d", points.get(2).getContent().getSrc());
+	}
+
+	private TOCGenerator scan(String href, String html) throws ParserConfigurationException, SAXException,
+			IOException {
+		CompositeXHTMLScanner scanner = new CompositeXHTMLScanner(href);
+		TOCGenerator tocGenerator = new TOCGenerator(href);
+		scanner.add(tocGenerator);
+		scanner.parse(new InputSource(new StringReader(html)));
+		return tocGenerator;
+	}
+
 	private Ncx createNcx() {
 		Ncx ncx = NCXFactory.eINSTANCE.createNcx();
 		NavMap navMap = NCXFactory.eINSTANCE.createNavMap();
@@ -27,6 +27,7 @@ import org.eclipse.mylyn.wikitext.ant.internal.Messages;
 import org.eclipse.mylyn.wikitext.parser.markup.AbstractMarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguageConfiguration;
+import org.eclipse.mylyn.wikitext.util.BuildCache;
 import org.eclipse.mylyn.wikitext.util.ServiceLocator;
 import org.eclipse.mylyn.wikitext.validation.StandaloneMarkupValidator;
 import org.eclipse.mylyn.wikitext.validation.ValidationProblem;
@@ -226,6 +227,40 @@ public abstract class MarkupTask extends Task {
 		}
 	}
 
+	/**
+	 * Adds the given markup language and its configuration to a build cache key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param language
+	 *            the markup language, as created by {@link #createMarkupLanguage()}
+	 * @since 3.1
+	 */
+	protected void putMarkupLanguage(BuildCache.Key key, MarkupLanguage language) {
+		key.put("markupLanguage", language.getName()); //$NON-NLS-1$
+		key.putClass("markupLanguage.class", language.getClass()); //$NON-NLS-1$
+		key.putClass("wikitext", MarkupLanguage.class); //$NON-NLS-1$
+		key.put("internalLinkPattern", internalLinkPattern); //$NON-NLS-1$
+		if (markupLanguageConfiguration != null) {
+			key.put("configuration", markupLanguageConfiguration.getClass().getName()); //$NON-NLS-1$
+			key.put("escapingHtmlAndXml", markupLanguageConfiguration.isEscapingHtmlAndXml()); //$NON-NLS-1$
+			key.put("enableUnwrappedParagraphs", markupLanguageConfiguration.isEnableUnwrappedParagraphs()); //$NON-NLS-1$
+			key.put("newlinesMustCauseLineBreak", markupLanguageConfiguration.isNewlinesMustCauseLineBreak()); //$NON-NLS-1$
+			key.put("optimizeForRepositoryUsage", markupLanguageConfiguration.isOptimizeForRepositoryUsage()); //$NON-NLS-1$
+			key.put("wikiWordLinking", markupLanguageConfiguration.isWikiWordLinking()); //$NON-NLS-1$
+			key.put("locale", markupLanguageConfiguration.getLocale()); //$NON-NLS-1$
+			putClassNames(key, "blocks", markupLanguageConfiguration.getBlocks()); //$NON-NLS-1$
+			putClassNames(key, "phraseModifiers", markupLanguageConfiguration.getPhraseModifiers()); //$NON-NLS-1$
+			putClassNames(key, "tokens", markupLanguageConfiguration.getTokens()); //$NON-NLS-1$
+		}
+	}
+
+	private void putClassNames(BuildCache.Key key, String name, List<?> values) {
+		for (Object value : values) {
+			key.put(name, value.getClass().getName());
+		}
+	}
+
 	/**
 	 * Support a nested markup language configuration.
 	 */
@@ -25,9 +25,9 @@ import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.types.FileSet;
 import org.eclipse.mylyn.wikitext.ant.MarkupTask;
-import org.eclipse.mylyn.wikitext.parser.MarkupParser;
 import org.eclipse.mylyn.wikitext.parser.builder.DitaBookMapDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.DitaTopicDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.builder.EventDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.outline.OutlineItem;
 import org.eclipse.mylyn.wikitext.parser.outline.OutlineParser;
@@ -167,7 +167,9 @@ public class MarkupToDitaTask extends MarkupTask {
 			}
 			performValidation(source, markupContent);
 
-			OutlineItem outline = new OutlineParser(markupLanguage).parse(markupContent);
+			// parse once, replaying the document once the outline is known
+			EventDocumentBuilder eventBuilder = new EventDocumentBuilder();
+			OutlineItem outline = new OutlineParser(markupLanguage).parse(markupContent, eventBuilder);
 
 			Writer writer;
 			try {
@@ -182,16 +184,13 @@ public class MarkupToDitaTask extends MarkupTask {
 							formatting);
 					builder.setRootTopicTitle(bookTitle);
 
-					MarkupParser parser = new MarkupParser();
-					parser.setMarkupLanguage(markupLanguage);
-					parser.setBuilder(builder);
 					if (topicDoctype != null) {
 						builder.setDoctype(topicDoctype);
 					}
 					builder.setFilename(outputFile.getName());
 					builder.setOutline(outline);
 
-					parser.parse(markupContent);
+					eventBuilder.getDocumentBuilderEvents().applyTo(builder);
 				} else {
 					DitaBookMapDocumentBuilder builder = new DitaBookMapDocumentBuilder(formatting
 							? new FormattingXMLStreamWriter(new DefaultXmlStreamWriter(writer))
@@ -199,10 +198,6 @@ public class MarkupToDitaTask extends MarkupTask {
 					try {
 						builder.setFormattingDependencies(formatting);
 
-						MarkupParser parser = new MarkupParser();
-						parser.setMarkupLanguage(markupLanguage);
-						parser.setBuilder(builder);
-
 						builder.setBookTitle(bookTitle == null ? name : bookTitle);
 
 						if (doctype != null) {
@@ -227,7 +222,7 @@ public class MarkupToDitaTask extends MarkupTask {
 							break;
 						}
 
-						parser.parse(markupContent);
+						eventBuilder.getDocumentBuilderEvents().applyTo(builder);
 					} finally {
 						try {
 							builder.close();
@@ -13,13 +13,17 @@ package org.eclipse.mylyn.wikitext.ant.internal;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.Collection;
 
 import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
 import org.eclipse.mylyn.wikitext.parser.util.MarkupToEclipseToc;
 import org.eclipse.mylyn.wikitext.splitter.SplitOutlineItem;
 import org.eclipse.mylyn.wikitext.splitter.SplittingMarkupToEclipseToc;
+import org.eclipse.mylyn.wikitext.util.BuildCache;
 
 /**
  * An Ant task for converting lightweight markup such as Textile to eclipse help format.
@@ -45,7 +49,8 @@ public class MarkupToEclipseHelpTask extends MarkupToHtmlTask {
 		}
 
 		File tocOutputFile = computeTocFile(source, name);
-		if (!tocOutputFile.exists() || overwrite || tocOutputFile.lastModified() < source.lastModified()) {
+		if (getBuildCache() != null || !tocOutputFile.exists() || overwrite
+				|| tocOutputFile.lastModified() < source.lastModified()) {
 			File htmlOutputFile = computeHtmlFile(source, name);
 
 			Writer writer;
@@ -61,7 +66,7 @@ public class MarkupToEclipseHelpTask extends MarkupToHtmlTask {
 
 				toEclipseToc.setHelpPrefix(helpPrefix);
 				toEclipseToc.setAnchorLevel(tocAnchorLevel);
-				System.out.println("Help: " + baseDir + " " + htmlOutputFile); //$NON-NLS-1$//$NON-NLS-2$
+				log("Help: " + baseDir + " " + htmlOutputFile, Project.MSG_VERBOSE); //$NON-NLS-1$//$NON-NLS-2$
 				toEclipseToc.setBookTitle(title == null ? name : title);
 				toEclipseToc.setCopyrightNotice(getCopyrightNotice());
 
@@ -98,6 +103,24 @@ public class MarkupToEclipseHelpTask extends MarkupToHtmlTask {
 		}
 	}
 
+	@Override
+	void configureCacheKey(BuildCache.Key key, File baseDir, File source, String name) throws IOException {
+		super.configureCacheKey(key, baseDir, source, name);
+		key.putClass("tocBuilder", SplittingMarkupToEclipseToc.class); //$NON-NLS-1$
+		key.put("xmlFilenameFormat", xmlFilenameFormat); //$NON-NLS-1$
+		key.put("helpPrefix", helpPrefix); //$NON-NLS-1$
+		key.put("tocAnchorLevel", tocAnchorLevel); //$NON-NLS-1$
+		// the help prefix of the table of contents depends on the location of the file
+		key.put("relativePath", baseDir.toURI().relativize(source.getParentFile().toURI())); //$NON-NLS-1$
+	}
+
+	@Override
+	Collection<File> computeOutputFiles(File source, String name, File htmlOutputFile, SplitOutlineItem item) {
+		Collection<File> outputFiles = super.computeOutputFiles(source, name, htmlOutputFile, item);
+		outputFiles.add(computeTocFile(source, name));
+		return outputFiles;
+	}
+
 	private File computeTocFile(File source, String name) {
 		return new File(source.getParentFile(), xmlFilenameFormat.replace("$1", name)); //$NON-NLS-1$
 	}
@@ -15,22 +15,30 @@ package org.eclipse.mylyn.wikitext.ant.internal;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.types.FileSet;
 import org.eclipse.mylyn.wikitext.ant.MarkupTask;
-import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.EventDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.splitter.DefaultSplittingStrategy;
@@ -39,6 +47,7 @@ import org.eclipse.mylyn.wikitext.splitter.SplitOutlineItem;
 import org.eclipse.mylyn.wikitext.splitter.SplittingHtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.splitter.SplittingOutlineParser;
 import org.eclipse.mylyn.wikitext.splitter.SplittingStrategy;
+import org.eclipse.mylyn.wikitext.util.BuildCache;
 
 /**
  * An Ant task for converting lightweight markup to HTML format.
@@ -84,6 +93,12 @@ public class MarkupToHtmlTask extends MarkupTask {
 
 	private String copyrightNotice = null;
 
+	private int threads = 1;
+
+	private File buildCache;
+
+	private final ThreadLocal<List<LogMessage>> deferredMessages = new ThreadLocal<List<LogMessage>>();
+
 	@Override
 	public void execute() throws BuildException {
 		if (file == null && filesets.isEmpty()) {
@@ -125,6 +140,7 @@ public class MarkupToHtmlTask extends MarkupTask {
 		}
 
 		Set<File> outputFolders = new HashSet<File>();
+		List<SourceFile> sourceFiles = new ArrayList<SourceFile>();
 
 		for (FileSet fileset : filesets) {
 
@@ -137,31 +153,104 @@ public class MarkupToHtmlTask extends MarkupTask {
 				for (String file : files) {
 					File inputFile = new File(baseDir, file);
 					testForOutputFolderConflict(outputFolders, inputFile);
-					try {
-						processFile(markupLanguage, filesetBaseDir, inputFile);
-					} catch (BuildException e) {
-						throw e;
-					} catch (Exception e) {
-						throw new BuildException(MessageFormat.format(
-								Messages.getString("MarkupToHtmlTask.11"), inputFile, //$NON-NLS-1$
-								e.getMessage()), e);
-					}
+					sourceFiles.add(new SourceFile(filesetBaseDir, inputFile));
 				}
 			}
 		}
 		if (file != null) {
 			testForOutputFolderConflict(outputFolders, file);
-			try {
-				processFile(markupLanguage, file.getParentFile(), file);
-			} catch (BuildException e) {
-				throw e;
-			} catch (Exception e) {
-				throw new BuildException(MessageFormat.format(
-						Messages.getString("MarkupToHtmlTask.12"), file, e.getMessage()), e); //$NON-NLS-1$
+			sourceFiles.add(new SourceFile(file.getParentFile(), file));
+		}
+
+		if (threads > 1 && sourceFiles.size() > 1) {
+			processInParallel(markupLanguage, sourceFiles);
+		} else {
+			for (SourceFile sourceFile : sourceFiles) {
+				processSourceFile(markupLanguage, sourceFile);
 			}
 		}
 	}
 
+	private void processSourceFile(MarkupLanguage markupLanguage, SourceFile sourceFile) throws BuildException {
+		try {
+			processFile(markupLanguage, sourceFile.baseDir, sourceFile.file);
+		} catch (BuildException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new BuildException(MessageFormat.format(Messages.getString("MarkupToHtmlTask.11"), sourceFile.file, //$NON-NLS-1$
+					e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Converts the given files on a pool of {@link #getThreads() threads}, each file with its own copy of the markup
+	 * language. Messages logged while converting a file are deferred and logged in the order of the given files, as
+	 * are failures.
+	 */
+	private void processInParallel(final MarkupLanguage markupLanguage, List<SourceFile> sourceFiles)
+			throws BuildException {
+		ForkJoinPool pool = createForkJoinPool();
+		try {
+			List<Future<SourceFileResult>> results = new ArrayList<Future<SourceFileResult>>(sourceFiles.size());
+			for (final SourceFile sourceFile : sourceFiles) {
+				results.add(pool.submit(() -> {
+					SourceFileResult result = new SourceFileResult();
+					deferredMessages.set(result.messages);
+					try {
+						processSourceFile(markupLanguage.clone(), sourceFile);
+					} catch (BuildException e) {
+						result.failure = e;
+					} finally {
+						deferredMessages.remove();
+					}
+					return result;
+				}));
+			}
+			for (Future<SourceFileResult> future : results) {
+				SourceFileResult result = getResult(future);
+				for (LogMessage message : result.messages) {
+					log(message.message, message.level);
+				}
+				if (result.failure != null) {
+					throw result.failure;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private ForkJoinPool createForkJoinPool() {
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		return new ForkJoinPool(threads, pool -> {
+			// validators are looked up using the context class loader
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setContextClassLoader(contextClassLoader);
+			return thread;
+		}, null, false);
+	}
+
+	private SourceFileResult getResult(Future<SourceFileResult> future) throws BuildException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BuildException(e);
+		} catch (ExecutionException e) {
+			throw new BuildException(e.getCause());
+		}
+	}
+
+	@Override
+	public void log(String msg, int msgLevel) {
+		List<LogMessage> messages = deferredMessages.get();
+		if (messages == null) {
+			super.log(msg, msgLevel);
+		} else {
+			messages.add(new LogMessage(msg, msgLevel));
+		}
+	}
+
 	private void testForOutputFolderConflict(Set<File> outputFolders, File inputFile) {
 		if (multipleOutputFiles) {
 			File outputFolder = inputFile.getAbsoluteFile().getParentFile();
@@ -192,7 +281,29 @@ public class MarkupToHtmlTask extends MarkupTask {
 		}
 
 		File htmlOutputFile = computeHtmlFile(source, name);
-		if (!htmlOutputFile.exists() || overwrite || htmlOutputFile.lastModified() < source.lastModified()) {
+
+		BuildCache cache = buildCache == null ? null : new BuildCache(buildCache);
+		BuildCache.Key cacheKey = null;
+		if (cache != null) {
+			markupContent = readFully(source);
+			try {
+				cacheKey = cache.newKey();
+				cacheKey.put("markupContent", markupContent); //$NON-NLS-1$
+				putMarkupLanguage(cacheKey, markupLanguage);
+				configureCacheKey(cacheKey, baseDir, source, name);
+				if (cache.restore(cacheKey, source.getParentFile())) {
+					log(MessageFormat.format(Messages.getString("MarkupToHtmlTask.upToDate"), source), //$NON-NLS-1$
+							Project.MSG_VERBOSE);
+					return null;
+				}
+			} catch (IOException e) {
+				throw new BuildException(MessageFormat.format(Messages.getString("MarkupToHtmlTask.buildCacheFailed"), //$NON-NLS-1$
+						buildCache, e.getMessage()), e);
+			}
+		}
+
+		if (cacheKey != null || !htmlOutputFile.exists() || overwrite
+				|| htmlOutputFile.lastModified() < source.lastModified()) {
 
 			if (markupContent == null) {
 				markupContent = readFully(source);
@@ -200,6 +311,7 @@ public class MarkupToHtmlTask extends MarkupTask {
 
 			performValidation(source, markupContent);
 
+			Collection<File> outputFiles;
 			Writer writer;
 			try {
 				writer = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(htmlOutputFile)), "utf-8"); //$NON-NLS-1$
@@ -246,7 +358,10 @@ public class MarkupToHtmlTask extends MarkupTask {
 				SplittingOutlineParser outlineParser = new SplittingOutlineParser();
 				outlineParser.setMarkupLanguage(markupLanguage.clone());
 				outlineParser.setSplittingStrategy(splittingStrategy);
-				SplitOutlineItem item = outlineParser.parse(markupContent);
+
+				// parse once, replaying the document once the outline is known
+				EventDocumentBuilder eventBuilder = new EventDocumentBuilder();
+				SplitOutlineItem item = outlineParser.parse(markupContent, eventBuilder);
 				item.setSplitTarget(htmlOutputFile.getName());
 				SplittingHtmlDocumentBuilder splittingBuilder = new SplittingHtmlDocumentBuilder();
 				splittingBuilder.setRootBuilder(builder);
@@ -255,13 +370,11 @@ public class MarkupToHtmlTask extends MarkupTask {
 				splittingBuilder.setNavigationImages(navigationImages);
 				splittingBuilder.setFormatting(formatOutput);
 
-				MarkupParser parser = new MarkupParser();
-				parser.setMarkupLanguage(markupLanguage);
-				parser.setBuilder(splittingBuilder);
-
-				parser.parse(markupContent);
+				eventBuilder.getDocumentBuilderEvents().applyTo(splittingBuilder);
 
 				processed(markupContent, item, baseDir, source);
+
+				outputFiles = computeOutputFiles(source, name, htmlOutputFile, item);
 			} finally {
 				try {
 					writer.close();
@@ -271,6 +384,14 @@ public class MarkupToHtmlTask extends MarkupTask {
 							e.getMessage()), e);
 				}
 			}
+			if (cacheKey != null) {
+				try {
+					cache.store(cacheKey, source.getParentFile(), outputFiles);
+				} catch (IOException e) {
+					throw new BuildException(MessageFormat.format(Messages.getString("MarkupToHtmlTask.buildCacheFailed"), //$NON-NLS-1$
+							buildCache, e.getMessage()), e);
+				}
+			}
 		}
 		return markupContent;
 	}
@@ -278,6 +399,52 @@ public class MarkupToHtmlTask extends MarkupTask {
 	void processed(String markupContent, SplitOutlineItem item, final File baseDir, final File source) {
 	}
 
+	/**
+	 * Adds the settings that affect the output of processing the given file to the build cache key.
+	 */
+	void configureCacheKey(BuildCache.Key key, File baseDir, File source, String name) throws IOException {
+		key.put("task", getClass().getName()); //$NON-NLS-1$
+		key.putClass("builder", HtmlDocumentBuilder.class); //$NON-NLS-1$
+		key.putClass("splittingBuilder", SplittingHtmlDocumentBuilder.class); //$NON-NLS-1$
+		key.put("name", name); //$NON-NLS-1$
+		key.put("htmlFilenameFormat", htmlFilenameFormat); //$NON-NLS-1$
+		key.put("title", title); //$NON-NLS-1$
+		key.put("linkRel", linkRel); //$NON-NLS-1$
+		key.put("multipleOutputFiles", multipleOutputFiles); //$NON-NLS-1$
+		key.put("formatOutput", formatOutput); //$NON-NLS-1$
+		key.put("navigationImages", navigationImages); //$NON-NLS-1$
+		key.put("prependImagePrefix", prependImagePrefix); //$NON-NLS-1$
+		key.put("useInlineCssStyles", useInlineCssStyles); //$NON-NLS-1$
+		key.put("suppressBuiltInCssStyles", suppressBuiltInCssStyles); //$NON-NLS-1$
+		key.put("defaultAbsoluteLinkTarget", defaultAbsoluteLinkTarget); //$NON-NLS-1$
+		key.put("xhtmlStrict", xhtmlStrict); //$NON-NLS-1$
+		key.put("emitDoctype", emitDoctype); //$NON-NLS-1$
+		key.put("htmlDoctype", htmlDoctype); //$NON-NLS-1$
+		key.put("copyrightNotice", copyrightNotice); //$NON-NLS-1$
+		for (Stylesheet stylesheet : stylesheets) {
+			if (stylesheet.url != null) {
+				key.put("stylesheet.url", stylesheet.url); //$NON-NLS-1$
+			} else {
+				key.putFile("stylesheet.contents", stylesheet.file); //$NON-NLS-1$
+			}
+			key.put("stylesheet.attributes", new TreeMap<String, String>(stylesheet.attributes)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Computes the files that were written as a result of processing the given file.
+	 */
+	Collection<File> computeOutputFiles(File source, String name, File htmlOutputFile, SplitOutlineItem item) {
+		Set<File> outputFiles = new LinkedHashSet<File>();
+		outputFiles.add(htmlOutputFile);
+		for (SplitOutlineItem page : item.getPageOrder()) {
+			if (page.getSplitTarget() != null) {
+				outputFiles.add(new File(htmlOutputFile.getParentFile(), page.getSplitTarget()));
+			}
+		}
+		return outputFiles;
+	}
+
 	protected File computeHtmlFile(final File source, String name) {
 		return new File(source.getParentFile(), htmlFilenameFormat.replace("$1", name)); //$NON-NLS-1$
 	}
@@ -608,4 +775,70 @@ public class MarkupToHtmlTask extends MarkupTask {
 		this.copyrightNotice = copyrightNotice;
 	}
 
+	/**
+	 * The number of threads to use when processing files. Files are processed independently, however messages are
+	 * logged in the order in which files are specified. The default is 1, processing files sequentially.
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * The number of threads to use when processing files. Files are processed independently, however messages are
+	 * logged in the order in which files are specified. The default is 1, processing files sequentially.
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * The folder of a build cache, in which the files produced by processing each file are recorded. Files are only
+	 * processed if their content or any of the settings that affect the output have changed since the output was
+	 * recorded, otherwise recorded output is restored. When specified, {@link #isOverwrite() overwrite} has no effect.
+	 * The default is null, indicating that no build cache is used.
+	 */
+	public File getBuildCache() {
+		return buildCache;
+	}
+
+	/**
+	 * The folder of a build cache, in which the files produced by processing each file are recorded. Files are only
+	 * processed if their content or any of the settings that affect the output have changed since the output was
+	 * recorded, otherwise recorded output is restored. When specified, {@link #isOverwrite() overwrite} has no effect.
+	 * The default is null, indicating that no build cache is used.
+	 */
+	public void setBuildCache(File buildCache) {
+		this.buildCache = buildCache;
+	}
+
+	private static class SourceFile {
+
+		private final File baseDir;
+
+		private final File file;
+
+		SourceFile(File baseDir, File file) {
+			this.baseDir = baseDir;
+			this.file = file;
+		}
+	}
+
+	private static class SourceFileResult {
+
+		private final List<LogMessage> messages = new ArrayList<LogMessage>();
+
+		private BuildException failure;
+	}
+
+	private static class LogMessage {
+
+		private final String message;
+
+		private final int level;
+
+		LogMessage(String message, int level) {
+			this.message = message;
+			this.level = level;
+		}
+	}
 }
@@ -25,6 +25,7 @@ import org.apache.tools.ant.Project;
 import org.apache.tools.ant.types.FileSet;
 import org.eclipse.mylyn.wikitext.ant.MarkupTask;
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.EventDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.XslfoDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.outline.OutlineItem;
@@ -153,16 +154,20 @@ public class MarkupToXslfoTask extends MarkupTask {
 				builder.setConfiguration(configuration);
 				builder.setBase(source.getParentFile().toURI());
 
-				MarkupParser parser = new MarkupParser();
-				parser.setMarkupLanguage(markupLanguage);
-				parser.setBuilder(builder);
-
 				if (generateBookmarks) {
-					OutlineItem outline = new OutlineParser(markupLanguage).parse(markupContent);
+					// parse once, replaying the document once the outline is known
+					EventDocumentBuilder eventBuilder = new EventDocumentBuilder();
+					OutlineItem outline = new OutlineParser(markupLanguage).parse(markupContent, eventBuilder);
 					builder.setOutline(outline);
-				}
 
-				parser.parse(markupContent);
+					eventBuilder.getDocumentBuilderEvents().applyTo(builder);
+				} else {
+					MarkupParser parser = new MarkupParser();
+					parser.setMarkupLanguage(markupLanguage);
+					parser.setBuilder(builder);
+
+					parser.parse(markupContent);
+				}
 			} finally {
 				try {
 					out.close();
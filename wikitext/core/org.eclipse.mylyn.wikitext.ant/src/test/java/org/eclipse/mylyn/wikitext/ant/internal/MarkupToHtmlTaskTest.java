@@ -18,8 +18,14 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.DefaultLogger;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.types.FileSet;
 import org.eclipse.mylyn.wikitext.ant.internal.MarkupToHtmlTask;
 
 /**
@@ -210,6 +216,81 @@ public class MarkupToHtmlTaskTest extends AbstractTestAntTask {
 		assertTrue(content.contains("<a href=\"markup.html#HeadingOne\">link</a>"));
 	}
 
+	public void testThreads() throws IOException {
+		for (int x = 0; x < 8; ++x) {
+			Writer writer = new FileWriter(new File(tempFolder, "markup" + x + ".textile"));
+			try {
+				writer.write("h1. Heading " + x + "\n\nsome content");
+			} finally {
+				writer.close();
+			}
+		}
+		List<String> sequentialMessages = executeWithThreads(1);
+		List<String> parallelMessages = executeWithThreads(4);
+
+		for (int x = 0; x < 8; ++x) {
+			File htmlFile = new File(tempFolder, "markup" + x + ".html");
+			assertTrue(htmlFile.exists() && htmlFile.isFile());
+			assertTrue(getContent(htmlFile).contains("<h1 id=\"Heading" + x + "\">Heading " + x + "</h1>"));
+		}
+		assertEquals(8, sequentialMessages.size());
+		assertEquals(sequentialMessages, parallelMessages);
+	}
+
+	public void testBuildCache() throws IOException {
+		File markup = createSimpleTextileMarkup();
+		File buildCache = new File(tempFolder, "cache");
+		task.setFile(markup);
+		task.setBuildCache(buildCache);
+		task.execute();
+
+		File htmlFile = new File(markup.getParentFile(), "markup.html");
+		assertTrue(htmlFile.exists() && htmlFile.isFile());
+		String content = getContent(htmlFile);
+		assertTrue(htmlFile.delete());
+
+		task = createTask();
+		task.setMarkupLanguage(languageName);
+		task.setFormatOutput(true);
+		task.setFile(markup);
+		task.setBuildCache(buildCache);
+		task.execute();
+
+		assertTrue(htmlFile.exists() && htmlFile.isFile());
+		assertEquals(content, getContent(htmlFile));
+
+		task.setTitle("Changed Title");
+		task.execute();
+
+		assertTrue(getContent(htmlFile).contains("<title>Changed Title</title>"));
+	}
+
+	private List<String> executeWithThreads(int threads) {
+		Project project = new Project();
+		final List<String> messages = new ArrayList<String>();
+		project.addBuildListener(new DefaultLogger() {
+			@Override
+			public void messageLogged(BuildEvent event) {
+				if (event.getMessage().startsWith("Processing file")) {
+					messages.add(event.getMessage());
+				}
+			}
+		});
+		FileSet fileSet = new FileSet();
+		fileSet.setProject(project);
+		fileSet.setDir(tempFolder);
+		fileSet.setIncludes("*.textile");
+
+		task = createTask();
+		task.setProject(project);
+		task.setMarkupLanguage(languageName);
+		task.addFileset(fileSet);
+		task.setThreads(threads);
+		task.execute();
+
+		return messages;
+	}
+
 	protected File createSimpleTextileMarkup() throws IOException {
 		StringWriter out = new StringWriter();
 		PrintWriter writer = new PrintWriter(out);
@@ -71,6 +71,11 @@ public class SimplePhraseModifier extends PatternBasedElement {
 
 	private class CodePhraseModifierProcessor extends PatternBasedElementProcessor {
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String content = group(1);
@@ -18,6 +18,11 @@ import org.eclipse.mylyn.wikitext.parser.markup.PatternBasedElementProcessor;
  * Element processor for {@link AnchorLinkReplacementToken} and {@link AnchorLinkMacroReplacementToken}
  */
 class AnchorLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
 	@Override
 	public void emit() {
 		LinkAttributes attribute = new LinkAttributes();
@@ -41,6 +41,11 @@ public class EmailLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class EmailLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 
@@ -40,6 +40,11 @@ public class ExplicitLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class InlineLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String href, text;
@@ -41,6 +41,11 @@ public class ImplicitFormattedLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class AutomaticLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String href = group(2);
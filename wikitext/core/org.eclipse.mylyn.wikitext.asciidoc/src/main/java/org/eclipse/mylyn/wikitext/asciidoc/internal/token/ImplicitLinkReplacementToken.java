@@ -43,6 +43,11 @@ public class ImplicitLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class AutomaticLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String href = group(1);
@@ -40,6 +40,11 @@ public class InlineAttributeReplacementToken extends PatternBasedElement {
 
 		private static final Pattern UNSET_PATTERN = Pattern.compile("set:(.*?)!"); //$NON-NLS-1$
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String key = group(1);
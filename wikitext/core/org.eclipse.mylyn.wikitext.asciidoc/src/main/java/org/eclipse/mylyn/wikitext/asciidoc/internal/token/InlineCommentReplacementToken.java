@@ -32,6 +32,11 @@ public class InlineCommentReplacementToken extends PatternBasedElement {
 	}
 
 	private static class InlineAttributeReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			//emit blank
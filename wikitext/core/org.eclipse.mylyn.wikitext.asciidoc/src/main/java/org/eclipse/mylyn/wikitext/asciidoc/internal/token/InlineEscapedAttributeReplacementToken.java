@@ -32,6 +32,11 @@ public class InlineEscapedAttributeReplacementToken extends PatternBasedElement
 	}
 
 	private static class InlineEscapedAttributeTokenReplacementProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			builder.characters(group(1));
@@ -73,6 +73,11 @@ public class InlineImageReplacementToken extends PatternBasedElement {
 
 		private static final String ALT = "alt"; //$NON-NLS-1$
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String src = group(1);
@@ -24,6 +24,11 @@ class XrefReplacementTokenProcessor extends PatternBasedElementProcessor {
 		this.linkTextOffset = linkTextOffset;
 	}
 
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
 	@Override
 	public void emit() {
 		builder.link(linkTarget(), linkText());
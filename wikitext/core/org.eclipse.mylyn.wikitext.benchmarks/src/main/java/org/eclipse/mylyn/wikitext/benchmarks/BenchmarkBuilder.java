@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import java.io.Writer;
+
+import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.builder.DocBookDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.builder.NoOpDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.builder.XslfoDocumentBuilder;
+
+/**
+ * The document builders measured by the benchmarks.
+ */
+public enum BenchmarkBuilder {
+	HTML {
+		@Override
+		public DocumentBuilder createDocumentBuilder(Writer out) {
+			return new HtmlDocumentBuilder(out);
+		}
+	},
+	DOCBOOK {
+		@Override
+		public DocumentBuilder createDocumentBuilder(Writer out) {
+			return new DocBookDocumentBuilder(out);
+		}
+	},
+	XSLFO {
+		@Override
+		public DocumentBuilder createDocumentBuilder(Writer out) {
+			return new XslfoDocumentBuilder(out);
+		}
+	},
+	NOOP {
+		@Override
+		public DocumentBuilder createDocumentBuilder(Writer out) {
+			return new NoOpDocumentBuilder();
+		}
+	};
+
+	/**
+	 * Creates a new document builder that writes its output to the given writer.
+	 *
+	 * @param out
+	 *            the target of the output, ignored by builders that produce no output
+	 */
+	public abstract DocumentBuilder createDocumentBuilder(Writer out);
+}
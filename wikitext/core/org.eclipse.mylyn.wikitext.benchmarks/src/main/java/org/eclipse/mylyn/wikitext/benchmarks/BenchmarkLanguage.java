@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import org.eclipse.mylyn.wikitext.asciidoc.AsciiDocLanguage;
+import org.eclipse.mylyn.wikitext.commonmark.CommonMarkLanguage;
+import org.eclipse.mylyn.wikitext.confluence.ConfluenceLanguage;
+import org.eclipse.mylyn.wikitext.creole.CreoleLanguage;
+import org.eclipse.mylyn.wikitext.markdown.MarkdownLanguage;
+import org.eclipse.mylyn.wikitext.mediawiki.MediaWikiLanguage;
+import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
+import org.eclipse.mylyn.wikitext.textile.TextileLanguage;
+import org.eclipse.mylyn.wikitext.tracwiki.TracWikiLanguage;
+import org.eclipse.mylyn.wikitext.twiki.TWikiLanguage;
+
+/**
+ * The markup languages measured by the benchmarks, each with a representative sample document. Languages are
+ * instantiated directly rather than through the {@link org.eclipse.mylyn.wikitext.util.ServiceLocator} so that the
+ * benchmarks do not depend on the layout of service files in the benchmark jar.
+ */
+public enum BenchmarkLanguage {
+	ASCIIDOC("sample.asciidoc") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new AsciiDocLanguage();
+		}
+	},
+	COMMONMARK("sample.commonmark") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new CommonMarkLanguage();
+		}
+	},
+	CONFLUENCE("sample.confluence") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new ConfluenceLanguage();
+		}
+	},
+	CREOLE("sample.creole") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new CreoleLanguage();
+		}
+	},
+	MARKDOWN("sample.markdown") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new MarkdownLanguage();
+		}
+	},
+	MEDIAWIKI("sample.mediawiki") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new MediaWikiLanguage();
+		}
+	},
+	TEXTILE("sample.textile") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new TextileLanguage();
+		}
+	},
+	TRACWIKI("sample.tracwiki") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new TracWikiLanguage();
+		}
+	},
+	TWIKI("sample.twiki") {
+		@Override
+		public MarkupLanguage createMarkupLanguage() {
+			return new TWikiLanguage();
+		}
+	};
+
+	private final String sampleResource;
+
+	private BenchmarkLanguage(String sampleResource) {
+		this.sampleResource = sampleResource;
+	}
+
+	/**
+	 * Creates a new, unconfigured instance of the markup language.
+	 */
+	public abstract MarkupLanguage createMarkupLanguage();
+
+	/**
+	 * The name of the sample document resource, relative to the <tt>resources</tt> folder of this package.
+	 */
+	public String getSampleResource() {
+		return sampleResource;
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.mylyn.wikitext.commonmark.CommonMarkLanguage;
+import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.NoOpDocumentBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Strings;
+
+/**
+ * Measures CommonMark inline parsing of pathological paragraphs consisting of thousands of emphasis delimiters or
+ * brackets. The time taken should grow linearly with the <tt>size</tt> of the input so that untrusted content cannot
+ * be used to stall the parser; comparing both sizes of the same input shows any quadratic behaviour.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommonMarkPathologicalBenchmark {
+
+	public enum Input {
+		/**
+		 * emphasis nested <tt>size</tt> levels deep: <tt>*a *a ... b ... a* a*</tt>
+		 */
+		NESTED_EMPHASIS {
+			@Override
+			String create(int size) {
+				return Strings.repeat("*a ", size) + "b" + Strings.repeat(" a*", size); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		},
+		/**
+		 * <tt>size</tt> consecutive emphasis spans: <tt>*a* _b_ *a* _b_ ...</tt>
+		 */
+		SEQUENTIAL_EMPHASIS {
+			@Override
+			String create(int size) {
+				return Strings.repeat("*a* _b_ ", size / 2); //$NON-NLS-1$
+			}
+		},
+		/**
+		 * openers of one kind followed by closers of another that never match: <tt>_a _a ... a* a*</tt>
+		 */
+		MISMATCHED_EMPHASIS {
+			@Override
+			String create(int size) {
+				return Strings.repeat("_a ", size) + Strings.repeat("a* ", size); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		},
+		/**
+		 * brackets nested <tt>size</tt> levels deep: <tt>[[[...a...]]]</tt>
+		 */
+		NESTED_BRACKETS {
+			@Override
+			String create(int size) {
+				return Strings.repeat("[", size) + "a" + Strings.repeat("]", size); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		},
+		/**
+		 * unclosed brackets followed by emphasis: <tt>[a [a ... *b* *b*</tt>
+		 */
+		UNCLOSED_BRACKETS {
+			@Override
+			String create(int size) {
+				return Strings.repeat("[a ", size) + Strings.repeat("*b* ", size); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		},
+		/**
+		 * images nested <tt>size</tt> levels deep: <tt>![![...a...](b)](b)</tt>
+		 */
+		NESTED_IMAGES {
+			@Override
+			String create(int size) {
+				return Strings.repeat("![", size) + "a" + Strings.repeat("](b)", size); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		};
+
+		abstract String create(int size);
+	}
+
+	@Param
+	public Input input;
+
+	@Param({ "1000", "4000" })
+	public int size;
+
+	private CommonMarkLanguage markupLanguage;
+
+	private String markup;
+
+	@Setup
+	public void setUp() {
+		markupLanguage = new CommonMarkLanguage();
+		markup = input.create(size);
+	}
+
+	@Benchmark
+	public void parse() {
+		MarkupParser parser = new MarkupParser(markupLanguage, new NoOpDocumentBuilder());
+		parser.parse(markup);
+	}
+}
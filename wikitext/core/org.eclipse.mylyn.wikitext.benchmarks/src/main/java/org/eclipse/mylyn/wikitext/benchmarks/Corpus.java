@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.base.Throwables;
+import com.google.common.io.Resources;
+
+/**
+ * The sizes of markup documents used by the benchmarks. Documents are produced by concatenating the
+ * {@link BenchmarkLanguage#getSampleResource() sample document} of a language until the target size is reached, so
+ * that every language is measured with the same mix of blocks, phrase modifiers and tokens at every size.
+ */
+public enum Corpus {
+	/**
+	 * a single copy of the sample, typical of a comment or short wiki page
+	 */
+	SMALL(0),
+	/**
+	 * approximately 256 KB, typical of a large wiki page or README
+	 */
+	MEDIUM(256 * 1024),
+	/**
+	 * approximately 8 MB, typical of a single-file manual or a wiki dump
+	 */
+	HUGE(8 * 1024 * 1024);
+
+	private final int targetSize;
+
+	private Corpus(int targetSize) {
+		this.targetSize = targetSize;
+	}
+
+	/**
+	 * Creates the markup content of this size for the given language.
+	 */
+	public String createContent(BenchmarkLanguage language) {
+		String sample = loadSample(language);
+		StringBuilder content = new StringBuilder(Math.max(targetSize, sample.length()) + sample.length());
+		do {
+			content.append(sample);
+		} while (content.length() < targetSize);
+		return content.toString();
+	}
+
+	static String loadSample(BenchmarkLanguage language) {
+		String path = "resources/" + language.getSampleResource(); //$NON-NLS-1$
+		try {
+			URL url = Corpus.class.getResource(path);
+			checkNotNull(url, "Resource %s not found relative to %s", path, Corpus.class.getName()); //$NON-NLS-1$
+			return Resources.toString(url, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures conversion of markup through {@link MarkupParser} for every combination of {@link BenchmarkLanguage
+ * language}, {@link BenchmarkBuilder document builder} and {@link Corpus corpus size}. The secondary
+ * <tt>megabytes</tt> result is the conversion throughput in MB of markup per second; allocation per conversion is
+ * reported as <tt>gc.alloc.rate.norm</tt> when run with the GC profiler, as {@link BenchmarkRunner} does by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkupConversionBenchmark {
+
+	@Param
+	public BenchmarkLanguage language;
+
+	@Param
+	public BenchmarkBuilder builder;
+
+	@Param
+	public Corpus corpus;
+
+	private MarkupLanguage markupLanguage;
+
+	private String content;
+
+	private double contentMegabytes;
+
+	/**
+	 * Counts the megabytes of markup converted, reported by JMH as a rate.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Throughput {
+
+		public double megabytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			megabytes = 0;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		markupLanguage = language.createMarkupLanguage();
+		content = corpus.createContent(language);
+		contentMegabytes = content.length() / (1024.0 * 1024.0);
+	}
+
+	@Benchmark
+	public long convert(Throughput throughput) {
+		NullWriter out = new NullWriter();
+		MarkupParser parser = new MarkupParser(markupLanguage, builder.createDocumentBuilder(out));
+		parser.parse(content);
+		throughput.megabytes += contentMegabytes;
+		return out.getCount();
+	}
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import java.io.Writer;
+
+/**
+ * A writer that discards its output, counting the number of characters written so that the output cannot be
+ * eliminated as dead code.
+ */
+class NullWriter extends Writer {
+
+	private long count;
+
+	@Override
+	public void write(int c) {
+		++count;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) {
+		count += len;
+	}
+
+	@Override
+	public void write(String str, int off, int len) {
+		count += len;
+	}
+
+	@Override
+	public void flush() {
+		// nothing to do
+	}
+
+	@Override
+	public void close() {
+		// nothing to do
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.ParseSession;
+import org.eclipse.mylyn.wikitext.parser.builder.NoOpDocumentBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing of short documents, such as the comments of a task, with and without a {@link ParseSession}. Run
+ * with {@link BenchmarkRunner} to report the allocation per document (<tt>gc.alloc.rate.norm</tt>).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseSessionBenchmark {
+
+	@Param({ "TEXTILE", "CONFLUENCE", "MARKDOWN" })
+	public BenchmarkLanguage language;
+
+	@Param({ "false", "true" })
+	public boolean session;
+
+	private MarkupParser parser;
+
+	private String markup;
+
+	@Setup
+	public void setUp() {
+		parser = new MarkupParser(language.createMarkupLanguage(), new NoOpDocumentBuilder());
+		if (session) {
+			parser.setSession(new ParseSession());
+		}
+		markup = "Steps to reproduce:\n\n* open the *editor*\n* type some text\n\nThe editor freezes, see the attached log." //$NON-NLS-1$
+				+ "\nWorks with the previous build."; //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public void parse() {
+		parser.parse(markup);
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.NoOpDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.markup.AbstractMarkupLanguage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the engines that find phrase modifiers and replacement tokens: matching the alternation of all elements at
+ * every position, and {@link AbstractMarkupLanguage#setFirstCharacterDispatch(boolean) first-character dispatch}.
+ * Besides the sample document of each language, the <tt>DENSE</tt> content consists of long lines with many inline
+ * elements, where the cost of finding elements dominates the parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatternBasedSyntaxBenchmark {
+
+	public enum Content {
+		SAMPLE, DENSE
+	}
+
+	@Param({ "TEXTILE", "CONFLUENCE" })
+	public BenchmarkLanguage language;
+
+	@Param({ "false", "true" })
+	public boolean firstCharacterDispatch;
+
+	@Param
+	public Content content;
+
+	private AbstractMarkupLanguage markupLanguage;
+
+	private String markup;
+
+	@Setup
+	public void setUp() {
+		markupLanguage = (AbstractMarkupLanguage) language.createMarkupLanguage();
+		markupLanguage.setFirstCharacterDispatch(firstCharacterDispatch);
+		markup = content == Content.SAMPLE ? Corpus.SMALL.createContent(language) : createDenseContent();
+	}
+
+	private String createDenseContent() {
+		String phrase = language == BenchmarkLanguage.TEXTILE
+				? "some *strong* and _emphasised_ text with @code@, a \"link\":http://example.com" //$NON-NLS-1$
+				: "some *strong* and _emphasised_ text with {{code}}, a [link|http://example.com]"; //$NON-NLS-1$
+		phrase += " (c) and -deleted- words, "; //$NON-NLS-1$
+		StringBuilder buffer = new StringBuilder();
+		for (int line = 0; line < 20; ++line) {
+			for (int x = 0; x < 20; ++x) {
+				buffer.append(phrase);
+			}
+			buffer.append("\n\n"); //$NON-NLS-1$
+		}
+		return buffer.toString();
+	}
+
+	@Benchmark
+	public void parse() {
+		MarkupParser parser = new MarkupParser(markupLanguage, new NoOpDocumentBuilder());
+		parser.parse(markup);
+	}
+}
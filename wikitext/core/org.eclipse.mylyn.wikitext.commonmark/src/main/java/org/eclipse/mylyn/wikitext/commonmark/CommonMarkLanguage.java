@@ -47,9 +47,10 @@ public class CommonMarkLanguage extends MarkupLanguage {
 
 		SourceBlocks sourceBlocks = CommonMark.sourceBlocks();
 
-		ProcessingContext context = createContext(sourceBlocks, markupContent);
+		LineSequence lineSequence = LineSequence.create(markupContent);
+		ProcessingContext context = createContext(sourceBlocks, lineSequence.lookAhead());
 
-		sourceBlocks.process(context, builder, LineSequence.create(markupContent));
+		sourceBlocks.process(context, builder, lineSequence);
 
 		if (asDocument) {
 			builder.endDocument();
@@ -61,13 +62,13 @@ public class CommonMarkLanguage extends MarkupLanguage {
 		return isStrictlyConforming() ? null : new CommonMarkIdGenerationStrategy();
 	}
 
-	private ProcessingContext createContext(SourceBlocks sourceBlocks, String markupContent) {
+	private ProcessingContext createContext(SourceBlocks sourceBlocks, LineSequence lineSequence) {
 		ProcessingContextBuilder contextBuilder = ProcessingContext.builder()
 				.idGenerationStrategy(getIdGenerationStrategy());
 		if (!strictlyConforming) {
 			contextBuilder.inlineParser(InlineContent.markdown());
 		}
-		sourceBlocks.createContext(contextBuilder, LineSequence.create(markupContent));
+		sourceBlocks.createContext(contextBuilder, lineSequence);
 		return contextBuilder.build();
 	}
 
@@ -28,13 +28,16 @@ class ContentLineSequence extends ForwardLineSequence {
 
 	private final LocationTrackingReader reader;
 
-	private Line currentLine;
+	/**
+	 * the lines read so far, retained so that {@link #lookAhead() look-ahead} and {@link #advance() advancing} are
+	 * constant-time operations
+	 */
+	private final List<Line> lines = new ArrayList<Line>();
 
-	private final List<Line> followingLines = new ArrayList<Line>();
+	private int index;
 
 	ContentLineSequence(String content) {
 		this.reader = new LocationTrackingReader(new StringReader(checkNotNull(content)));
-		currentLine = readLine();
 	}
 
 	private Line readLine() {
@@ -52,7 +55,7 @@ class ContentLineSequence extends ForwardLineSequence {
 
 	@Override
 	public Line getCurrentLine() {
-		return currentLine;
+		return getLine(index);
 	}
 
 	@Override
@@ -63,24 +66,24 @@ class ContentLineSequence extends ForwardLineSequence {
 	@Override
 	Line getNextLine(int index) {
 		checkArgument(index >= 0);
-		while (followingLines.size() <= index) {
+		return getLine(this.index + 1 + index);
+	}
+
+	private Line getLine(int lineIndex) {
+		while (lines.size() <= lineIndex) {
 			Line line = readLine();
 			if (line == null) {
-				break;
+				return null;
 			}
-			followingLines.add(line);
-		}
-		if (followingLines.size() <= index) {
-			return null;
+			lines.add(line);
 		}
-		return followingLines.get(index);
+		return lines.get(lineIndex);
 	}
 
 	@Override
 	public void advance() {
-		currentLine = getNextLine();
-		if (currentLine != null) {
-			followingLines.remove(0);
+		if (getCurrentLine() != null) {
+			++index;
 		}
 	}
 
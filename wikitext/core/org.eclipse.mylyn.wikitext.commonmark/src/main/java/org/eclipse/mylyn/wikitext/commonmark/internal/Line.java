@@ -78,6 +78,23 @@ public class Line {
 		return new SimpleLocator(this);
 	}
 
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(lineNumber, offset, text);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		Line other = (Line) obj;
+		return lineNumber == other.lineNumber && offset == other.offset && text.equals(other.text);
+	}
+
 	@Override
 	public String toString() {
 		return Objects.toStringHelper(Line.class)
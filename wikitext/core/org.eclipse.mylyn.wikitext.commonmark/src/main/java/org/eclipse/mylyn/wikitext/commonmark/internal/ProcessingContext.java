@@ -13,6 +13,12 @@ package org.eclipse.mylyn.wikitext.commonmark.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.mylyn.wikitext.commonmark.internal.inlines.Inline;
 import org.eclipse.mylyn.wikitext.commonmark.internal.inlines.InlineParser;
 import org.eclipse.mylyn.wikitext.parser.IdGenerator;
 
@@ -51,17 +57,44 @@ public class ProcessingContext {
 		}
 	}
 
+	static class ParsedInlines {
+
+		private final InlineParser inlineParser;
+
+		private final List<Inline> inlines;
+
+		private final Set<String> unresolvedReferenceNames;
+
+		ParsedInlines(InlineParser inlineParser, List<Inline> inlines, Set<String> unresolvedReferenceNames) {
+			this.inlineParser = inlineParser;
+			this.inlines = inlines;
+			this.unresolvedReferenceNames = unresolvedReferenceNames;
+		}
+	}
+
 	private final InlineParser inlineParser;
 
 	private final ImmutableMap<String, NamedUriWithTitle> links;
 
 	private final IdGenerator idGenerator;
 
+	private final Map<TextSegment, ParsedInlines> parsedInlinesBySegment;
+
+	private final Set<String> unresolvedReferenceNames;
+
 	ProcessingContext(InlineParser inlineParser, ImmutableMap<String, NamedUriWithTitle> links,
-			IdGenerator idGenerator) {
+			IdGenerator idGenerator, Map<TextSegment, ParsedInlines> parsedInlinesBySegment) {
+		this(inlineParser, links, idGenerator, parsedInlinesBySegment, null);
+	}
+
+	private ProcessingContext(InlineParser inlineParser, ImmutableMap<String, NamedUriWithTitle> links,
+			IdGenerator idGenerator, Map<TextSegment, ParsedInlines> parsedInlinesBySegment,
+			Set<String> unresolvedReferenceNames) {
 		this.inlineParser = checkNotNull(inlineParser);
 		this.links = checkNotNull(links);
 		this.idGenerator = checkNotNull(idGenerator);
+		this.parsedInlinesBySegment = checkNotNull(parsedInlinesBySegment);
+		this.unresolvedReferenceNames = unresolvedReferenceNames;
 	}
 
 	public boolean isEmpty() {
@@ -69,7 +102,55 @@ public class ProcessingContext {
 	}
 
 	public NamedUriWithTitle namedUriWithTitle(String name) {
-		return links.get(name.toLowerCase());
+		String key = name.toLowerCase();
+		NamedUriWithTitle uriWithTitle = links.get(key);
+		if (uriWithTitle == null && unresolvedReferenceNames != null) {
+			unresolvedReferenceNames.add(key);
+		}
+		return uriWithTitle;
+	}
+
+	/**
+	 * Provides a context for parsing the inlines of a single text segment, which records the names of references that
+	 * could not be resolved so that the parsed inlines can be retained.
+	 */
+	public ProcessingContext createParseContext() {
+		return new ProcessingContext(inlineParser, links, idGenerator, parsedInlinesBySegment, new HashSet<String>());
+	}
+
+	/**
+	 * Provides the inlines previously parsed from the given text segment by the given parser, either while building
+	 * this context or using a context built by the same {@link ProcessingContextBuilder builder}. Inlines are only
+	 * provided if they would be parsed the same way using this context, that is if none of the references that could
+	 * not be resolved at the time have since been defined.
+	 *
+	 * @return the inlines, or null if they must be parsed
+	 */
+	public List<Inline> getParsedInlines(InlineParser inlineParser, TextSegment textSegment) {
+		ParsedInlines parsedInlines = parsedInlinesBySegment.get(textSegment);
+		if (parsedInlines == null || parsedInlines.inlineParser != inlineParser) {
+			return null;
+		}
+		for (String name : parsedInlines.unresolvedReferenceNames) {
+			if (links.containsKey(name)) {
+				return null;
+			}
+		}
+		return parsedInlines.inlines;
+	}
+
+	/**
+	 * Retains the inlines parsed from the given text segment for {@link #getParsedInlines(InlineParser, TextSegment)
+	 * reuse}.
+	 *
+	 * @param parseContext
+	 *            the context {@link #createParseContext() created} for parsing the inlines
+	 */
+	public void putParsedInlines(InlineParser inlineParser, TextSegment textSegment, List<Inline> inlines,
+			ProcessingContext parseContext) {
+		checkNotNull(parseContext.unresolvedReferenceNames);
+		parsedInlinesBySegment.put(textSegment,
+				new ParsedInlines(inlineParser, inlines, parseContext.unresolvedReferenceNames));
 	}
 
 	public String generateHeadingId(int headingLevel, String headingText) {
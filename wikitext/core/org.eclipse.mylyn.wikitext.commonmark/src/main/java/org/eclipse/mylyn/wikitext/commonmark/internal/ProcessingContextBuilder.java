@@ -16,6 +16,7 @@ import java.util.Locale;
 import java.util.Map;
 
 import org.eclipse.mylyn.wikitext.commonmark.internal.ProcessingContext.NamedUriWithTitle;
+import org.eclipse.mylyn.wikitext.commonmark.internal.ProcessingContext.ParsedInlines;
 import org.eclipse.mylyn.wikitext.commonmark.internal.inlines.InlineParser;
 import org.eclipse.mylyn.wikitext.parser.IdGenerator;
 import org.eclipse.mylyn.wikitext.parser.markup.IdGenerationStrategy;
@@ -27,6 +28,8 @@ public class ProcessingContextBuilder {
 
 	private final Map<String, NamedUriWithTitle> linkByName = new HashMap<>();
 
+	private final Map<TextSegment, ParsedInlines> parsedInlinesBySegment = new HashMap<>();
+
 	private IdGenerationStrategy idGenerationStrategy = new CommonMarkIdGenerationStrategy();
 
 	private InlineParser inlineParser;
@@ -47,7 +50,8 @@ public class ProcessingContextBuilder {
 	}
 
 	public ProcessingContext build() {
-		return new ProcessingContext(getInlineParser(), ImmutableMap.copyOf(linkByName), idGenerator());
+		return new ProcessingContext(getInlineParser(), ImmutableMap.copyOf(linkByName), idGenerator(),
+				parsedInlinesBySegment);
 	}
 
 	public ProcessingContextBuilder inlineParser(InlineParser inlineParser) {
@@ -25,20 +25,35 @@ public class TextSegment {
 
 	private final String text;
 
+	/**
+	 * the offset within {@link #getText() the text} of each line, followed by the length of the text and a trailing
+	 * line separator; enables offset mapping by binary search
+	 */
+	private final int[] lineTextOffsets;
+
 	public TextSegment(Iterable<Line> lines) {
 		this.lines = ImmutableList.copyOf(lines);
 		text = computeText(this.lines);
+		lineTextOffsets = computeLineTextOffsets(this.lines);
 	}
 
 	private static String computeText(List<Line> lines) {
-		String text = "";
+		StringBuilder text = new StringBuilder();
 		for (Line line : lines) {
 			if (text.length() > 0) {
-				text += "\n";
+				text.append('\n');
 			}
-			text += line.getText();
+			text.append(line.getText());
 		}
-		return text;
+		return text.toString();
+	}
+
+	private static int[] computeLineTextOffsets(List<Line> lines) {
+		int[] offsets = new int[lines.size() + 1];
+		for (int x = 0; x < lines.size(); ++x) {
+			offsets[x + 1] = offsets[x] + lines.get(x).getText().length() + 1;
+		}
+		return offsets;
 	}
 
 	public String getText() {
@@ -51,47 +66,83 @@ public class TextSegment {
 
 	public int offsetOf(int textOffset) {
 		checkArgument(textOffset >= 0);
-		int textOffsetOfLine = 0;
-		int remainder = textOffset;
-		for (Line line : lines) {
-			textOffsetOfLine = line.getOffset();
-			int linePlusSeparatorLength = line.getText().length() + 1;
-			if (linePlusSeparatorLength > remainder) {
-				break;
-			}
-			remainder -= linePlusSeparatorLength;
+		if (lines.isEmpty()) {
+			return textOffset;
 		}
-		return textOffsetOfLine + remainder;
+		int index = indexOfLineAtTextOffset(textOffset);
+		return lines.get(Math.min(index, lines.size() - 1)).getOffset() + textOffset - lineTextOffsets[index];
 	}
 
 	public int toTextOffset(int documentOffset) {
-		int textOffset = 0;
-		for (Line line : lines) {
-			int lineRelativeOffset = documentOffset - line.getOffset();
-			int linePlusSeparatorLength = line.getText().length() + 1;
-			if (lineRelativeOffset >= 0 && lineRelativeOffset < linePlusSeparatorLength) {
-				return textOffset + lineRelativeOffset;
+		int index = indexOfLineAtDocumentOffset(documentOffset);
+		if (index != -1) {
+			int lineRelativeOffset = documentOffset - lines.get(index).getOffset();
+			if (lineRelativeOffset < lineTextOffsets[index + 1] - lineTextOffsets[index]) {
+				return lineTextOffsets[index] + lineRelativeOffset;
 			}
-			textOffset += linePlusSeparatorLength;
 		}
 		throw new IllegalArgumentException();
 	}
 
+	/**
+	 * Provides the index of the last entry of {@link #lineTextOffsets} that is less than or equal to the given offset.
+	 */
+	private int indexOfLineAtTextOffset(int textOffset) {
+		int low = 0;
+		int high = lineTextOffsets.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (lineTextOffsets[mid] <= textOffset) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Provides the index of the last line starting at or before the given document offset, or -1 if there is no such
+	 * line.
+	 */
+	private int indexOfLineAtDocumentOffset(int documentOffset) {
+		int low = -1;
+		int high = lines.size() - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (lines.get(mid).getOffset() <= documentOffset) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public int hashCode() {
+		return lines.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		return lines.equals(((TextSegment) obj).lines);
+	}
+
 	@Override
 	public String toString() {
 		return Objects.toStringHelper(TextSegment.class).add("text", ToStringHelper.toStringValue(text)).toString();
 	}
 
 	public Line getLineAtOffset(int textOffset) {
-		int documentOffset = offsetOf(textOffset);
-		Line previous = null;
-		for (Line line : lines) {
-			if (line.getOffset() > documentOffset) {
-				break;
-			}
-			previous = line;
-		}
-		return checkNotNull(previous);
+		int index = indexOfLineAtDocumentOffset(offsetOf(textOffset));
+		return checkNotNull(index == -1 ? null : lines.get(index));
 	}
 
 }
@@ -51,7 +51,7 @@ public class AutoLinkSpan extends SourceSpan {
 		char c = cursor.getChar();
 		if (c == '<') {
 			Matcher matcher = cursor.matcher(linkPattern);
-			if (matcher.matches()) {
+			if (matcher.lookingAt()) {
 				String href = matcher.group(1);
 				String link = href;
 				String email = matcher.group(2);
@@ -82,7 +82,7 @@ public class AutoLinkSpan extends SourceSpan {
 			}
 			regex += scheme.replace(".", "\\.");
 		}
-		regex += "):[^\\s>]+)|(" + EMAIL_REGEX + "))(>).*";
+		regex += "):[^\\s>]+)|(" + EMAIL_REGEX + "))(>)";
 		return Pattern.compile(regex, Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
 	}
 }
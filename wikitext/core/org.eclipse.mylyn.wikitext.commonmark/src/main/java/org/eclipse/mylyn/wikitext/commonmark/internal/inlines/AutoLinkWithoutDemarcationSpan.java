@@ -21,13 +21,13 @@ import com.google.common.net.UrlEscapers;
 public class AutoLinkWithoutDemarcationSpan extends SourceSpan {
 
 	private final Pattern linkPattern = Pattern
-			.compile("(https?://[a-zA-Z0-9%._~!$&?#'()*+,;:@/=-]*[a-zA-Z0-9_~!$&?#'(*+@/=-]).*", Pattern.DOTALL);
+			.compile("(https?://[a-zA-Z0-9%._~!$&?#'()*+,;:@/=-]*[a-zA-Z0-9_~!$&?#'(*+@/=-])", Pattern.DOTALL);
 
 	@Override
 	public Optional<? extends Inline> createInline(Cursor cursor) {
 		if (cursor.getChar() == 'h') {
 			Matcher matcher = cursor.matcher(linkPattern);
-			if (matcher.matches()) {
+			if (matcher.lookingAt()) {
 				String href = matcher.group(1);
 				String link = href;
 
@@ -19,14 +19,14 @@ import com.google.common.base.Strings;
 
 public class CodeSpan extends SourceSpan {
 
-	Pattern pattern = Pattern.compile("(`+).*", Pattern.DOTALL | Pattern.MULTILINE);
+	Pattern pattern = Pattern.compile("(`+)", Pattern.DOTALL | Pattern.MULTILINE);
 
 	@Override
 	public Optional<? extends Inline> createInline(Cursor cursor) {
 		char c = cursor.getChar();
 		if (c == '`' && (!cursor.hasPrevious() || cursor.getPrevious() != '`')) {
 			Matcher matcher = cursor.matcher(pattern);
-			if (matcher.matches()) {
+			if (matcher.lookingAt()) {
 				String openingBackticks = matcher.group(1);
 				int backtickCount = openingBackticks.length();
 				Pattern closingPattern = Pattern.compile("(?<!`)(" + Strings.repeat("`", backtickCount) + ")([^`]|$)",
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.commonmark.internal.inlines;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Replaces matching pairs of {@link PotentialEmphasisDelimiter potential emphasis delimiters}, together with the
+ * inlines between them, by {@link Emphasis} or {@link Strong} inlines. Follows the delimiter stack algorithm of the
+ * CommonMark reference implementation: inlines are held in a mutable doubly-linked list that is visited once from left
+ * to right, and each closing delimiter is matched with the nearest opening delimiter of the same kind on a stack of
+ * openers. Processing time is linear in the number of inlines, even for content with thousands of delimiters.
+ */
+class DelimiterStack {
+
+	private static class Node {
+
+		private Inline inline;
+
+		private Node previous;
+
+		private Node next;
+
+		/**
+		 * the position of an opener relative to other openers
+		 */
+		private int sequence;
+	}
+
+	private final Node head = new Node();
+
+	private final Node tail = new Node();
+
+	private final List<Node> openers = new ArrayList<>();
+
+	/**
+	 * for each delimiter character, the sequence below which there are no openers of that character on the stack
+	 */
+	private final Map<Character, Integer> openersBottom = new HashMap<>();
+
+	private int sequence;
+
+	DelimiterStack(List<Inline> inlines) {
+		head.next = tail;
+		tail.previous = head;
+		for (Inline inline : inlines) {
+			insertBefore(tail, inline);
+		}
+	}
+
+	/**
+	 * Processes all delimiters and provides the resulting inlines. Must only be called once.
+	 */
+	List<Inline> process() {
+		Node node = head.next;
+		while (node != tail) {
+			if (node.inline instanceof PotentialEmphasisDelimiter) {
+				node = processDelimiter(node);
+			} else {
+				node = node.next;
+			}
+		}
+		ImmutableList.Builder<Inline> inlines = ImmutableList.builder();
+		for (node = head.next; node != tail; node = node.next) {
+			inlines.add(node.inline);
+		}
+		return inlines.build();
+	}
+
+	private Node processDelimiter(Node node) {
+		PotentialEmphasisDelimiter delimiter = (PotentialEmphasisDelimiter) node.inline;
+		if (delimiter.canClose()) {
+			int openerIndex = findOpener(delimiter.getDelimiter());
+			if (openerIndex != -1) {
+				return close(openerIndex, node);
+			}
+		}
+		if (delimiter.canOpen()) {
+			node.sequence = sequence++;
+			openers.add(node);
+		}
+		return node.next;
+	}
+
+	private int findOpener(char delimiter) {
+		Integer bottom = openersBottom.get(delimiter);
+		for (int index = openers.size() - 1; index >= 0; --index) {
+			Node opener = openers.get(index);
+			if (bottom != null && opener.sequence < bottom) {
+				break;
+			}
+			if (((PotentialEmphasisDelimiter) opener.inline).getDelimiter() == delimiter) {
+				return index;
+			}
+		}
+		openersBottom.put(delimiter, sequence);
+		return -1;
+	}
+
+	/**
+	 * Replaces the opener at the given index, the closer and the inlines between them with emphasis.
+	 *
+	 * @return the node at which processing continues: the unused part of the closer if any, otherwise the node
+	 *         following the emphasis
+	 */
+	private Node close(int openerIndex, Node closer) {
+		Node opener = openers.get(openerIndex);
+		List<Inline> contents = new ArrayList<>();
+		for (Node node = opener.next; node != closer; node = node.next) {
+			contents.add(node.inline);
+		}
+		List<Inline> substitution = ((PotentialEmphasisDelimiter) closer.inline)
+				.close((PotentialEmphasisDelimiter) opener.inline, contents);
+
+		openers.subList(openerIndex, openers.size()).clear();
+
+		Node previous = opener.previous;
+		Node next = closer.next;
+		previous.next = next;
+		next.previous = previous;
+		for (Inline inline : substitution) {
+			insertBefore(next, inline);
+		}
+
+		Node first = previous.next;
+		if (first.inline instanceof PotentialEmphasisDelimiter) {
+			first.sequence = opener.sequence;
+			openers.add(first);
+		}
+		Node last = next.previous;
+		return last.inline instanceof PotentialEmphasisDelimiter ? last : next;
+	}
+
+	private void insertBefore(Node next, Inline inline) {
+		Node node = new Node();
+		node.inline = inline;
+		node.previous = next.previous;
+		node.next = next;
+		next.previous.next = node;
+		next.previous = node;
+	}
+}
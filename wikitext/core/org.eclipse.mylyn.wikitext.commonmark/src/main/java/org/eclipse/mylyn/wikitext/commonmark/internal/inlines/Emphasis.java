@@ -25,9 +25,8 @@ public class Emphasis extends InlineWithNestedContents {
 	}
 
 	@Override
-	public void emit(DocumentBuilder builder) {
+	boolean beginSpan(DocumentBuilder builder) {
 		builder.beginSpan(SpanType.EMPHASIS, new Attributes());
-		InlineParser.emit(builder, getContents());
-		builder.endSpan();
+		return true;
 	}
 }
@@ -20,7 +20,7 @@ import com.google.common.base.Optional;
 
 public class HtmlEntitySpan extends SourceSpan {
 
-	private final Pattern pattern = Pattern.compile("&(#x[a-f0-9]{1,8}|#[0-9]{1,8}|[a-z][a-z0-9]{1,31});.*",
+	private final Pattern pattern = Pattern.compile("&(#x[a-f0-9]{1,8}|#[0-9]{1,8}|[a-z][a-z0-9]{1,31});",
 			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
 
 	@Override
@@ -28,7 +28,7 @@ public class HtmlEntitySpan extends SourceSpan {
 		char c = cursor.getChar();
 		if (c == '&') {
 			Matcher matcher = cursor.matcher(pattern);
-			if (matcher.matches()) {
+			if (matcher.lookingAt()) {
 				String ent = matcher.group(1);
 
 				int offset = cursor.getOffset();
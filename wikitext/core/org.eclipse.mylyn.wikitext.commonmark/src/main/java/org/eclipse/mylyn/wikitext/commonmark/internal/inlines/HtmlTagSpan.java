@@ -44,7 +44,7 @@ public class HtmlTagSpan extends SourceSpan {
 	private static final String CDATA = "<!\\[CDATA\\[.*?\\]\\]>";
 
 	private static final String REGEX_TAG = "(" + TAG + "|" + CLOSE_TAG + "|" + COMMENT + "|" + PROCESSING_INSTRUCTION
-			+ "|" + XML_DECLARATION + "|" + CDATA + ").*";
+			+ "|" + XML_DECLARATION + "|" + CDATA + ")";
 
 	private final Pattern tagPattern = Pattern.compile(REGEX_TAG, Pattern.DOTALL);
 
@@ -53,7 +53,7 @@ public class HtmlTagSpan extends SourceSpan {
 		char c = cursor.getChar();
 		if (c == '<') {
 			Matcher matcher = cursor.matcher(tagPattern);
-			if (matcher.matches()) {
+			if (matcher.lookingAt()) {
 				return Optional.of(new HtmlTag(cursor.getLineAtOffset(), cursor.getOffset(), matcher.group(1)));
 			}
 		}
@@ -27,10 +27,13 @@ public class Image extends InlineWithNestedContents {
 
 	private final String title;
 
+	private final String alt;
+
 	public Image(Line line, int offset, int length, String src, String title, List<Inline> contents) {
 		super(line, offset, length, contents);
 		this.src = checkNotNull(src);
 		this.title = title;
+		this.alt = contents.isEmpty() ? null : InlineParser.toStringContent(contents);
 	}
 
 	public String getHref() {
@@ -41,15 +44,18 @@ public class Image extends InlineWithNestedContents {
 	public void emit(DocumentBuilder builder) {
 		ImageAttributes attributes = new ImageAttributes();
 		attributes.setTitle(title);
-
-		List<Inline> contents = getContents();
-		if (!contents.isEmpty()) {
-			attributes.setAlt(InlineParser.toStringContent(contents));
+		if (alt != null) {
+			attributes.setAlt(alt);
 		}
 
 		builder.image(attributes, src);
 	}
 
+	@Override
+	boolean beginSpan(DocumentBuilder builder) {
+		return false;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(getOffset(), getLength(), getContents(), src, title);
@@ -11,8 +11,11 @@
 
 package org.eclipse.mylyn.wikitext.commonmark.internal.inlines;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.mylyn.wikitext.commonmark.internal.ProcessingContext;
@@ -49,9 +52,25 @@ public class InlineParser {
 	}
 
 	public static void emit(DocumentBuilder builder, List<Inline> inlines) {
-		for (Inline inline : inlines) {
-			builder.setLocator(inline.getLocator());
-			inline.emit(builder);
+		Deque<Iterator<Inline>> enclosingSpans = new ArrayDeque<>();
+		Iterator<Inline> iterator = inlines.iterator();
+		for (;;) {
+			if (iterator.hasNext()) {
+				Inline inline = iterator.next();
+				builder.setLocator(inline.getLocator());
+				if (inline instanceof InlineWithNestedContents
+						&& ((InlineWithNestedContents) inline).beginSpan(builder)) {
+					enclosingSpans.push(iterator);
+					iterator = ((InlineWithNestedContents) inline).getContents().iterator();
+				} else {
+					inline.emit(builder);
+				}
+			} else if (enclosingSpans.isEmpty()) {
+				break;
+			} else {
+				builder.endSpan();
+				iterator = enclosingSpans.pop();
+			}
 		}
 	}
 
@@ -62,29 +81,25 @@ public class InlineParser {
 	}
 
 	public List<Inline> parse(ProcessingContext context, TextSegment segment) {
+		List<Inline> parsedInlines = context.getParsedInlines(this, segment);
+		if (parsedInlines != null) {
+			return parsedInlines;
+		}
+		ProcessingContext parseContext = context.createParseContext();
 		Cursor cursor = new Cursor(segment);
 
 		List<Inline> inlines = new ArrayList<>();
 		while (cursor.hasChar()) {
-			consumeOne(context, inlines, cursor);
+			consumeOne(parseContext, inlines, cursor);
 		}
 
-		return secondPass(inlines);
+		parsedInlines = secondPass(inlines);
+		context.putParsedInlines(this, segment, parsedInlines, parseContext);
+		return parsedInlines;
 	}
 
 	static List<Inline> secondPass(List<Inline> inlines) {
-		List<Inline> processedInlines = ImmutableList.copyOf(inlines);
-		Optional<InlinesSubstitution> substitution = Optional.absent();
-		do {
-			for (Inline inline : processedInlines) {
-				substitution = inline.secondPass(processedInlines);
-				if (substitution.isPresent()) {
-					processedInlines = substitution.get().apply(processedInlines);
-					break;
-				}
-			}
-		} while (substitution.isPresent());
-		return processedInlines;
+		return new DelimiterStack(inlines).process();
 	}
 
 	static String toStringContent(List<Inline> contents) {
@@ -101,9 +116,7 @@ public class InlineParser {
 				stringBuilder.append(Objects.firstNonNull(EntityReferences.instance().equivalentString(entity), ""));
 			}
 		};
-		for (Inline inline : contents) {
-			inline.emit(altDocumentBuilder);
-		}
+		emit(altDocumentBuilder, contents);
 		return stringBuilder.toString();
 	}
 
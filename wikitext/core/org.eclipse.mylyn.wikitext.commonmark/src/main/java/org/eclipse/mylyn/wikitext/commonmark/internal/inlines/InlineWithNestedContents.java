@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.mylyn.wikitext.commonmark.internal.Line;
+import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
 
 import com.google.common.collect.ImmutableList;
 
@@ -31,6 +32,24 @@ public abstract class InlineWithNestedContents extends Inline {
 		return contents;
 	}
 
+	@Override
+	public void emit(DocumentBuilder builder) {
+		if (beginSpan(builder)) {
+			InlineParser.emit(builder, getContents());
+			builder.endSpan();
+		}
+	}
+
+	/**
+	 * Begins the span that encloses the contents of this inline. {@link InlineParser#emit(DocumentBuilder, List)}
+	 * emits the contents and ends the span itself instead of calling {@link #emit(DocumentBuilder)}, so that deeply
+	 * nested inlines cannot exhaust the stack.
+	 *
+	 * @return true if a span was begun, or false if this inline does not enclose its contents in a span and is emitted
+	 *         by {@link #emit(DocumentBuilder)}
+	 */
+	abstract boolean beginSpan(DocumentBuilder builder);
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(getOffset(), getLength(), getContents());
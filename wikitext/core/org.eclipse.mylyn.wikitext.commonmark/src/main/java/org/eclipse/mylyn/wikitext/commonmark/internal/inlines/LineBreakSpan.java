@@ -18,14 +18,14 @@ import com.google.common.base.Optional;
 
 public class LineBreakSpan extends SourceSpan {
 
-	private final Pattern pattern = Pattern.compile("( *(\\\\)?\n).*", Pattern.DOTALL);
+	private final Pattern pattern = Pattern.compile("( *(\\\\)?\n)", Pattern.DOTALL);
 
 	@Override
 	public Optional<? extends Inline> createInline(Cursor cursor) {
 		char c = cursor.getChar();
 		if (c == '\n' || c == ' ') {
 			Matcher matcher = cursor.matcher(pattern);
-			if (matcher.matches()) {
+			if (matcher.lookingAt()) {
 				int length = matcher.group(1).length();
 				if (length > 2 || matcher.group(2) != null) {
 					return Optional.of(new HardLineBreak(cursor.getLineAtOffset(), cursor.getOffset(), length));
@@ -39,15 +39,12 @@ public class Link extends InlineWithNestedContents {
 	}
 
 	@Override
-	public void emit(DocumentBuilder builder) {
+	boolean beginSpan(DocumentBuilder builder) {
 		LinkAttributes attributes = new LinkAttributes();
 		attributes.setTitle(title);
 		attributes.setHref(href);
 		builder.beginSpan(SpanType.LINK, attributes);
-
-		InlineParser.emit(builder, getContents());
-
-		builder.endSpan();
+		return true;
 	}
 
 	@Override
@@ -27,13 +27,17 @@ import org.eclipse.mylyn.wikitext.parser.builder.EntityReferences;
 
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Objects;
-import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.escape.Escaper;
 import com.google.common.net.UrlEscapers;
 
 public class PotentialBracketEndDelimiter extends InlineWithText {
 
+	/**
+	 * the maximum number of characters in a link label, as specified by CommonMark
+	 */
+	private static final int MAXIMUM_LINK_LABEL_LENGTH = 999;
+
 	private static final Pattern HTML_ENTITY_PATTERN = Pattern
 			.compile("(&([a-zA-Z][a-zA-Z0-9]{1,32}|#x[a-fA-F0-9]{1,8}|#[0-9]{1,8});)");
 
@@ -60,13 +64,13 @@ public class PotentialBracketEndDelimiter extends InlineWithText {
 	static final String TITLE_PART = "(?:" + QUOTED_TITLE_PART + "|" + SINGLE_QUOTED_TITLE_PART + "|"
 			+ PARENS_TITLE_PART + ")";
 
-	final Pattern endPattern = Pattern.compile("\\(\\s*" + URI_PART + "?(?:\\s+" + TITLE_PART + ")?\\s*\\)(.*)",
+	final Pattern endPattern = Pattern.compile("\\(\\s*" + URI_PART + "?(?:\\s+" + TITLE_PART + ")?\\s*\\)(?=(.?))",
 			Pattern.DOTALL);
 
-	final Pattern referenceLabelPattern = Pattern.compile("(\\s*\\[((?:[^\\]]|\\\\]){0,1000})]).*", Pattern.DOTALL);
+	final Pattern referenceLabelPattern = Pattern.compile("(\\s*\\[((?:[^\\]]|\\\\]){0,1000})])", Pattern.DOTALL);
 
 	final Pattern referenceDefinitionEndPattern = Pattern
-			.compile(":\\s*" + URI_PART + "?(?:\\s+" + TITLE_PART + ")?\\s*(.*)", Pattern.DOTALL);
+			.compile(":\\s*" + URI_PART + "?(?:\\s+" + TITLE_PART + ")?\\s*(?=(.?))", Pattern.DOTALL);
 
 	public PotentialBracketEndDelimiter(Line line, int offset) {
 		super(line, offset, 1, "]");
@@ -79,10 +83,10 @@ public class PotentialBracketEndDelimiter extends InlineWithText {
 
 	@Override
 	public void apply(ProcessingContext context, List<Inline> inlines, Cursor cursor) {
-		Optional<PotentialBracketDelimiter> previousDelimiter = findLastPotentialBracketDelimiter(inlines);
-		if (previousDelimiter.isPresent()) {
-			PotentialBracketDelimiter openingDelimiter = previousDelimiter.get();
-			int indexOfOpeningDelimiter = inlines.indexOf(openingDelimiter);
+		int indexOfOpeningDelimiter = indexOfLastPotentialBracketDelimiter(inlines);
+		if (indexOfOpeningDelimiter != -1) {
+			PotentialBracketDelimiter openingDelimiter = (PotentialBracketDelimiter) inlines
+					.get(indexOfOpeningDelimiter);
 
 			boolean referenceDefinition = cursor.hasNext() && cursor.getNext() == ':'
 					&& eligibleForReferenceDefinition(openingDelimiter, cursor);
@@ -90,16 +94,15 @@ public class PotentialBracketEndDelimiter extends InlineWithText {
 					? cursor.matcher(1, referenceDefinition ? referenceDefinitionEndPattern : endPattern)
 					: null;
 
-			List<Inline> contents = InlineParser
-					.secondPass(inlines.subList(indexOfOpeningDelimiter + 1, inlines.size()));
-			if (!openingDelimiter.isLinkDelimiter() || !containsLink(contents)) {
+			List<Inline> unprocessedContents = inlines.subList(indexOfOpeningDelimiter + 1, inlines.size());
+			if (!openingDelimiter.isLinkDelimiter() || !containsLink(unprocessedContents)) {
 
-				if (!cursor.hasNext() || !checkNotNull(matcher).matches()) {
-					String referenceName = toReferenceName(referenceName(cursor, contents));
+				if (!cursor.hasNext() || !checkNotNull(matcher).lookingAt()) {
+					String referenceName = toReferenceName(referenceName(cursor, unprocessedContents));
 					int size = 1;
 					if (cursor.hasNext()) {
 						Matcher referenceLabelMatcher = cursor.matcher(1, referenceLabelPattern);
-						if (referenceLabelMatcher.matches()) {
+						if (referenceLabelMatcher.lookingAt()) {
 							String label = referenceLabelMatcher.group(2);
 							if (!label.isEmpty()) {
 								referenceName = toReferenceName(label);
@@ -113,6 +116,7 @@ public class PotentialBracketEndDelimiter extends InlineWithText {
 					if (uriWithTitle != null) {
 						cursor.advance(size);
 
+						List<Inline> contents = InlineParser.secondPass(unprocessedContents);
 						truncate(inlines, indexOfOpeningDelimiter);
 
 						int length = getOffset() - openingDelimiter.getOffset();
@@ -133,13 +137,14 @@ public class PotentialBracketEndDelimiter extends InlineWithText {
 							&& (Strings.isNullOrEmpty(uri) || hasContentOnSameLine(matcher, cursor)))) {
 						String referenceName = null;
 						if (referenceDefinition) {
-							referenceName = toReferenceName(referenceName(cursor, contents));
+							referenceName = toReferenceName(referenceName(cursor, unprocessedContents));
 						}
 						if ((referenceDefinition && referenceName != null) || !referenceDefinition) {
 							int closingLength = matcher.start(6) - matcher.start() + 1;
 							cursor.advance(closingLength);
 							int length = getOffset() - openingDelimiter.getOffset() + closingLength;
 
+							List<Inline> contents = InlineParser.secondPass(unprocessedContents);
 							truncate(inlines, indexOfOpeningDelimiter);
 
 							if (referenceDefinition) {
@@ -169,6 +174,9 @@ public class PotentialBracketEndDelimiter extends InlineWithText {
 		}
 		int start = cursor.toCursorOffset(contents.get(0).getOffset());
 		int end = cursor.toCursorOffset(getOffset());
+		if (end - start > MAXIMUM_LINK_LABEL_LENGTH) {
+			return "";
+		}
 		return cursor.getText(start, end);
 	}
 
@@ -368,14 +376,12 @@ public class PotentialBracketEndDelimiter extends InlineWithText {
 		return stringWithBackslashEscapes.replaceAll(CAPTURING_ESCAPED_CHARS, "$1");
 	}
 
-	private Optional<PotentialBracketDelimiter> findLastPotentialBracketDelimiter(List<Inline> inlines) {
+	private int indexOfLastPotentialBracketDelimiter(List<Inline> inlines) {
 		for (int x = inlines.size() - 1; x >= 0; --x) {
-			Inline inline = inlines.get(x);
-			if (inline instanceof PotentialBracketDelimiter) {
-				PotentialBracketDelimiter delimiter = (PotentialBracketDelimiter) inline;
-				return Optional.of(delimiter);
+			if (inlines.get(x) instanceof PotentialBracketDelimiter) {
+				return x;
 			}
 		}
-		return Optional.absent();
+		return -1;
 	}
 }
@@ -16,7 +16,6 @@ import java.util.List;
 import org.eclipse.mylyn.wikitext.commonmark.internal.Line;
 import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
 
-import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 
 class PotentialEmphasisDelimiter extends InlineWithText {
@@ -36,37 +35,39 @@ class PotentialEmphasisDelimiter extends InlineWithText {
 		builder.characters(text);
 	}
 
-	@Override
-	Optional<InlinesSubstitution> secondPass(List<Inline> inlines) {
-		if (!canClose) {
-			return Optional.absent();
+	boolean canOpen() {
+		return canOpen;
+	}
+
+	boolean canClose() {
+		return canClose;
+	}
+
+	char getDelimiter() {
+		return text.charAt(0);
+	}
+
+	/**
+	 * Creates the inlines that replace the given opening delimiter, this closing delimiter and the inlines between
+	 * them. The result consists of any unused part of the opening delimiter, the emphasis and any unused part of this
+	 * delimiter, in that order.
+	 */
+	List<Inline> close(PotentialEmphasisDelimiter openingDelimiter, List<Inline> contents) {
+		int delimiterSize = delimiterSize(openingDelimiter);
+
+		int spanOffset = openingDelimiter.getOffset();
+		int spanLength = getOffset() + getLength() - openingDelimiter.getOffset();
+		Inline emphasis = createEmphasis(openingDelimiter.getLine(), spanOffset, spanLength, delimiterSize, contents);
+
+		ImmutableList.Builder<Inline> substitutionInlines = ImmutableList.builder();
+		if (delimiterSize < openingDelimiter.getLength()) {
+			substitutionInlines.add(createPotentialOpeningDelimiter(openingDelimiter, delimiterSize));
 		}
-		int indexOfThis = inlines.indexOf(this);
-		Optional<PotentialEmphasisDelimiter> opener = previousOpener(inlines, indexOfThis);
-		if (opener.isPresent()) {
-			PotentialEmphasisDelimiter openingDelimiter = opener.get();
-			int delimiterSize = delimiterSize(openingDelimiter);
-			int indexOfOpeningDelimiter = inlines.indexOf(openingDelimiter);
-
-			List<Inline> contents = InlineParser.secondPass(inlines.subList(indexOfOpeningDelimiter + 1, indexOfThis));
-
-			int spanOffset = openingDelimiter.getOffset();
-			int spanLength = getOffset() + getLength() - openingDelimiter.getOffset();
-			Inline emphasis = createEmphasis(openingDelimiter.getLine(), spanOffset, spanLength, delimiterSize,
-					contents);
-
-			ImmutableList.Builder<Inline> substitutionInlines = ImmutableList.builder();
-			if (delimiterSize < openingDelimiter.getLength()) {
-				substitutionInlines.add(createPotentialOpeningDelimiter(openingDelimiter, delimiterSize));
-			}
-			substitutionInlines.add(emphasis);
-			if (delimiterSize < getLength()) {
-				substitutionInlines.add(createPotentialClosingDelimiter(delimiterSize));
-			}
-
-			return Optional.of(new InlinesSubstitution(openingDelimiter, this, substitutionInlines.build()));
+		substitutionInlines.add(emphasis);
+		if (delimiterSize < getLength()) {
+			substitutionInlines.add(createPotentialClosingDelimiter(delimiterSize));
 		}
-		return Optional.absent();
+		return substitutionInlines.build();
 	}
 
 	private Inline createPotentialClosingDelimiter(int delimiterSize) {
@@ -96,18 +97,4 @@ class PotentialEmphasisDelimiter extends InlineWithText {
 		}
 		return getLength() % 2 == 0 ? 2 : 1;
 	}
-
-	private Optional<PotentialEmphasisDelimiter> previousOpener(List<Inline> inlines, int indexOfThis) {
-		char c = getText().charAt(0);
-		for (int index = indexOfThis - 1; index >= 0; --index) {
-			Inline inline = inlines.get(index);
-			if (inline instanceof PotentialEmphasisDelimiter) {
-				PotentialEmphasisDelimiter previousDelimiter = (PotentialEmphasisDelimiter) inline;
-				if (previousDelimiter.canOpen && previousDelimiter.getText().charAt(0) == c) {
-					return Optional.of(previousDelimiter);
-				}
-			}
-		}
-		return Optional.absent();
-	}
 }
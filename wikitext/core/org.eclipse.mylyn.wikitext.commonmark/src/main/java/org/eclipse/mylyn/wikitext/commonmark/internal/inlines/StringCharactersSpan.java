@@ -18,12 +18,12 @@ import com.google.common.base.Optional;
 
 public class StringCharactersSpan extends SourceSpan {
 
-	private final Pattern pattern = Pattern.compile("((?: *[^\n `\\[\\]\\\\!<&*_h]+)+).*", Pattern.DOTALL);
+	private final Pattern pattern = Pattern.compile("((?: *[^\n `\\[\\]\\\\!<&*_h]+)+)", Pattern.DOTALL);
 
 	@Override
 	public Optional<? extends Inline> createInline(Cursor cursor) {
 		Matcher matcher = cursor.matcher(pattern);
-		if (matcher.matches()) {
+		if (matcher.lookingAt()) {
 			String group = matcher.group(1);
 			int length = cursor.getOffset(matcher.end(1)) - cursor.getOffset();
 			return Optional.of(new Characters(cursor.getLineAtOffset(), cursor.getOffset(), length, group));
@@ -25,10 +25,9 @@ public class Strong extends InlineWithNestedContents {
 	}
 
 	@Override
-	public void emit(DocumentBuilder builder) {
+	boolean beginSpan(DocumentBuilder builder) {
 		builder.beginSpan(SpanType.STRONG, new Attributes());
-		InlineParser.emit(builder, getContents());
-		builder.endSpan();
+		return true;
 	}
 
 }
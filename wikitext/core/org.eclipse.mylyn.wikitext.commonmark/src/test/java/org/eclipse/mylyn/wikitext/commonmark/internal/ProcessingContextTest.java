@@ -18,7 +18,12 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.eclipse.mylyn.wikitext.commonmark.internal.ProcessingContext.NamedUriWithTitle;
+import org.eclipse.mylyn.wikitext.commonmark.internal.inlines.AllCharactersSpan;
+import org.eclipse.mylyn.wikitext.commonmark.internal.inlines.Inline;
 import org.eclipse.mylyn.wikitext.commonmark.internal.inlines.InlineParser;
 import org.eclipse.mylyn.wikitext.commonmark.internal.inlines.SourceSpan;
 import org.junit.Rule;
@@ -85,4 +90,40 @@ public class ProcessingContextTest {
 		assertSame(inlineParser, context.getInlineParser());
 		assertNotNull(ProcessingContext.builder().build().getInlineParser());
 	}
+
+	@Test
+	public void parsedInlines() {
+		InlineParser inlineParser = new InlineParser(ImmutableList.<SourceSpan> of(new AllCharactersSpan()));
+		ProcessingContextBuilder builder = ProcessingContext.builder().inlineParser(inlineParser);
+		TextSegment segment = new TextSegment(Collections.singletonList(new Line(1, 0, "one")));
+
+		List<Inline> inlines = inlineParser.parse(builder.build(), segment);
+		assertSame(inlines, builder.build().getParsedInlines(inlineParser, segment));
+		assertSame(inlines, inlineParser.parse(builder.build(), segment));
+		assertSame(inlines, inlineParser.parse(builder.build(),
+				new TextSegment(Collections.singletonList(new Line(1, 0, "one")))));
+		InlineParser otherInlineParser = new InlineParser(ImmutableList.<SourceSpan> of(new AllCharactersSpan()));
+		assertNull(builder.build().getParsedInlines(otherInlineParser, segment));
+		assertNull(builder.build()
+				.getParsedInlines(inlineParser, new TextSegment(Collections.singletonList(new Line(2, 0, "one")))));
+	}
+
+	@Test
+	public void parsedInlinesNotReusedOnceUnresolvedReferenceIsDefined() {
+		InlineParser inlineParser = new InlineParser(ImmutableList.<SourceSpan> of(new AllCharactersSpan()));
+		ProcessingContextBuilder builder = ProcessingContext.builder().inlineParser(inlineParser);
+		TextSegment segment = new TextSegment(Collections.singletonList(new Line(1, 0, "[one]")));
+
+		ProcessingContext parseContext = builder.build().createParseContext();
+		assertNull(parseContext.namedUriWithTitle("One"));
+		List<Inline> inlines = ImmutableList.of();
+		builder.build().putParsedInlines(inlineParser, segment, inlines, parseContext);
+		assertSame(inlines, builder.build().getParsedInlines(inlineParser, segment));
+
+		builder.referenceDefinition("two", "/uri", null);
+		assertSame(inlines, builder.build().getParsedInlines(inlineParser, segment));
+
+		builder.referenceDefinition("ONE", "/uri", null);
+		assertNull(builder.build().getParsedInlines(inlineParser, segment));
+	}
 }
@@ -83,6 +83,22 @@ public class TextSegmentTest {
 		assertEquals(lines.get(1), segment.getLineAtOffset(6));
 	}
 
+	@Test
+	public void offsetsOfManyLines() {
+		ImmutableList.Builder<Line> builder = ImmutableList.builder();
+		for (int x = 0; x < 1000; ++x) {
+			builder.add(new Line(x, x * 6, "line"));
+		}
+		ImmutableList<Line> lines = builder.build();
+		TextSegment segment = new TextSegment(lines);
+		assertEquals(1000 * 5 - 1, segment.getText().length());
+		for (int x = 0; x < 1000; ++x) {
+			assertEquals(x * 6 + 2, segment.offsetOf(x * 5 + 2));
+			assertEquals(x * 5 + 2, segment.toTextOffset(x * 6 + 2));
+			assertEquals(lines.get(x), segment.getLineAtOffset(x * 5 + 4));
+		}
+	}
+
 	@Test
 	public void toStringTest() {
 		assertEquals("TextSegment{text=one\\ntwo\\nthree four}",
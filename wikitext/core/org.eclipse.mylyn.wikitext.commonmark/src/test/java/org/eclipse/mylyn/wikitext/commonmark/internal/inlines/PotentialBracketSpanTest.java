@@ -11,8 +11,12 @@
 
 package org.eclipse.mylyn.wikitext.commonmark.internal.inlines;
 
+import static org.eclipse.mylyn.wikitext.commonmark.internal.CommonMarkAsserts.assertContent;
+
 import org.junit.Test;
 
+import com.google.common.base.Strings;
+
 public class PotentialBracketSpanTest extends AbstractSourceSpanTest {
 
 	public PotentialBracketSpanTest() {
@@ -40,4 +44,25 @@ public class PotentialBracketSpanTest extends AbstractSourceSpanTest {
 		assertParseToHtml("<img src=\"/url\" alt=\"foo\" title=\"\"/>", "![foo](/url)");
 		assertParseToHtml("<img src=\"/url.png\" alt=\"\" title=\"\"/>", "![](/url.png)");
 	}
+
+	@Test
+	public void deeplyNestedBrackets() {
+		String markup = Strings.repeat("[", 5000) + "a" + Strings.repeat("]", 5000);
+		assertParseToHtml(markup, markup);
+	}
+
+	@Test
+	public void deeplyNestedImages() {
+		assertParseToHtml("<img src=\"b\" alt=\"\" title=\"\"/>",
+				Strings.repeat("![", 5000) + "a" + Strings.repeat("](b)", 5000));
+	}
+
+	@Test
+	public void referenceLabelLength() {
+		String label = Strings.repeat("a", 999);
+		assertContent("<p><a href=\"/url\">" + label + "</a></p>", "[" + label + "]\n\n[" + label + "]: /url");
+		label += "a";
+		assertContent("<p>[" + label + "]</p><p>[" + label + "]: /url</p>",
+				"[" + label + "]\n\n[" + label + "]: /url");
+	}
 }
@@ -18,6 +18,7 @@ import org.eclipse.mylyn.wikitext.commonmark.internal.Line;
 import org.eclipse.mylyn.wikitext.commonmark.internal.TextSegment;
 import org.junit.Test;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 
 public class PotentialEmphasisSpanTest extends AbstractSourceSpanTest {
@@ -77,6 +78,21 @@ public class PotentialEmphasisSpanTest extends AbstractSourceSpanTest {
 		assertParseToHtml("<strong>some text__a b</strong> a", "__some text__a b__ a");
 	}
 
+	@Test
+	public void nestedEmphasis() {
+		assertParseToHtml("<strong><em>one</em></strong>", "***one***");
+		assertParseToHtml("<em>one <strong>two</strong> three</em>", "*one **two** three*");
+		assertParseToHtml("<em>one _two</em> three_", "*one _two* three_");
+		assertParseToHtml("_one _two one* two*", "_one _two one* two*");
+	}
+
+	@Test
+	public void deeplyNestedEmphasis() {
+		int depth = 5000;
+		assertParseToHtml(Strings.repeat("<em>a ", depth) + "b" + Strings.repeat(" a</em>", depth),
+				Strings.repeat("*a ", depth) + "b" + Strings.repeat(" a*", depth));
+	}
+
 	@Test
 	public void isLeftFlanking() {
 		assertLeftFlanking(true, "**a", 0, 2);
@@ -69,6 +69,7 @@ public class ConfluenceLanguage extends AbstractMarkupLanguage {
 
 	public ConfluenceLanguage() {
 		setName("Confluence"); //$NON-NLS-1$
+		setFirstCharacterDispatch(true);
 	}
 
 	@Override
@@ -16,6 +16,13 @@ import org.eclipse.mylyn.wikitext.parser.markup.ContentState;
 public class ConfluenceContentState extends ContentState {
 	private boolean withinLink = false;
 
+	@Override
+	protected boolean reset() {
+		super.reset();
+		withinLink = false;
+		return true;
+	}
+
 	public boolean isWithinLink() {
 		return withinLink;
 	}
@@ -27,6 +27,11 @@ public class ColorPhraseModifier extends PatternBasedElement {
 			this.spanType = spanType;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			Attributes attributes = new Attributes();
@@ -34,6 +34,11 @@ public class ConfluenceWrappedPhraseModifier extends PatternBasedElement {
 			this.nesting = nesting;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			Attributes attributes = new Attributes();
@@ -28,6 +28,11 @@ public class EmphasisPhraseModifier extends PatternBasedElement {
 		public EmphasisProcessor() {
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			Attributes attributes = new Attributes();
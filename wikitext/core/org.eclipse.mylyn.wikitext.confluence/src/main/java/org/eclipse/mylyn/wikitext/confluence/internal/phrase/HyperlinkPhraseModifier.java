@@ -57,6 +57,11 @@ public class HyperlinkPhraseModifier extends PatternBasedElement {
 			this.parseRelativeLinks = parseRelativeLinks;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
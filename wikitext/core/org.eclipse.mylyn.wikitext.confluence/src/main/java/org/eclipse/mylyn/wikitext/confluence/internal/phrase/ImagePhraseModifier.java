@@ -46,6 +46,11 @@ public class ImagePhraseModifier extends PatternBasedElement {
 
 	private static class ImagePhraseModifierProcessor extends PatternBasedElementProcessor {
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String imageUrl = group(CONTENT_GROUP);
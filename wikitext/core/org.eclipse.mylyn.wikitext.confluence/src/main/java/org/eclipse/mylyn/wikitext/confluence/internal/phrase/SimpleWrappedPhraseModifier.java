@@ -32,6 +32,11 @@ public class SimpleWrappedPhraseModifier extends PatternBasedElement {
 			this.nesting = nesting;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			Attributes attributes = new Attributes();
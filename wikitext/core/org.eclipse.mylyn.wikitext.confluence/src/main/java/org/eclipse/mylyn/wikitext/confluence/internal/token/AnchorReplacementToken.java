@@ -36,6 +36,11 @@ public class AnchorReplacementToken extends PatternBasedElement {
 	}
 
 	private static class AnchorReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String name = group(1);
@@ -37,6 +37,11 @@ public class EscapedCharacterReplacementToken extends PatternBasedElement {
 	}
 
 	private static class EscapedCharacterReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String character = group(1);
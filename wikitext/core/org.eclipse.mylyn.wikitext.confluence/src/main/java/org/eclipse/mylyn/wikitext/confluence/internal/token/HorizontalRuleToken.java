@@ -28,6 +28,11 @@ public class HorizontalRuleToken extends PatternBasedElement {
 	@Override
 	protected PatternBasedElementProcessor newProcessor() {
 		return new PatternBasedElementProcessor() {
+			@Override
+			protected boolean isReusable() {
+				return true;
+			}
+
 			@Override
 			public void emit() {
 				builder.horizontalRule();
@@ -23,6 +23,11 @@ public class ImpliedHyperlinkReplacementToken
 	}
 
 	private static class HyperlinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String target = group(1);
@@ -23,8 +23,10 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.regex.Pattern;
 
+import org.eclipse.mylyn.wikitext.parser.MarkupParser;
 import org.eclipse.mylyn.wikitext.parser.builder.DocBookDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.markup.CompiledMarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.toolkit.AbstractMarkupGenerationTest;
 import org.eclipse.mylyn.wikitext.toolkit.RecordingDocumentBuilder;
@@ -57,6 +59,17 @@ public class ConfluenceLanguageTest extends AbstractMarkupGenerationTest<Conflue
 		assertTrue(getMarkupLanguage().isDetectingRawHyperlinks());
 	}
 
+	@Test
+	public void testCompiledMarkupLanguage() {
+		CompiledMarkupLanguage compiled = new CompiledMarkupLanguage(markupLanguage);
+		String markup = "h1. Title\n\n* *strong* and _emphasis_ with a [link|http://example.com]\n* {{code}} -- dash\n\n"
+				+ "{quote}quoted ^sup^{quote}\n\n||a||b||\n|c|d|";
+		String expected = new MarkupParser(markupLanguage).parseToHtml(markup);
+		for (int x = 0; x < 2; ++x) {
+			assertEquals(expected, new MarkupParser(compiled).parseToHtml(markup));
+		}
+	}
+
 	@Test
 	public void testParagraph() throws Exception {
 		String html = parser.parseToHtml("a paragraph\n\nanother paragraph\nwith\n2 lines");
@@ -105,6 +105,14 @@ public class CreoleLanguage extends AbstractMarkupLanguage {
 		tokenSyntax.add(new ImpliedHyperlinkReplacementToken());
 	}
 
+	/**
+	 * No blocks of this markup language require the complete markup content, so content is processed as it is read.
+	 */
+	@Override
+	protected boolean isRequiresMarkupContent() {
+		return false;
+	}
+
 	@Override
 	protected Block createParagraphBlock() {
 		return new ParagraphBlock();
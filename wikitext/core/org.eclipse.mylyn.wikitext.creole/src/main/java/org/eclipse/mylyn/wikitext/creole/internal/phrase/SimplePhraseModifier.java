@@ -36,6 +36,11 @@ public class SimplePhraseModifier extends PatternBasedElement {
 			this.nesting = nesting;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			for (SpanType type : spanType) {
@@ -41,6 +41,11 @@ public class LinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class LinkProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String escaped = group(1);
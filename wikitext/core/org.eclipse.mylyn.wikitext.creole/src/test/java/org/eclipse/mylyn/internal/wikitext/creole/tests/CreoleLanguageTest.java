@@ -11,8 +11,13 @@
 
 package org.eclipse.mylyn.internal.wikitext.creole.tests;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
 import org.eclipse.mylyn.wikitext.creole.CreoleLanguage;
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.util.ServiceLocator;
 
@@ -44,6 +49,17 @@ public class CreoleLanguageTest extends TestCase {
 		assertEquals("<p>a paragraph</p><p>another paragraph<br/>\nwith\n2 lines</p>", content(html));
 	}
 
+	public void testParseReader() throws IOException {
+		String markup = "= Heading\n\na **bold** paragraph\\\\\r\nwith 2 lines\n* one\n* two\n|a|b|\n{{{\ncode\n}}}";
+
+		StringWriter out = new StringWriter();
+		parser.setBuilder(new HtmlDocumentBuilder(out));
+		parser.parse(new StringReader(markup));
+		parser.setBuilder(null);
+
+		assertEquals(parser.parseToHtml(markup), out.toString());
+	}
+
 	public void testHeadings() {
 		for (int level = 1; level <= 6; ++level) {
 			String delimiter = repeat(level, "=");
@@ -34,6 +34,14 @@ public class MarkdownContentState extends ContentState {
 		linkDefinitionUsageTracker = new LinkDefinitionUsageTracker(this, linkDefinitionParser);
 	}
 
+	@Override
+	protected boolean reset() {
+		super.reset();
+		linkDefinitionParser = null;
+		linkDefinitionUsageTracker = null;
+		return true;
+	}
+
 	/**
 	 * Gets the {@link LinkDefinition} for the given link identifier, or <code>null</code> if there is no such
 	 * {@link LinkDefinition}.
@@ -27,6 +27,11 @@ public class HeadingBlock extends NestableBlock {
 
 	private Matcher matcher;
 
+	@Override
+	public String getStartCharacters() {
+		return "#"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		matcher = pattern.matcher(line.substring(lineOffset));
@@ -26,6 +26,11 @@ public class HorizontalRuleBlock extends NestableBlock {
 		return -1;
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return "*-_"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		return pattern.matcher(line.substring(lineOffset)).matches();
@@ -24,6 +24,11 @@ public class InlineHtmlBlock extends NestableBlock {
 
 	private static final Pattern AUTOMATIC_LINK_PATTERN = Pattern.compile(AutomaticLinkReplacementToken.AUTOMATIC_LINK_REGEX);
 
+	@Override
+	public String getStartCharacters() {
+		return "<"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		return line.substring(lineOffset).trim().startsWith("<") && !AUTOMATIC_LINK_PATTERN.matcher(line).matches(); //$NON-NLS-1$
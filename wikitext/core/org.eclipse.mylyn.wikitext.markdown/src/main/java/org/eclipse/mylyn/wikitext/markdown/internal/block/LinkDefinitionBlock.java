@@ -20,6 +20,11 @@ import org.eclipse.mylyn.wikitext.markdown.internal.LinkDefinitionParser;
  */
 public class LinkDefinitionBlock extends NestableBlock {
 
+	@Override
+	public String getStartCharacters() {
+		return "["; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		return LinkDefinitionParser.LINK_DEFINITION_PATTERN.matcher(line.substring(lineOffset)).matches();
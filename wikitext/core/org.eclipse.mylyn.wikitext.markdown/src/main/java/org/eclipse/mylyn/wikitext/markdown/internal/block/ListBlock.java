@@ -41,6 +41,11 @@ public class ListBlock extends NestableBlock {
 
 	private boolean nextLineStartsNewParagraph = false;
 
+	@Override
+	public String getStartCharacters() {
+		return "*+-0123456789"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		Matcher matcher = itemStartPattern.matcher(line.substring(lineOffset));
@@ -33,6 +33,11 @@ public class QuoteBlock extends NestableBlock {
 
 	private Block nestedBlock = null;
 
+	@Override
+	public String getStartCharacters() {
+		return ">"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		return startPattern.matcher(line.substring(lineOffset)).matches();
@@ -39,6 +39,11 @@ public class AutomaticLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class AutomaticLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String href = group(1);
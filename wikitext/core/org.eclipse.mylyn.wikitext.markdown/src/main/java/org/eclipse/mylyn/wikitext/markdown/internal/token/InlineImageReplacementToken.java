@@ -38,6 +38,11 @@ public class InlineImageReplacementToken extends PatternBasedElement {
 	}
 
 	private static class InlineLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String altText = group(1);
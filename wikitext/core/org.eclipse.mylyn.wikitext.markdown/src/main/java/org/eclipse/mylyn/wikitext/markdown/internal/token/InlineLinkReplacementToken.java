@@ -38,6 +38,11 @@ public class InlineLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class InlineLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
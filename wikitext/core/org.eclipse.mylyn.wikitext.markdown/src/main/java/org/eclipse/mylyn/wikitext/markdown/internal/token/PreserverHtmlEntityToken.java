@@ -38,6 +38,11 @@ public class PreserverHtmlEntityToken extends PatternBasedElement {
 
 	private static class EntityReferenceProcessor extends PatternBasedElementProcessor {
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String entity = group(1);
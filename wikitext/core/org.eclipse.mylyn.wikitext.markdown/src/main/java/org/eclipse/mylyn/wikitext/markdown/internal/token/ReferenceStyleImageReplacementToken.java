@@ -40,6 +40,11 @@ public class ReferenceStyleImageReplacementToken extends PatternBasedElement {
 	}
 
 	private static class ReferenceStyleLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String altText = group(2);
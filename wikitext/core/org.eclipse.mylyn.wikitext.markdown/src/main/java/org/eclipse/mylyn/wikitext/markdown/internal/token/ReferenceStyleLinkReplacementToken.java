@@ -40,6 +40,11 @@ public class ReferenceStyleLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class ReferenceStyleLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(2);
@@ -11,50 +11,22 @@
 
 package org.eclipse.mylyn.wikitext.markdown.internal.util;
 
-import java.io.IOException;
-import java.io.StringReader;
-
 import org.eclipse.mylyn.wikitext.parser.markup.ContentState;
-import org.eclipse.mylyn.wikitext.util.LocationTrackingReader;
 
+/**
+ * Provides the line that follows the current line of a {@link ContentState}, using the line index of the content
+ * state so that looking ahead does not read the markup content again.
+ */
 public class LookAheadReader {
 
 	private ContentState state;
 
-	private LocationTrackingReader reader;
-
 	public void setContentState(ContentState state) {
-		if (mustInitReader(state)) {
-			this.state = state;
-			this.reader = new LocationTrackingReader(new StringReader(state.getMarkupContent()));
-		}
-	}
-
-	private boolean mustInitReader(ContentState newState) {
-		if (state != newState) {
-			return true;
-		}
-		if (reader == null) {
-			return true;
-		}
-		if (reader.getLineNumber() >= state.getLineNumber()) {
-			return true;
-		}
-		return false;
+		this.state = state;
 	}
 
 	public String lookAhead() {
-		int lineNumber = state.getLineNumber();
-		String nextLine = null;
-		while (reader.getLineNumber() < lineNumber) {
-			try {
-				nextLine = reader.readLine();
-			} catch (IOException e) {
-				throw new RuntimeException(e);
-			}
-		}
-
-		return nextLine;
+		return state.getMarkupContentLine(state.getLineNumber());
 	}
 
 }
@@ -22,15 +22,20 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.eclipse.mylyn.wikitext.maven.internal.SourceFileTraversal.Visitor;
-import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.EventDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.util.MarkupToEclipseToc;
@@ -41,8 +46,10 @@ import org.eclipse.mylyn.wikitext.splitter.SplittingHtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.splitter.SplittingMarkupToEclipseToc;
 import org.eclipse.mylyn.wikitext.splitter.SplittingOutlineParser;
 import org.eclipse.mylyn.wikitext.splitter.SplittingStrategy;
+import org.eclipse.mylyn.wikitext.util.BuildCache;
 import org.eclipse.mylyn.wikitext.util.ServiceLocator;
 
+import com.google.common.base.Throwables;
 import com.google.common.io.Files;
 
 /**
@@ -219,6 +226,25 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 	 */
 	protected boolean embeddedTableOfContents = false;
 
+	/**
+	 * The number of threads to use when processing source files. Files are processed independently, however messages
+	 * are logged in the order in which files are traversed. Defaults to 1, processing files sequentially.
+	 *
+	 * @parameter
+	 */
+	protected int threads = 1;
+
+	/**
+	 * The folder of a build cache, in which the files produced from each markup file are recorded. Markup files are
+	 * only processed if their content or any of the settings that affect the output have changed since the output was
+	 * recorded, otherwise recorded output is restored. Since the folder holds copies of output files, it may be
+	 * restored to a clean workspace to avoid processing markup. Defaults to none, in which case markup files are
+	 * processed if the output is older than the source.
+	 *
+	 * @parameter
+	 */
+	protected File buildCache;
+
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		try {
 			ensureOutputFolderExists();
@@ -236,16 +262,21 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 			final FileToMarkupLanguage fileToMarkupLanguage = new FileToMarkupLanguage(markupLanguages);
 			SourceFileTraversal fileTraversal = new SourceFileTraversal(sourceFolder);
 
-			final AtomicInteger fileCount = new AtomicInteger();
+			final List<SourceFile> sourceFiles = new ArrayList<>();
 			fileTraversal.traverse(new Visitor() {
 				@Override
 				public void accept(String relativePath, File sourceFile) {
-					fileCount.incrementAndGet();
-
-					process(sourceFile, relativePath, fileToMarkupLanguage.get(sourceFile));
+					sourceFiles.add(new SourceFile(sourceFile, relativePath, fileToMarkupLanguage.get(sourceFile)));
 				}
 			});
-			getLog().info(format("Processed {0} files", fileCount.get()));
+			if (threads > 1) {
+				processInParallel(sourceFiles);
+			} else {
+				for (SourceFile sourceFile : sourceFiles) {
+					process(sourceFile.file, sourceFile.relativePath, sourceFile.markupLanguage);
+				}
+			}
+			getLog().info(format("Processed {0} files", sourceFiles.size()));
 		} catch (BuildFailureException e) {
 			getLog().error(e.getMessage(), e);
 			throw new MojoFailureException(e.getMessage(), e.getCause());
@@ -256,10 +287,65 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 		if (markupLanguage == null) {
 			copy(sourceFile, relativePath);
 		} else {
+			logProcessingMarkup(sourceFile);
 			processMarkup(sourceFile, relativePath, markupLanguage);
 		}
 	}
 
+	/**
+	 * Processes the given files on a pool of {@link #threads}, each markup file with its own copy of the markup
+	 * language. Progress and failures are reported in the order of the given files.
+	 */
+	private void processInParallel(List<SourceFile> sourceFiles) {
+		ForkJoinPool pool = createForkJoinPool();
+		try {
+			List<Future<?>> results = new ArrayList<>(sourceFiles.size());
+			for (final SourceFile sourceFile : sourceFiles) {
+				results.add(pool.submit(() -> {
+					if (sourceFile.markupLanguage == null) {
+						copy(sourceFile.file, sourceFile.relativePath);
+					} else {
+						processMarkup(sourceFile.file, sourceFile.relativePath, sourceFile.markupLanguage.clone());
+					}
+				}));
+			}
+			for (int x = 0; x < sourceFiles.size(); ++x) {
+				SourceFile sourceFile = sourceFiles.get(x);
+				if (sourceFile.markupLanguage != null) {
+					logProcessingMarkup(sourceFile.file);
+				}
+				waitFor(results.get(x));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private ForkJoinPool createForkJoinPool() {
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		return new ForkJoinPool(threads, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setContextClassLoader(contextClassLoader);
+			return thread;
+		}, null, false);
+	}
+
+	private void waitFor(Future<?> result) {
+		try {
+			result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BuildFailureException("Interrupted while processing markup", e);
+		} catch (ExecutionException e) {
+			Throwables.propagateIfPossible(e.getCause());
+			throw new BuildFailureException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private void logProcessingMarkup(File sourceFile) {
+		getLog().info(format("Processing markup file: {0}", sourceFile));
+	}
+
 	private void copy(File sourceFile, String relativePath) {
 		File targetFolder = new File(outputFolder, relativePath);
 		ensureFolderExists("target folder", targetFolder, true);
@@ -273,46 +359,115 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 	}
 
 	protected void processMarkup(File sourceFile, String relativePath, MarkupLanguage markupLanguage) {
-		getLog().info(format("Processing markup file: {0}", sourceFile));
-
 		String name = sourceFile.getName();
 		if (name.lastIndexOf('.') != -1) {
 			name = name.substring(0, name.lastIndexOf('.'));
 		}
 		File htmlOutputFile = computeHtmlFile(relativePath, name);
-		if (!htmlOutputFile.exists() || htmlOutputFile.lastModified() < sourceFile.lastModified()) {
+		if (buildCache != null) {
+			BuildCache cache = new BuildCache(buildCache);
 			String markupContent = readFully(sourceFile);
-
-			if (!htmlOutputFile.getParentFile().exists()) {
-				if (!htmlOutputFile.getParentFile().mkdirs()) {
-					throw new BuildFailureException(format("Cannot create folder {0}", htmlOutputFile.getParentFile()));
+			try {
+				BuildCache.Key cacheKey = computeCacheKey(cache, markupContent, markupLanguage, relativePath, name);
+				if (cache.restore(cacheKey, htmlOutputFile.getParentFile())) {
+					getLog().debug(format("Markup file is up to date: {0}", sourceFile));
+					return;
 				}
+				Collection<File> outputFiles = processMarkup(sourceFile, relativePath, markupLanguage, name,
+						htmlOutputFile, markupContent);
+				cache.store(cacheKey, htmlOutputFile.getParentFile(), outputFiles);
+			} catch (IOException e) {
+				throw new BuildFailureException(format("Cannot use build cache {0}: {1}", buildCache, e.getMessage()),
+						e);
 			}
+		} else if (!htmlOutputFile.exists() || htmlOutputFile.lastModified() < sourceFile.lastModified()) {
+			processMarkup(sourceFile, relativePath, markupLanguage, name, htmlOutputFile, readFully(sourceFile));
+		}
+	}
 
-			Writer writer = createWriter(htmlOutputFile);
-			try {
-				HtmlDocumentBuilder builder = createRootBuilder(writer, name, relativePath);
+	private Collection<File> processMarkup(File sourceFile, String relativePath, MarkupLanguage markupLanguage,
+			String name, File htmlOutputFile, String markupContent) {
+		if (!htmlOutputFile.getParentFile().exists()) {
+			if (!htmlOutputFile.getParentFile().mkdirs() && !htmlOutputFile.getParentFile().isDirectory()) {
+				throw new BuildFailureException(format("Cannot create folder {0}", htmlOutputFile.getParentFile()));
+			}
+		}
 
-				SplittingStrategy splittingStrategy = createSplittingStrategy();
-				SplittingOutlineParser outlineParser = createOutlineParser(markupLanguage, splittingStrategy);
+		Collection<File> outputFiles = new LinkedHashSet<>();
+		Writer writer = createWriter(htmlOutputFile);
+		try {
+			HtmlDocumentBuilder builder = createRootBuilder(writer, name, relativePath);
 
-				SplitOutlineItem rootTocItem = outlineParser.parse(markupContent);
-				rootTocItem.setSplitTarget(htmlOutputFile.getName());
+			SplittingStrategy splittingStrategy = createSplittingStrategy();
+			SplittingOutlineParser outlineParser = createOutlineParser(markupLanguage, splittingStrategy);
 
-				SplittingHtmlDocumentBuilder splittingBuilder = createSplittingBuilder(builder, rootTocItem,
-						htmlOutputFile, relativePath);
+			// parse once, replaying the document once the outline is known
+			EventDocumentBuilder eventBuilder = new EventDocumentBuilder();
+			SplitOutlineItem rootTocItem = outlineParser.parse(markupContent, eventBuilder);
+			rootTocItem.setSplitTarget(htmlOutputFile.getName());
 
-				MarkupParser parser = new MarkupParser();
-				parser.setMarkupLanguage(markupLanguage);
-				parser.setBuilder(splittingBuilder);
+			SplittingHtmlDocumentBuilder splittingBuilder = createSplittingBuilder(builder, rootTocItem,
+					htmlOutputFile, relativePath);
 
-				parser.parse(markupContent);
+			eventBuilder.getDocumentBuilderEvents().applyTo(splittingBuilder);
 
-				createEclipseHelpToc(rootTocItem, sourceFile, relativePath, htmlOutputFile, name);
-			} finally {
-				close(writer, htmlOutputFile);
+			File tocOutputFile = createEclipseHelpToc(rootTocItem, sourceFile, relativePath, htmlOutputFile, name);
+
+			outputFiles.add(htmlOutputFile);
+			for (SplitOutlineItem page : rootTocItem.getPageOrder()) {
+				if (page.getSplitTarget() != null) {
+					outputFiles.add(new File(htmlOutputFile.getParentFile(), page.getSplitTarget()));
+				}
+			}
+			outputFiles.add(tocOutputFile);
+		} finally {
+			close(writer, htmlOutputFile);
+		}
+		return outputFiles;
+	}
+
+	/**
+	 * Computes the key of the build cache entry for a markup file, including all settings that affect the output.
+	 */
+	BuildCache.Key computeCacheKey(BuildCache cache, String markupContent, MarkupLanguage markupLanguage,
+			String relativePath, String name) throws IOException {
+		BuildCache.Key key = cache.newKey();
+		key.put("mojo", getClass().getName());
+		key.put("markupContent", markupContent);
+		key.put("markupLanguage", markupLanguage.getName());
+		key.putClass("markupLanguage.class", markupLanguage.getClass());
+		key.putClass("wikitext", MarkupLanguage.class);
+		key.putClass("builder", HtmlDocumentBuilder.class);
+		key.putClass("splittingBuilder", SplittingHtmlDocumentBuilder.class);
+		key.putClass("tocBuilder", SplittingMarkupToEclipseToc.class);
+		key.put("relativePath", relativePath.replace('\\', '/'));
+		key.put("name", name);
+		key.put("htmlFilenameFormat", htmlFilenameFormat);
+		key.put("xmlFilenameFormat", xmlFilenameFormat);
+		key.put("title", title);
+		key.put("linkRel", linkRel);
+		key.put("multipleOutputFiles", multipleOutputFiles);
+		key.put("formatOutput", formatOutput);
+		key.put("navigationImages", navigationImages);
+		key.put("prependImagePrefix", prependImagePrefix);
+		key.put("useInlineCssStyles", useInlineCssStyles);
+		key.put("suppressBuiltInCssStyles", suppressBuiltInCssStyles);
+		key.put("defaultAbsoluteLinkTarget", defaultAbsoluteLinkTarget);
+		key.put("xhtmlStrict", xhtmlStrict);
+		key.put("emitDoctype", emitDoctype);
+		key.put("htmlDoctype", htmlDoctype);
+		key.put("copyrightNotice", copyrightNotice);
+		key.put("stylesheetUrls", stylesheetUrls);
+		for (String stylesheetUrl : stylesheetUrls) {
+			File stylesheetFile = new File(sourceFolder, stylesheetUrl);
+			if (stylesheetFile.isFile()) {
+				key.putFile("stylesheet.contents", stylesheetFile);
 			}
 		}
+		key.put("helpPrefix", helpPrefix);
+		key.put("tocAnchorLevel", tocAnchorLevel);
+		key.put("embeddedTableOfContents", embeddedTableOfContents);
+		return key;
 	}
 
 	private void close(Writer writer, File file) {
@@ -323,10 +478,10 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 		}
 	}
 
-	private void createEclipseHelpToc(SplitOutlineItem rootTocItem, File sourceFile, String relativePath,
+	private File createEclipseHelpToc(SplitOutlineItem rootTocItem, File sourceFile, String relativePath,
 			File htmlOutputFile, String name) {
 		File tocOutputFile = computeTocFile(htmlOutputFile, name);
-		if (!tocOutputFile.exists() || tocOutputFile.lastModified() < sourceFile.lastModified()) {
+		if (buildCache != null || !tocOutputFile.exists() || tocOutputFile.lastModified() < sourceFile.lastModified()) {
 			Writer writer = createWriter(tocOutputFile);
 			try {
 				MarkupToEclipseToc toEclipseToc = createMarkupToEclipseToc(relativePath, htmlOutputFile, name);
@@ -340,6 +495,7 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 				close(writer, tocOutputFile);
 			}
 		}
+		return tocOutputFile;
 	}
 
 	protected MarkupToEclipseToc createMarkupToEclipseToc(String relativePath, File htmlOutputFile, String name) {
@@ -483,7 +639,7 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 		if (!createIfMissing) {
 			throw new BuildFailureException(format("{0} does not exist: {1}", name, folder));
 		}
-		if (!folder.mkdirs()) {
+		if (!folder.mkdirs() && !folder.isDirectory()) {
 			throw new BuildFailureException(format("Cannot create {0}: {1}", name, folder));
 		}
 	}
@@ -496,4 +652,18 @@ public class MarkupToEclipseHelpMojo extends AbstractMojo {
 		}
 	}
 
+	private static class SourceFile {
+
+		private final File file;
+
+		private final String relativePath;
+
+		private final MarkupLanguage markupLanguage;
+
+		SourceFile(File file, String relativePath, MarkupLanguage markupLanguage) {
+			this.file = file;
+			this.relativePath = relativePath;
+			this.markupLanguage = markupLanguage;
+		}
+	}
 }
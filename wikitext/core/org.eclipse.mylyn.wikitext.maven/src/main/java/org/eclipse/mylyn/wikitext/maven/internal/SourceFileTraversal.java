@@ -15,6 +15,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.File;
+import java.util.Arrays;
 
 public class SourceFileTraversal {
 
@@ -40,6 +41,8 @@ public class SourceFileTraversal {
 		} else if (file.isDirectory()) {
 			File[] children = file.listFiles();
 			if (children != null) {
+				// traverse in a predictable order, since the order of listed files is unspecified
+				Arrays.sort(children);
 				String childRelativePath = file.equals(root) ? "" : file.getName();
 				if (relativePath.length() > 0) {
 					childRelativePath = relativePath + File.separator + childRelativePath;
@@ -37,9 +37,12 @@ import org.eclipse.mylyn.wikitext.maven.internal.BuildFailureException;
 import org.eclipse.mylyn.wikitext.maven.internal.MarkupToEclipseHelpMojo;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder.Stylesheet;
+import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.util.MarkupToEclipseToc;
 import org.eclipse.mylyn.wikitext.splitter.SplitOutlineItem;
 import org.eclipse.mylyn.wikitext.splitter.SplittingHtmlDocumentBuilder;
+import org.eclipse.mylyn.wikitext.textile.TextileLanguage;
+import org.eclipse.mylyn.wikitext.util.BuildCache;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -146,6 +149,67 @@ public class MarkupToEclipseHelpMojoTest {
 		assertHasContent("Top-Level-Heading-3.html", "<h1 id=\"TopLevelHeading3\">Top Level Heading 3</h1>");
 	}
 
+	@Test
+	public void executeWithThreads() throws MojoExecutionException, MojoFailureException {
+		markupToEclipseHelp.multipleOutputFiles = true;
+		markupToEclipseHelp.threads = 4;
+		markupToEclipseHelp.execute();
+
+		assertTrue(computeOutputFile("test.html").exists());
+		assertTrue(computeOutputFile("test-toc.xml").exists());
+		assertTrue(computeOutputFile("Top-Level-Heading-2.html").exists());
+		assertTrue(computeOutputFile("images/wikitext-32.gif").exists());
+		assertFalse(computeOutputFile("test.textile").exists());
+
+		assertHasContent("test.html", "<h1 id=\"TestFile\">Test File</h1>");
+		assertHasContent("Top-Level-Heading-2.html", "<h1 id=\"TopLevelHeading2\">Top Level Heading 2</h1>");
+	}
+
+	@Test
+	public void executeWithBuildCache() throws Exception {
+		File buildCache = temporaryFolder.newFolder("cache");
+		markupToEclipseHelp.multipleOutputFiles = true;
+		markupToEclipseHelp.buildCache = buildCache;
+		markupToEclipseHelp.execute();
+
+		assertTrue(computeOutputFile("test.html").delete());
+		assertTrue(computeOutputFile("test-toc.xml").delete());
+		assertTrue(computeOutputFile("Top-Level-Heading-2.html").delete());
+
+		setup();
+		markupToEclipseHelp.multipleOutputFiles = true;
+		markupToEclipseHelp.buildCache = buildCache;
+		markupToEclipseHelp.execute();
+
+		assertHasContent("test.html", "<h1 id=\"TestFile\">Test File</h1>");
+		assertHasContent("test-toc.xml", "<topic href=\"Top-Level-Heading-2.html\" label=\"Top Level Heading 2\">");
+		assertHasContent("Top-Level-Heading-2.html", "<h1 id=\"TopLevelHeading2\">Top Level Heading 2</h1>");
+
+		markupToEclipseHelp.title = "Changed Title";
+		markupToEclipseHelp.execute();
+
+		assertHasContent("test.html", "<title>Changed Title</title>");
+	}
+
+	@Test
+	public void cacheKeyIncludesStylesheetContents() throws Exception {
+		File sourceFolder = temporaryFolder.newFolder("source");
+		File stylesheet = new File(sourceFolder, "styles.css");
+		Files.write("h1 { color: red; }", stylesheet, Charsets.UTF_8);
+		markupToEclipseHelp.sourceFolder = sourceFolder;
+		markupToEclipseHelp.stylesheetUrls = Arrays.asList("styles.css");
+		BuildCache cache = new BuildCache(temporaryFolder.newFolder("cache"));
+		MarkupLanguage markupLanguage = new TextileLanguage();
+
+		String digest = markupToEclipseHelp.computeCacheKey(cache, "h1. Test", markupLanguage, "", "test").getDigest();
+		assertEquals(digest,
+				markupToEclipseHelp.computeCacheKey(cache, "h1. Test", markupLanguage, "", "test").getDigest());
+
+		Files.write("h1 { color: blue; }", stylesheet, Charsets.UTF_8);
+		assertFalse(digest.equals(
+				markupToEclipseHelp.computeCacheKey(cache, "h1. Test", markupLanguage, "", "test").getDigest()));
+	}
+
 	@Test
 	public void configureStylesheetUrls() {
 		markupToEclipseHelp.stylesheetUrls = Arrays.asList("test/foo.css", "bar.css");
@@ -37,6 +37,11 @@ public class SimpleWrappedPhraseModifier extends PatternBasedElement {
 			this.nesting = nesting;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			for (SpanType type : spanType) {
@@ -43,6 +43,11 @@ public class EntityReferenceReplacementToken extends PatternBasedElement {
 
 	private static class EntityReferenceProcessor extends PatternBasedElementProcessor {
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String entity = group(1);
@@ -39,6 +39,11 @@ public class HyperlinkInternalReplacementToken extends PatternBasedElement {
 	}
 
 	private static class HyperlinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String pageName = group(1);
@@ -35,6 +35,11 @@ public class HyperlinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class HyperlinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String hyperlinkBoundaryText = group(1);
@@ -57,6 +57,11 @@ public class ImageReplacementToken extends PatternBasedElement {
 			return (MediaWikiLanguage) super.getMarkupLanguage();
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String imageUrl = group(1);
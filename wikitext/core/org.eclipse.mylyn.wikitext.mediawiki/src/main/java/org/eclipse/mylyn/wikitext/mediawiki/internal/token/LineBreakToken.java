@@ -34,6 +34,11 @@ public class LineBreakToken extends PatternBasedElement {
 	}
 
 	private static class LineBreakProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			builder.lineBreak();
@@ -73,8 +73,32 @@ public class SplittingHtmlDocumentBuilderTest {
 		assertFileContents("headingLinks_Second.html.txt", new File(outputFile.getParentFile(), "Second.html"));
 	}
 
+	@Test
+	public void singlePassEmbeddedTableOfContents() throws IOException {
+		generateContents("h1. First\n\nh2. First.1\n\nh1. Second\n\nh2. Second.1\n\ntext", true, true);
+
+		assertFileContents("embeddedTableOfContents_First.html.txt", outputFile);
+		assertFileContents("embeddedTableOfContents_Second.html.txt",
+				new File(outputFile.getParentFile(), "Second.html"));
+	}
+
+	@Test
+	public void singlePassHeadingLinks() throws IOException {
+		generateContents(
+				"{toc}\n\nh1. First\n\nh2. First.1\n\nh1. Second\n\n\"link to first\":#First and \"link to first.1\":#First.1\n\nh2. Second.1\n\ntext",
+				false, true);
+
+		assertFileContents("headingLinks_First.html.txt", outputFile);
+		assertFileContents("headingLinks_Second.html.txt", new File(outputFile.getParentFile(), "Second.html"));
+	}
+
 	private void generateContents(String markup, boolean embeddedTableOfContents)
 			throws IOException, FileNotFoundException {
+		generateContents(markup, embeddedTableOfContents, false);
+	}
+
+	private void generateContents(String markup, boolean embeddedTableOfContents, boolean singlePass)
+			throws IOException, FileNotFoundException {
 		try (OutputStreamWriter out = new OutputStreamWriter(new FileOutputStream(outputFile),
 				StandardCharsets.UTF_8)) {
 			rootBuilder = new HtmlDocumentBuilder(out, true);
@@ -82,7 +106,10 @@ public class SplittingHtmlDocumentBuilderTest {
 			SplittingOutlineParser outlineParser = new SplittingOutlineParser();
 			outlineParser.setMarkupLanguage(new TextileLanguage());
 			outlineParser.setSplittingStrategy(new DefaultSplittingStrategy());
-			SplitOutlineItem outline = outlineParser.parse(markup);
+			EventDocumentBuilder eventBuilder = new EventDocumentBuilder();
+			SplitOutlineItem outline = singlePass
+					? outlineParser.parse(markup, eventBuilder)
+					: outlineParser.parse(markup);
 			outline.setSplitTarget(outputFile.getName());
 
 			builder.setEmbeddedTableOfContents(embeddedTableOfContents);
@@ -91,9 +118,13 @@ public class SplittingHtmlDocumentBuilderTest {
 			builder.setFormatting(true);
 			builder.setOutline(outline);
 
-			MarkupParser parser = new MarkupParser(new TextileLanguage());
-			parser.setBuilder(builder);
-			parser.parse(markup);
+			if (singlePass) {
+				eventBuilder.getDocumentBuilderEvents().applyTo(builder);
+			} else {
+				MarkupParser parser = new MarkupParser(new TextileLanguage());
+				parser.setBuilder(builder);
+				parser.parse(markup);
+			}
 		}
 	}
 
@@ -73,6 +73,7 @@ public class TextileLanguage extends AbstractMarkupLanguage {
 
 	public TextileLanguage() {
 		setName("Textile"); //$NON-NLS-1$
+		setFirstCharacterDispatch(true);
 	}
 
 	/**
@@ -102,6 +103,12 @@ public class TextileLanguage extends AbstractMarkupLanguage {
 		return new TextileContentState();
 	}
 
+	@Override
+	protected boolean reuseState(ContentState state) {
+		// the state prepared while preprocessing footnotes must be used
+		return currentState == null && super.reuseState(state);
+	}
+
 	@Override
 	protected void addStandardBlocks(List<Block> blocks, List<Block> paragraphBreakingBlocks) {
 		// IMPORTANT NOTE: Most items below have order dependencies.  DO NOT REORDER ITEMS BELOW!!
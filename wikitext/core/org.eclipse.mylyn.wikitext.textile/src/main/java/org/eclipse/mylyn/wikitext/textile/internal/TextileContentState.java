@@ -49,6 +49,14 @@ public class TextileContentState extends ContentState {
 		}
 	}
 
+	@Override
+	protected boolean reset() {
+		super.reset();
+		nameToUrl.clear();
+		footnoteNumbers = null;
+		return true;
+	}
+
 	public String getNamedLinkUrl(String name) {
 		return nameToUrl.get(name);
 	}
@@ -69,6 +69,11 @@ public class CodeBlock extends Block {
 		return -1;
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return "b"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		blockLineCount = 0;
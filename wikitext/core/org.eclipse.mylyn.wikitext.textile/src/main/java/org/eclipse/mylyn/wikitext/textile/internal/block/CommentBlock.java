@@ -53,6 +53,11 @@ public class CommentBlock extends Block {
 		return -1;
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return "#"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		blockLineCount = 0;
@@ -157,6 +157,11 @@ public class DefinitionListBlock extends Block {
 		super.setClosed(closed);
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return ";-"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		blockLineCount = 0;
@@ -75,6 +75,11 @@ public class FootnoteBlock extends Block {
 		return -1;
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return "f"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		blockLineCount = 0;
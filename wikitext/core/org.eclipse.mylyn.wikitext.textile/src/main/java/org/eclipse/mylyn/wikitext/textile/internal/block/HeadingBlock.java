@@ -66,6 +66,11 @@ public class HeadingBlock extends Block {
 		return -1;
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return "h"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		blockLineCount = 0;
@@ -64,6 +64,11 @@ public class NotextileBlock extends Block {
 		return -1;
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return "n"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		blockLineCount = 0;
@@ -46,6 +46,11 @@ public class TextileGlossaryBlock extends GlossaryBlock {
 		return super.processLineContent(line, offset);
 	}
 
+	@Override
+	public String getStartCharacters() {
+		return "{"; //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean canStart(String line, int lineOffset) {
 		if (lineOffset == 0 && !markupLanguage.isFilterGenerativeContents()) {
@@ -43,6 +43,11 @@ public class HyperlinkPhraseModifier extends PatternBasedElement {
 	}
 
 	private static class HyperlinkProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String hyperlinkBoundaryText = group(1);
@@ -49,6 +49,11 @@ public class ImageTextilePhraseModifier extends PatternBasedElement {
 	}
 
 	private static class ImagePhraseModifierProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String alignment = group(ALIGNMENT_GROUP);
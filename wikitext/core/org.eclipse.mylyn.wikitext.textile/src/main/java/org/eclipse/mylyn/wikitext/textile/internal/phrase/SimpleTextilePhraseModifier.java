@@ -53,6 +53,11 @@ public class SimpleTextilePhraseModifier extends PatternBasedElement {
 			this.mode = mode;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			Attributes attributes = new Attributes();
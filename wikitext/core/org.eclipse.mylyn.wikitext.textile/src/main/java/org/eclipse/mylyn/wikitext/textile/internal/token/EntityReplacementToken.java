@@ -35,6 +35,11 @@ public class EntityReplacementToken extends PatternBasedElement {
 	protected PatternBasedElementProcessor newProcessor() {
 
 		return new PatternBasedElementProcessor() {
+			@Override
+			protected boolean isReusable() {
+				return true;
+			}
+
 			@Override
 			public void emit() {
 				String entity = group(1);
@@ -38,6 +38,11 @@ public class FootnoteReferenceReplacementToken extends PatternBasedElement {
 	}
 
 	private static class FootnoteReferenceReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String footnote = group(1);
@@ -13,23 +13,33 @@ package org.eclipse.mylyn.wikitext.textile;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.mylyn.wikitext.parser.DocumentBuilder.SpanType;
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.ParseSession;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.markup.CompiledMarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguageConfiguration;
+import org.eclipse.mylyn.wikitext.parser.outline.OutlineItem;
+import org.eclipse.mylyn.wikitext.parser.outline.OutlineParser;
 import org.eclipse.mylyn.wikitext.toolkit.AbstractMarkupGenerationTest;
 import org.eclipse.mylyn.wikitext.toolkit.RecordingDocumentBuilder;
 import org.eclipse.mylyn.wikitext.toolkit.RecordingDocumentBuilder.Event;
@@ -511,6 +521,112 @@ public class TextileLanguageTest extends AbstractMarkupGenerationTest<TextileLan
 		assertTrue(html.contains("<body><p>See foo[1].</p><p>No such footnote!</p></body>"));
 	}
 
+	@Test
+	public void testParseSession() {
+		String[] documents = { "h1. Title\n\nSee foo[1] and \"a link\":home.\n\nfn1. Foo.\n\n[home]http://example.com",
+				"h1. Title\n\n* *strong* item\n* ABC(A Better Coder) item\n\n{glossary}",
+				"See foo[1] and \"a link\":home.\n\nNo such footnote!" };
+		for (boolean preprocessFootnotes : new boolean[] { false, true }) {
+			markupLanguage.setPreprocessFootnotes(preprocessFootnotes);
+			parser.setSession(new ParseSession());
+			for (int x = 0; x < 2; ++x) {
+				for (String document : documents) {
+					String expected = new MarkupParser(markupLanguage).parseToHtml(document);
+					assertEquals(expected, parser.parseToHtml(document));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCompiledMarkupLanguage() {
+		markupLanguage.setPreprocessFootnotes(true);
+		CompiledMarkupLanguage compiled = new CompiledMarkupLanguage(markupLanguage);
+		assertSame(compiled, compiled.clone());
+		assertEquals(markupLanguage.getName(), compiled.getName());
+		assertTrue(compiled.newMarkupLanguage() instanceof TextileLanguage);
+
+		String markup = "h1. Title\n\nSee foo[1] and \"a link\":home.\n\nfn1. Foo.\n\n[home]http://example.com";
+		String expected = new MarkupParser(markupLanguage).parseToHtml(markup);
+		for (int x = 0; x < 2; ++x) {
+			assertEquals(expected, new MarkupParser(compiled).parseToHtml(markup));
+		}
+		try {
+			compiled.configure(new MarkupLanguageConfiguration());
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCompiledMarkupLanguageConcurrently() throws Exception {
+		final CompiledMarkupLanguage compiled = new CompiledMarkupLanguage(markupLanguage);
+		final String[] documents = {
+				"h1. Title\n\nSee foo[1] and \"a link\":home.\n\nfn1. Foo.\n\n[home]http://example.com",
+				"h1. Title\n\n* *strong* item\n* ABC(A Better Coder) item\n\n{glossary}",
+				"{toc}\n\nh1. One\n\n|_. a|_. b|\n|c|d|\n\nh2. Two\n\nbc. code\n\n%{color:red}text%" };
+		final String[] expected = new String[documents.length];
+		for (int x = 0; x < documents.length; ++x) {
+			expected[x] = new MarkupParser(markupLanguage).parseToHtml(documents[x]);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int thread = 0; thread < 8; ++thread) {
+				futures.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() {
+						for (int x = 0; x < 50; ++x) {
+							int index = x % documents.length;
+							assertEquals(expected[index], new MarkupParser(compiled).parseToHtml(documents[index]));
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testCompiledMarkupLanguageOutline() {
+		String markup = "{toc}\n\nh1. One\n\nh2. Two\n\nh1. Three";
+		OutlineItem expected = new OutlineParser(markupLanguage).parse(markup);
+		OutlineParser outlineParser = new OutlineParser(new CompiledMarkupLanguage(markupLanguage));
+		for (int x = 0; x < 2; ++x) {
+			OutlineItem outline = outlineParser.parse(markup);
+			assertEquals(expected.getChildren().size(), outline.getChildren().size());
+			assertEquals(expected.getChildren().get(0).getId(), outline.getChildren().get(0).getId());
+			assertEquals(expected.getChildren().get(1).getLabel(), outline.getChildren().get(1).getLabel());
+		}
+	}
+
+	@Test
+	public void testSinglePassOutlineLabels() {
+		String markup = "h1. Don't -- stop (c) 2014\n\nh2. \"Quoted\" & <b>bold</b>\n\nh2. (r)(tm) 'single'\n\ntext";
+		OutlineParser outlineParser = new OutlineParser(markupLanguage);
+		OutlineItem expected = outlineParser.parse(markup);
+		OutlineItem outline = outlineParser.parse(markup, new HtmlDocumentBuilder(new StringWriter()));
+
+		assertEquals("Don't -- stop (c) 2014", expected.getChildren().get(0).getLabel());
+		assertEquals(outlineLabels(expected), outlineLabels(outline));
+	}
+
+	private List<String> outlineLabels(OutlineItem item) {
+		List<String> labels = new ArrayList<String>();
+		for (OutlineItem child : item.getChildren()) {
+			labels.add(child.getLabel());
+			labels.addAll(outlineLabels(child));
+		}
+		return labels;
+	}
+
 	@Test
 	public void testListUnordered() throws IOException {
 		String html = parser.parseToHtml("* a list\n* with two lines");
@@ -300,6 +300,14 @@ public class TracWikiLanguage extends AbstractMarkupLanguage {
 		tokenSyntax.endGroup(")(?=\\W|$)", 0); //$NON-NLS-1$
 	}
 
+	/**
+	 * No blocks of this markup language require the complete markup content, so content is processed as it is read.
+	 */
+	@Override
+	protected boolean isRequiresMarkupContent() {
+		return false;
+	}
+
 	@Override
 	protected Block createParagraphBlock() {
 		return new ParagraphBlock();
@@ -43,6 +43,11 @@ public class EscapePhraseModifier extends PatternBasedElement {
 		private EscapeProcessor() {
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			getBuilder().beginSpan(SpanType.MONOSPACE, new Attributes());
@@ -24,6 +24,11 @@ import org.eclipse.mylyn.wikitext.parser.markup.PatternBasedElementProcessor;
 public class MonospacePhraseModifier extends PatternBasedElement {
 
 	public class MonospaceElementProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			getBuilder().beginSpan(SpanType.MONOSPACE, new Attributes());
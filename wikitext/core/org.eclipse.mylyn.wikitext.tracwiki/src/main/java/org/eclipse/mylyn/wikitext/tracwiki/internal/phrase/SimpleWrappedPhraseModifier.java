@@ -34,6 +34,11 @@ public class SimpleWrappedPhraseModifier extends PatternBasedElement {
 			this.nesting = nesting;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			for (SpanType type : spanType) {
@@ -38,6 +38,11 @@ public class ChangesetLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class ChangesetReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
@@ -37,6 +37,11 @@ public class HyperlinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class HyperlinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String wikiUrl = group(1);
@@ -40,6 +40,11 @@ public class MacroReplacementToken extends PatternBasedElement {
 	}
 
 	private static class MacroReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String macro = group(1);
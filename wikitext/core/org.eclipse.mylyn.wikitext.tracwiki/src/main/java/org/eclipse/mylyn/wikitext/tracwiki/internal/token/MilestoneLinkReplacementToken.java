@@ -37,6 +37,11 @@ public class MilestoneLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class LinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
@@ -37,6 +37,11 @@ public class ReportLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class ReportLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
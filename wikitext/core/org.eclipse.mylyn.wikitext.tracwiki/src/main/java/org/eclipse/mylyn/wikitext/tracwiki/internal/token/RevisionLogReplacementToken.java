@@ -38,6 +38,11 @@ public class RevisionLogReplacementToken extends PatternBasedElement {
 	}
 
 	private static class RevisionLogReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
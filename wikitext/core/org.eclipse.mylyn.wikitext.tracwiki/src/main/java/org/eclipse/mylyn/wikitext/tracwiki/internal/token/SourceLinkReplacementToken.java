@@ -38,6 +38,11 @@ public class SourceLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class LinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
@@ -37,6 +37,11 @@ public class TicketLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class TicketLinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String text = group(1);
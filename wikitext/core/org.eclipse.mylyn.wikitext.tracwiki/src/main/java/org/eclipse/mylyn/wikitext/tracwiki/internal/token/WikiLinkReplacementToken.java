@@ -37,6 +37,11 @@ public class WikiLinkReplacementToken extends PatternBasedElement {
 	}
 
 	private class WikiLinkProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String escaped = group(1);
@@ -43,6 +43,11 @@ public class WikiWordReplacementToken extends PatternBasedElement {
 	}
 
 	private class WikiWordProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String escaped = group(1);
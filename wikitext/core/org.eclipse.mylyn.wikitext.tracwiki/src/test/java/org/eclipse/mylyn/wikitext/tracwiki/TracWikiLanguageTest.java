@@ -13,9 +13,12 @@
 package org.eclipse.mylyn.wikitext.tracwiki;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.regex.Pattern;
 
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguageConfiguration;
 import org.eclipse.mylyn.wikitext.tracwiki.TracWikiLanguage;
@@ -52,6 +55,17 @@ public class TracWikiLanguageTest extends TestCase {
 		assertTrue(language instanceof TracWikiLanguage);
 	}
 
+	public void testParseReader() throws IOException {
+		String markup = "= Heading =\n\nsome '''bold''' text\r\n * one\n * two\n\n{{{\ncode\n}}}\nlast line";
+
+		StringWriter out = new StringWriter();
+		parser.setBuilder(new HtmlDocumentBuilder(out));
+		parser.parse(new StringReader(markup));
+		parser.setBuilder(null);
+
+		assertEquals(parser.parseToHtml(markup), out.toString());
+	}
+
 	/**
 	 * If a macro is not recognized, nothing should be substituted.
 	 */
@@ -32,6 +32,11 @@ public class AutoLinkSwitchPhraseModifier extends PatternBasedElement {
 	}
 
 	private static class SwitchProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String switchText = group(1);
@@ -41,6 +41,11 @@ public class IconReplacementToken extends PatternBasedElement {
 	}
 
 	private static class IconProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String iconType = group(1);
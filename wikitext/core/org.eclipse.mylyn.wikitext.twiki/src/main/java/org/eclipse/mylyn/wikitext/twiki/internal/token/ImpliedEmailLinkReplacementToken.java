@@ -33,6 +33,11 @@ public class ImpliedEmailLinkReplacementToken extends PatternBasedElement {
 
 	private static class EmailLinkProcessor extends PatternBasedElementProcessor {
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String email = group(1);
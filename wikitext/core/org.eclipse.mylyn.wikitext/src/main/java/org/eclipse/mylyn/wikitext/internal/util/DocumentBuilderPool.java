@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.internal.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Provides namespace-aware, non-validating DOM parsers. The factory is looked up once and each thread keeps its parser
+ * for reuse, since creating a parser is costly compared to parsing a small document such as a {@code plugin.xml}.
+ * Parsers are reset after each use; a nested parse on the same thread is given a parser of its own.
+ */
+public final class DocumentBuilderPool {
+
+	private static final DocumentBuilderFactory factory = createFactory();
+
+	private static final ThreadLocal<DocumentBuilder> builders = new ThreadLocal<DocumentBuilder>();
+
+	private static final AtomicInteger creations = new AtomicInteger();
+
+	private DocumentBuilderPool() {
+	}
+
+	private static DocumentBuilderFactory createFactory() {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		factory.setValidating(false);
+		return factory;
+	}
+
+	/**
+	 * Parses the given content using a pooled parser.
+	 *
+	 * @param in
+	 *            the content to parse, which is not closed
+	 * @return the parsed document
+	 */
+	public static Document parse(InputStream in) throws ParserConfigurationException, SAXException, IOException {
+		DocumentBuilder builder = acquire();
+		try {
+			return builder.parse(in);
+		} finally {
+			release(builder);
+		}
+	}
+
+	/**
+	 * Provides the number of parsers created by the pool.
+	 */
+	public static int getCreationCount() {
+		return creations.get();
+	}
+
+	private static DocumentBuilder acquire() throws ParserConfigurationException {
+		DocumentBuilder builder = builders.get();
+		if (builder != null) {
+			builders.set(null);
+			return builder;
+		}
+		synchronized (factory) {
+			builder = factory.newDocumentBuilder();
+		}
+		creations.incrementAndGet();
+		return builder;
+	}
+
+	private static void release(DocumentBuilder builder) {
+		builder.reset();
+		builders.set(builder);
+	}
+}
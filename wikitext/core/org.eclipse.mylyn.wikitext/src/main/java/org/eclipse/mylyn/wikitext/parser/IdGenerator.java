@@ -109,6 +109,17 @@ public class IdGenerator {
 		return !anchorNames.isEmpty();
 	}
 
+	/**
+	 * forget all ids that were {@link #reserveId(String) reserved} or {@link #newId(String, String) created}, so that
+	 * the generator can be reused for another document.
+	 *
+	 * @since 3.1
+	 */
+	public void reset() {
+		idGenerators.clear();
+		anchorNames.clear();
+	}
+
 	public IdGenerationStrategy getGenerationStrategy() {
 		return generationStrategy;
 	}
@@ -29,6 +29,8 @@ public class MarkupParser {
 
 	private DocumentBuilder builder;
 
+	private ParseSession session;
+
 	public MarkupParser() {
 	}
 
@@ -69,12 +71,47 @@ public class MarkupParser {
 		this.builder = builder;
 	}
 
+	/**
+	 * the session keeping objects for reuse by subsequent parses, or null if there is none
+	 *
+	 * @since 3.1
+	 */
+	public ParseSession getSession() {
+		return session;
+	}
+
+	/**
+	 * set the session keeping objects for reuse by subsequent parses. A parser with a session must not be used by more
+	 * than one thread at a time.
+	 *
+	 * @param session
+	 *            the session, or null if objects are not to be reused
+	 * @see ParseSession
+	 * @since 3.1
+	 */
+	public void setSession(ParseSession session) {
+		this.session = session;
+	}
+
 	public void parse(Reader markupContent) throws IOException {
 		parse(markupContent, true);
 	}
 
+	/**
+	 * Parse the given markup content. Markup languages that do not require random access to the markup content process
+	 * it as it is read, otherwise the content is read fully before it is processed.
+	 *
+	 * @param markupContent
+	 *            the content to parse
+	 * @param asDocument
+	 *            indicates if the content should be emitted as a complete document
+	 * @throws IOException
+	 *             if the content could not be read
+	 * @see MarkupLanguage#processContent(MarkupParser, Reader, boolean)
+	 */
 	public void parse(Reader markupContent, boolean asDocument) throws IOException {
-		parse(readFully(markupContent), asDocument);
+		checkState();
+		markupLanguage.processContent(this, markupContent, asDocument);
 	}
 
 	public void parse(String markupContent) {
@@ -82,22 +119,17 @@ public class MarkupParser {
 	}
 
 	public void parse(String markupContent, boolean asDocument) {
+		checkState();
+		markupLanguage.processContent(this, markupContent, asDocument);
+	}
+
+	private void checkState() {
 		if (markupLanguage == null) {
 			throw new IllegalStateException("markup language is not set"); //$NON-NLS-1$
 		}
 		if (builder == null) {
 			throw new IllegalStateException("builder is not set"); //$NON-NLS-1$
 		}
-		markupLanguage.processContent(this, markupContent, asDocument);
-	}
-
-	private String readFully(Reader reader) throws IOException {
-		StringWriter writer = new StringWriter();
-		int c;
-		while ((c = reader.read()) != -1) {
-			writer.write(c);
-		}
-		return writer.toString();
 	}
 
 	/**
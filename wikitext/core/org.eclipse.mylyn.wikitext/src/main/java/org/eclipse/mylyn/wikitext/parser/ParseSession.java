@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
+
+/**
+ * Keeps objects used while parsing a document, such as the content state and the processors of inline elements, so
+ * that they can be reused when parsing subsequent documents. This avoids setting up these objects for every document
+ * when parsing many small documents. Objects are kept by the {@link MarkupLanguage markup language} that uses them and
+ * are reset before they are reused, so that the result of parsing a document is the same as without a session.
+ * <p>
+ * A session is used by {@link MarkupParser#setSession(ParseSession) setting it on a parser}. Sessions are not thread
+ * safe: a session must only be used by one parse at a time, typically by keeping a parser and its session per thread.
+ * </p>
+ *
+ * <pre>
+ * MarkupParser parser = new MarkupParser(markupLanguage);
+ * parser.setSession(new ParseSession());
+ * for (String markup : documents) {
+ * 	parser.setBuilder(newBuilder());
+ * 	parser.parse(markup);
+ * }
+ * </pre>
+ *
+ * @author agent
+ * @see MarkupParser#setSession(ParseSession)
+ * @since 3.1
+ */
+public final class ParseSession {
+
+	private final Map<Object, Object> objects = new IdentityHashMap<Object, Object>();
+
+	/**
+	 * Remove the object kept for the given owner, so that it is not used by another parse while it is in use.
+	 *
+	 * @param owner
+	 *            the owner of the object, typically a markup language
+	 * @return the object, or null if there is none
+	 * @see #put(Object, Object)
+	 */
+	public Object take(Object owner) {
+		return objects.remove(owner);
+	}
+
+	/**
+	 * Keep the given object for reuse by the given owner.
+	 *
+	 * @param owner
+	 *            the owner of the object, typically a markup language
+	 * @param object
+	 *            the object to keep
+	 * @see #take(Object)
+	 */
+	public void put(Object owner, Object object) {
+		objects.put(owner, object);
+	}
+
+	/**
+	 * Discard all kept objects, for example to release memory held by objects of a markup language that is no longer
+	 * used.
+	 */
+	public void reset() {
+		objects.clear();
+	}
+}
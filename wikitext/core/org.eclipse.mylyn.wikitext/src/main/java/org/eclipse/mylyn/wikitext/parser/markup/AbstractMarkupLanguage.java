@@ -12,6 +12,7 @@
 package org.eclipse.mylyn.wikitext.parser.markup;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -23,6 +24,7 @@ import java.util.regex.Pattern;
 
 import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.ParseSession;
 import org.eclipse.mylyn.wikitext.parser.markup.token.ImpliedHyperlinkReplacementToken;
 import org.eclipse.mylyn.wikitext.parser.outline.OutlineParser;
 import org.eclipse.mylyn.wikitext.util.LocationTrackingReader;
@@ -63,6 +65,20 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 
 	private boolean enableMacros = true;
 
+	private boolean firstCharacterDispatch;
+
+	private BlockStartIndex blockStartIndex;
+
+	/**
+	 * Objects kept by a {@link ParseSession} for processing subsequent documents.
+	 */
+	private static final class Reusables {
+
+		ContentState state;
+
+		LocationTrackingReader reader;
+	}
+
 	/**
 	 *
 	 */
@@ -73,20 +89,27 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 
 		protected List<Integer> elementGroup = new ArrayList<Integer>();
 
+		private final List<Group[]> elementEnclosingGroups = new ArrayList<Group[]>();
+
 		private final StringBuilder patternBuffer = new StringBuilder();
 
 		private int patternGroup = 0;
 
 		private final Stack<Group> groups = new Stack<Group>();
 		{
-			groups.push(new Group());
+			groups.push(new Group(null, 0));
 		}
 
+		private boolean firstCharacterDispatch;
+
+		private FirstCharacterDispatch dispatch;
+
 		public PatternBasedSyntax() {
 		}
 
 		public void add(PatternBasedElement element) {
 			elementPattern = null;
+			dispatch = null;
 			elements.add(element);
 			if (groups.peek().count++ > 0) {
 				patternBuffer.append('|');
@@ -96,6 +119,7 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 			patternBuffer.append(element.getPattern(patternGroup));
 			patternBuffer.append(')');
 			elementGroup.add(patternGroup);
+			elementEnclosingGroups.add(groups.subList(1, groups.size()).toArray(new Group[groups.size() - 1]));
 			patternGroup += element.getPatternGroupCount();
 		}
 
@@ -116,14 +140,17 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 
 		private void add(String regexFragment, int size, boolean beginGroup) {
 			elementPattern = null;
+			dispatch = null;
 			if (beginGroup) {
 				if (groups.peek().count++ > 0) {
 					patternBuffer.append('|');
 				}
-				groups.push(new Group());
+				groups.push(new Group(regexFragment, size));
 				patternBuffer.append("(?:"); //$NON-NLS-1$
 			} else {
-				groups.pop();
+				Group group = groups.pop();
+				group.endFragment = regexFragment;
+				group.endSize = size;
 			}
 			patternBuffer.append(regexFragment);
 			if (!beginGroup) {
@@ -132,7 +159,42 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 			patternGroup += size;
 		}
 
+		/**
+		 * Indicate if elements are found by matching each element only at positions whose character can start the
+		 * element, instead of by matching the {@link #getPattern() alternation of all elements} at every position.
+		 * Both produce the same result, however first-character dispatch avoids trying every element at every
+		 * position of the text, which is significantly faster for syntaxes with many elements that start with a
+		 * distinctive character. The default is false.
+		 *
+		 * @since 3.1
+		 */
+		public boolean isFirstCharacterDispatch() {
+			return firstCharacterDispatch;
+		}
+
+		/**
+		 * Indicate if elements are found by matching each element only at positions whose character can start the
+		 * element.
+		 *
+		 * @see #isFirstCharacterDispatch()
+		 * @since 3.1
+		 */
+		public void setFirstCharacterDispatch(boolean firstCharacterDispatch) {
+			this.firstCharacterDispatch = firstCharacterDispatch;
+		}
+
 		public PatternBasedElementProcessor findPatternBasedElement(String lineText, int offset) {
+			return findPatternBasedElement(lineText, offset, null);
+		}
+
+		/**
+		 * Find the first element in the given text at or after the given offset, reusing a processor of the given
+		 * state if one is {@link ContentState#releaseProcessor(PatternBasedElementProcessor) available}.
+		 */
+		PatternBasedElementProcessor findPatternBasedElement(String lineText, int offset, ContentState state) {
+			if (firstCharacterDispatch) {
+				return getDispatch().findPatternBasedElement(lineText, offset, state);
+			}
 			Matcher matcher = getPattern().matcher(lineText);
 			if (offset > 0) {
 				matcher.region(offset, lineText.length());
@@ -141,19 +203,8 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 				int size = elementGroup.size();
 				for (int x = 0; x < size; ++x) {
 					int group = elementGroup.get(x);
-					String value = matcher.group(group);
-					if (value != null) {
-						PatternBasedElement element = elements.get(x);
-						PatternBasedElementProcessor processor = element.newProcessor();
-						processor.setLineStartOffset(matcher.start());
-						processor.setLineEndOffset(matcher.end());
-						processor.setGroup(0, matcher.group(0), matcher.start(0), matcher.end(0));
-						for (int y = 0; y < element.getPatternGroupCount(); ++y) {
-							final int groupIndex = group + y + 1;
-							processor.setGroup(y + 1, matcher.group(groupIndex), matcher.start(groupIndex),
-									matcher.end(groupIndex));
-						}
-						return processor;
+					if (matcher.start(group) != -1) {
+						return newProcessor(elements.get(x), state, lineText, matcher, group, 0);
 					}
 				}
 				throw new IllegalStateException();
@@ -162,6 +213,76 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 			}
 		}
 
+		static PatternBasedElementProcessor newProcessor(PatternBasedElement element, ContentState state,
+				String lineText, Matcher matcher, int group, int offset) {
+			PatternBasedElementProcessor processor = state == null ? null : state.acquireProcessor(element);
+			if (processor == null) {
+				processor = element.newProcessor();
+				processor.element = element;
+			}
+			processor.setLineStartOffset(offset + matcher.start());
+			processor.setLineEndOffset(offset + matcher.end());
+			processor.setGroups(lineText, matcher, group, element.getPatternGroupCount(), offset);
+			return processor;
+		}
+
+		private FirstCharacterDispatch getDispatch() {
+			if (dispatch == null) {
+				List<String> patterns = new ArrayList<String>(elements.size());
+				int[] groups = new int[elements.size()];
+				for (int x = 0; x < elements.size(); ++x) {
+					Group[] enclosingGroups = elementEnclosingGroups.get(x);
+					StringBuilder pattern = new StringBuilder();
+					int group = 0;
+					for (Group enclosingGroup : enclosingGroups) {
+						pattern.append("(?:").append(enclosingGroup.beginFragment); //$NON-NLS-1$
+						group += enclosingGroup.beginSize;
+					}
+					groups[x] = ++group;
+					pattern.append('(').append(elements.get(x).getPattern(group)).append(')');
+					for (int y = enclosingGroups.length - 1; y >= 0; --y) {
+						Group enclosingGroup = enclosingGroups[y];
+						if (enclosingGroup.endFragment != null) {
+							pattern.append(enclosingGroup.endFragment);
+						}
+						pattern.append(')');
+					}
+					patterns.add(pattern.toString());
+				}
+				dispatch = new FirstCharacterDispatch(elements, patterns, groups);
+			}
+			return dispatch;
+		}
+
+		/**
+		 * Compile the pattern of this syntax, as well as its first-character dispatch if enabled, so that this syntax
+		 * can be used by many threads concurrently as long as no elements are added.
+		 */
+		void compile() {
+			getPattern();
+			if (firstCharacterDispatch) {
+				getDispatch();
+			}
+		}
+
+		/**
+		 * Use the compiled pattern and dispatch of the given syntax if it has the same elements as this syntax, which
+		 * avoids compiling them again for a {@link CompiledMarkupLanguage copy of a language}.
+		 */
+		void shareCompiled(PatternBasedSyntax compiled) {
+			if (compiled.elements.size() != elements.size() || compiled.firstCharacterDispatch != firstCharacterDispatch
+					|| !compiled.patternBuffer.toString().contentEquals(patternBuffer)) {
+				return;
+			}
+			for (int x = 0; x < elements.size(); ++x) {
+				if (compiled.elements.get(x).getClass() != elements.get(x).getClass()) {
+					return;
+				}
+			}
+			elementPattern = compiled.elementPattern;
+			dispatch = compiled.dispatch == null ? null : compiled.dispatch.withElements(elements);
+		}
+
 		public Pattern getPattern() {
 			if (elementPattern == null) {
 				if (patternBuffer.length() > 0) {
@@ -176,11 +297,13 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 		public void clear() {
 			elements.clear();
 			elementPattern = null;
+			dispatch = null;
 			elementGroup.clear();
+			elementEnclosingGroups.clear();
 			patternBuffer.delete(0, patternBuffer.length());
 			patternGroup = 0;
 			groups.clear();
-			groups.push(new Group());
+			groups.push(new Group(null, 0));
 		}
 
 	}
@@ -219,24 +342,120 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 		return new ContentState();
 	}
 
-	private ContentState newContentState() {
-		ContentState contentState = createState();
+	/**
+	 * Indicate if the given state of a previously processed document can be reused to process another document, as
+	 * done when parsing with a {@link ParseSession}. The default implementation {@link ContentState#reset() resets} the
+	 * state. Subclasses that prepare the state of a document themselves should override this method to return false
+	 * while doing so.
+	 *
+	 * @param state
+	 *            the state to reuse
+	 * @return true if the state was reset and can be reused, or false if a {@link #createState() new state} is needed
+	 * @since 3.1
+	 */
+	protected boolean reuseState(ContentState state) {
+		return state.reset();
+	}
+
+	private ContentState newContentState(Reusables reusables) {
+		ContentState contentState = reusables.state;
+		reusables.state = null;
+		if (contentState == null || !reuseState(contentState)) {
+			contentState = createState();
+		}
 		contentState.getIdGenerator().setGenerationStrategy(getIdGenerationStrategy());
 		return contentState;
 	}
 
+	private LocationTrackingReader newReader(Reusables reusables, Reader markupContent) {
+		LocationTrackingReader reader = reusables.reader;
+		if (reader == null) {
+			return new LocationTrackingReader(markupContent);
+		}
+		reusables.reader = null;
+		reader.reset(markupContent);
+		return reader;
+	}
+
+	/**
+	 * Provide the objects kept by the session of the given parser for reuse, or empty reusables if the parser has no
+	 * session.
+	 */
+	private Reusables takeReusables(MarkupParser parser) {
+		ParseSession session = parser.getSession();
+		Object reusables = session == null ? null : session.take(this);
+		return reusables instanceof Reusables ? (Reusables) reusables : new Reusables();
+	}
+
+	/**
+	 * Keep the given objects in the session of the given parser, if any, once processing is done.
+	 */
+	private void releaseReusables(MarkupParser parser, Reusables reusables, ContentState state,
+			LocationTrackingReader reader) {
+		ParseSession session = parser.getSession();
+		if (session != null) {
+			reusables.state = state;
+			reusables.reader = reader;
+			session.put(this, reusables);
+		}
+	}
+
+	/**
+	 * Indicate if this markup language requires random access to the complete markup content during processing, as
+	 * provided by {@link ContentState#getMarkupContent()}. Markup languages that do not require it are able to process
+	 * content {@link #processContent(MarkupParser, Reader, boolean) from a reader} line by line, without holding the
+	 * complete content in memory. The default implementation returns true. Subclasses that override this method to
+	 * return false must not rely on {@link ContentState#getMarkupContent()}, which is null when content is processed
+	 * from a reader.
+	 *
+	 * @return true if the markup content must be available to blocks and other processors, otherwise false
+	 * @since 3.1
+	 */
+	protected boolean isRequiresMarkupContent() {
+		return true;
+	}
+
 	@Override
 	public void processContent(MarkupParser parser, String markupContent, boolean asDocument) {
 		initializeSyntax(false);
 		initProcessors();
-		ContentState state = newContentState();
+		Reusables reusables = takeReusables(parser);
+		ContentState state = newContentState(reusables);
 		state.setMarkupContent(markupContent);
+		LocationTrackingReader reader = newReader(reusables, new StringReader(markupContent));
+		try {
+			processContent(parser, state, reader, asDocument);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		releaseReusables(parser, reusables, state, reader);
+	}
 
+	/**
+	 * Process the markup content provided by the given reader. If this markup language
+	 * {@link #isRequiresMarkupContent() requires the markup content} then the content is read fully before it is
+	 * processed, otherwise it is processed line by line as it is read.
+	 */
+	@Override
+	public void processContent(MarkupParser parser, Reader markupContent, boolean asDocument) throws IOException {
+		if (isRequiresMarkupContent()) {
+			super.processContent(parser, markupContent, asDocument);
+			return;
+		}
+		initializeSyntax(false);
+		initProcessors();
+		Reusables reusables = takeReusables(parser);
+		ContentState state = newContentState(reusables);
+		LocationTrackingReader reader = newReader(reusables, markupContent);
+
+		processContent(parser, state, reader, asDocument);
+		releaseReusables(parser, reusables, state, reader);
+	}
+
+	private void processContent(MarkupParser parser, ContentState state, LocationTrackingReader reader,
+			boolean asDocument) throws IOException {
 		DocumentBuilder builder = parser.getBuilder();
 		builder.setLocator(state);
-
-		@SuppressWarnings("resource")
-		LocationTrackingReader reader = new LocationTrackingReader(new StringReader(markupContent));
 		try {
 			if (asDocument) {
 				builder.beginDocument();
@@ -245,95 +464,90 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 			Stack<LineState> lineStates = null;
 			String line;
 			Block currentBlock = null;
-			try {
-				line = reader.readLine();
-				int lineOffset = 0;
-				while (line != null) {
-
-					state.setLineNumber(reader.getLineNumber() + 1);
-					state.setLineOffset(reader.getLineOffset());
-					state.setLineCharacterOffset(lineOffset);
-					state.setLineSegmentEndOffset(0);
-					state.setLineLength(line.length());
-
-					for (;;) {
-						popClosedBlocks(nestedBlocks);
+			line = reader.readLine();
+			int lineOffset = 0;
+			while (line != null) {
+
+				state.setLineNumber(reader.getLineNumber() + 1);
+				state.setLineOffset(reader.getLineOffset());
+				state.setLineCharacterOffset(lineOffset);
+				state.setLineSegmentEndOffset(0);
+				state.setLineLength(line.length());
+
+				for (;;) {
+					popClosedBlocks(nestedBlocks);
+					if (nestedBlocks != null && !nestedBlocks.isEmpty()) {
+						Block nestedParent = nestedBlocks.peek();
+						int closeOffset = nestedParent.findCloseOffset(line, lineOffset);
+						if (closeOffset != -1) {
+							if (closeOffset > lineOffset) {
+								String truncatedLine = line.substring(0, closeOffset);
+								if (lineStates == null) {
+									lineStates = new Stack<LineState>();
+								}
+								lineStates.push(new LineState(line, closeOffset));
+								line = truncatedLine;
+							} else {
+								if (currentBlock != null) {
+									currentBlock.setClosed(true);
+									currentBlock = null;
+								}
+								currentBlock = nestedBlocks.pop();
+								lineOffset = closeOffset;
+								state.setLineCharacterOffset(lineOffset);
+							}
+						}
+					}
+					if (currentBlock == null) {
 						if (nestedBlocks != null && !nestedBlocks.isEmpty()) {
 							Block nestedParent = nestedBlocks.peek();
-							int closeOffset = nestedParent.findCloseOffset(line, lineOffset);
-							if (closeOffset != -1) {
-								if (closeOffset > lineOffset) {
-									String truncatedLine = line.substring(0, closeOffset);
-									if (lineStates == null) {
-										lineStates = new Stack<LineState>();
-									}
-									lineStates.push(new LineState(line, closeOffset));
-									line = truncatedLine;
-								} else {
-									if (currentBlock != null) {
-										currentBlock.setClosed(true);
-										currentBlock = null;
-									}
-									currentBlock = nestedBlocks.pop();
-									lineOffset = closeOffset;
-									state.setLineCharacterOffset(lineOffset);
-								}
+							if (nestedParent.canResume(line, lineOffset)) {
+								currentBlock = nestedParent;
 							}
 						}
 						if (currentBlock == null) {
-							if (nestedBlocks != null && !nestedBlocks.isEmpty()) {
-								Block nestedParent = nestedBlocks.peek();
-								if (nestedParent.canResume(line, lineOffset)) {
-									currentBlock = nestedParent;
-								}
-							}
+							currentBlock = startBlock(line, lineOffset);
 							if (currentBlock == null) {
-								currentBlock = startBlock(line, lineOffset);
-								if (currentBlock == null) {
-									break;
-								}
-								currentBlock.setMarkupLanguage(this);
-								currentBlock.setState(state);
-								currentBlock.setParser(parser);
+								break;
 							}
+							currentBlock.setMarkupLanguage(this);
+							currentBlock.setState(state);
+							currentBlock.setParser(parser);
 						}
-						lineOffset = currentBlock.processLineContent(line, lineOffset);
-						if (currentBlock.isClosed()) {
-							currentBlock = null;
-						} else if (currentBlock.beginNesting()) {
-							if (nestedBlocks == null) {
-								nestedBlocks = new Stack<Block>();
-							}
-							nestedBlocks.push(currentBlock);
-							currentBlock = null;
-						}
-						if (lineOffset < line.length() && lineOffset >= 0) {
-							if (currentBlock != null) {
-								throw new IllegalStateException(String.format(
-										"if a block does not fully process a line then it must be closed, at or near line %s lineOffset %s, block %s", //$NON-NLS-1$
-										reader.getLineNumber(), lineOffset, currentBlock.getClass().getName()));
-							}
-						} else {
-							break;
+					}
+					lineOffset = currentBlock.processLineContent(line, lineOffset);
+					if (currentBlock.isClosed()) {
+						currentBlock = null;
+					} else if (currentBlock.beginNesting()) {
+						if (nestedBlocks == null) {
+							nestedBlocks = new Stack<Block>();
 						}
+						nestedBlocks.push(currentBlock);
+						currentBlock = null;
 					}
-					if (lineStates != null && !lineStates.isEmpty()) {
-						LineState lineState = lineStates.pop();
-						line = lineState.line;
-						lineOffset = lineState.lineOffset;
+					if (lineOffset < line.length() && lineOffset >= 0) {
+						if (currentBlock != null) {
+							throw new IllegalStateException(String.format(
+									"if a block does not fully process a line then it must be closed, at or near line %s lineOffset %s, block %s", //$NON-NLS-1$
+									reader.getLineNumber(), lineOffset, currentBlock.getClass().getName()));
+						}
 					} else {
-						lineOffset = 0;
-						line = reader.readLine();
+						break;
 					}
 				}
-				state.setLineNumber(reader.getLineNumber() + 1);
-				state.setLineOffset(reader.getLineOffset());
-				state.setLineCharacterOffset(0);
-				state.setLineLength(0);
-
-			} catch (IOException e) {
-				throw new IllegalStateException(e);
+				if (lineStates != null && !lineStates.isEmpty()) {
+					LineState lineState = lineStates.pop();
+					line = lineState.line;
+					lineOffset = lineState.lineOffset;
+				} else {
+					lineOffset = 0;
+					line = reader.readLine();
+				}
 			}
+			state.setLineNumber(reader.getLineNumber() + 1);
+			state.setLineOffset(reader.getLineOffset());
+			state.setLineCharacterOffset(0);
+			state.setLineLength(0);
 
 			if (currentBlock != null && !currentBlock.isClosed()) {
 				currentBlock.setClosed(true);
@@ -377,12 +591,25 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 		}
 	}
 
+	/**
+	 * Find the block that starts on the given line at the given offset. Blocks are tried in order, skipping those that
+	 * cannot start on the first non-whitespace character at the offset as indicated by
+	 * {@link Block#getStartCharacters()}.
+	 *
+	 * @return a clone of the first block that can start, or null if there is none
+	 */
 	public Block startBlock(String line, int lineOffset) {
 		if (isEmptyLine(line)) {
 			// nothing starts on an empty line
 			return null;
 		}
-		for (Block block : getBlocks()) {
+		List<Block> blocks = getBlocks();
+		BlockStartIndex index = blockStartIndex;
+		if (index == null || !index.isIndexOf(blocks)) {
+			index = new BlockStartIndex(blocks);
+			blockStartIndex = index;
+		}
+		for (Block block : index.getCandidates(line, lineOffset)) {
 			if (block.canStart(line, lineOffset)) {
 				return block.clone();
 			}
@@ -434,7 +661,7 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 		state.setShift(previousShift + textLineOffset);
 		for (;;) {
 			PatternBasedElementProcessor phraseModifier = getPhraseModifierSyntax().findPatternBasedElement(line,
-					offset);
+					offset, state);
 			if (phraseModifier != null) {
 				int newOffset = phraseModifier.getLineStartOffset();
 				if (offset < newOffset) {
@@ -450,6 +677,7 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 				state.setLineSegmentEndOffset(state.getShift() + phraseModifier.getLineEndOffset());
 				phraseModifier.emit();
 				offset = phraseModifier.getLineEndOffset();
+				state.releaseProcessor(phraseModifier);
 				if (offset >= line.length()) {
 					break;
 				}
@@ -490,7 +718,7 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 		int offset = 0;
 		for (;;) {
 			PatternBasedElementProcessor tokenReplacement = getReplacementTokenSyntax().findPatternBasedElement(text,
-					offset);
+					offset, state);
 			if (tokenReplacement != null) {
 				int newOffset = tokenReplacement.getLineStartOffset();
 				if (offset < newOffset) {
@@ -504,8 +732,13 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 				state.setLineCharacterOffset(state.getShift() + tokenReplacement.getLineStartOffset());
 				state.setLineSegmentEndOffset(state.getShift() + tokenReplacement.getLineEndOffset());
 
+				PatternBasedElementProcessor outerToken = state.getReplacementToken();
+				int outerTokenIndex = state.getReplacementTokenIndex();
+				state.setReplacementToken(tokenReplacement, state.nextReplacementTokenIndex());
 				tokenReplacement.emit();
+				state.setReplacementToken(outerToken, outerTokenIndex);
 				offset = tokenReplacement.getLineEndOffset();
+				state.releaseProcessor(tokenReplacement);
 				if (offset >= text.length()) {
 					break;
 				}
@@ -518,6 +751,19 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 
 	private static class Group {
 		int count;
+
+		final String beginFragment;
+
+		final int beginSize;
+
+		String endFragment;
+
+		int endSize;
+
+		Group(String beginFragment, int beginSize) {
+			this.beginFragment = beginFragment;
+			this.beginSize = beginSize;
+		}
 	}
 
 	public List<Block> getBlocks() {
@@ -744,12 +990,69 @@ public abstract class AbstractMarkupLanguage extends MarkupLanguage {
 		this.enableMacros = enableMacros;
 	}
 
+	/**
+	 * Indicate if phrase modifiers and replacement tokens are found by matching each of them only at positions whose
+	 * character can start it, rather than by matching a single pattern of all of them at every position. The result of
+	 * parsing is the same either way.
+	 * <p>
+	 * The default value is false.
+	 * </p>
+	 *
+	 * @return true if first-character dispatch is enabled, otherwise false
+	 * @see PatternBasedSyntax#isFirstCharacterDispatch()
+	 * @since 3.1
+	 */
+	public boolean isFirstCharacterDispatch() {
+		return firstCharacterDispatch;
+	}
+
+	/**
+	 * Indicate if phrase modifiers and replacement tokens are found by matching each of them only at positions whose
+	 * character can start it, rather than by matching a single pattern of all of them at every position.
+	 *
+	 * @param firstCharacterDispatch
+	 *            true if first-character dispatch is enabled, otherwise false
+	 * @see #isFirstCharacterDispatch()
+	 * @since 3.1
+	 */
+	public void setFirstCharacterDispatch(boolean firstCharacterDispatch) {
+		this.firstCharacterDispatch = firstCharacterDispatch;
+		tokenSyntax.setFirstCharacterDispatch(firstCharacterDispatch);
+		phraseModifierSyntax.setFirstCharacterDispatch(firstCharacterDispatch);
+	}
+
+	/**
+	 * Initialize the syntax of this markup language and compile its patterns, so that it can be the template of a
+	 * {@link CompiledMarkupLanguage}.
+	 */
+	void compileSyntax() {
+		initializeSyntax(false);
+		tokenSyntax.compile();
+		phraseModifierSyntax.compile();
+	}
+
+	/**
+	 * Initialize the syntax of this markup language, which is a clone of the given compiled template, using the
+	 * compiled patterns of the template instead of compiling them again.
+	 *
+	 * @see #compileSyntax()
+	 */
+	void initializeSyntax(AbstractMarkupLanguage template) {
+		setBlocksOnly(template.isBlocksOnly());
+		setFilterGenerativeContents(template.isFilterGenerativeContents());
+		initializeSyntax(false);
+		tokenSyntax.shareCompiled(template.tokenSyntax);
+		phraseModifierSyntax.shareCompiled(template.phraseModifierSyntax);
+		initProcessors();
+	}
+
 	@Override
 	public MarkupLanguage clone() {
 		AbstractMarkupLanguage copy = (AbstractMarkupLanguage) super.clone();
 		copy.configuration = configuration == null ? null : configuration.clone();
 		copy.internalLinkPattern = internalLinkPattern;
 		copy.enableMacros = enableMacros;
+		copy.setFirstCharacterDispatch(firstCharacterDispatch);
 		return copy;
 	}
 }
@@ -67,6 +67,20 @@ public abstract class Block extends Processor implements Cloneable {
 	 */
 	public abstract boolean canStart(String line, int lineOffset);
 
+	/**
+	 * Provide the characters on which the block can start, used by the markup language to avoid calling
+	 * {@link #canStart(String, int)} for lines on which the block cannot start. The block can only start on a line if
+	 * the first character at or after the offset that is neither whitespace nor a control character is one of the
+	 * returned characters. Blocks that can start on any character, or that cannot tell, must return null. The default
+	 * implementation returns null.
+	 *
+	 * @return the characters on which the block can start, or null if it can start on any character
+	 * @since 3.1
+	 */
+	public String getStartCharacters() {
+		return null;
+	}
+
 	/**
 	 * Indicate if block nesting should begin. Called after {@link #processLineContent(String, int)}.
 	 *
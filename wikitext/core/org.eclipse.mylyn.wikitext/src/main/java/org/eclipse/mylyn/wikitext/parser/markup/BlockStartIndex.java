@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser.markup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Indexes blocks by the characters on which they can {@link Block#getStartCharacters() start}, so that only blocks
+ * that can start on the first non-whitespace character of a line are asked whether they {@link Block#canStart(String,
+ * int) can start}. Blocks that do not declare their start characters are candidates for every line. Candidates are
+ * provided in the order of the blocks, so that the first block that can start is the same as without the index.
+ *
+ * @author agent
+ */
+final class BlockStartIndex {
+
+	private static final int ASCII = 128;
+
+	private final Block[] blocks;
+
+	private final Block[][] candidatesByCharacter = new Block[ASCII + 1][];
+
+	BlockStartIndex(List<Block> blocks) {
+		this.blocks = blocks.toArray(new Block[blocks.size()]);
+
+		List<List<Block>> candidates = new ArrayList<List<Block>>(ASCII + 1);
+		for (int x = 0; x <= ASCII; ++x) {
+			candidates.add(new ArrayList<Block>());
+		}
+		for (Block block : this.blocks) {
+			String startCharacters = block.getStartCharacters();
+			boolean[] characters = new boolean[ASCII + 1];
+			if (startCharacters == null) {
+				Arrays.fill(characters, true);
+			} else {
+				for (int x = 0; x < startCharacters.length(); ++x) {
+					char c = startCharacters.charAt(x);
+					characters[c < ASCII ? c : ASCII] = true;
+				}
+			}
+			for (int c = 0; c <= ASCII; ++c) {
+				if (characters[c]) {
+					candidates.get(c).add(block);
+				}
+			}
+		}
+		for (int c = 0; c <= ASCII; ++c) {
+			List<Block> list = candidates.get(c);
+			candidatesByCharacter[c] = list.toArray(new Block[list.size()]);
+		}
+	}
+
+	/**
+	 * Indicate if this index is of the given blocks, which is not the case once blocks have been added, removed or
+	 * replaced.
+	 */
+	boolean isIndexOf(List<Block> blocks) {
+		if (blocks.size() != this.blocks.length) {
+			return false;
+		}
+		int x = 0;
+		for (Block block : blocks) {
+			if (block != this.blocks[x++]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Provide the blocks that can start on the given line at the given offset, in order.
+	 */
+	Block[] getCandidates(String line, int lineOffset) {
+		for (int x = lineOffset; x < line.length(); ++x) {
+			char c = line.charAt(x);
+			// skip what String.trim() and \s skip as well as other whitespace
+			if (c > ' ' && !Character.isWhitespace(c)) {
+				return candidatesByCharacter[c < ASCII ? c : ASCII];
+			}
+		}
+		return blocks;
+	}
+}
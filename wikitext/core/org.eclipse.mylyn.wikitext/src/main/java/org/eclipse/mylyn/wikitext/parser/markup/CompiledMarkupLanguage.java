@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser.markup;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+
+/**
+ * An immutable markup language that is compiled from a configured markup language, and that can be used by many
+ * threads concurrently. Markup languages keep state while processing content and are therefore not thread safe, so
+ * that they are typically {@link MarkupLanguage#clone() cloned} for each use, which initializes their syntax and
+ * compiles its patterns every time. A compiled markup language initializes the syntax once: content is processed by
+ * copies of the markup language that share the compiled patterns of its phrase modifiers and replacement tokens, each
+ * copy being used by one parse at a time. The state of a parse is kept by its copy and its {@link ContentState}.
+ * <p>
+ * The compiled markup language has the syntax and options of the markup language at the time it is compiled; changes
+ * to the markup language after that have no effect. A compiled markup language cannot be changed, and
+ * {@link #clone() cloning} it provides the same instance.
+ * </p>
+ *
+ * <pre>
+ * CompiledMarkupLanguage markupLanguage = new CompiledMarkupLanguage(new TextileLanguage());
+ * // on any thread
+ * new MarkupParser(markupLanguage, builder).parse(markup);
+ * </pre>
+ *
+ * @author agent
+ * @since 3.1
+ */
+public final class CompiledMarkupLanguage extends MarkupLanguage {
+
+	private final MarkupLanguage template;
+
+	private final Set<String> fileExtensions;
+
+	private final Queue<MarkupLanguage> languages = new ConcurrentLinkedQueue<MarkupLanguage>();
+
+	/**
+	 * Compile the given markup language.
+	 *
+	 * @param markupLanguage
+	 *            the configured markup language, which is not changed and can continue to be used independently
+	 */
+	public CompiledMarkupLanguage(MarkupLanguage markupLanguage) {
+		checkNotNull(markupLanguage, "Must provide a markupLanguage"); //$NON-NLS-1$
+		if (markupLanguage instanceof CompiledMarkupLanguage) {
+			markupLanguage = ((CompiledMarkupLanguage) markupLanguage).template;
+		}
+		template = markupLanguage.clone();
+		if (template instanceof AbstractMarkupLanguage) {
+			AbstractMarkupLanguage language = (AbstractMarkupLanguage) template;
+			AbstractMarkupLanguage source = (AbstractMarkupLanguage) markupLanguage;
+			language.setBlocksOnly(source.isBlocksOnly());
+			language.setFilterGenerativeContents(source.isFilterGenerativeContents());
+			language.compileSyntax();
+		}
+		fileExtensions = markupLanguage.getFileExtensions();
+		super.setName(markupLanguage.getName());
+		super.setExtendsLanguage(markupLanguage.getExtendsLanguage());
+	}
+
+	/**
+	 * Provide a new markup language with the syntax and options of this compiled markup language, which can be changed
+	 * and compiled again.
+	 */
+	public MarkupLanguage newMarkupLanguage() {
+		MarkupLanguage markupLanguage = template.clone();
+		if (template instanceof AbstractMarkupLanguage) {
+			AbstractMarkupLanguage language = (AbstractMarkupLanguage) markupLanguage;
+			language.setBlocksOnly(((AbstractMarkupLanguage) template).isBlocksOnly());
+			language.setFilterGenerativeContents(((AbstractMarkupLanguage) template).isFilterGenerativeContents());
+		}
+		return markupLanguage;
+	}
+
+	@Override
+	public void processContent(MarkupParser parser, String markupContent, boolean asDocument) {
+		MarkupLanguage language = acquire();
+		language.processContent(newParser(parser, language), markupContent, asDocument);
+		languages.add(language);
+	}
+
+	@Override
+	public void processContent(MarkupParser parser, Reader markupContent, boolean asDocument) throws IOException {
+		MarkupLanguage language = acquire();
+		language.processContent(newParser(parser, language), markupContent, asDocument);
+		languages.add(language);
+	}
+
+	/**
+	 * Provide a copy of the template for the exclusive use of one parse. Copies are only returned once the parse
+	 * completes normally, since a parse that fails may leave its copy in an inconsistent state.
+	 */
+	private MarkupLanguage acquire() {
+		MarkupLanguage language = languages.poll();
+		if (language == null) {
+			language = template.clone();
+			if (language instanceof AbstractMarkupLanguage) {
+				((AbstractMarkupLanguage) language).initializeSyntax((AbstractMarkupLanguage) template);
+			}
+		}
+		return language;
+	}
+
+	/**
+	 * Provide a parser for the given copy of the template, since processors require the parser to use the markup
+	 * language that they are processed by.
+	 */
+	private MarkupParser newParser(MarkupParser parser, MarkupLanguage language) {
+		MarkupParser languageParser = new MarkupParser(language, parser.getBuilder());
+		languageParser.setSession(parser.getSession());
+		return languageParser;
+	}
+
+	@Override
+	public IdGenerationStrategy getIdGenerationStrategy() {
+		return template.getIdGenerationStrategy();
+	}
+
+	@Override
+	public DocumentBuilder createDocumentBuilder(Writer out, boolean formatting) {
+		return template.createDocumentBuilder(out, formatting);
+	}
+
+	@Override
+	public Set<String> getFileExtensions() {
+		return fileExtensions;
+	}
+
+	/**
+	 * Provide this compiled markup language, which is immutable.
+	 */
+	@Override
+	public CompiledMarkupLanguage clone() {
+		return this;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, since a compiled markup language is immutable
+	 */
+	@Override
+	public void configure(MarkupLanguageConfiguration configuration) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, since a compiled markup language is immutable
+	 */
+	@Override
+	public void setName(String name) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, since a compiled markup language is immutable
+	 */
+	@Override
+	public void setFileExtensions(Set<String> fileExtensions) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, since a compiled markup language is immutable
+	 */
+	@Override
+	public void setExtendsLanguage(String extendsLanguage) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -10,11 +10,15 @@
  *******************************************************************************/
 package org.eclipse.mylyn.wikitext.parser.markup;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import org.eclipse.mylyn.wikitext.parser.IdGenerator;
 import org.eclipse.mylyn.wikitext.parser.Locator;
+import org.eclipse.mylyn.wikitext.parser.ParseSession;
+import org.eclipse.mylyn.wikitext.util.LocationTrackingReader;
 
 /**
  * State related to parsing content, propagated to {@link Block blocks} and other {@link Processor processors} during
@@ -30,6 +34,10 @@ public class ContentState implements Locator {
 
 	private String markupContent;
 
+	private int[] lineStartOffsets;
+
+	private int lineCount;
+
 	private final IdGenerator idGenerator = new IdGenerator();
 
 	private int lineNumber = -1;
@@ -44,15 +52,92 @@ public class ContentState implements Locator {
 
 	private int shift;
 
+	private PatternBasedElementProcessor replacementToken;
+
+	private int replacementTokenIndex;
+
+	private int replacementTokenCount;
+
+	private Map<PatternBasedElement, PatternBasedElementProcessor> idleProcessors;
+
+	private Map<FirstCharacterDispatch, FirstCharacterDispatch.Matchers> dispatchMatchers;
+
 	public ContentState() {
 	}
 
+	/**
+	 * The complete markup content being processed.
+	 *
+	 * @return the markup content, or null if the content is being processed as it is read
+	 * @see AbstractMarkupLanguage#isRequiresMarkupContent()
+	 */
 	public String getMarkupContent() {
 		return markupContent;
 	}
 
 	protected void setMarkupContent(String markupContent) {
 		this.markupContent = markupContent;
+		lineStartOffsets = null;
+	}
+
+	/**
+	 * Provide a line of the {@link #getMarkupContent() markup content} by its 0-based index, without its line
+	 * delimiter. Lines are delimited as they are by {@link LocationTrackingReader#readLine()}, so that the current line
+	 * has the index {@code getLineNumber() - 1}. The start offsets of the lines are indexed the first time this method
+	 * is called for the markup content, after which any line is provided in constant time.
+	 *
+	 * @param lineIndex
+	 *            the 0-based index of the line
+	 * @return the line, or null if there is no such line or if the markup content is not available
+	 * @since 3.1
+	 */
+	public String getMarkupContentLine(int lineIndex) {
+		if (markupContent == null) {
+			return null;
+		}
+		if (lineStartOffsets == null) {
+			indexLineStartOffsets();
+		}
+		if (lineIndex < 0 || lineIndex >= lineCount) {
+			return null;
+		}
+		int start = lineStartOffsets[lineIndex];
+		int end = lineIndex + 1 < lineCount ? lineStartOffsets[lineIndex + 1] : markupContent.length();
+		if (end > start && markupContent.charAt(end - 1) == '\n') {
+			--end;
+		}
+		if (end > start && markupContent.charAt(end - 1) == '\r') {
+			--end;
+		}
+		return markupContent.substring(start, end);
+	}
+
+	private void indexLineStartOffsets() {
+		int length = markupContent.length();
+		int[] offsets = new int[16];
+		int count = 0;
+		int start = 0;
+		while (start < length) {
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			offsets[count++] = start;
+			int end = start;
+			while (end < length) {
+				char c = markupContent.charAt(end++);
+				if (c == '\n') {
+					break;
+				} else if (c == '\r') {
+					if (end < length && markupContent.charAt(end) == '\n') {
+						++end;
+					}
+					break;
+				}
+			}
+			start = end;
+		}
+		lineStartOffsets = offsets;
+		lineCount = count;
 	}
 
 	public String getFootnoteId(String footnote) {
@@ -167,4 +252,108 @@ public class ContentState implements Locator {
 	int getShift() {
 		return shift;
 	}
+
+	/**
+	 * Provides the markup of the replacement token that is being emitted, so that the events emitted by the token can
+	 * be related to the markup that they replace.
+	 *
+	 * @return the markup of the token, or null if no replacement token is being emitted
+	 * @see #getReplacementTokenIndex()
+	 * @since 3.1
+	 */
+	public String getReplacementTokenMarkup() {
+		return replacementToken == null ? null : replacementToken.group(0);
+	}
+
+	/**
+	 * Provides a number identifying the replacement token that is being emitted, which differs for each token emitted
+	 * while processing a document. Consecutive events were emitted by the same token if they have the same index.
+	 *
+	 * @return the index of the token, or 0 if no replacement token is being emitted
+	 * @see #getReplacementTokenMarkup()
+	 * @since 3.1
+	 */
+	public int getReplacementTokenIndex() {
+		return replacementTokenIndex;
+	}
+
+	PatternBasedElementProcessor getReplacementToken() {
+		return replacementToken;
+	}
+
+	void setReplacementToken(PatternBasedElementProcessor token, int index) {
+		replacementToken = token;
+		replacementTokenIndex = index;
+	}
+
+	int nextReplacementTokenIndex() {
+		return ++replacementTokenCount;
+	}
+
+	/**
+	 * Reset the state so that it can be used to process another document, as done when parsing with a
+	 * {@link ParseSession}. Processors that were {@link #releaseProcessor(PatternBasedElementProcessor) released} are
+	 * kept for reuse. Subclasses that hold state of their own must override this method to reset it as well and return
+	 * true, since the default implementation cannot tell whether a subclass can be reused.
+	 *
+	 * @return true if the state was reset and can be reused, otherwise false
+	 * @since 3.1
+	 */
+	protected boolean reset() {
+		footnoteIdToHtmlId.clear();
+		glossaryItems.clear();
+		markupContent = null;
+		lineStartOffsets = null;
+		idGenerator.reset();
+		lineNumber = -1;
+		lineOffset = -1;
+		lineCharacterOffset = 0;
+		lineLength = 0;
+		lineSegmentEndOffset = 0;
+		shift = 0;
+		replacementToken = null;
+		replacementTokenIndex = 0;
+		replacementTokenCount = 0;
+		return getClass() == ContentState.class;
+	}
+
+	/**
+	 * Provides a processor for the given element that was previously
+	 * {@link #releaseProcessor(PatternBasedElementProcessor) released}, so that processors are reused for the duration
+	 * of a parse.
+	 *
+	 * @return the processor, or null if there is none
+	 */
+	PatternBasedElementProcessor acquireProcessor(PatternBasedElement element) {
+		return idleProcessors == null ? null : idleProcessors.remove(element);
+	}
+
+	/**
+	 * Releases a processor that has emitted its element, making it available for reuse if it is
+	 * {@link PatternBasedElementProcessor#isReusable() reusable}.
+	 */
+	void releaseProcessor(PatternBasedElementProcessor processor) {
+		if (processor.element != null && processor.isReusable()) {
+			if (idleProcessors == null) {
+				idleProcessors = new IdentityHashMap<PatternBasedElement, PatternBasedElementProcessor>();
+			}
+			idleProcessors.put(processor.element, processor);
+		}
+	}
+
+	/**
+	 * Provides the matchers of the given dispatch, which are kept for the duration of a parse so that they are reset
+	 * rather than created for each line.
+	 */
+	FirstCharacterDispatch.Matchers getMatchers(FirstCharacterDispatch dispatch) {
+		if (dispatchMatchers == null) {
+			dispatchMatchers = new IdentityHashMap<FirstCharacterDispatch, FirstCharacterDispatch.Matchers>();
+		}
+		FirstCharacterDispatch.Matchers matchers = dispatchMatchers.get(dispatch);
+		if (matchers == null) {
+			matchers = dispatch.newMatchers();
+			dispatchMatchers.put(dispatch, matchers);
+		}
+		return matchers;
+	}
 }
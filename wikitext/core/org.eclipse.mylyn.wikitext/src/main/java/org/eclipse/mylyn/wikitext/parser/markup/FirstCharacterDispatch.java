@@ -0,0 +1,650 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser.markup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.mylyn.wikitext.parser.markup.AbstractMarkupLanguage.PatternBasedSyntax;
+
+/**
+ * Finds elements of a {@link PatternBasedSyntax} by matching each element with its own pattern, and only at positions
+ * whose character can start a match of the element. The characters that can start a match are derived from the
+ * pattern of each element; elements for which they cannot be determined are tried at every position. The result is
+ * the same as that of matching the alternation of all elements: the leftmost match, and of elements that match at the
+ * same position the one that was added to the syntax first.
+ *
+ * @author agent
+ */
+final class FirstCharacterDispatch {
+
+	private static final int ASCII = 128;
+
+	private final List<PatternBasedElement> elements;
+
+	private final Pattern[] patterns;
+
+	private final int[] elementGroups;
+
+	private final int[][] candidatesByCharacter = new int[ASCII + 1][];
+
+	private final int[] endCandidates;
+
+	/**
+	 * @param elements
+	 *            the elements of the syntax
+	 * @param patterns
+	 *            the pattern of each element, including any fragments of the groups that enclose it
+	 * @param elementGroups
+	 *            the group of each pattern that captures its element
+	 */
+	FirstCharacterDispatch(List<PatternBasedElement> elements, List<String> patterns, int[] elementGroups) {
+		this.elements = elements;
+		this.elementGroups = elementGroups;
+		this.patterns = new Pattern[patterns.size()];
+
+		List<List<Integer>> candidates = new ArrayList<List<Integer>>(ASCII + 1);
+		for (int x = 0; x <= ASCII; ++x) {
+			candidates.add(new ArrayList<Integer>());
+		}
+		List<Integer> end = new ArrayList<Integer>();
+		for (int x = 0; x < patterns.size(); ++x) {
+			String pattern = patterns.get(x);
+			this.patterns[x] = Pattern.compile(pattern);
+
+			Start start = Start.of(pattern);
+			for (int c = 0; c <= ASCII; ++c) {
+				if (start.nullable || start.characters[c]) {
+					candidates.get(c).add(x);
+				}
+			}
+			if (start.nullable) {
+				end.add(x);
+			}
+		}
+		for (int c = 0; c <= ASCII; ++c) {
+			candidatesByCharacter[c] = toArray(candidates.get(c));
+		}
+		endCandidates = toArray(end);
+	}
+
+	private FirstCharacterDispatch(FirstCharacterDispatch compiled, List<PatternBasedElement> elements) {
+		this.elements = elements;
+		this.elementGroups = compiled.elementGroups;
+		this.patterns = compiled.patterns;
+		System.arraycopy(compiled.candidatesByCharacter, 0, candidatesByCharacter, 0, candidatesByCharacter.length);
+		this.endCandidates = compiled.endCandidates;
+	}
+
+	/**
+	 * Provide a dispatch that shares the compiled patterns of this dispatch for the given elements, which must have the
+	 * same patterns as the elements of this dispatch.
+	 */
+	FirstCharacterDispatch withElements(List<PatternBasedElement> elements) {
+		return new FirstCharacterDispatch(this, elements);
+	}
+
+	/**
+	 * Finds the first element in the given text at or after the given offset.
+	 *
+	 * @return the processor of the element, or null if there is none
+	 * @see PatternBasedSyntax#findPatternBasedElement(String, int)
+	 */
+	PatternBasedElementProcessor findPatternBasedElement(String lineText, int offset, ContentState state) {
+		if (offset < 0 || offset > lineText.length()) {
+			throw new IndexOutOfBoundsException();
+		}
+		// matching a view of the text that starts at the offset has the same effect on anchors and look-behind as
+		// the region of the alternation
+		CharSequence input = offset == 0 ? lineText : new OffsetCharSequence(lineText, offset);
+		int length = input.length();
+		Matchers matchers = state == null ? newMatchers() : state.getMatchers(this);
+		matchers.reset(input);
+		for (int position = 0; position <= length; ++position) {
+			int[] candidates;
+			if (position == length) {
+				candidates = endCandidates;
+			} else {
+				char c = input.charAt(position);
+				candidates = candidatesByCharacter[c < ASCII ? c : ASCII];
+			}
+			for (int index : candidates) {
+				Matcher matcher = matchers.get(index, patterns[index]);
+				matcher.region(position, length);
+				if (matcher.lookingAt()) {
+					return PatternBasedSyntax.newProcessor(elements.get(index), state, lineText, matcher,
+							elementGroups[index], offset);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the matchers for the patterns of this dispatch.
+	 */
+	Matchers newMatchers() {
+		return new Matchers(patterns.length);
+	}
+
+	private static int[] toArray(List<Integer> values) {
+		int[] array = new int[values.size()];
+		for (int x = 0; x < array.length; ++x) {
+			array[x] = values.get(x);
+		}
+		return array;
+	}
+
+	/**
+	 * The matchers of the patterns of a dispatch, which are created as they are needed and then reset for each text
+	 * that is matched, so that they can be kept for the duration of a parse.
+	 */
+	static final class Matchers {
+
+		private final Matcher[] matchers;
+
+		/**
+		 * the text that each matcher was last reset to, or null if the matcher was not used with the current text
+		 */
+		private final CharSequence[] inputs;
+
+		private CharSequence input;
+
+		Matchers(int count) {
+			matchers = new Matcher[count];
+			inputs = new CharSequence[count];
+		}
+
+		/**
+		 * Sets the text that is matched by the matchers.
+		 */
+		void reset(CharSequence input) {
+			this.input = input;
+		}
+
+		/**
+		 * Provides the matcher of the given pattern for the current text.
+		 */
+		Matcher get(int index, Pattern pattern) {
+			Matcher matcher = matchers[index];
+			if (matcher == null) {
+				matcher = pattern.matcher(input);
+				matcher.useTransparentBounds(true);
+				matcher.useAnchoringBounds(false);
+				matchers[index] = matcher;
+				inputs[index] = input;
+			} else if (inputs[index] != input) {
+				matcher.reset(input);
+				inputs[index] = input;
+			}
+			return matcher;
+		}
+	}
+
+	private static final class OffsetCharSequence implements CharSequence {
+
+		private final String text;
+
+		private final int offset;
+
+		OffsetCharSequence(String text, int offset) {
+			this.text = text;
+			this.offset = offset;
+		}
+
+		@Override
+		public int length() {
+			return text.length() - offset;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return text.charAt(offset + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return text.substring(offset + start, offset + end);
+		}
+
+		@Override
+		public String toString() {
+			return text.substring(offset);
+		}
+	}
+
+	/**
+	 * The characters that can start a match of a pattern, with non-ASCII characters represented by a single entry.
+	 */
+	static final class Start {
+
+		final boolean[] characters = new boolean[ASCII + 1];
+
+		/**
+		 * true if the pattern can match without consuming a character, in which case it can match at any position
+		 */
+		boolean nullable;
+
+		static Start of(String pattern) {
+			try {
+				PatternAnalyzer analyzer = new PatternAnalyzer(pattern);
+				Start start = analyzer.parseAlternation();
+				if (analyzer.index != pattern.length()) {
+					return any();
+				}
+				return start;
+			} catch (IllegalArgumentException e) {
+				return any();
+			}
+		}
+
+		static Start empty() {
+			Start start = new Start();
+			start.nullable = true;
+			return start;
+		}
+
+		static Start any() {
+			Start start = anyCharacter();
+			start.nullable = true;
+			return start;
+		}
+
+		static Start anyCharacter() {
+			Start start = new Start();
+			Arrays.fill(start.characters, true);
+			return start;
+		}
+
+		void add(int c) {
+			characters[Math.min(c, ASCII)] = true;
+		}
+
+		void addRange(int low, int high) {
+			for (int c = low; c <= high && c < ASCII; ++c) {
+				characters[c] = true;
+			}
+			if (high >= ASCII) {
+				characters[ASCII] = true;
+			}
+		}
+
+		void addAll(Start other) {
+			for (int c = 0; c <= ASCII; ++c) {
+				characters[c] |= other.characters[c];
+			}
+		}
+
+		void negate() {
+			for (int c = 0; c < ASCII; ++c) {
+				characters[c] = !characters[c];
+			}
+			characters[ASCII] = true;
+		}
+	}
+
+	/**
+	 * A conservative analysis of the regular expression syntax of {@link Pattern}, failing with an
+	 * {@link IllegalArgumentException} for constructs that would make the analysis of the rest of the pattern
+	 * incorrect, such as case-insensitive or comments mode.
+	 */
+	private static final class PatternAnalyzer {
+
+		private final String pattern;
+
+		private int index;
+
+		PatternAnalyzer(String pattern) {
+			this.pattern = pattern;
+		}
+
+		Start parseAlternation() {
+			Start start = parseSequence();
+			while (index < pattern.length() && pattern.charAt(index) == '|') {
+				++index;
+				Start alternative = parseSequence();
+				start.addAll(alternative);
+				start.nullable |= alternative.nullable;
+			}
+			return start;
+		}
+
+		private Start parseSequence() {
+			Start start = Start.empty();
+			while (index < pattern.length()) {
+				char c = pattern.charAt(index);
+				if (c == '|' || c == ')') {
+					break;
+				}
+				Start term = parseQuantified();
+				if (start.nullable) {
+					start.addAll(term);
+					start.nullable = term.nullable;
+				}
+			}
+			return start;
+		}
+
+		private Start parseQuantified() {
+			Start atom = parseAtom();
+			if (index < pattern.length()) {
+				char c = pattern.charAt(index);
+				if (c == '?' || c == '*') {
+					++index;
+					atom.nullable = true;
+					parseQuantifierMode();
+				} else if (c == '+') {
+					++index;
+					parseQuantifierMode();
+				} else if (c == '{') {
+					int close = pattern.indexOf('}', index);
+					if (close == -1) {
+						throw new IllegalArgumentException();
+					}
+					String minimum = pattern.substring(index + 1, close).split(",", -1)[0].trim(); //$NON-NLS-1$
+					if (minimum.isEmpty() || Integer.parseInt(minimum) == 0) {
+						atom.nullable = true;
+					}
+					index = close + 1;
+					parseQuantifierMode();
+				}
+			}
+			return atom;
+		}
+
+		private void parseQuantifierMode() {
+			if (index < pattern.length() && (pattern.charAt(index) == '?' || pattern.charAt(index) == '+')) {
+				++index;
+			}
+		}
+
+		private Start parseAtom() {
+			char c = next();
+			switch (c) {
+			case '(':
+				return parseGroup();
+			case '[':
+				return parseCharacterClass();
+			case '.':
+				return Start.anyCharacter();
+			case '^':
+			case '$':
+				return Start.empty();
+			case '\\':
+				return parseEscape();
+			case '*':
+			case '+':
+			case '?':
+			case '{':
+				throw new IllegalArgumentException();
+			default:
+				Start start = new Start();
+				start.add(c);
+				return start;
+			}
+		}
+
+		private Start parseGroup() {
+			boolean lookaround = false;
+			if (peek() == '?') {
+				++index;
+				char kind = next();
+				if (kind == '=' || kind == '!') {
+					lookaround = true;
+				} else if (kind == '<') {
+					if (peek() == '=' || peek() == '!') {
+						++index;
+						lookaround = true;
+					} else {
+						int close = pattern.indexOf('>', index);
+						if (close == -1) {
+							throw new IllegalArgumentException();
+						}
+						index = close + 1;
+					}
+				} else if (kind != ':' && kind != '>') {
+					--index;
+					for (;;) {
+						char flag = next();
+						if (flag == ')') {
+							return Start.empty();
+						} else if (flag == ':') {
+							break;
+						} else if (flag != '-' && flag != 'm' && flag != 's' && flag != 'd') {
+							throw new IllegalArgumentException();
+						}
+					}
+				}
+			}
+			Start start = parseAlternation();
+			if (next() != ')') {
+				throw new IllegalArgumentException();
+			}
+			return lookaround ? Start.empty() : start;
+		}
+
+		private Start parseEscape() {
+			char c = next();
+			Start start = new Start();
+			switch (c) {
+			case 'Q':
+				int end = pattern.indexOf("\\E", index); //$NON-NLS-1$
+				if (end == -1) {
+					end = pattern.length();
+				}
+				if (end == index) {
+					start.nullable = true;
+				} else {
+					start.add(pattern.charAt(index));
+				}
+				index = Math.min(end + 2, pattern.length());
+				return start;
+			case 'b':
+			case 'B':
+			case 'A':
+			case 'G':
+			case 'z':
+			case 'Z':
+				return Start.empty();
+			default:
+				if (addPredefined(start, c)) {
+					return start;
+				} else if (!isCharacterEscape(c)) {
+					// back references, code points, properties and other classes
+					skipEscapeArgument(c);
+					return Character.isDigit(c) && c != '0' || c == 'k' ? Start.any() : Start.anyCharacter();
+				}
+				start.add(escapedCharacter(c));
+				return start;
+			}
+		}
+
+		private Start parseCharacterClass() {
+			int classIndex = index;
+			try {
+				return parseSimpleCharacterClass();
+			} catch (IllegalArgumentException e) {
+				// nested classes, intersections and other constructs that are not analyzed
+				index = classIndex;
+				skipCharacterClass();
+				return Start.anyCharacter();
+			}
+		}
+
+		private void skipCharacterClass() {
+			int depth = 1;
+			if (peek() == '^') {
+				++index;
+			}
+			boolean first = true;
+			while (depth > 0) {
+				char c = next();
+				if (c == '\\') {
+					next();
+				} else if (c == '[') {
+					++depth;
+				} else if (c == ']' && !first) {
+					--depth;
+				}
+				first = false;
+			}
+		}
+
+		private Start parseSimpleCharacterClass() {
+			Start start = new Start();
+			boolean negated = false;
+			if (peek() == '^') {
+				++index;
+				negated = true;
+			}
+			boolean first = true;
+			for (;;) {
+				char c = next();
+				if (c == ']' && !first) {
+					break;
+				}
+				first = false;
+				if (c == '[' || (c == '&' && peek() == '&')) {
+					throw new IllegalArgumentException();
+				}
+				int low = c;
+				if (c == '\\') {
+					char escaped = next();
+					if (addPredefined(start, escaped)) {
+						continue;
+					}
+					low = escapedCharacter(escaped);
+				}
+				if (peek() == '-' && index + 1 < pattern.length() && pattern.charAt(index + 1) != ']') {
+					++index;
+					int high = next();
+					if (high == '[') {
+						throw new IllegalArgumentException();
+					} else if (high == '\\') {
+						high = escapedCharacter(next());
+					}
+					start.addRange(low, high);
+				} else {
+					start.add(low);
+				}
+			}
+			if (negated) {
+				start.negate();
+			}
+			return start;
+		}
+
+		private boolean addPredefined(Start start, char c) {
+			switch (c) {
+			case 'd':
+				start.addRange('0', '9');
+				return true;
+			case 'w':
+				start.addRange('a', 'z');
+				start.addRange('A', 'Z');
+				start.addRange('0', '9');
+				start.add('_');
+				return true;
+			case 's':
+				start.add(' ');
+				start.addRange('\t', '\r');
+				return true;
+			case 'D':
+			case 'W':
+			case 'S':
+				Start complement = new Start();
+				addPredefined(complement, Character.toLowerCase(c));
+				complement.negate();
+				start.addAll(complement);
+				return true;
+			default:
+				return false;
+			}
+		}
+
+		private boolean isCharacterEscape(char c) {
+			return !Character.isLetterOrDigit(c) || "tnrfae".indexOf(c) != -1; //$NON-NLS-1$
+		}
+
+		private void skipEscapeArgument(char c) {
+			switch (c) {
+			case 'p':
+			case 'P':
+			case 'x':
+				if (peek() == '{') {
+					int close = pattern.indexOf('}', index);
+					if (close == -1) {
+						throw new IllegalArgumentException();
+					}
+					index = close + 1;
+				} else {
+					index = Math.min(index + (c == 'x' ? 2 : 1), pattern.length());
+				}
+				break;
+			case 'u':
+				index = Math.min(index + 4, pattern.length());
+				break;
+			case 'c':
+				next();
+				break;
+			case 'k':
+				int close = pattern.indexOf('>', index);
+				if (close == -1) {
+					throw new IllegalArgumentException();
+				}
+				index = close + 1;
+				break;
+			default:
+				while (Character.isDigit(peek())) {
+					++index;
+				}
+			}
+		}
+
+		private char escapedCharacter(char c) {
+			switch (c) {
+			case 't':
+				return '\t';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 'f':
+				return '\f';
+			case 'a':
+				return '\u0007';
+			case 'e':
+				return '\u001B';
+			default:
+				if (Character.isLetterOrDigit(c)) {
+					// code points, properties and other escapes that are not analyzed
+					throw new IllegalArgumentException();
+				}
+				return c;
+			}
+		}
+
+		private char peek() {
+			return index < pattern.length() ? pattern.charAt(index) : 0;
+		}
+
+		private char next() {
+			if (index >= pattern.length()) {
+				throw new IllegalArgumentException();
+			}
+			return pattern.charAt(index++);
+		}
+	}
+}
@@ -13,6 +13,8 @@ package org.eclipse.mylyn.wikitext.parser.markup;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.Writer;
 import java.util.Collections;
 import java.util.Set;
@@ -22,6 +24,7 @@ import org.eclipse.mylyn.wikitext.parser.MarkupParser;
 import org.eclipse.mylyn.wikitext.util.ServiceLocator;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.CharStreams;
 
 /**
  * A markup language, which knows its formatting rules and is able to process content based on {@link Block},
@@ -63,6 +66,7 @@ public abstract class MarkupLanguage implements Cloneable {
 		}
 		markupLanguage.setName(name);
 		markupLanguage.setExtendsLanguage(extendsLanguage);
+		markupLanguage.fileExtensions = fileExtensions;
 		return markupLanguage;
 	}
 
@@ -152,6 +156,25 @@ public abstract class MarkupLanguage implements Cloneable {
 
 	public abstract void processContent(MarkupParser parser, String markupContent, boolean asDocument);
 
+	/**
+	 * Process the markup content provided by the given reader. The default implementation reads the content fully and
+	 * calls {@link #processContent(MarkupParser, String, boolean)}; markup languages that are able to process content
+	 * as it is read may override this method to avoid holding the complete content in memory.
+	 *
+	 * @param parser
+	 *            the parser that is processing the content
+	 * @param markupContent
+	 *            the reader providing the content, which is not closed by this method
+	 * @param asDocument
+	 *            indicates if the content should be emitted as a complete document
+	 * @throws IOException
+	 *             if the content could not be read
+	 * @since 3.1
+	 */
+	public void processContent(MarkupParser parser, Reader markupContent, boolean asDocument) throws IOException {
+		processContent(parser, CharStreams.toString(markupContent), asDocument);
+	}
+
 	/**
 	 * Creates a {@link DocumentBuilder} suitable for emitting content in this markup language. Equivalent to
 	 * {@code createDocumentBuilder(out,false)}.
@@ -10,12 +10,13 @@
  *******************************************************************************/
 package org.eclipse.mylyn.wikitext.parser.markup;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.regex.Matcher;
 
 /**
- * A processor that is capable of processing a specific type of markup element
+ * A processor that is capable of processing a specific type of markup element. A processor is created for each
+ * element that it processes, unless it is {@link #isReusable() reusable}.
  *
  * @author David Green
  * @since 3.0
@@ -23,10 +24,17 @@ import java.util.regex.Matcher;
 public abstract class PatternBasedElementProcessor extends Processor
 		implements org.eclipse.mylyn.wikitext.parser.util.Matcher {
 
+	private static final int[] NO_BOUNDS = new int[0];
+
 	protected int lineStartOffset;
 
 	protected int lineEndOffset;
 
+	/**
+	 * @deprecated the groups are no longer stored in this map. If a subclass assigns a map, groups are stored in it
+	 *             and read from it as they were previously.
+	 */
+	@Deprecated
 	protected Map<Integer, Group> groupByIndex;
 
 	private static class Group {
@@ -43,6 +51,20 @@ public abstract class PatternBasedElementProcessor extends Processor
 		}
 	}
 
+	/**
+	 * the start and end offsets of each group in pairs, or -1 for groups that did not match
+	 */
+	private int[] groupBounds = NO_BOUNDS;
+
+	/**
+	 * the text of each group, materialized from {@link #groupSource} as needed
+	 */
+	private String[] groupText;
+
+	private String groupSource;
+
+	PatternBasedElement element;
+
 	/**
 	 * Set the captured text for the given group.
 	 *
@@ -53,10 +75,62 @@ public abstract class PatternBasedElementProcessor extends Processor
 	 * @see #group(int)
 	 */
 	public void setGroup(int group, String capturedText, int start, int end) {
-		if (groupByIndex == null) {
-			groupByIndex = new HashMap<Integer, Group>();
+		if (groupByIndex != null) {
+			groupByIndex.put(group, new Group(capturedText, start, end));
+			return;
+		}
+		ensureGroupCapacity(group + 1);
+		groupBounds[group * 2] = start;
+		groupBounds[group * 2 + 1] = end;
+		groupText[group] = capturedText;
+	}
+
+	/**
+	 * Set the groups of this processor from the given match, without materializing the text of the groups.
+	 *
+	 * @param source
+	 *            the text that was matched
+	 * @param matcher
+	 *            the matcher of the match
+	 * @param group
+	 *            the group of the matcher that corresponds to group 0 of this processor
+	 * @param groupCount
+	 *            the number of groups of this processor, excluding group 0
+	 * @param offset
+	 *            the offset of the matcher's input in the source
+	 */
+	void setGroups(String source, Matcher matcher, int group, int groupCount, int offset) {
+		if (groupByIndex != null) {
+			setGroup(0, matcher.group(), offset + matcher.start(), offset + matcher.end());
+			for (int x = 1; x <= groupCount; ++x) {
+				int start = matcher.start(group + x);
+				setGroup(x, matcher.group(group + x), start == -1 ? -1 : offset + start,
+						start == -1 ? -1 : offset + matcher.end(group + x));
+			}
+			return;
+		}
+		ensureGroupCapacity(groupCount + 1);
+		Arrays.fill(groupBounds, -1);
+		Arrays.fill(groupText, null);
+		groupSource = source;
+		groupBounds[0] = offset + matcher.start();
+		groupBounds[1] = offset + matcher.end();
+		for (int x = 1; x <= groupCount; ++x) {
+			int start = matcher.start(group + x);
+			if (start != -1) {
+				groupBounds[x * 2] = offset + start;
+				groupBounds[x * 2 + 1] = offset + matcher.end(group + x);
+			}
+		}
+	}
+
+	private void ensureGroupCapacity(int count) {
+		if (groupBounds.length < count * 2) {
+			int previousCount = groupBounds.length / 2;
+			groupBounds = Arrays.copyOf(groupBounds, count * 2);
+			Arrays.fill(groupBounds, previousCount * 2, groupBounds.length, -1);
+			groupText = groupText == null ? new String[count] : Arrays.copyOf(groupText, count);
 		}
-		groupByIndex.put(group, new Group(capturedText, start, end));
 	}
 
 	/**
@@ -94,11 +168,19 @@ public abstract class PatternBasedElementProcessor extends Processor
 	 * @see Matcher#group(int)
 	 */
 	public String group(int groupNumber) {
-		if (groupByIndex == null) {
+		if (groupByIndex != null) {
+			Group group = groupByIndex.get(groupNumber);
+			return group == null ? null : group.text;
+		}
+		if (groupNumber < 0 || groupNumber * 2 >= groupBounds.length) {
 			return null;
 		}
-		Group group = groupByIndex.get(groupNumber);
-		return group == null ? null : group.text;
+		String text = groupText[groupNumber];
+		if (text == null && groupSource != null && groupBounds[groupNumber * 2] != -1) {
+			text = groupSource.substring(groupBounds[groupNumber * 2], groupBounds[groupNumber * 2 + 1]);
+			groupText[groupNumber] = text;
+		}
+		return text;
 	}
 
 	/**
@@ -110,11 +192,14 @@ public abstract class PatternBasedElementProcessor extends Processor
 	 * @see Matcher#start(int)
 	 */
 	public int start(int groupNumber) {
-		if (groupByIndex == null) {
+		if (groupByIndex != null) {
+			Group group = groupByIndex.get(groupNumber);
+			return group == null ? -1 : group.start;
+		}
+		if (groupNumber < 0 || groupNumber * 2 >= groupBounds.length) {
 			return -1;
 		}
-		Group group = groupByIndex.get(groupNumber);
-		return group == null ? -1 : group.start;
+		return groupBounds[groupNumber * 2];
 	}
 
 	/**
@@ -126,15 +211,30 @@ public abstract class PatternBasedElementProcessor extends Processor
 	 * @see Matcher#start(int)
 	 */
 	public int end(int groupNumber) {
-		if (groupByIndex == null) {
+		if (groupByIndex != null) {
+			Group group = groupByIndex.get(groupNumber);
+			return group == null ? -1 : group.end;
+		}
+		if (groupNumber < 0 || groupNumber * 2 >= groupBounds.length) {
 			return -1;
 		}
-		Group group = groupByIndex.get(groupNumber);
-		return group == null ? -1 : group.end;
+		return groupBounds[groupNumber * 2 + 1];
 	}
 
 	/**
 	 * Emit the content of the element
 	 */
 	public abstract void emit();
+
+	/**
+	 * Indicate whether this processor may be reused to process subsequent elements of the same type once it has
+	 * {@link #emit() emitted} an element. Processors that are reusable must not retain state from one element to the
+	 * next. The default implementation returns false.
+	 *
+	 * @return true if this processor may be reused, otherwise false
+	 * @since 3.1
+	 */
+	protected boolean isReusable() {
+		return false;
+	}
 }
@@ -48,6 +48,12 @@ public class LiteralPhraseModifierProcessor extends PatternBasedElementProcessor
 		this.group = group;
 	}
 
+	@Override
+	protected boolean isReusable() {
+		// subclasses may retain state of their own
+		return getClass() == LiteralPhraseModifierProcessor.class;
+	}
+
 	@Override
 	public void emit() {
 		if (escaping) {
@@ -39,6 +39,11 @@ public class AcronymReplacementToken extends PatternBasedElement {
 
 	private static class AcronymReplacementTokenProcessor extends PatternBasedElementProcessor {
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String acronym = group(1);
@@ -32,6 +32,12 @@ public class EntityReplacementTokenProcessor extends PatternBasedElementProcesso
 		this.entity = entity;
 	}
 
+	@Override
+	protected boolean isReusable() {
+		// subclasses may retain state of their own
+		return getClass() == EntityReplacementTokenProcessor.class;
+	}
+
 	@Override
 	public void emit() {
 		getBuilder().entityReference(entity);
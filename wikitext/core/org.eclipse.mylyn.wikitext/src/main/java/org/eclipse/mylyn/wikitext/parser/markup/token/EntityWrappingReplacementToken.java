@@ -64,6 +64,11 @@ public class EntityWrappingReplacementToken extends PatternBasedElement {
 			this.rightEntity = rightEntity;
 		}
 
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String content = group(1);
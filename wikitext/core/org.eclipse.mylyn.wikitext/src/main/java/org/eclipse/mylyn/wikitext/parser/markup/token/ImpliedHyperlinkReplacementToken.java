@@ -40,6 +40,11 @@ public class ImpliedHyperlinkReplacementToken extends PatternBasedElement {
 	}
 
 	private static class HyperlinkReplacementTokenProcessor extends PatternBasedElementProcessor {
+		@Override
+		protected boolean isReusable() {
+			return true;
+		}
+
 		@Override
 		public void emit() {
 			String target = group(1);
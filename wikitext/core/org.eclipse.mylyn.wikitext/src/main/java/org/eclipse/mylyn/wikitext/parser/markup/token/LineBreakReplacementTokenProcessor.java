@@ -22,6 +22,12 @@ import org.eclipse.mylyn.wikitext.parser.markup.PatternBasedElementProcessor;
  */
 public class LineBreakReplacementTokenProcessor extends PatternBasedElementProcessor {
 
+	@Override
+	protected boolean isReusable() {
+		// subclasses may retain state of their own
+		return getClass() == LineBreakReplacementTokenProcessor.class;
+	}
+
 	@Override
 	public void emit() {
 		getBuilder().lineBreak();
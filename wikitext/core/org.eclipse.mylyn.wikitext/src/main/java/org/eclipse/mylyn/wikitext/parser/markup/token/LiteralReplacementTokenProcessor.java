@@ -28,6 +28,12 @@ public class LiteralReplacementTokenProcessor extends PatternBasedElementProcess
 		this.literal = literal;
 	}
 
+	@Override
+	protected boolean isReusable() {
+		// subclasses may retain state of their own
+		return getClass() == LiteralReplacementTokenProcessor.class;
+	}
+
 	@Override
 	public void emit() {
 		getBuilder().charactersUnescaped(literal);
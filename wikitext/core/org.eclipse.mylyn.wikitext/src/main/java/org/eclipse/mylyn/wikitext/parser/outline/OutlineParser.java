@@ -10,12 +10,22 @@
  *******************************************************************************/
 package org.eclipse.mylyn.wikitext.parser.outline;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
 import org.eclipse.mylyn.wikitext.parser.Attributes;
 import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.HeadingAttributes;
 import org.eclipse.mylyn.wikitext.parser.IdGenerator;
+import org.eclipse.mylyn.wikitext.parser.Locator;
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.builder.EntityReferences;
+import org.eclipse.mylyn.wikitext.parser.builder.EventDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.builder.MultiplexingDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.builder.event.DocumentBuilderEvents;
 import org.eclipse.mylyn.wikitext.parser.markup.AbstractMarkupLanguage;
+import org.eclipse.mylyn.wikitext.parser.markup.CompiledMarkupLanguage;
+import org.eclipse.mylyn.wikitext.parser.markup.ContentState;
 import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 
 /**
@@ -32,6 +42,27 @@ public class OutlineParser {
 
 	private MarkupLanguage markupLanguage;
 
+	private CompiledOutlineLanguage compiledOutlineLanguage;
+
+	/**
+	 * A compiled markup language configured for parsing outlines, and the compiled markup language from which it was
+	 * created.
+	 */
+	private static final class CompiledOutlineLanguage {
+
+		final MarkupLanguage source;
+
+		final boolean blocksOnly;
+
+		final CompiledMarkupLanguage markupLanguage;
+
+		CompiledOutlineLanguage(MarkupLanguage source, boolean blocksOnly, CompiledMarkupLanguage markupLanguage) {
+			this.source = source;
+			this.blocksOnly = blocksOnly;
+			this.markupLanguage = markupLanguage;
+		}
+	}
+
 	public OutlineParser(MarkupLanguage markupLanguage) {
 		this.markupLanguage = markupLanguage;
 	}
@@ -72,19 +103,92 @@ public class OutlineParser {
 		}
 		root.setLength(markup.length());
 
-		MarkupLanguage markupLanguage = this.markupLanguage.clone();
+		MarkupLanguage markupLanguage = createOutlineMarkupLanguage();
+
+		OutlineBuilder outlineBuilder = (OutlineBuilder) createOutlineUpdater(root);
+		outlineBuilder.idGenerator.setGenerationStrategy(markupLanguage.getIdGenerationStrategy());
+		outlineBuilder.blocksOnly = isBlocksOnly();
+		MarkupParser markupParser = new MarkupParser();
+		markupParser.setBuilder(outlineBuilder);
+		markupParser.setMarkupLanguage(markupLanguage);
+		markupParser.parse(markup);
+
+		return root;
+	}
+
+	/**
+	 * Provide the markup language with which the outline is parsed. A {@link CompiledMarkupLanguage} is compiled once
+	 * with the options of outline parsing and shared by subsequent parses, other markup languages are cloned for each
+	 * parse.
+	 */
+	private MarkupLanguage createOutlineMarkupLanguage() {
+		boolean blocksOnly = isBlocksOnly();
+		if (markupLanguage instanceof CompiledMarkupLanguage) {
+			CompiledOutlineLanguage outlineLanguage = compiledOutlineLanguage;
+			if (outlineLanguage == null || outlineLanguage.source != markupLanguage
+					|| outlineLanguage.blocksOnly != blocksOnly) {
+				MarkupLanguage language = ((CompiledMarkupLanguage) markupLanguage).newMarkupLanguage();
+				configureOutlineMarkupLanguage(language, blocksOnly);
+				outlineLanguage = new CompiledOutlineLanguage(markupLanguage, blocksOnly,
+						new CompiledMarkupLanguage(language));
+				compiledOutlineLanguage = outlineLanguage;
+			}
+			return outlineLanguage.markupLanguage;
+		}
+		MarkupLanguage language = markupLanguage.clone();
+		configureOutlineMarkupLanguage(language, blocksOnly);
+		return language;
+	}
+
+	private static void configureOutlineMarkupLanguage(MarkupLanguage markupLanguage, boolean blocksOnly) {
 		if (markupLanguage instanceof AbstractMarkupLanguage) {
 			AbstractMarkupLanguage language = (AbstractMarkupLanguage) markupLanguage;
 			language.setFilterGenerativeContents(true);
-			language.setBlocksOnly(isBlocksOnly());
+			language.setBlocksOnly(blocksOnly);
 		}
+	}
+
+	/**
+	 * Parses the given markup, computing the outline while emitting the complete document to the given builder. This
+	 * enables the outline and the output of a document to be produced with a single pass over the markup. Builders
+	 * that require the outline before the document is emitted may be supplied an {@link EventDocumentBuilder}, whose
+	 * {@link DocumentBuilderEvents events} can be {@link DocumentBuilderEvents#applyTo(DocumentBuilder) applied} once
+	 * the outline is available.
+	 * <p>
+	 * Since the markup is fully processed, outline labels are derived from the text of headings as it is emitted to
+	 * the builder. Text emitted by replacement tokens, such as entity references for quotes and dashes, is labelled
+	 * with the markup of the token, so that labels are the same as those of the {@link #parse(String) outline-only
+	 * parse}.
+	 * </p>
+	 *
+	 * @param markup
+	 *            the markup to parse
+	 * @param builder
+	 *            the builder to which the document is emitted
+	 * @return the root of the outline
+	 * @since 3.1
+	 */
+	public OutlineItem parse(String markup, DocumentBuilder builder) {
+		return parse(createRootItem(), markup, builder);
+	}
+
+	/**
+	 * Parses the given markup, computing the outline while emitting the complete document to the given builder.
+	 *
+	 * @see #parse(String, DocumentBuilder)
+	 * @since 3.1
+	 */
+	public OutlineItem parse(OutlineItem root, String markup, DocumentBuilder builder) {
+		checkNotNull(builder, "Must provide a builder"); //$NON-NLS-1$
+		checkState(markupLanguage != null, "Must set the markup language"); //$NON-NLS-1$
+		root.setLength(markup == null ? 0 : markup.length());
 
 		OutlineBuilder outlineBuilder = (OutlineBuilder) createOutlineUpdater(root);
 		outlineBuilder.idGenerator.setGenerationStrategy(markupLanguage.getIdGenerationStrategy());
 		MarkupParser markupParser = new MarkupParser();
-		markupParser.setBuilder(outlineBuilder);
-		markupParser.setMarkupLanguage(markupLanguage);
-		markupParser.parse(markup);
+		markupParser.setBuilder(new MultiplexingDocumentBuilder(outlineBuilder, builder));
+		markupParser.setMarkupLanguage(markupLanguage.clone());
+		markupParser.parse(markup == null ? "" : markup); //$NON-NLS-1$
 
 		return root;
 	}
@@ -107,7 +211,10 @@ public class OutlineParser {
 	}
 
 	/**
-	 * A document builder that creates the outline structure based on headings in the document
+	 * A document builder that creates the outline structure based on headings in the document. Unless the markup is
+	 * processed {@link OutlineParser#isBlocksOnly() blocks-only}, labels include the text of entity references and
+	 * unescaped characters. When the text is emitted by a replacement token, the markup of the token is used instead so
+	 * that labels read as they do when the markup is processed blocks-only.
 	 */
 	protected class OutlineBuilder extends DocumentBuilder {
 
@@ -129,6 +236,10 @@ public class OutlineParser {
 
 		private Attributes attributes;
 
+		private boolean blocksOnly;
+
+		private int replacementTokenIndex;
+
 		public OutlineBuilder(OutlineItem root, int labelMaxLength) {
 			super();
 			this.currentItem = root;
@@ -167,16 +278,16 @@ public class OutlineParser {
 
 		@Override
 		public void characters(String text) {
-			if (buf != null) {
-				// bug 374019: strip HTML tags from text used to generate ID
-				text = text.replaceAll("</?[a-zA-Z0-9]+.*?>", ""); //$NON-NLS-1$//$NON-NLS-2$
-
-				buf.append(text);
+			if (buf != null && (blocksOnly || !appendReplacementToken())) {
+				appendText(text);
 			}
 		}
 
 		@Override
 		public void charactersUnescaped(String literal) {
+			if (buf != null && !blocksOnly && !appendReplacementToken()) {
+				appendText(literal);
+			}
 		}
 
 		@Override
@@ -235,6 +346,12 @@ public class OutlineParser {
 
 		@Override
 		public void entityReference(String entity) {
+			if (buf != null && !blocksOnly && !appendReplacementToken()) {
+				String text = EntityReferences.instance().equivalentString(entity);
+				if (text != null) {
+					buf.append(text);
+				}
+			}
 		}
 
 		@Override
@@ -264,5 +381,31 @@ public class OutlineParser {
 			idGenerator.reserveId(id);
 		}
 
+		private void appendText(String text) {
+			// bug 374019: strip HTML tags from text used to generate ID
+			buf.append(text.replaceAll("</?[a-zA-Z0-9]+.*?>", "")); //$NON-NLS-1$//$NON-NLS-2$
+		}
+
+		/**
+		 * Appends the markup of the replacement token being emitted, if any, the first time that the token emits text.
+		 *
+		 * @return true if the text is emitted by a replacement token, in which case it must not be appended
+		 */
+		private boolean appendReplacementToken() {
+			Locator locator = getLocator();
+			if (locator instanceof ContentState) {
+				ContentState state = (ContentState) locator;
+				String markup = state.getReplacementTokenMarkup();
+				if (markup != null) {
+					if (state.getReplacementTokenIndex() != replacementTokenIndex) {
+						replacementTokenIndex = state.getReplacementTokenIndex();
+						appendText(markup);
+					}
+					return true;
+				}
+			}
+			return false;
+		}
+
 	}
 }
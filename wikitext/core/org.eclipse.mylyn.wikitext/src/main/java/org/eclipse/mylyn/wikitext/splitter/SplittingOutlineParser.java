@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.mylyn.wikitext.splitter;
 
+import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.outline.OutlineItem;
 import org.eclipse.mylyn.wikitext.parser.outline.OutlineParser;
 
@@ -47,7 +48,15 @@ public class SplittingOutlineParser extends OutlineParser {
 
 	@Override
 	public SplitOutlineItem parse(String markup) {
-		SplitOutlineItem rootItem = (SplitOutlineItem) super.parse(markup);
+		return computeRootLabel((SplitOutlineItem) super.parse(markup));
+	}
+
+	@Override
+	public SplitOutlineItem parse(String markup, DocumentBuilder builder) {
+		return computeRootLabel((SplitOutlineItem) super.parse(markup, builder));
+	}
+
+	private SplitOutlineItem computeRootLabel(SplitOutlineItem rootItem) {
 		if (!rootItem.getChildren().isEmpty()) {
 			SplitOutlineItem firstChild = (SplitOutlineItem) rootItem.getChildren().get(0);
 			if (firstChild.getSplitTarget() == null || firstChild.getSplitTarget().equals(rootItem.getSplitTarget())) {
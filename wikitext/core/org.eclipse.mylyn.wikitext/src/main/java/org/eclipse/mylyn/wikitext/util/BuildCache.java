@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.mylyn.wikitext.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.jar.Manifest;
+
+import com.google.common.base.Joiner;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+
+/**
+ * A persistent cache of the files produced by a conversion, enabling builds to skip conversion of inputs that have not
+ * changed. Entries are identified by a {@link Key} computed from everything that affects the output of a conversion,
+ * such as the markup content, the markup language and its configuration, builder settings and the contents of
+ * stylesheets. Since the cache holds copies of the output files, a cache folder can be restored to a clean workspace
+ * to avoid conversion entirely.
+ *
+ * @author agent
+ * @since 3.1
+ */
+public class BuildCache {
+
+	private static final String MANIFEST = "manifest"; //$NON-NLS-1$
+
+	private static final String FILES = "files"; //$NON-NLS-1$
+
+	private final File folder;
+
+	/**
+	 * Creates a cache in the given folder, which is created as needed.
+	 *
+	 * @param folder
+	 *            the folder in which entries are stored
+	 */
+	public BuildCache(File folder) {
+		this.folder = checkNotNull(folder, "Must provide a folder"); //$NON-NLS-1$
+	}
+
+	public File getFolder() {
+		return folder;
+	}
+
+	/**
+	 * Creates a new key, which should be provided all values that affect the output of a conversion.
+	 */
+	public Key newKey() {
+		return new Key();
+	}
+
+	/**
+	 * Restores the files of the entry with the given key. Output files that are identical to their cached contents are
+	 * not modified.
+	 *
+	 * @param key
+	 *            the key of the entry
+	 * @param baseFolder
+	 *            the folder against which the paths of output files are resolved
+	 * @return true if the entry was found and its files were restored, otherwise false
+	 * @throws IOException
+	 *             if the files could not be restored, or if the entry refers to files outside of the base folder
+	 */
+	public boolean restore(Key key, File baseFolder) throws IOException {
+		File entry = new File(folder, key.getDigest());
+		List<String> paths = readPaths(entry);
+		if (paths == null) {
+			return false;
+		}
+		Path basePath = baseFolder.getAbsoluteFile().toPath().normalize();
+		List<File> outputFiles = new ArrayList<File>(paths.size());
+		for (String path : paths) {
+			Path outputPath = basePath.resolve(path).normalize();
+			if (!outputPath.startsWith(basePath) || outputPath.equals(basePath)) {
+				throw new IOException(String.format("Cache entry %s refers to %s outside of %s", entry, path, //$NON-NLS-1$
+						baseFolder));
+			}
+			outputFiles.add(outputPath.toFile());
+		}
+		for (int x = 0; x < outputFiles.size(); ++x) {
+			File cachedFile = cachedFile(entry, x);
+			File outputFile = outputFiles.get(x);
+			if (!outputFile.isFile() || outputFile.length() != cachedFile.length()
+					|| !Files.equal(cachedFile, outputFile)) {
+				Files.createParentDirs(outputFile);
+				Files.copy(cachedFile, outputFile);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the given output files as the entry with the given key. An existing complete entry is left in place, since
+	 * entries with the same key hold the same files and may be restored concurrently.
+	 *
+	 * @param key
+	 *            the key of the entry
+	 * @param baseFolder
+	 *            the folder against which the paths of output files are relativized
+	 * @param outputFiles
+	 *            the files produced by the conversion, which must be within the base folder
+	 * @throws IOException
+	 *             if the files could not be stored, or if an output file is not within the base folder
+	 */
+	public void store(Key key, File baseFolder, Collection<File> outputFiles) throws IOException {
+		Path basePath = baseFolder.getAbsoluteFile().toPath().normalize();
+		List<String> paths = new ArrayList<String>(outputFiles.size());
+		for (File outputFile : outputFiles) {
+			Path outputPath = outputFile.getAbsoluteFile().toPath().normalize();
+			if (!outputPath.startsWith(basePath) || outputPath.equals(basePath)) {
+				throw new IOException(String.format("Cannot cache %s outside of %s", outputFile, baseFolder)); //$NON-NLS-1$
+			}
+			paths.add(basePath.relativize(outputPath).toString().replace(File.separatorChar, '/'));
+		}
+		String digest = key.getDigest();
+		File entry = new File(folder, digest);
+		if (readPaths(entry) != null) {
+			return;
+		}
+
+		// populate a new folder and then move it into place, so that partially written entries are never visible
+		File newEntry = new File(folder, digest + '.' + UUID.randomUUID());
+		int index = 0;
+		for (File outputFile : outputFiles) {
+			File cachedFile = cachedFile(newEntry, index++);
+			Files.createParentDirs(cachedFile);
+			Files.copy(outputFile, cachedFile);
+		}
+		File manifest = new File(newEntry, MANIFEST);
+		Files.createParentDirs(manifest);
+		Files.write(Joiner.on('\n').join(paths), manifest, StandardCharsets.UTF_8);
+
+		if (entry.exists() && readPaths(entry) == null) {
+			// an incomplete entry cannot be restored, so it is replaced
+			delete(entry);
+		}
+		if (!newEntry.renameTo(entry)) {
+			delete(newEntry);
+			if (readPaths(entry) == null) {
+				throw new IOException(String.format("Cannot create cache entry %s", entry)); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Reads the paths of the output files of the given entry.
+	 *
+	 * @return the paths, or null if the entry is missing or incomplete
+	 */
+	private List<String> readPaths(File entry) throws IOException {
+		File manifest = new File(entry, MANIFEST);
+		if (!manifest.isFile()) {
+			return null;
+		}
+		List<String> paths = Files.readLines(manifest, StandardCharsets.UTF_8);
+		for (int x = 0; x < paths.size(); ++x) {
+			if (!cachedFile(entry, x).isFile()) {
+				return null;
+			}
+		}
+		return paths;
+	}
+
+	private File cachedFile(File entry, int index) {
+		return new File(new File(entry, FILES), Integer.toString(index));
+	}
+
+	private void delete(File file) throws IOException {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		if (!file.delete() && file.exists()) {
+			throw new IOException(String.format("Cannot delete %s", file)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Identifies an entry in the cache by a digest of the values that were {@link #put(String, Object) put}.
+	 */
+	public static class Key {
+
+		private static final ClassValue<String> CLASS_VERSION = new ClassValue<String>() {
+
+			@Override
+			protected String computeValue(Class<?> type) {
+				return computeClassVersion(type);
+			}
+		};
+
+		private final Hasher hasher = Hashing.sha256().newHasher();
+
+		private String digest;
+
+		Key() {
+		}
+
+		/**
+		 * Adds a named value to the key.
+		 *
+		 * @param name
+		 *            the name of the value
+		 * @param value
+		 *            the value, which is added using its {@link Object#toString() string representation}, or null
+		 * @return this key
+		 */
+		public Key put(String name, Object value) {
+			putString(checkNotNull(name, "Must provide a name")); //$NON-NLS-1$
+			putString(value == null ? null : value.toString());
+			return this;
+		}
+
+		/**
+		 * Adds the contents of a file to the key.
+		 *
+		 * @param name
+		 *            the name of the value
+		 * @param file
+		 *            the file, whose contents are added
+		 * @return this key
+		 * @throws IOException
+		 *             if the file could not be read
+		 */
+		public Key putFile(String name, File file) throws IOException {
+			HashCode fileDigest = Files.hash(checkNotNull(file, "Must provide a file"), Hashing.sha256()); //$NON-NLS-1$
+			return put(name, fileDigest);
+		}
+
+		/**
+		 * Adds the name of a class and the version of the bundle or jar that provides it to the key, so that entries
+		 * are not reused once the implementation of a markup language or document builder changes. Classes that are
+		 * not provided with a version, such as when they are loaded from a folder of classes, are identified by a
+		 * digest of their class file instead.
+		 *
+		 * @param name
+		 *            the name of the value
+		 * @param type
+		 *            the class
+		 * @return this key
+		 */
+		public Key putClass(String name, Class<?> type) {
+			put(name, checkNotNull(type, "Must provide a type").getName()); //$NON-NLS-1$
+			return put(name + ".version", CLASS_VERSION.get(type)); //$NON-NLS-1$
+		}
+
+		private void putString(String value) {
+			checkArgument(digest == null, "Cannot modify a key once its digest is computed"); //$NON-NLS-1$
+			if (value == null) {
+				hasher.putInt(-1);
+			} else {
+				hasher.putInt(value.length());
+				hasher.putString(value, StandardCharsets.UTF_8);
+			}
+		}
+
+		/**
+		 * Provides the digest of the values that were added to this key. Once the digest is computed no more values may
+		 * be added.
+		 *
+		 * @return the digest as a hexadecimal string
+		 */
+		public String getDigest() {
+			if (digest == null) {
+				digest = hasher.hash().toString();
+			}
+			return digest;
+		}
+
+		@Override
+		public String toString() {
+			return getDigest();
+		}
+
+		private static String computeClassVersion(Class<?> type) {
+			String classFile = type.getName().replace('.', '/') + ".class"; //$NON-NLS-1$
+			URL classUrl = type.getClassLoader() == null
+					? null
+					: type.getClassLoader().getResource(classFile);
+			if (classUrl != null) {
+				String location = classUrl.toString();
+				try (InputStream manifestIn = new URL(
+						location.substring(0, location.length() - classFile.length()) + "META-INF/MANIFEST.MF") //$NON-NLS-1$
+								.openStream()) {
+					Manifest manifest = new Manifest(manifestIn);
+					String version = manifest.getMainAttributes().getValue("Bundle-Version"); //$NON-NLS-1$
+					if (version != null) {
+						return version;
+					}
+				} catch (IOException e) {
+					// no manifest, fall back to the package version
+				}
+			}
+			Package typePackage = type.getPackage();
+			String version = typePackage == null ? null : typePackage.getImplementationVersion();
+			if (version == null && classUrl != null) {
+				try {
+					return Resources.asByteSource(classUrl).hash(Hashing.sha256()).toString();
+				} catch (IOException e) {
+					// the class file cannot be read, so the class has no version
+				}
+			}
+			return version;
+		}
+	}
+}
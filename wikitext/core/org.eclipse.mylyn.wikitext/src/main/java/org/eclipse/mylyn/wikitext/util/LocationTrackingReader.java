@@ -21,7 +21,7 @@ import java.io.Reader;
  * @since 3.0
  */
 public class LocationTrackingReader extends Reader {
-	private final Reader delegate;
+	private Reader delegate;
 
 	private int offset = -1;
 
@@ -44,6 +44,23 @@ public class LocationTrackingReader extends Reader {
 		buf = new char[bufferSize];
 	}
 
+	/**
+	 * Reset this reader to read the given content from its start, reusing the buffer of this reader. The previous
+	 * delegate is not closed.
+	 *
+	 * @param delegate
+	 *            the reader providing the content
+	 * @since 3.1
+	 */
+	public void reset(Reader delegate) {
+		this.delegate = delegate;
+		offset = -1;
+		lineOffset = -1;
+		lineNumber = -1;
+		bufOffset = 0;
+		bufLength = 0;
+	}
+
 	@Override
 	public void close() throws IOException {
 		delegate.close();
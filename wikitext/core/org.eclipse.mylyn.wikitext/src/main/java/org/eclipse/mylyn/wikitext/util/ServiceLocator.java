@@ -17,15 +17,20 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.ref.SoftReference;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -53,6 +58,11 @@ import com.google.common.collect.Multimap;
  * <li><tt>services/org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguageProvider</tt></li>
  * </ul>
  * </p>
+ * <p>
+ * The service files of a class loader are read once. Markup languages are instantiated as they are first looked up and
+ * are then kept as prototypes, from which subsequent lookups are {@link MarkupLanguage#clone() cloned}. Subclasses
+ * discover markup languages every time they are looked up.
+ * </p>
  *
  * @author David Green
  * @see MarkupLanguage
@@ -67,7 +77,9 @@ public class ServiceLocator {
 
 	private static Class<? extends ServiceLocator> implementationClass;
 
-	private static Pattern CLASS_NAME_PATTERN = Pattern.compile("\\s*([^\\s#]+)?#?.*"); //$NON-NLS-1$
+	private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("\\s*([^\\s#]+)?#?.*"); //$NON-NLS-1$
+
+	private static final Map<ClassLoader, SoftReference<Registry>> registries = new WeakHashMap<>();
 
 	protected ServiceLocator(ClassLoader classLoader) {
 		this.classLoader = classLoader;
@@ -118,7 +130,14 @@ public class ServiceLocator {
 	 */
 	public MarkupLanguage getMarkupLanguage(final String languageName) throws IllegalArgumentException {
 		checkArgument(!Strings.isNullOrEmpty(languageName), "Must provide a languageName"); //$NON-NLS-1$
-		Pattern classNamePattern = Pattern.compile("\\s*([^\\s#]+)?#?.*"); //$NON-NLS-1$
+		Registry registry = getRegistry();
+		if (registry != null) {
+			MarkupLanguage language = registry.getMarkupLanguage(languageName);
+			if (language != null) {
+				return language;
+			}
+			return newMarkupLanguage(languageName, registry.getNames());
+		}
 		// first try Java services (jar-based)
 		final List<String> names = new ArrayList<>();
 		final List<MarkupLanguage> languages = new ArrayList<>();
@@ -142,29 +161,41 @@ public class ServiceLocator {
 		}
 
 		// next attempt to load the markup language as if the language name is a fully qualified name
-		Matcher matcher = classNamePattern.matcher(languageName);
-		if (matcher.matches()) {
-			String className = matcher.group(1);
-			if (className != null) {
-				// first try to load from a discovered markup language since this will circumvent
-				//  classloader issues
-				for (MarkupLanguage language : languages) {
-					if (className.equals(language.getClass().getName())) {
-						return language;
-					}
+		String className = getClassName(languageName);
+		if (className != null) {
+			// first try to load from a discovered markup language since this will circumvent
+			//  classloader issues
+			for (MarkupLanguage language : languages) {
+				if (className.equals(language.getClass().getName())) {
+					return language;
 				}
-				try {
-					Class<?> clazz = Class.forName(className, true, classLoader);
-					if (MarkupLanguage.class.isAssignableFrom(clazz)) {
-						MarkupLanguage instance = (MarkupLanguage) clazz.newInstance();
-						return instance;
-					}
-				} catch (Exception e) {
-					// ignore
+			}
+		}
+		return newMarkupLanguage(languageName, names);
+	}
+
+	/**
+	 * Instantiate the markup language whose class has the given name, which is not one of the discovered markup
+	 * languages.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if there is no such markup language, with a message listing the given names of known languages
+	 */
+	private MarkupLanguage newMarkupLanguage(String languageName, List<String> names) throws IllegalArgumentException {
+		String className = getClassName(languageName);
+		if (className != null) {
+			try {
+				Class<?> clazz = Class.forName(className, true, classLoader);
+				if (MarkupLanguage.class.isAssignableFrom(clazz)) {
+					MarkupLanguage instance = (MarkupLanguage) clazz.newInstance();
+					return instance;
 				}
+			} catch (Exception e) {
+				// ignore
 			}
 		}
 
+		names = new ArrayList<>(names);
 		Collections.sort(names);
 
 		// specified language not found.
@@ -184,10 +215,42 @@ public class ServiceLocator {
 						: Messages.getString("ServiceLocator.6") + buf)); //$NON-NLS-1$
 	}
 
+	private static String getClassName(String languageName) {
+		Matcher matcher = CLASS_NAME_PATTERN.matcher(languageName);
+		return matcher.matches() ? matcher.group(1) : null;
+	}
+
+	/**
+	 * Get the markup language whose {@link MarkupLanguage#getFileExtensions() file extensions} include the given
+	 * extension.
+	 *
+	 * @param fileExtension
+	 *            the file extension, without the leading dot
+	 * @return the language implementation, or null if no markup language has the given file extension
+	 * @since 3.1
+	 */
+	public MarkupLanguage getMarkupLanguageForFileExtension(String fileExtension) {
+		checkArgument(!Strings.isNullOrEmpty(fileExtension), "Must provide a fileExtension"); //$NON-NLS-1$
+		Registry registry = getRegistry();
+		if (registry != null) {
+			return registry.getMarkupLanguageForFileExtension(fileExtension);
+		}
+		for (MarkupLanguage language : getAllMarkupLanguages()) {
+			if (language.getFileExtensions().contains(fileExtension)) {
+				return language;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Get all known markup languages
 	 */
 	public Set<MarkupLanguage> getAllMarkupLanguages() {
+		Registry registry = getRegistry();
+		if (registry != null) {
+			return filterDuplicates(registry.getAllMarkupLanguages());
+		}
 		final Set<MarkupLanguage> markupLanguages = new HashSet<MarkupLanguage>();
 		loadMarkupLanguages(new MarkupLanguageVisitor() {
 
@@ -224,25 +287,156 @@ public class ServiceLocator {
 		for (ResourceDescriptor descriptor : discoverServiceResources()) {
 			List<String> classNames = readServiceClassNames(descriptor.getUrl());
 			for (String className : classNames) {
-				try {
-					Class<?> clazz = loadClass(descriptor, className);
-					if (MarkupLanguage.class.isAssignableFrom(clazz)) {
-						MarkupLanguage instance = (MarkupLanguage) clazz.newInstance();
-						if (!visitor.accept(instance)) {
-							return;
-						}
-					} else if (MarkupLanguageProvider.class.isAssignableFrom(clazz)) {
-						MarkupLanguageProvider provider = (MarkupLanguageProvider) clazz.newInstance();
-						for (MarkupLanguage language : provider.getMarkupLanguages()) {
-							if (!visitor.accept(language)) {
-								return;
-							}
+				for (MarkupLanguage language : loadMarkupLanguages(descriptor, className)) {
+					if (!visitor.accept(language)) {
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Instantiate the markup languages of the given service class, which is either a markup language or a
+	 * {@link MarkupLanguageProvider}.
+	 */
+	private Collection<MarkupLanguage> loadMarkupLanguages(ResourceDescriptor descriptor, String className) {
+		try {
+			Class<?> clazz = loadClass(descriptor, className);
+			if (MarkupLanguage.class.isAssignableFrom(clazz)) {
+				return Collections.singletonList((MarkupLanguage) clazz.newInstance());
+			} else if (MarkupLanguageProvider.class.isAssignableFrom(clazz)) {
+				MarkupLanguageProvider provider = (MarkupLanguageProvider) clazz.newInstance();
+				return provider.getMarkupLanguages();
+			}
+		} catch (Exception e) {
+			logFailure(className, e);
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Provide the registry of the class loader of this service locator, or null if markup languages are discovered for
+	 * every lookup, as is the case for subclasses since they may change how services are discovered.
+	 */
+	private Registry getRegistry() {
+		if (getClass() != ServiceLocator.class || classLoader == null) {
+			return null;
+		}
+		synchronized (registries) {
+			SoftReference<Registry> reference = registries.get(classLoader);
+			Registry registry = reference == null ? null : reference.get();
+			if (registry == null) {
+				registry = new Registry(this);
+				registries.put(classLoader, new SoftReference<>(registry));
+			}
+			return registry;
+		}
+	}
+
+	/**
+	 * The markup languages of the service files of a class loader. The service files are read when the registry is
+	 * created, and the service classes are instantiated in order as markup languages are looked up, until the language
+	 * is found. Markup languages are kept as prototypes that are {@link MarkupLanguage#clone() cloned} for every
+	 * lookup, since markup languages are not thread safe. The registry is softly referenced, so that it does not
+	 * prevent its class loader from being collected once memory runs low.
+	 */
+	private static final class Registry {
+
+		private final ServiceLocator locator;
+
+		private final List<ResourceDescriptor> serviceResources = new ArrayList<>();
+
+		private final List<String> serviceClassNames = new ArrayList<>();
+
+		private int nextServiceClass;
+
+		private final List<MarkupLanguage> prototypes = new ArrayList<>();
+
+		private final Map<String, MarkupLanguage> prototypeByName = new HashMap<>();
+
+		private final Map<String, MarkupLanguage> prototypeByFileExtension = new HashMap<>();
+
+		Registry(ServiceLocator locator) {
+			this.locator = locator;
+			for (ResourceDescriptor descriptor : locator.discoverServiceResources()) {
+				for (String className : locator.readServiceClassNames(descriptor.getUrl())) {
+					serviceResources.add(descriptor);
+					serviceClassNames.add(className);
+				}
+			}
+		}
+
+		/**
+		 * Provide a clone of the markup language with the given name or class name, or null if there is none.
+		 */
+		synchronized MarkupLanguage getMarkupLanguage(String languageName) {
+			MarkupLanguage prototype = prototypeByName.get(languageName);
+			while (prototype == null && loadNextServiceClass()) {
+				prototype = prototypeByName.get(languageName);
+			}
+			if (prototype == null) {
+				String className = getClassName(languageName);
+				if (className != null) {
+					for (MarkupLanguage language : prototypes) {
+						if (className.equals(language.getClass().getName())) {
+							prototype = language;
+							break;
 						}
 					}
-				} catch (Exception e) {
-					logFailure(className, e);
 				}
 			}
+			return prototype == null ? null : prototype.clone();
+		}
+
+		synchronized MarkupLanguage getMarkupLanguageForFileExtension(String fileExtension) {
+			loadAllServiceClasses();
+			MarkupLanguage prototype = prototypeByFileExtension.get(fileExtension);
+			return prototype == null ? null : prototype.clone();
+		}
+
+		synchronized Set<MarkupLanguage> getAllMarkupLanguages() {
+			loadAllServiceClasses();
+			Set<MarkupLanguage> markupLanguages = new HashSet<MarkupLanguage>();
+			for (MarkupLanguage prototype : prototypes) {
+				markupLanguages.add(prototype.clone());
+			}
+			return markupLanguages;
+		}
+
+		synchronized List<String> getNames() {
+			loadAllServiceClasses();
+			List<String> names = new ArrayList<>(prototypes.size());
+			for (MarkupLanguage prototype : prototypes) {
+				names.add(prototype.getName());
+			}
+			return names;
+		}
+
+		private void loadAllServiceClasses() {
+			while (loadNextServiceClass()) {
+				// load the next
+			}
+		}
+
+		private boolean loadNextServiceClass() {
+			if (nextServiceClass == serviceClassNames.size()) {
+				return false;
+			}
+			int index = nextServiceClass++;
+			for (MarkupLanguage language : locator.loadMarkupLanguages(serviceResources.get(index),
+					serviceClassNames.get(index))) {
+				prototypes.add(language);
+				if (!prototypeByName.containsKey(language.getName())) {
+					prototypeByName.put(language.getName(), language);
+				}
+				for (String fileExtension : language.getFileExtensions()) {
+					if (!prototypeByFileExtension.containsKey(fileExtension)) {
+						prototypeByFileExtension.put(fileExtension, language);
+					}
+				}
+			}
+			return true;
 		}
 	}
 
@@ -23,9 +23,9 @@ import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
+import org.eclipse.mylyn.wikitext.internal.util.DocumentBuilderPool;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -147,10 +147,7 @@ public class StandaloneMarkupValidator {
 		try {
 			InputStream in = url.openStream();
 			try {
-				DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-				dbf.setNamespaceAware(true);
-				dbf.setValidating(false);
-				Document pluginXml = dbf.newDocumentBuilder().parse(in);
+				Document pluginXml = DocumentBuilderPool.parse(in);
 
 				computeRules(markupLanguage, pluginXml);
 			} catch (SecurityException e) {
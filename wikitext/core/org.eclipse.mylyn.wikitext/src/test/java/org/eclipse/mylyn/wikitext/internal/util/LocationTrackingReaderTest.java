@@ -66,6 +66,20 @@ public class LocationTrackingReaderTest extends TestCase {
 		assertTrue(testLine == null);
 	}
 
+	public void testReset() throws IOException {
+		LocationTrackingReader reader = new LocationTrackingReader(new StringReader("abc\ndef"), 3);
+		assertEquals("abc", reader.readLine());
+
+		reader.reset(new StringReader("gh\r\nij"));
+		assertEquals("gh", reader.readLine());
+		assertEquals(0, reader.getLineOffset());
+		assertEquals(0, reader.getLineNumber());
+		assertEquals("ij", reader.readLine());
+		assertEquals(4, reader.getLineOffset());
+		assertEquals(1, reader.getLineNumber());
+		assertNull(reader.readLine());
+	}
+
 	public void testReadLineWithWindowsNewlines() throws IOException {
 		String content = "abc\r\ndef\r\n\r\nfoo bar";
 		int bufSize = 3;
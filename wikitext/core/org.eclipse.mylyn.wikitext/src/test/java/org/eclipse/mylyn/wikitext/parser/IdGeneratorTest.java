@@ -60,4 +60,15 @@ public class IdGeneratorTest {
 		assertEquals("h1-2", generator.newId("h1", null));
 		assertEquals("h2-1", generator.newId("h2", null));
 	}
+
+	@Test
+	public void reset() {
+		generator.reserveId("abc");
+		generator.newId("h1", null);
+		generator.reset();
+
+		assertFalse(generator.hasAnchorNames());
+		assertEquals("abc", generator.newId("h1", "abc"));
+		assertEquals("h1-2", generator.newId("h1", null));
+	}
 }
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser.markup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BlockStartIndexTest {
+
+	private static class TestBlock extends Block {
+
+		private final String startCharacters;
+
+		TestBlock(String startCharacters) {
+			this.startCharacters = startCharacters;
+		}
+
+		@Override
+		public String getStartCharacters() {
+			return startCharacters;
+		}
+
+		@Override
+		public boolean canStart(String line, int lineOffset) {
+			return true;
+		}
+
+		@Override
+		protected int processLineContent(String line, int offset) {
+			return -1;
+		}
+	}
+
+	private final Block heading = new TestBlock("h");
+
+	private final Block list = new TestBlock("*#");
+
+	private final Block quote = new TestBlock(">\u00bb");
+
+	private final Block paragraph = new TestBlock(null);
+
+	private final List<Block> blocks = new ArrayList<Block>(Arrays.asList(heading, list, quote, paragraph));
+
+	@Test
+	public void candidatesOfFirstCharacter() {
+		BlockStartIndex index = new BlockStartIndex(blocks);
+		assertArrayEquals(new Block[] { heading, paragraph }, index.getCandidates("h1. Title", 0));
+		assertArrayEquals(new Block[] { list, paragraph }, index.getCandidates("# item", 0));
+		assertArrayEquals(new Block[] { paragraph }, index.getCandidates("text", 0));
+	}
+
+	@Test
+	public void candidatesAfterIndentation() {
+		BlockStartIndex index = new BlockStartIndex(blocks);
+		assertArrayEquals(new Block[] { list, paragraph }, index.getCandidates(" \t* item", 0));
+		assertArrayEquals(new Block[] { list, paragraph }, index.getCandidates("\u0001* item", 0));
+		assertArrayEquals(new Block[] { heading, paragraph }, index.getCandidates("* h1. Title", 1));
+	}
+
+	@Test
+	public void candidatesOfNonAsciiCharacter() {
+		BlockStartIndex index = new BlockStartIndex(blocks);
+		assertArrayEquals(new Block[] { quote, paragraph }, index.getCandidates("\u00bb quote", 0));
+		assertArrayEquals(new Block[] { quote, paragraph }, index.getCandidates("\u00e9t\u00e9", 0));
+	}
+
+	@Test
+	public void candidatesOfBlankRemainder() {
+		BlockStartIndex index = new BlockStartIndex(blocks);
+		assertArrayEquals(new Block[] { heading, list, quote, paragraph }, index.getCandidates("text  ", 4));
+	}
+
+	@Test
+	public void isIndexOf() {
+		BlockStartIndex index = new BlockStartIndex(blocks);
+		assertTrue(index.isIndexOf(blocks));
+		assertTrue(index.isIndexOf(new ArrayList<Block>(blocks)));
+		blocks.set(0, new TestBlock("h"));
+		assertFalse(index.isIndexOf(blocks));
+		blocks.remove(0);
+		assertFalse(index.isIndexOf(blocks));
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser.markup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.eclipse.mylyn.wikitext.util.LocationTrackingReader;
+import org.junit.Test;
+
+public class ContentStateTest {
+
+	private final ContentState state = new ContentState();
+
+	@Test
+	public void getMarkupContentLineWithoutContent() {
+		assertNull(state.getMarkupContentLine(0));
+	}
+
+	@Test
+	public void getMarkupContentLine() throws IOException {
+		for (String content : new String[] { "", "a", "a\n", "a\nb", "a\r\nbc\r\n", "a\rb\r", "\n\n", "\r\r\n\r",
+				"x\r\n\r\ny", "one\n\ntwo\r\n  three" }) {
+			assertLinesAsRead(content);
+		}
+	}
+
+	@Test
+	public void getMarkupContentLineOutOfRange() {
+		state.setMarkupContent("a\nb");
+		assertNull(state.getMarkupContentLine(-1));
+		assertNull(state.getMarkupContentLine(2));
+	}
+
+	@Test
+	public void getMarkupContentLineOfNewContent() {
+		state.setMarkupContent("a\nb");
+		assertEquals("b", state.getMarkupContentLine(1));
+		state.setMarkupContent("c\nd\ne");
+		assertEquals("d", state.getMarkupContentLine(1));
+		assertEquals("e", state.getMarkupContentLine(2));
+		state.reset();
+		assertNull(state.getMarkupContentLine(0));
+	}
+
+	private void assertLinesAsRead(String content) throws IOException {
+		state.setMarkupContent(content);
+		LocationTrackingReader reader = new LocationTrackingReader(new StringReader(content));
+		int lineIndex = 0;
+		String line;
+		do {
+			line = reader.readLine();
+			assertEquals(content, line, state.getMarkupContentLine(lineIndex++));
+		} while (line != null);
+	}
+}
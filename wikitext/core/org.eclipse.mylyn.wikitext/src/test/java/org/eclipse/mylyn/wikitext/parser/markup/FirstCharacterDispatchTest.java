@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser.markup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.mylyn.wikitext.parser.markup.AbstractMarkupLanguage.PatternBasedSyntax;
+import org.eclipse.mylyn.wikitext.parser.markup.FirstCharacterDispatch.Start;
+import org.eclipse.mylyn.wikitext.parser.markup.phrase.HtmlEndTagPhraseModifier;
+import org.eclipse.mylyn.wikitext.parser.markup.phrase.HtmlStartTagPhraseModifier;
+import org.eclipse.mylyn.wikitext.parser.markup.token.AcronymReplacementToken;
+import org.eclipse.mylyn.wikitext.parser.markup.token.EntityReferenceReplacementToken;
+import org.eclipse.mylyn.wikitext.parser.markup.token.ImpliedHyperlinkReplacementToken;
+import org.eclipse.mylyn.wikitext.parser.markup.token.PatternEntityReferenceReplacementToken;
+import org.eclipse.mylyn.wikitext.parser.markup.token.PatternLiteralReplacementToken;
+import org.junit.Test;
+
+public class FirstCharacterDispatchTest {
+
+	private static final String[] LINES = { "", "plain text without any elements", "*strong* and _emphasis_ text",
+			"a <b>tag</b> *strong*_emphasis_ (tm) (c)", "ABC(a b c) and XYZ(x) acronyms",
+			"http://example.com/path?query, and 'quoted' text's apostrophe", "x (tm)(c) -- em dash *not strong",
+			"_leading_ and trailing *strong*", "nested *strong _emphasis_ strong*", "unicode é *é*",
+			"..*a*..*b*.._c_", "<a href=\"x\">link</a> ABC(one)DEF(two)" };
+
+	@Test
+	public void startOfLiteral() {
+		assertStart("(\\*\\*)", "*", "ab_");
+		assertStart("(\\Q??\\E)", "?", "ab_");
+		assertStart("(?:(tm)|(TM))", "tT", "m(");
+	}
+
+	@Test
+	public void startOfZeroWidthPrefix() {
+		assertStart("(?:(?<=[\\s\\.])|^)(?:(_[^_]+_))(?=\\W|$)", "_", " .a");
+		assertStart("(?:\\b(?=x)y)", "y", "x");
+		assertStart("(?:(?<!a)(?!b)\\Bz)", "z", "ab");
+	}
+
+	@Test
+	public void startOfCharacterClass() {
+		assertStart("[a-c\\d_]+", "abc09_", "dA ");
+		assertStart("[^a-z]", "A0 *", "az");
+		assertStart("[-x]", "-x", "y");
+		assertStart("\\s\\w", " \t", "a");
+		assertStart("\\W", " *", "a_0");
+		assertStart("[\\x{41}b]", "Ab*", "");
+	}
+
+	@Test
+	public void startOfOptionalPrefix() {
+		assertStart("a?b", "ab", "c");
+		assertStart("a*b", "ab", "c");
+		assertStart("a{0,2}b", "ab", "c");
+		assertStart("a{1,2}b", "a", "bc");
+		assertStart("(?:a|)b", "ab", "c");
+	}
+
+	@Test
+	public void startOfNullable() {
+		assertTrue(Start.of("a*").nullable);
+		assertTrue(Start.of("(?=a)").nullable);
+		assertFalse(Start.of("a+").nullable);
+	}
+
+	@Test
+	public void startOfUnsupported() {
+		assertAny("(?i)a");
+		assertAny("(a?)\\1");
+		assertStart("(a)\\1", "a", "b");
+		assertAny("\\p{Alpha}");
+		assertAny("[a[b]]");
+		assertAny(".a");
+	}
+
+	@Test
+	public void findPatternBasedElementMatchesAlternation() {
+		PatternBasedSyntax alternation = createSyntax();
+		PatternBasedSyntax dispatch = createSyntax();
+		dispatch.setFirstCharacterDispatch(true);
+
+		for (String line : LINES) {
+			for (int offset = 0; offset <= line.length(); ++offset) {
+				assertSameElement(line, offset, alternation.findPatternBasedElement(line, offset),
+						dispatch.findPatternBasedElement(line, offset));
+			}
+		}
+	}
+
+	@Test
+	public void findPatternBasedElementWithStateMatchesAlternation() {
+		PatternBasedSyntax alternation = createSyntax();
+		PatternBasedSyntax dispatch = createSyntax();
+		dispatch.setFirstCharacterDispatch(true);
+		ContentState state = new ContentState();
+
+		for (String line : LINES) {
+			for (int offset = 0; offset <= line.length(); ++offset) {
+				assertSameElement(line, offset, alternation.findPatternBasedElement(line, offset),
+						dispatch.findPatternBasedElement(new String(line), offset, state));
+			}
+		}
+	}
+
+	@Test
+	public void findPatternBasedElementNoElements() {
+		PatternBasedSyntax syntax = new PatternBasedSyntax();
+		syntax.setFirstCharacterDispatch(true);
+		assertNull(syntax.findPatternBasedElement("text", 0));
+	}
+
+	private PatternBasedSyntax createSyntax() {
+		PatternBasedSyntax syntax = new PatternBasedSyntax();
+		syntax.add(new HtmlEndTagPhraseModifier(false));
+		syntax.add(new HtmlStartTagPhraseModifier(false));
+		syntax.beginGroup("(?:(?<=([\\s\\.,\\\"'?!;:\\)\\(\\{\\}\\[\\]]))|^)(?:", 1);
+		syntax.add(new PatternLiteralReplacementToken("(\\*[^*\\s](?:[^*]*[^*\\s])?\\*)", "strong"));
+		syntax.add(new PatternLiteralReplacementToken("(_[^_\\s](?:[^_]*[^_\\s])?_)", "emphasis"));
+		syntax.endGroup(")(?=\\W|$)", 0);
+		syntax.add(new EntityReferenceReplacementToken("(tm)", "#8482"));
+		syntax.add(new EntityReferenceReplacementToken("(c)", "#169"));
+		syntax.add(new PatternEntityReferenceReplacementToken("(?:(?<=\\w)(')(?=\\w))", "#8217"));
+		syntax.add(new PatternEntityReferenceReplacementToken("(?:(--)(?=\\s\\w))", "#8212"));
+		syntax.add(new AcronymReplacementToken());
+		syntax.add(new ImpliedHyperlinkReplacementToken());
+		return syntax;
+	}
+
+	private void assertSameElement(String line, int offset, PatternBasedElementProcessor expected,
+			PatternBasedElementProcessor actual) {
+		String message = line + " at " + offset;
+		if (expected == null) {
+			assertNull(message, actual);
+			return;
+		}
+		assertEquals(message, expected.getClass(), actual.getClass());
+		assertEquals(message, expected.getLineStartOffset(), actual.getLineStartOffset());
+		assertEquals(message, expected.getLineEndOffset(), actual.getLineEndOffset());
+		for (int group = 0; group <= 2; ++group) {
+			assertEquals(message, expected.group(group), actual.group(group));
+			assertEquals(message, expected.start(group), actual.start(group));
+			assertEquals(message, expected.end(group), actual.end(group));
+		}
+	}
+
+	private void assertStart(String pattern, String expected, String unexpected) {
+		Start start = Start.of(pattern);
+		assertFalse(pattern, start.nullable);
+		for (char c : expected.toCharArray()) {
+			assertTrue(pattern + " " + c, start.characters[c]);
+		}
+		for (char c : unexpected.toCharArray()) {
+			assertFalse(pattern + " " + c, start.characters[c]);
+		}
+	}
+
+	private void assertAny(String pattern) {
+		Start start = Start.of(pattern);
+		for (boolean character : start.characters) {
+			assertTrue(pattern, character);
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.parser.markup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.eclipse.mylyn.wikitext.parser.markup.AbstractMarkupLanguage.PatternBasedSyntax;
+import org.junit.Test;
+
+public class PatternBasedElementProcessorTest {
+
+	@Test
+	public void setGroup() {
+		PatternBasedElementProcessor processor = newProcessor();
+		processor.setGroup(2, "two", 3, 6);
+		assertEquals("two", processor.group(2));
+		assertEquals(3, processor.start(2));
+		assertEquals(6, processor.end(2));
+		assertNull(processor.group(1));
+		assertEquals(-1, processor.start(1));
+		assertEquals(-1, processor.end(1));
+		assertNull(processor.group(3));
+		assertEquals(-1, processor.start(3));
+	}
+
+	@Test
+	public void groupsFromMatch() {
+		PatternBasedSyntax syntax = new PatternBasedSyntax();
+		syntax.add(new TestElement("a(b)?(c)", 2, false));
+		PatternBasedElementProcessor processor = syntax.findPatternBasedElement("xx ac", 1);
+		assertEquals(3, processor.getLineStartOffset());
+		assertEquals(5, processor.getLineEndOffset());
+		assertEquals("ac", processor.group(0));
+		assertNull(processor.group(1));
+		assertEquals(-1, processor.start(1));
+		assertEquals("c", processor.group(2));
+		assertEquals(4, processor.start(2));
+		assertEquals(5, processor.end(2));
+		assertSame(processor.group(2), processor.group(2));
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void groupByIndexNotPopulated() {
+		PatternBasedElementProcessor processor = newProcessor();
+		processor.setGroup(2, "two", 3, 6);
+		assertNull(processor.groupByIndex);
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void groupByIndexAssigned() {
+		PatternBasedSyntax syntax = new PatternBasedSyntax();
+		syntax.add(new TestElement("a(b)?(c)", 2, false) {
+
+			@Override
+			protected PatternBasedElementProcessor newProcessor() {
+				PatternBasedElementProcessor processor = super.newProcessor();
+				processor.groupByIndex = new HashMap<>();
+				return processor;
+			}
+		});
+		PatternBasedElementProcessor processor = syntax.findPatternBasedElement("xx ac", 1);
+		assertEquals(3, processor.groupByIndex.size());
+		assertEquals("ac", processor.group(0));
+		assertEquals(3, processor.start(0));
+		assertNull(processor.group(1));
+		assertEquals(-1, processor.start(1));
+		assertTrue(processor.groupByIndex.containsKey(1));
+		assertEquals("c", processor.group(2));
+		assertEquals(5, processor.end(2));
+
+		processor.groupByIndex.remove(2);
+		assertNull(processor.group(2));
+		assertEquals(-1, processor.end(2));
+	}
+
+	@Test
+	public void processorsReusedOnceReleased() {
+		PatternBasedSyntax syntax = new PatternBasedSyntax();
+		syntax.add(new TestElement("a(b)?", 1, true));
+		ContentState state = new ContentState();
+
+		PatternBasedElementProcessor first = syntax.findPatternBasedElement("ab a", 0, state);
+		PatternBasedElementProcessor nested = syntax.findPatternBasedElement("ab a", 2, state);
+		assertNotSame(first, nested);
+		assertEquals("b", first.group(1));
+
+		state.releaseProcessor(first);
+		PatternBasedElementProcessor reused = syntax.findPatternBasedElement("ab a", 2, state);
+		assertSame(first, reused);
+		assertEquals(3, reused.getLineStartOffset());
+		assertEquals("a", reused.group(0));
+		assertNull(reused.group(1));
+		assertEquals(-1, reused.start(1));
+	}
+
+	@Test
+	public void processorsNotReusedByDefault() {
+		PatternBasedSyntax syntax = new PatternBasedSyntax();
+		syntax.add(new TestElement("a(b)?", 1, false));
+		ContentState state = new ContentState();
+
+		PatternBasedElementProcessor first = syntax.findPatternBasedElement("ab a", 0, state);
+		state.releaseProcessor(first);
+		PatternBasedElementProcessor second = syntax.findPatternBasedElement("ab a", 2, state);
+		assertNotSame(first, second);
+		assertEquals("b", first.group(1));
+		assertNull(second.group(1));
+	}
+
+	private PatternBasedElementProcessor newProcessor() {
+		return new PatternBasedElementProcessor() {
+
+			@Override
+			public void emit() {
+			}
+		};
+	}
+
+	private static class TestElement extends PatternBasedElement {
+
+		private final String pattern;
+
+		private final int groupCount;
+
+		private final boolean reusable;
+
+		TestElement(String pattern, int groupCount, boolean reusable) {
+			this.pattern = pattern;
+			this.groupCount = groupCount;
+			this.reusable = reusable;
+		}
+
+		@Override
+		protected String getPattern(int groupOffset) {
+			return pattern;
+		}
+
+		@Override
+		protected int getPatternGroupCount() {
+			return groupCount;
+		}
+
+		@Override
+		protected PatternBasedElementProcessor newProcessor() {
+			return new PatternBasedElementProcessor() {
+
+				@Override
+				protected boolean isReusable() {
+					return reusable;
+				}
+
+				@Override
+				public void emit() {
+				}
+			};
+		}
+	}
+}
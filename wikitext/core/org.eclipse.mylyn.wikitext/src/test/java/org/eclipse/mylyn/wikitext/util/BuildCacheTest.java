@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.wikitext.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.io.Files;
+
+public class BuildCacheTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void keyDigest() {
+		BuildCache cache = new BuildCache(temporaryFolder.getRoot());
+		assertEquals(cache.newKey().put("a", "b").getDigest(), cache.newKey().put("a", "b").getDigest());
+		assertNotEquals(cache.newKey().put("a", "b").getDigest(), cache.newKey().put("a", "c").getDigest());
+		assertNotEquals(cache.newKey().put("a", "bc").getDigest(), cache.newKey().put("ab", "c").getDigest());
+		assertNotEquals(cache.newKey().put("a", null).getDigest(), cache.newKey().put("a", "null").getDigest());
+	}
+
+	@Test
+	public void keyCannotBeModifiedOnceDigestComputed() {
+		BuildCache.Key key = new BuildCache(temporaryFolder.getRoot()).newKey().put("a", "b");
+		key.getDigest();
+		thrown.expect(IllegalArgumentException.class);
+		key.put("c", "d");
+	}
+
+	@Test
+	public void keyPutFile() throws IOException {
+		BuildCache cache = new BuildCache(temporaryFolder.getRoot());
+		File file = temporaryFolder.newFile();
+		Files.write("one", file, Charsets.UTF_8);
+		String digest = cache.newKey().putFile("file", file).getDigest();
+		Files.write("two", file, Charsets.UTF_8);
+		assertNotEquals(digest, cache.newKey().putFile("file", file).getDigest());
+	}
+
+	@Test
+	public void keyPutClass() {
+		BuildCache cache = new BuildCache(temporaryFolder.getRoot());
+		assertEquals(cache.newKey().putClass("type", Joiner.class).getDigest(),
+				cache.newKey().putClass("type", Joiner.class).getDigest());
+		assertNotEquals(cache.newKey().putClass("type", Joiner.class).getDigest(),
+				cache.newKey().putClass("type", Charsets.class).getDigest());
+		assertNotEquals(cache.newKey().putClass("type", Joiner.class).getDigest(),
+				cache.newKey().put("type", Joiner.class.getName()).put("type.version", null).getDigest());
+	}
+
+	@Test
+	public void keyPutClassWithoutVersion() {
+		// test classes are loaded from a folder without a manifest
+		BuildCache cache = new BuildCache(temporaryFolder.getRoot());
+		assertEquals(cache.newKey().putClass("type", BuildCacheTest.class).getDigest(),
+				cache.newKey().putClass("type", BuildCacheTest.class).getDigest());
+		assertNotEquals(cache.newKey().putClass("type", BuildCacheTest.class).getDigest(),
+				cache.newKey().put("type", BuildCacheTest.class.getName()).put("type.version", null).getDigest());
+	}
+
+	@Test
+	public void restoreMissingEntry() throws IOException {
+		BuildCache cache = new BuildCache(temporaryFolder.newFolder("cache"));
+		assertFalse(cache.restore(cache.newKey().put("a", "b"), temporaryFolder.getRoot()));
+	}
+
+	@Test
+	public void storeAndRestore() throws IOException {
+		BuildCache cache = new BuildCache(temporaryFolder.newFolder("cache"));
+		File output = temporaryFolder.newFolder("output");
+		File first = new File(output, "first.html");
+		File second = new File(output, "nested/second.html");
+		Files.write("first", first, Charsets.UTF_8);
+		Files.createParentDirs(second);
+		Files.write("second", second, Charsets.UTF_8);
+
+		cache.store(cache.newKey().put("a", "b"), output, Arrays.asList(first, second));
+
+		File otherOutput = temporaryFolder.newFolder("other");
+		assertTrue(cache.restore(cache.newKey().put("a", "b"), otherOutput));
+		assertEquals("first", Files.toString(new File(otherOutput, "first.html"), Charsets.UTF_8));
+		assertEquals("second", Files.toString(new File(otherOutput, "nested/second.html"), Charsets.UTF_8));
+		assertFalse(cache.restore(cache.newKey().put("a", "c"), otherOutput));
+	}
+
+	@Test
+	public void storeKeepsExistingEntry() throws IOException {
+		BuildCache cache = new BuildCache(temporaryFolder.newFolder("cache"));
+		File output = temporaryFolder.newFolder("output");
+		File file = new File(output, "file.html");
+		Files.write("one", file, Charsets.UTF_8);
+		cache.store(cache.newKey().put("a", "b"), output, Arrays.asList(file));
+		Files.write("two", file, Charsets.UTF_8);
+		cache.store(cache.newKey().put("a", "b"), output, Arrays.asList(file));
+
+		assertTrue(file.delete());
+		assertTrue(cache.restore(cache.newKey().put("a", "b"), output));
+		assertEquals("one", Files.toString(file, Charsets.UTF_8));
+		assertEquals(1, cache.getFolder().list().length);
+	}
+
+	@Test
+	public void storeReplacesIncompleteEntry() throws IOException {
+		BuildCache cache = new BuildCache(temporaryFolder.newFolder("cache"));
+		File output = temporaryFolder.newFolder("output");
+		File file = new File(output, "file.html");
+		Files.write("one", file, Charsets.UTF_8);
+		BuildCache.Key key = cache.newKey().put("a", "b");
+		cache.store(key, output, Arrays.asList(file));
+		assertTrue(new File(cache.getFolder(), key.getDigest() + "/files/0").delete());
+		assertFalse(cache.restore(key, output));
+
+		Files.write("two", file, Charsets.UTF_8);
+		cache.store(key, output, Arrays.asList(file));
+		assertTrue(file.delete());
+		assertTrue(cache.restore(key, output));
+		assertEquals("two", Files.toString(file, Charsets.UTF_8));
+	}
+
+	@Test
+	public void storeFileOutsideBaseFolder() throws IOException {
+		BuildCache cache = new BuildCache(temporaryFolder.newFolder("cache"));
+		File output = temporaryFolder.newFolder("output");
+		File file = temporaryFolder.newFile("outside.html");
+
+		thrown.expect(IOException.class);
+		cache.store(cache.newKey().put("a", "b"), output, Arrays.asList(file));
+	}
+
+	@Test
+	public void restorePathOutsideBaseFolder() throws IOException {
+		BuildCache cache = new BuildCache(temporaryFolder.newFolder("cache"));
+		File output = temporaryFolder.newFolder("output");
+		BuildCache.Key key = cache.newKey().put("a", "b");
+		File entry = new File(cache.getFolder(), key.getDigest());
+		File cachedFile = new File(entry, "files/0");
+		Files.createParentDirs(cachedFile);
+		Files.write("content", cachedFile, Charsets.UTF_8);
+		Files.write("../outside.html", new File(entry, "manifest"), Charsets.UTF_8);
+
+		try {
+			cache.restore(key, output);
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+		assertFalse(new File(temporaryFolder.getRoot(), "outside.html").exists());
+	}
+}
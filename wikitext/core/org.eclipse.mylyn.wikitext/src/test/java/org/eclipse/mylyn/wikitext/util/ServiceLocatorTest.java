@@ -12,6 +12,8 @@ package org.eclipse.mylyn.wikitext.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -19,15 +21,19 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.mylyn.internal.wikitext.MockMarkupLanguage;
 import org.eclipse.mylyn.internal.wikitext.MockMarkupLanguageProvider;
@@ -39,10 +45,12 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
 
 /**
  * Tests for {@link ServiceLocator}
@@ -62,9 +70,28 @@ public class ServiceLocatorTest {
 		}
 	}
 
+	public static class CountingMarkupLanguage extends MarkupLanguage {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		public CountingMarkupLanguage() {
+			instances.incrementAndGet();
+			setName("Counting");
+			setFileExtensions(ImmutableSet.of("count", "counting"));
+		}
+
+		@Override
+		public void processContent(MarkupParser parser, String markupContent, boolean asDocument) {
+			throw new IllegalStateException();
+		}
+	}
+
 	@Rule
 	public ExpectedException thrown = ExpectedException.none();
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private ServiceLocator locator;
 
 	@Before
@@ -279,6 +306,50 @@ public class ServiceLocatorTest {
 		assertTrue(markupLanguages.contains(language2) || markupLanguages.contains(language2b));
 	}
 
+	@Test
+	public void getMarkupLanguageClonesPrototype() throws IOException {
+		ClassLoader classLoader = createServicesClassLoader(CountingMarkupLanguage.class);
+		int instances = CountingMarkupLanguage.instances.get();
+
+		MarkupLanguage language = ServiceLocator.getInstance(classLoader).getMarkupLanguage("Counting");
+		assertEquals(CountingMarkupLanguage.class, language.getClass());
+		assertEquals(instances + 2, CountingMarkupLanguage.instances.get());
+
+		MarkupLanguage language2 = ServiceLocator.getInstance(classLoader).getMarkupLanguage("Counting");
+		assertNotSame(language, language2);
+		assertEquals(ImmutableSet.of("count", "counting"), language2.getFileExtensions());
+		assertEquals(instances + 3, CountingMarkupLanguage.instances.get());
+
+		MarkupLanguage language3 = ServiceLocator.getInstance(classLoader)
+				.getMarkupLanguage(CountingMarkupLanguage.class.getName());
+		assertEquals(CountingMarkupLanguage.class, language3.getClass());
+		assertEquals(instances + 4, CountingMarkupLanguage.instances.get());
+	}
+
+	@Test
+	public void getMarkupLanguageUnknownWithPrototypes() throws IOException {
+		ClassLoader classLoader = createServicesClassLoader(CountingMarkupLanguage.class);
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Cannot load markup language 'UnknownLanguage'. Known markup languages are 'Counting'");
+		ServiceLocator.getInstance(classLoader).getMarkupLanguage("UnknownLanguage");
+	}
+
+	@Test
+	public void getMarkupLanguageForFileExtension() throws IOException {
+		ServiceLocator locator = ServiceLocator.getInstance(createServicesClassLoader(CountingMarkupLanguage.class));
+		assertEquals(CountingMarkupLanguage.class, locator.getMarkupLanguageForFileExtension("count").getClass());
+		assertEquals(CountingMarkupLanguage.class, locator.getMarkupLanguageForFileExtension("counting").getClass());
+		assertNull(locator.getMarkupLanguageForFileExtension("textile"));
+	}
+
+	private ClassLoader createServicesClassLoader(Class<?> serviceClass) throws IOException {
+		File folder = temporaryFolder.newFolder();
+		File servicesFile = new File(folder, "META-INF/services/" + MarkupLanguage.class.getName());
+		Files.createParentDirs(servicesFile);
+		Files.write(serviceClass.getName(), servicesFile, Charsets.UTF_8);
+		return new URLClassLoader(new URL[] { folder.toURI().toURL() }, ServiceLocatorTest.class.getClassLoader());
+	}
+
 	private InputStream createInput(String content) {
 		return new ByteArrayInputStream(content.getBytes(Charsets.UTF_8));
 	}
@@ -13,6 +13,7 @@ package org.eclipse.mylyn.wikitext.validation;
 
 import java.util.List;
 
+import org.eclipse.mylyn.wikitext.internal.util.DocumentBuilderPool;
 import org.eclipse.mylyn.wikitext.validation.StandaloneMarkupValidator;
 import org.eclipse.mylyn.wikitext.validation.ValidationProblem;
 import org.eclipse.mylyn.wikitext.validation.ValidationProblem.Severity;
@@ -80,4 +81,14 @@ public class StandaloneMarkupValidatorTest extends TestCase {
 		validator.getRules().add(new TestMarkupValidationRule());
 		validator.setClassLoader(StandaloneMarkupValidator.class.getClassLoader());
 	}
+
+	public void testComputeRulesReusesParser() {
+		int creations = DocumentBuilderPool.getCreationCount();
+		for (int x = 0; x < 3; ++x) {
+			StandaloneMarkupValidator other = new StandaloneMarkupValidator();
+			other.setClassLoader(StandaloneMarkupValidatorTest.class.getClassLoader());
+			other.computeRules("TestMarkupLanguage", StandaloneMarkupValidatorTest.class.getResource("test-plugin.xml"));
+		}
+		assertTrue(DocumentBuilderPool.getCreationCount() - creations <= 1);
+	}
 }